@@ -0,0 +1,112 @@
+package com.ibm.demo.aspect;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * LoggingAspect 每次呼叫的額外成本：
+ * - baseline：未經切面直接呼叫。
+ * - legacy：改寫前的切面（每次 INFO 輸出 Arrays.toString(args) 與完整回傳值，System.currentTimeMillis 計時）。
+ * - sampling：目前的切面（Timer 計時，參數 / 回傳值只在 DEBUG 且被抽樣到時才轉字串）。
+ *
+ * 目標方法回傳 50 筆資料的 List，模擬列表 API 的回傳值。執行：./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingAspectBenchmark {
+
+    private SampleService direct;
+    private SampleService legacy;
+    private SampleService sampling;
+
+    @Setup
+    public void setUp() {
+        direct = new SampleService();
+        legacy = proxy(new LegacyLoggingAspect());
+        sampling = proxy(new LoggingAspect(new AppProperties(), new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public List<String> baseline() {
+        return direct.list(1, "account");
+    }
+
+    @Benchmark
+    public List<String> legacy() {
+        return legacy.list(1, "account");
+    }
+
+    @Benchmark
+    public List<String> sampling() {
+        return sampling.list(1, "account");
+    }
+
+    private static SampleService proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Service
+    public static class SampleService {
+
+        private static final List<String> ROWS = IntStream.range(0, 50)
+                .mapToObj(i -> "row-" + i + "-with-some-payload")
+                .toList();
+
+        public List<String> list(int page, String filter) {
+            return ROWS;
+        }
+    }
+
+    /**
+     * 改寫前的 LoggingAspect.logExecution，作為比較基準。
+     */
+    @Aspect
+    public static class LegacyLoggingAspect {
+
+        private static final Logger logger = LoggerFactory.getLogger(LegacyLoggingAspect.class);
+
+        @Around("within(@org.springframework.stereotype.Service *)")
+        public Object logExecution(ProceedingJoinPoint joinPoint) throws Throwable {
+            String className = joinPoint.getSignature().getDeclaringTypeName();
+            String methodName = joinPoint.getSignature().getName();
+
+            logger.info("==> Entering method: {}.{}() with arguments: {}", className, methodName,
+                    Arrays.toString(joinPoint.getArgs()));
+
+            long startTime = System.currentTimeMillis();
+
+            Object result = joinPoint.proceed();
+
+            long endTime = System.currentTimeMillis();
+            logger.info("<== Exiting method: {}.{}(); Execution time: {} ms; Result: {}",
+                    className, methodName, (endTime - startTime), result);
+
+            return result;
+        }
+    }
+}
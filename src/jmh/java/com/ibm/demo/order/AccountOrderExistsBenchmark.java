@@ -0,0 +1,123 @@
+package com.ibm.demo.order;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * OrderService.isActiveAccountInOrder 的查詢成本，帳戶分別有 0、1k、100k 筆訂單：
+ * - loadAll：改寫前的作法，取回帳戶所有訂單的欄位並逐列轉成物件後判斷是否為空（Hibernate 載入實體的近似）。
+ * - exists：目前的 existsByAccountId，SELECT ID ... FETCH FIRST 1 ROWS ONLY，取到第一筆即停止。
+ *
+ * 使用 H2（Oracle mode）記憶體資料庫與 V1 / V3 相同的 ORDER_INFO 欄位及 IDX_ORDER_INFO_ACCOUNT，
+ * 不啟動 Spring context。執行：./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountOrderExistsBenchmark {
+
+    private static final int ACCOUNT_ID = 1;
+
+    private static final String LOAD_ALL_SQL = """
+            SELECT ID, ACCOUNT_ID, STATUS, CREATED_AT, UPDATED_AT, DELETED, DELETED_AT, VERSION FROM ORDER_INFO
+            WHERE ACCOUNT_ID = ? AND (DELETED = false AND STATUS = 1001)
+            """;
+
+    private static final String EXISTS_SQL = """
+            SELECT ID FROM ORDER_INFO
+            WHERE ACCOUNT_ID = ? AND (DELETED = false AND STATUS = 1001)
+            FETCH FIRST 1 ROWS ONLY
+            """;
+
+    @Param({ "0", "1000", "100000" })
+    private int orderCount;
+
+    private Connection connection;
+    private PreparedStatement loadAll;
+    private PreparedStatement exists;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:exists-" + orderCount + ";MODE=Oracle");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE ORDER_INFO (
+                        ID INTEGER NOT NULL PRIMARY KEY,
+                        ACCOUNT_ID INTEGER NOT NULL,
+                        STATUS INTEGER NOT NULL,
+                        CREATED_AT TIMESTAMP,
+                        UPDATED_AT TIMESTAMP,
+                        DELETED BOOLEAN DEFAULT FALSE,
+                        DELETED_AT TIMESTAMP,
+                        VERSION INTEGER DEFAULT 0 NOT NULL
+                    )
+                    """);
+            statement.execute("CREATE INDEX IDX_ORDER_INFO_ACCOUNT ON ORDER_INFO (ACCOUNT_ID, DELETED, STATUS, ID)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO ORDER_INFO (ID, ACCOUNT_ID, STATUS, CREATED_AT, UPDATED_AT)
+                VALUES (?, ?, 1001, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                """)) {
+            for (int i = 1; i <= orderCount; i++) {
+                insert.setInt(1, i);
+                insert.setInt(2, ACCOUNT_ID);
+                insert.addBatch();
+                if (i % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        loadAll = connection.prepareStatement(LOAD_ALL_SQL);
+        exists = connection.prepareStatement(EXISTS_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public boolean loadAll() throws SQLException {
+        loadAll.setInt(1, ACCOUNT_ID);
+        List<OrderRow> rows = new ArrayList<>();
+        try (ResultSet rs = loadAll.executeQuery()) {
+            while (rs.next()) {
+                rows.add(new OrderRow(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getTimestamp(4),
+                        rs.getTimestamp(5), rs.getBoolean(6), rs.getTimestamp(7), rs.getInt(8)));
+            }
+        }
+        return !rows.isEmpty();
+    }
+
+    @Benchmark
+    public boolean exists() throws SQLException {
+        exists.setInt(1, ACCOUNT_ID);
+        try (ResultSet rs = exists.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    private record OrderRow(int id, int accountId, int status, Timestamp createdAt,
+            Timestamp updatedAt, boolean deleted, Timestamp deletedAt, int version) {
+    }
+}
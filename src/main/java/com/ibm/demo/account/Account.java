@@ -33,7 +33,7 @@ public class Account {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq_gen")
-    @SequenceGenerator(name = "account_seq_gen", sequenceName = "account_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "account_seq_gen", sequenceName = "account_id_seq", allocationSize = 50) // pooled，見 V4 migration
     @Column(name = "ID", columnDefinition = "NUMBER(10)", nullable = false)
     private Integer id;
 
@@ -1,8 +1,12 @@
 package com.ibm.demo.account;
 
+import java.util.Set;
+
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
 
 import com.ibm.demo.account.DTO.GetAccountDetailResponse;
 
@@ -17,4 +21,10 @@ public interface AccountClient {
      */
     @GetExchange("/{id}/order-eligibility")
     void assertCanPlaceOrder(@PathVariable("id") Integer accountId);
+
+    /**
+     * 批次驗證下單資格：一次呼叫回傳其中具下單資格的帳戶 ID，不具資格者不在結果中。
+     */
+    @PostExchange("/order-eligibility")
+    Set<Integer> findOrderEligibleAccountIds(@RequestBody Set<Integer> accountIds);
 }
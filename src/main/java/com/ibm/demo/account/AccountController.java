@@ -1,5 +1,7 @@
 package com.ibm.demo.account;
 
+import java.util.Set;
+
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ibm.demo.account.DTO.CreateAccountRequest;
@@ -17,7 +20,10 @@ import com.ibm.demo.account.DTO.GetAccountDetailResponse;
 import com.ibm.demo.account.DTO.GetAccountListResponse;
 import com.ibm.demo.account.DTO.UpdateAccountRequest;
 import com.ibm.demo.exception.ApiErrorResponse;
+import com.ibm.demo.util.CursorPageRequest;
+import com.ibm.demo.util.CursorPageResponse;
 import com.ibm.demo.util.PageResponse;
+import com.ibm.demo.util.SliceResponse;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -58,6 +64,29 @@ public class AccountController {
                 return ResponseEntity.ok(accountPage);
         }
 
+        // Read Account List (Slice)
+        @Operation(summary = "獲取帳戶列表（不計總數分頁）", description = "與 GET /account 相同的 Offset 分頁，但不執行 COUNT(*)，以多取一筆判斷 hasNext，適合不需顯示「第 X 頁 / 共 Y 頁」的呼叫端。estimate=true 時附帶快取的總筆數估計值（TTL 見 app.pagination.count-estimate-ttl）。")
+        @ApiResponse(responseCode = "200", description = "成功取得帳戶分頁列表")
+        @GetMapping("/slice")
+        public ResponseEntity<SliceResponse<GetAccountListResponse>> getAccountSlice(
+                        @Parameter(description = "分頁參數（page=頁碼從0開始, size=每頁筆數, sort=排序欄位,方向）", example = "page=0&size=20&sort=id,asc") @PageableDefault(size = 20) Pageable pageable,
+                        @Parameter(description = "是否附帶總筆數估計值") @RequestParam(defaultValue = "false") boolean estimate) {
+                return ResponseEntity.ok(accountService.getAccountSlice(pageable, estimate));
+        }
+
+        // Read Account List (Cursor)
+        @Operation(summary = "獲取帳戶列表（游標分頁）", description = "以帳戶 ID 遞增的游標分頁獲取啟用中的帳戶，不計算總筆數，適合深頁或無限捲動。第一頁不傳 after，之後帶入上一頁回傳的 nextCursor；cursor 格式錯誤或 size 超出 1~100 則拋出 InvalidRequestException。")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "成功取得帳戶游標分頁列表"),
+                        @ApiResponse(responseCode = "400", description = "游標或每頁筆數不合法", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+        })
+        @GetMapping("/cursor")
+        public ResponseEntity<CursorPageResponse<GetAccountListResponse>> getAccountListByCursor(
+                        @Parameter(description = "上一頁回傳的 nextCursor，第一頁不傳") @RequestParam(required = false) String after,
+                        @Parameter(description = "每頁筆數", example = "20") @RequestParam(defaultValue = "20") int size) {
+                return ResponseEntity.ok(accountService.getAccountListByCursor(CursorPageRequest.of(after, size)));
+        }
+
         // Read Account Detail
         @Operation(summary = "獲取帳戶詳細資訊", description = "根據 ID 獲取帳戶詳細資訊。受限於 SQLRestriction 規則，若帳戶不存在、已軟刪除或狀態非啟用 'Y'，將拋出 NotFound。")
         @ApiResponses(value = {
@@ -84,6 +113,14 @@ public class AccountController {
                 return ResponseEntity.ok().build();
         }
 
+        // Find Order Eligible Accounts (internal)
+        @Operation(summary = "批次查詢帳戶下單資格", description = "內部使用：以一次查詢回傳傳入帳戶 ID 中具下單資格者（供批次建立訂單使用）。受限於 SQLRestriction 規則，不存在、已軟刪除或狀態非啟用 'Y' 的帳戶不會出現在結果中。")
+        @ApiResponse(responseCode = "200", description = "具下單資格的帳戶 ID")
+        @PostMapping("/order-eligibility")
+        public ResponseEntity<Set<Integer>> findOrderEligibleAccountIds(@RequestBody Set<Integer> ids) {
+                return ResponseEntity.ok(accountService.findOrderEligibleAccountIds(ids));
+        }
+
         // Update Account
         @Operation(summary = "更新帳戶", description = "更新現有帳戶資訊。受限於 SQLRestriction 規則，若帳戶 ID 不存在、已軟刪除或狀態非啟用 'Y'，將拋出 NotFound。若欲將狀態從啟用 'Y' 變更為停用 'N'，會先檢查該帳戶是否仍有關聯訂單，若有則拋出 AccountStillHasOrderCanNotBeDeleteException。")
         @ApiResponses(value = {
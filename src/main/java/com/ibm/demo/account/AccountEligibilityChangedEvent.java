@@ -0,0 +1,10 @@
+package com.ibm.demo.account;
+
+/**
+ * 帳戶的下單資格可能已改變（建立、狀態變更、刪除）。
+ * 由 AccountService 在交易中發佈，訂單端的 AccountEligibilityCache 於 commit 後失效該帳戶。
+ *
+ * @param accountId 帳戶 ID
+ */
+public record AccountEligibilityChangedEvent(Integer accountId) {
+}
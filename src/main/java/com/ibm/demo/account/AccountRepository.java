@@ -1,9 +1,12 @@
 package com.ibm.demo.account;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -20,6 +23,18 @@ public interface AccountRepository extends JpaRepository<Account, Integer>, Soft
     @Query("SELECT a FROM Account a")
     Page<Account> findAllAccount(Pageable pageable);
 
+    // Slice：多取一筆判斷 hasNext，不執行 COUNT(*)
+    @Query("SELECT a FROM Account a")
+    Slice<Account> findAllAccountAsSlice(Pageable pageable);
+
+    // 游標分頁：WHERE id > :lastId ORDER BY id FETCH FIRST n ROWS，不做 COUNT(*)
+    @Query("SELECT a FROM Account a WHERE a.id > :lastId ORDER BY a.id ASC")
+    List<Account> findAllAccountAfter(@Param("lastId") Integer lastId, Limit limit);
+
+    // 批次下單資格：只取 ID，受 SQLRestriction 限制，停用或已軟刪除的帳戶不會出現在結果中
+    @Query("SELECT a.id FROM Account a WHERE a.id IN :ids")
+    List<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
+
     @Override
     @Modifying
     @Query("""
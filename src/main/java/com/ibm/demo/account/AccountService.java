@@ -1,7 +1,13 @@
 package com.ibm.demo.account;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,9 +19,13 @@ import com.ibm.demo.enums.AccountStatus;
 import com.ibm.demo.exception.BusinessLogicCheck.AccountStillHasOrderCanNotBeDeleteException;
 import com.ibm.demo.exception.BusinessLogicCheck.ResourceNotFoundException;
 import com.ibm.demo.order.OrderClient;
+import com.ibm.demo.util.CountEstimateCache;
+import com.ibm.demo.util.CursorPageRequest;
+import com.ibm.demo.util.CursorPageResponse;
 import com.ibm.demo.util.DBAssertion;
 import com.ibm.demo.util.PageResponse;
 import com.ibm.demo.util.ServiceValidator;
+import com.ibm.demo.util.SliceResponse;
 
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -28,12 +38,16 @@ import lombok.RequiredArgsConstructor;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final OrderClient orderClient;
+    private final CountEstimateCache countEstimateCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 注入Repository和Client，已用lombok註解RequiredArgsConstructor定義建構子。
      * 
      * @param accountRepository
      * @param orderClient
+     * @param countEstimateCache
+     * @param eventPublisher     發佈 AccountEligibilityChangedEvent，讓訂單端的資格快取失效
      */
 
     /**
@@ -52,6 +66,8 @@ public class AccountService {
                 .build();
 
         Account savedAccount = accountRepository.save(newAccount);
+        // 新帳戶的 ID 可能已被快取為不具資格（例如先前以該 ID 下單失敗）
+        eventPublisher.publishEvent(new AccountEligibilityChangedEvent(savedAccount.getId()));
         return savedAccount.getId();
     }
 
@@ -70,6 +86,38 @@ public class AccountService {
         return PageResponse.from(page);
     }
 
+    /**
+     * 以 Slice 分頁獲取帳戶列表：不執行 COUNT(*)，以多取一筆判斷是否有下一頁。
+     *
+     * @param pageable     分頁參數
+     * @param withEstimate 是否附帶總筆數估計值（快取，TTL 見 app.pagination）
+     * @return SliceResponse<GetAccountListResponse>
+     */
+    @Transactional(readOnly = true)
+    @Bulkhead(name = "account-read")
+    @RateLimiter(name = "account-read")
+    public SliceResponse<GetAccountListResponse> getAccountSlice(Pageable pageable, boolean withEstimate) {
+        Slice<GetAccountListResponse> slice = accountRepository.findAllAccountAsSlice(pageable)
+                .map(this::mapAccountToListResponse);
+        Long estimate = withEstimate ? countEstimateCache.estimate("account", accountRepository::count) : null;
+        return SliceResponse.from(slice, estimate);
+    }
+
+    /**
+     * 以游標分頁獲取帳戶列表（不計算總筆數，深頁成本與第一頁相同）。
+     *
+     * @param cursorPageRequest 游標分頁請求
+     * @return CursorPageResponse<GetAccountListResponse>
+     */
+    @Transactional(readOnly = true)
+    @Bulkhead(name = "account-read")
+    @RateLimiter(name = "account-read")
+    public CursorPageResponse<GetAccountListResponse> getAccountListByCursor(CursorPageRequest cursorPageRequest) {
+        List<Account> accounts = accountRepository.findAllAccountAfter(cursorPageRequest.lastId(),
+                cursorPageRequest.limit());
+        return CursorPageResponse.from(accounts, cursorPageRequest, Account::getId, this::mapAccountToListResponse);
+    }
+
     /**
      * @param id
      * @return GetAccountDetailResponse
@@ -99,6 +147,24 @@ public class AccountService {
         findAccountByIdOrThrow(id);
     }
 
+    /**
+     * 批次版的 {@link #assertCanPlaceOrder(Integer)}：以一次 IN 查詢回傳其中具下單資格的帳戶 ID，
+     * 不具資格（不存在、停用或已軟刪除）的帳戶不在結果中，由呼叫端逐筆判斷。
+     *
+     * @param ids 帳戶 ID 集合
+     * @return 具下單資格的帳戶 ID
+     */
+    @Transactional(readOnly = true)
+    @Bulkhead(name = "account-read")
+    @RateLimiter(name = "account-read")
+    public Set<Integer> findOrderEligibleAccountIds(Set<Integer> ids) {
+        ServiceValidator.validateNotNull(ids, "Account IDs");
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(accountRepository.findIdsByIdIn(ids));
+    }
+
     /**
      * @param updateAccountRequestDto
      */
@@ -132,6 +198,7 @@ public class AccountService {
         checkAccountHasNoOrdersOrThrow(accountId);
         int updated = accountRepository.softDeleteById(accountId, existingAccount.getVersion());
         DBAssertion.assertUpdated(updated, Account.class, accountId);
+        eventPublisher.publishEvent(new AccountEligibilityChangedEvent(accountId));
     }
 
     // --- Private Helper Methods ---
@@ -173,15 +240,19 @@ public class AccountService {
 
     /**
      * 更新帳戶狀態，並在需要時執行業務邏輯檢查。
-     * 如果狀態從啟用變為停用，會檢查帳戶是否仍有關聯訂單。
+     * 如果狀態從啟用變為停用，會檢查帳戶是否仍有關聯訂單；狀態改變時發佈 AccountEligibilityChangedEvent。
      * 
      * @param account   要更新的帳戶實體
      * @param newStatus 新的狀態碼
      */
     private void updateAccountStatus(Account account, String newStatus) {
-        if (!account.getStatus().equals(newStatus) && AccountStatus.INACTIVE.getCode().equals(newStatus)) {
+        if (account.getStatus().equals(newStatus)) {
+            return;
+        }
+        if (AccountStatus.INACTIVE.getCode().equals(newStatus)) {
             checkAccountHasNoOrdersOrThrow(account.getId());
         }
         account.setStatus(newStatus);
+        eventPublisher.publishEvent(new AccountEligibilityChangedEvent(account.getId()));
     }
 }
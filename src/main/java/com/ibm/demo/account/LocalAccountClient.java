@@ -0,0 +1,33 @@
+package com.ibm.demo.account;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.ibm.demo.account.DTO.GetAccountDetailResponse;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * AccountClient 的同 JVM 實作：直接委派給 AccountService（見 LocalClientConfig）。
+ * 例外直接以領域例外傳遞，不再經過 HTTP 狀態碼轉譯。
+ */
+@RequiredArgsConstructor
+public class LocalAccountClient implements AccountClient {
+    private final ObjectProvider<AccountService> accountService;
+
+    @Override
+    public GetAccountDetailResponse getAccountDetail(Integer accountId) {
+        return accountService.getObject().getAccountDetail(accountId);
+    }
+
+    @Override
+    public void assertCanPlaceOrder(Integer accountId) {
+        accountService.getObject().assertCanPlaceOrder(accountId);
+    }
+
+    @Override
+    public Set<Integer> findOrderEligibleAccountIds(Set<Integer> accountIds) {
+        return accountService.getObject().findOrderEligibleAccountIds(accountIds);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ibm.demo.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.ibm.demo.config.AdaptiveBulkheadLimiter;
+import com.ibm.demo.config.VegasLimit;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+
+/**
+ * 量測 @Bulkhead 方法的執行延遲，交給 AdaptiveBulkheadLimiter 調整同名 bulkhead 的併發上限。
+ * 被 bulkhead / rate limiter 拒絕的呼叫沒有實際執行，不計入延遲。
+ * Resilience4j 的 Bulkhead 切面預設同為 LOWEST_PRECEDENCE，先後不固定；application.yml 將其設為
+ * LOWEST_PRECEDENCE - 1（resilience4j.bulkhead.bulkhead-aspect-order），本切面才必定在取得 permit 之後執行。
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE) // 在 Bulkhead 切面內層，只量測取得 permit 後實際執行的時間
+@ConditionalOnProperty(prefix = "app.adaptive-concurrency", name = "enabled", havingValue = "true")
+public class AdaptiveBulkheadAspect {
+
+    private final AdaptiveBulkheadLimiter adaptiveBulkheadLimiter;
+
+    public AdaptiveBulkheadAspect(AdaptiveBulkheadLimiter adaptiveBulkheadLimiter) {
+        this.adaptiveBulkheadLimiter = adaptiveBulkheadLimiter;
+    }
+
+    @Around("@annotation(bulkhead)")
+    public Object measure(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) throws Throwable {
+        VegasLimit limit = adaptiveBulkheadLimiter.limitFor(bulkhead.name());
+        if (limit == null) {
+            return joinPoint.proceed();
+        }
+        limit.onCallStarted();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            limit.onCallFinished(start, System.nanoTime());
+            return result;
+        } catch (BulkheadFullException | RequestNotPermitted e) {
+            limit.onCallDropped();
+            throw e;
+        } catch (Throwable e) {
+            // 業務例外（查無資料、驗證失敗等）同樣佔用了下游資源，照樣計入延遲
+            limit.onCallFinished(start, System.nanoTime());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ibm.demo.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.ibm.demo.config.AdmissionController;
+
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+
+/**
+ * 在 Resilience4j 的 Bulkhead 切面（LOWEST_PRECEDENCE - 1，見 resilience4j.bulkhead.bulkhead-aspect-order）之前取得准入，
+ * 讓滿載時的請求排隊等待而非立即 503。
+ * 准入佇列與 bulkhead 使用同一個上限，取得准入後 bulkhead 必有空位；RateLimiter（LOWEST_PRECEDENCE - 3）仍在外層先行判斷。
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+@ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true")
+public class AdmissionAspect {
+
+    private final AdmissionController admissionController;
+
+    public AdmissionAspect(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    @Around("@annotation(bulkhead)")
+    public Object admit(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) throws Throwable {
+        String endpoint = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+        return admissionController.execute(bulkhead.name(), endpoint, joinPoint::proceed);
+    }
+}
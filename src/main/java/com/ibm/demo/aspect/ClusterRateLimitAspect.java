@@ -0,0 +1,38 @@
+package com.ibm.demo.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.ibm.demo.config.ClusterRateLimiter;
+
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+
+/**
+ * 對 @RateLimiter 方法套用跨 replica 的限流（見 ClusterRateLimiter），超過時丟出 RequestNotPermitted（429）。
+ * 與 Resilience4j 的 RateLimiter 切面同層（LOWEST_PRECEDENCE - 3，見 resilience4j.ratelimiter.rate-limiter-aspect-order），
+ * 兩者都只做 fail-fast 判斷，先後不影響結果；
+ * 原本每個 JVM 各自的 limit-for-period 仍保留，作為單一節點的上限。
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 3)
+@ConditionalOnProperty(prefix = "app.cluster-rate-limit", name = "enabled", havingValue = "true")
+public class ClusterRateLimitAspect {
+
+    private final ClusterRateLimiter clusterRateLimiter;
+
+    public ClusterRateLimitAspect(ClusterRateLimiter clusterRateLimiter) {
+        this.clusterRateLimiter = clusterRateLimiter;
+    }
+
+    @Around("@annotation(rateLimiter)")
+    public Object limit(ProceedingJoinPoint joinPoint, RateLimiter rateLimiter) throws Throwable {
+        clusterRateLimiter.acquirePermission(rateLimiter.name());
+        return joinPoint.proceed();
+    }
+}
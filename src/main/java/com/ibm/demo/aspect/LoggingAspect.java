@@ -1,6 +1,11 @@
 package com.ibm.demo.aspect;
 
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -8,11 +13,25 @@ import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Controller / Service 層的追蹤切面：
+ * - 每次呼叫以 System.nanoTime 計時，記錄到 Micrometer Timer「method.execution」（tag class、method、outcome），
+ *   不再每次寫一行 INFO 日誌。
+ * - 參數與回傳值只在 DEBUG 啟用且被抽樣到時才轉成字串（抽樣率見 app.tracing），未抽樣的呼叫不做任何字串化；
+ *   轉出的字串以 app.tracing.max-render-length 截斷，集合只輸出型別與筆數，避免把整頁 PageResponse 寫進日誌。
+ * - 每個方法的 Timer 與抽樣率在第一次呼叫時建立並快取，之後每次呼叫只有一次 Map 查詢。
+ */
 @Aspect
 @Component
 @Order(2) // 在 DatabaseConcurrencyAspect 之後執行，確保流量控制先於日誌記錄
@@ -20,28 +39,47 @@ public class LoggingAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
 
+    static final String TIMER_NAME = "method.execution";
+
+    private final AppProperties.Tracing properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodTrace> traces = new ConcurrentHashMap<>();
+
+    public LoggingAspect(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.properties = appProperties.getTracing();
+        this.meterRegistry = meterRegistry;
+    }
+
     // 修改 Pointcut，使其更專注於 Controller 和 Service 層，避免攔截過多無關方法
     @Pointcut("within(@org.springframework.web.bind.annotation.RestController *) || within(@org.springframework.stereotype.Service *)")
     public void serviceAndControllerLayer() {}
 
-    // 使用 @Around 環繞通知來記錄方法執行時間和返回值
-    // 這個 Advice 整合了原本的 @Before 和 @Around，避免重複攔截
+    // 使用 @Around 環繞通知記錄執行時間；抽樣到的呼叫另以 DEBUG 記錄參數與回傳值
     @Around("serviceAndControllerLayer()")
     public Object logExecution(ProceedingJoinPoint joinPoint) throws Throwable {
-        String className = joinPoint.getSignature().getDeclaringTypeName();
-        String methodName = joinPoint.getSignature().getName();
-
-        logger.info("==> Entering method: {}.{}() with arguments: {}", className, methodName,
-                Arrays.toString(joinPoint.getArgs()));
-
-        long startTime = System.currentTimeMillis();
-
-        Object result = joinPoint.proceed(); // 執行目標方法
+        MethodTrace trace = traces.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                this::createTrace);
+        boolean sampled = logger.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < trace.sampleRate();
+        if (sampled) {
+            logger.debug("==> Entering method: {}() with arguments: {}", trace.name(),
+                    new Rendered(joinPoint.getArgs(), properties.getMaxRenderLength()));
+        }
 
-        long endTime = System.currentTimeMillis();
-        logger.info("<== Exiting method: {}.{}(); Execution time: {} ms; Result: {}",
-                className, methodName, (endTime - startTime), result);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed(); // 執行目標方法
+        } catch (Throwable ex) {
+            trace.failure().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+        long elapsed = System.nanoTime() - start;
+        trace.success().record(elapsed, TimeUnit.NANOSECONDS);
 
+        if (sampled) {
+            logger.debug("<== Exiting method: {}(); Execution time: {} ms; Result: {}", trace.name(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), new Rendered(result, properties.getMaxRenderLength()));
+        }
         return result;
     }
 
@@ -56,4 +94,67 @@ public class LoggingAspect {
         // 注意：這裡的 ex 是原始例外，GlobalExceptionHandler 之後還是會處理它並回傳適當的 HTTP Response
         // 這個日誌主要是為了開發和除錯時能更詳細地了解例外發生的上下文
     }
+
+    private MethodTrace createTrace(Method method) {
+        String className = method.getDeclaringClass().getSimpleName();
+        String name = className + "." + method.getName();
+        double sampleRate = properties.getSampleRates().getOrDefault(name, properties.getDefaultSampleRate());
+        return new MethodTrace(name, sampleRate,
+                timer(className, method.getName(), "success"),
+                timer(className, method.getName(), "error"));
+    }
+
+    private Timer timer(String className, String methodName, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Controller / Service method execution time")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record MethodTrace(String name, double sampleRate, Timer success, Timer failure) {
+    }
+
+    /**
+     * 延遲轉字串：只有日誌真的輸出時 SLF4J 才會呼叫 toString。
+     * 集合 / Map 只輸出型別與筆數，其餘以 String.valueOf 轉換後截斷到 maxLength。
+     */
+    record Rendered(Object value, int maxLength) {
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            if (value instanceof Object[] args) {
+                sb.append('[');
+                for (int i = 0; i < args.length && sb.length() < maxLength; i++) {
+                    if (i > 0) {
+                        sb.append(", ");
+                    }
+                    append(sb, args[i]);
+                }
+                sb.append(']');
+            } else {
+                append(sb, value);
+            }
+            if (sb.length() > maxLength) {
+                sb.setLength(maxLength);
+                sb.append("...(truncated)");
+            }
+            return sb.toString();
+        }
+
+        private void append(StringBuilder sb, Object item) {
+            if (item instanceof Collection<?> collection) {
+                sb.append(item.getClass().getSimpleName()).append("(size=").append(collection.size()).append(')');
+            } else if (item instanceof Map<?, ?> map) {
+                sb.append(item.getClass().getSimpleName()).append("(size=").append(map.size()).append(')');
+            } else {
+                // 多取一個字元，讓超長內容在 toString 中被標記為 truncated
+                String text = String.valueOf(item);
+                int room = Math.max(0, maxLength - sb.length() + 1);
+                sb.append(text, 0, Math.min(text.length(), room));
+            }
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package com.ibm.demo.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 以 {@link VegasLimit} 動態調整 Resilience4j bulkhead 的 max-concurrent-calls。
+ *
+ * - 沿用既有的 @Bulkhead(name = ...)：AdaptiveBulkheadAspect 量測每次呼叫的延遲，交給對應名稱的 VegasLimit；
+ *   上限改變時以 {@link Bulkhead#changeConfig(BulkheadConfig)} 套用到同名 bulkhead，其餘設定（max-wait-duration 等）不變。
+ * - changeConfig 調降上限時會等待執行中的呼叫歸還 permit，因此不在完成呼叫的請求執行緒上執行，
+ *   而是交給單一的背景執行緒套用；套用前連續多次變動只套用最新的上限。
+ * - application.yml 的 max-concurrent-calls 只是起始值，之後依實際瓶頸（通常是 Hikari 連線池）收斂。
+ * - 目前上限以 adaptive.concurrency.limit（tag name）發佈；resilience4j.bulkhead.max.allowed.concurrent.calls 也會同步變動。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.adaptive-concurrency", name = "enabled", havingValue = "true")
+public class AdaptiveBulkheadLimiter implements DisposableBean {
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+    private final AppProperties.AdaptiveConcurrency properties;
+    private final Map<String, VegasLimit> limits = new ConcurrentHashMap<>();
+    private final ExecutorService configExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("adaptive-bulkhead-limiter").factory());
+
+    public AdaptiveBulkheadLimiter(BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry,
+            AppProperties appProperties) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+        this.properties = appProperties.getAdaptiveConcurrency();
+    }
+
+    /**
+     * @param bulkheadName @Bulkhead 的 name
+     * @return 該 bulkhead 的自適應上限；未列在 app.adaptive-concurrency.bulkheads 時回傳 null
+     */
+    public VegasLimit limitFor(String bulkheadName) {
+        if (!properties.getBulkheads().isEmpty() && !properties.getBulkheads().contains(bulkheadName)) {
+            return null;
+        }
+        return limits.computeIfAbsent(bulkheadName, this::createLimit);
+    }
+
+    private VegasLimit createLimit(String bulkheadName) {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(bulkheadName);
+        PendingLimit pending = new PendingLimit(bulkhead);
+        VegasLimit limit = new VegasLimit(bulkhead.getBulkheadConfig().getMaxConcurrentCalls(), properties,
+                System.nanoTime(), pending::request);
+        Gauge.builder("adaptive.concurrency.limit", limit, VegasLimit::getLimit)
+                .description("Adaptive concurrency limit applied to the bulkhead")
+                .tag("name", bulkheadName)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    @Override
+    public void destroy() {
+        configExecutor.shutdownNow();
+    }
+
+    /**
+     * 一個 bulkhead 尚未套用的上限：請求執行緒只記錄最新值，已排入背景執行緒時不重複排入。
+     */
+    private final class PendingLimit {
+
+        private final Bulkhead bulkhead;
+        private final AtomicInteger target = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private PendingLimit(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        private void request(int newLimit) {
+            target.set(newLimit);
+            if (scheduled.compareAndSet(false, true)) {
+                configExecutor.execute(this::apply);
+            }
+        }
+
+        private void apply() {
+            // 先清除旗標再讀取：之後的變動會重新排入，不會遺漏
+            scheduled.set(false);
+            int newLimit = target.get();
+            int current = bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+            if (newLimit == current) {
+                return;
+            }
+            log.debug("調整 bulkhead {} 併發上限：{} -> {}", bulkhead.getName(), current, newLimit);
+            try {
+                bulkhead.changeConfig(BulkheadConfig.from(bulkhead.getBulkheadConfig())
+                        .maxConcurrentCalls(newLimit)
+                        .build());
+            } catch (RuntimeException e) {
+                // 下一次上限變動時再套用
+                log.warn("調整 bulkhead {} 併發上限失敗: {}", bulkhead.getName(), e.getMessage());
+            }
+        }
+    }
+}
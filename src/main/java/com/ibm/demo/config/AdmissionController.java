@@ -0,0 +1,108 @@
+package com.ibm.demo.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 具名 bulkhead 的准入控制：每個 @Bulkhead(name = ...) 對應一個 {@link AdmissionQueue}，
+ * 上限取自同名 bulkhead 目前的 max-concurrent-calls。滿載時請求在佇列中等待（最多到 deadline），
+ * 不再因瞬間突波直接回 503；預估等不到或等待逾時才丟出 BulkheadFullException，維持原本的 503 回應。
+ *
+ * - deadline：依 app.admission.deadlines 查找，鍵可為「類別簡名.方法名」或 bulkhead 名稱，都沒有時用 default-deadline。
+ * - 優先權：依 app.admission.priorities 查找（鍵同上）；未設定時，名稱以 -read 結尾的 bulkhead 為 NORMAL，其餘（寫入、庫存）為 HIGH。
+ * - 指標：admission.queue.waiting（等待數）、admission.wait（等待時間）、admission.rejected（tag reason=shed / timeout）。
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true")
+public class AdmissionController {
+
+    /**
+     * 受准入控制的呼叫（即 ProceedingJoinPoint::proceed）。
+     */
+    @FunctionalInterface
+    public interface Call {
+        Object proceed() throws Throwable;
+    }
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+    private final AppProperties.Admission properties;
+    private final Map<String, AdmissionQueue> queues = new ConcurrentHashMap<>();
+
+    public AdmissionController(BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry,
+            AppProperties appProperties) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+        this.properties = appProperties.getAdmission();
+    }
+
+    /**
+     * 取得執行權後執行呼叫；等不到執行權時丟出 BulkheadFullException。
+     *
+     * @param bulkheadName @Bulkhead 的 name
+     * @param endpoint     「類別簡名.方法名」
+     * @param call         實際執行的呼叫
+     */
+    public Object execute(String bulkheadName, String endpoint, Call call) throws Throwable {
+        AdmissionQueue queue = queues.computeIfAbsent(bulkheadName, this::createQueue);
+        Duration deadline = lookup(properties.getDeadlines(), endpoint, bulkheadName, properties.getDefaultDeadline());
+        AdmissionQueue.Priority priority = lookup(properties.getPriorities(), endpoint, bulkheadName,
+                bulkheadName.endsWith("-read") ? AdmissionQueue.Priority.NORMAL : AdmissionQueue.Priority.HIGH);
+
+        long waitStart = System.nanoTime();
+        AdmissionQueue.Outcome outcome = queue.acquire(priority, deadline.toNanos());
+        long start = System.nanoTime();
+        meterRegistry.timer("admission.wait", "name", bulkheadName).record(start - waitStart, TimeUnit.NANOSECONDS);
+        if (outcome != AdmissionQueue.Outcome.ADMITTED) {
+            Counter.builder("admission.rejected")
+                    .tag("name", bulkheadName)
+                    .tag("reason", outcome == AdmissionQueue.Outcome.SHED ? "shed" : "timeout")
+                    .register(meterRegistry)
+                    .increment();
+            throw BulkheadFullException.createBulkheadFullException(bulkheadRegistry.bulkhead(bulkheadName));
+        }
+        try {
+            return call.proceed();
+        } finally {
+            queue.release(System.nanoTime() - start);
+        }
+    }
+
+    private AdmissionQueue createQueue(String bulkheadName) {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(bulkheadName);
+        AdmissionQueue queue = new AdmissionQueue(() -> bulkhead.getBulkheadConfig().getMaxConcurrentCalls(),
+                properties.getOrdering());
+        Gauge.builder("admission.queue.waiting", queue, AdmissionQueue::getWaiting)
+                .description("Requests waiting for a bulkhead slot")
+                .tag("name", bulkheadName)
+                .register(meterRegistry);
+        Timer.builder("admission.wait")
+                .description("Time spent waiting for a bulkhead slot")
+                .tag("name", bulkheadName)
+                .register(meterRegistry);
+        return queue;
+    }
+
+    private static <T> T lookup(Map<String, T> values, String endpoint, String bulkheadName, T defaultValue) {
+        T value = values.get(endpoint);
+        if (value == null) {
+            value = values.get(bulkheadName);
+        }
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,171 @@
+package com.ibm.demo.config;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * 單一 bulkhead 的准入佇列：執行中的呼叫達到上限時，新請求在佇列中等待空位，而不是立即被拒絕（503）。
+ *
+ * - 每個請求帶一個等待預算（deadline）：預估等待時間 =（排在前面的請求數 + 1）× 平均執行時間 ÷ 上限，
+ *   超過預算就直接拒絕（SHED），不佔用佇列；進入佇列後超過預算仍未輪到則逾時（TIMED_OUT）。
+ * - 排序：FIFO 依到達順序；PRIORITY 讓 HIGH（寫入）排在 NORMAL（讀取）前面，同優先權內仍依到達順序。
+ * - 上限以 IntSupplier 每次讀取，與 AdaptiveBulkheadLimiter 動態調整後的 bulkhead 上限一致。
+ * - 使用 ReentrantLock / Condition 等待，虛擬執行緒等待時不會卡住 carrier。
+ */
+public class AdmissionQueue {
+
+    public enum Priority {
+        HIGH,
+        NORMAL
+    }
+
+    public enum Ordering {
+        FIFO,
+        PRIORITY
+    }
+
+    public enum Outcome {
+        ADMITTED,
+        SHED,
+        TIMED_OUT
+    }
+
+    private static final double SERVICE_TIME_SMOOTHING = 0.1;
+
+    private final IntSupplier limit;
+    private final Ordering ordering;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiters;
+
+    // 以下欄位皆由 lock 保護
+    private int inFlight;
+    private long sequence;
+    private double averageServiceNanos;
+
+    public AdmissionQueue(IntSupplier limit, Ordering ordering) {
+        this.limit = limit;
+        this.ordering = ordering;
+        Comparator<Waiter> bySequence = Comparator.comparingLong(Waiter::sequence);
+        this.waiters = new PriorityQueue<>(ordering == Ordering.PRIORITY
+                ? Comparator.comparing(Waiter::priority).thenComparing(bySequence)
+                : bySequence);
+    }
+
+    /**
+     * 取得執行權；回傳 ADMITTED 時，呼叫端執行完畢後必須呼叫 {@link #release(long)}。
+     *
+     * @param priority     優先權（僅 PRIORITY 排序時有作用）
+     * @param budgetNanos  最多願意等待的時間
+     * @return ADMITTED、SHED（預估等待超過預算，未進佇列）或 TIMED_OUT（等待逾時）
+     */
+    public Outcome acquire(Priority priority, long budgetNanos) throws InterruptedException {
+        lock.lock();
+        Waiter waiter = null;
+        try {
+            int currentLimit = limit.getAsInt();
+            if (inFlight < currentLimit && waiters.isEmpty()) {
+                inFlight++;
+                return Outcome.ADMITTED;
+            }
+            double expectedWait = (ahead(priority) + 1) * averageServiceNanos / Math.max(1, currentLimit);
+            if (expectedWait > budgetNanos) {
+                return Outcome.SHED;
+            }
+            waiter = new Waiter(priority, sequence++, lock.newCondition());
+            waiters.add(waiter);
+            long remaining = budgetNanos;
+            while (!waiter.admitted) {
+                if (remaining <= 0) {
+                    waiters.remove(waiter);
+                    return Outcome.TIMED_OUT;
+                }
+                remaining = waiter.condition.awaitNanos(remaining);
+            }
+            return Outcome.ADMITTED;
+        } catch (InterruptedException e) {
+            if (waiter != null) {
+                if (waiter.admitted) {
+                    // 已經被分配到空位，轉交給下一個等待者
+                    releaseLocked();
+                } else {
+                    waiters.remove(waiter);
+                }
+            }
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 釋放執行權，並把空位依排序交給等待中的請求。
+     *
+     * @param serviceNanos 本次執行耗時，用於預估之後的等待時間
+     */
+    public void release(long serviceNanos) {
+        lock.lock();
+        try {
+            averageServiceNanos = averageServiceNanos == 0
+                    ? serviceNanos
+                    : averageServiceNanos * (1 - SERVICE_TIME_SMOOTHING) + serviceNanos * SERVICE_TIME_SMOOTHING;
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 佇列中等待的請求數
+     */
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked() {
+        inFlight--;
+        // 上限可能在等待期間被調大，一次補滿所有空位
+        int currentLimit = limit.getAsInt();
+        while (inFlight < currentLimit && !waiters.isEmpty()) {
+            Waiter next = waiters.poll();
+            next.admitted = true;
+            next.condition.signal();
+            inFlight++;
+        }
+    }
+
+    private long ahead(Priority priority) {
+        if (ordering == Ordering.FIFO) {
+            return waiters.size();
+        }
+        return waiters.stream().filter(w -> w.priority().compareTo(priority) <= 0).count();
+    }
+
+    private static final class Waiter {
+        private final Priority priority;
+        private final long sequence;
+        private final Condition condition;
+        private boolean admitted;
+
+        private Waiter(Priority priority, long sequence, Condition condition) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+        private Priority priority() {
+            return priority;
+        }
+
+        private long sequence() {
+            return sequence;
+        }
+    }
+}
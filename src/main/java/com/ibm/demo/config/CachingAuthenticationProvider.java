@@ -0,0 +1,120 @@
+package com.ibm.demo.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 已驗證帳密快取：包住實際做 BCrypt 比對的 AuthenticationProvider，同一組帳密（即同一個 Basic Authorization
+ * header）在 TTL 內重複認證時直接沿用上次的驗證結果，不再花 50–100 ms CPU 重跑 BCrypt。
+ * 內部 *Client 的 loopback 呼叫每次都帶同一組 internal 帳密，是主要受益者。
+ *
+ * - 快取鍵是「帳號 + 密碼」的 HMAC-SHA256，金鑰於啟動時隨機產生且只存在記憶體中；
+ *   明文密碼不會留在快取裡，heap dump 也無法以快取鍵離線比對密碼。
+ * - 只快取驗證成功的結果；錯誤密碼每次都走完整 BCrypt，不提供額外的猜測管道。
+ * - 命中時回傳新的 token（沿用 principal 與 authorities，details 取自本次請求），不共用上一次請求的 Authentication。
+ * - 指標：cache.gets / cache.evictions（tag cache=auth-credential）看命中率；
+ *   auth.credential.verification 為實際 BCrypt 驗證耗時；
+ *   auth.credential.verification.saved 以平均驗證耗時 × 命中數估計省下的時間。
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    static final String CACHE_NAME = "auth-credential";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, Authentication> cache;
+    private final SecretKeySpec hmacKey;
+    private final Timer verificationTimer;
+    private final DoubleAdder savedSeconds = new DoubleAdder();
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate,
+            AppProperties.Auth.CredentialCache properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.hmacKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.verificationTimer = Timer.builder("auth.credential.verification")
+                .description("Password verification (BCrypt) time on credential cache misses")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.credential.verification.saved", savedSeconds, DoubleAdder::sum)
+                .description("Estimated password verification time saved by credential cache hits")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (authentication.getCredentials() == null) {
+            return delegate.authenticate(authentication);
+        }
+        String key = cacheKey(authentication.getName(), authentication.getCredentials().toString());
+
+        Authentication cached = cache.getIfPresent(key);
+        if (cached != null) {
+            savedSeconds.add(verificationTimer.mean(TimeUnit.SECONDS));
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    cached.getPrincipal(), null, cached.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        Timer.Sample sample = Timer.start();
+        Authentication result;
+        try {
+            result = delegate.authenticate(authentication);
+        } finally {
+            sample.stop(verificationTimer);
+        }
+        if (result != null && result.isAuthenticated()) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    private String cacheKey(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            // 以 0 byte 分隔帳號與密碼，避免 "ab" + "c" 與 "a" + "bc" 得到相同的鍵
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.ibm.demo.config;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.TransactionException;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 跨 replica 的 @RateLimiter：resilience4j 的 limit-for-period 是每個 JVM 各自計算，
+ * 多個 replica 時實際上限會變成 N 倍；這裡讓同名限流共用 RATE_LIMIT_BUCKET 中的一個 token bucket。
+ *
+ * - 容量 = limit-for-period，補充速率 = limit-for-period ÷ limit-refresh-period，皆取自同名的 resilience4j 設定。
+ * - 每個節點一次從 {@link RateLimitLeaseStore} 租借一批 token（容量 × lease-fraction）放在本地，
+ *   請求只對本地的 AtomicLong 做 CAS 扣減，不存取資料庫也不加鎖。
+ * - 本地 token 降到半批以下時，以 executor 非同步租借下一批（同一名稱同時只有一個租借在進行）；
+ *   本地 token 用完而下一批尚未到達的請求直接拒絕，與 timeout-duration: 0ms 的 fail-fast 一致。
+ * - 租借一律在 executor 上執行，請求執行緒不做資料庫 I/O；應用程式啟動完成後先為已知的限流名稱租借第一批，
+ *   之後才第一次出現的名稱，第一批到達前的請求會被拒絕。
+ * - 共用 bucket 不足一批時，依補充速率推算下一批可租的時間，在此之前不再查詢資料庫。
+ * - 資料庫無法存取時改用本地 token bucket，上限為原本的 1 / replicas，每隔 retry-interval 再嘗試共用 bucket。
+ * - 各節點手上最多保留約 1.5 批未用完的 token，因此叢集總量的瞬間突波最多超出 replicas × 1.5 批。
+ * - 指標：cluster.ratelimit.local.tokens（本地剩餘）、cluster.ratelimit.leased（租到的 token 數）、
+ *   cluster.ratelimit.rejected（拒絕數）、cluster.ratelimit.fallback（1 = 目前使用本地限流）。
+ */
+@Slf4j
+public class ClusterRateLimiter {
+
+    private final RateLimitLeaseStore store;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final MeterRegistry meterRegistry;
+    private final AppProperties.ClusterRateLimit properties;
+    private final Clock clock;
+    private final Executor executor;
+    private final Map<String, LeasedBucket> buckets = new ConcurrentHashMap<>();
+
+    // 0 表示共用 bucket 可用；否則為下次嘗試存取資料庫的時間（epoch 毫秒）
+    private volatile long fallbackUntilMillis;
+
+    public ClusterRateLimiter(RateLimitLeaseStore store, RateLimiterRegistry rateLimiterRegistry,
+            MeterRegistry meterRegistry, AppProperties appProperties, Clock clock, Executor executor) {
+        this.store = store;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.meterRegistry = meterRegistry;
+        this.properties = appProperties.getClusterRateLimit();
+        this.clock = clock;
+        this.executor = executor;
+        Gauge.builder("cluster.ratelimit.fallback", this, limiter -> limiter.isFallback() ? 1 : 0)
+                .description("1 when the shared rate limit store is unreachable and local limits apply")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 取得一個 token；取不到時丟出 RequestNotPermitted（由 GlobalExceptionHandler 轉為 429）。
+     *
+     * @param rateLimiterName @RateLimiter 的 name
+     */
+    public void acquirePermission(String rateLimiterName) {
+        if (!tryAcquire(rateLimiterName)) {
+            throw RequestNotPermitted.createRequestNotPermitted(rateLimiterRegistry.rateLimiter(rateLimiterName));
+        }
+    }
+
+    /**
+     * @param rateLimiterName @RateLimiter 的 name
+     * @return 是否取得 token；未列在 app.cluster-rate-limit.rate-limiters 的名稱一律回傳 true
+     */
+    public boolean tryAcquire(String rateLimiterName) {
+        if (!properties.getRateLimiters().isEmpty() && !properties.getRateLimiters().contains(rateLimiterName)) {
+            return true;
+        }
+        // computeIfAbsent 只建立空的 bucket，租借在鎖外交給 executor
+        LeasedBucket bucket = buckets.computeIfAbsent(rateLimiterName, this::createBucket);
+        if (bucket.tokens.get() <= bucket.leaseSize / 2) {
+            refillAsync(bucket);
+        }
+        boolean acquired = bucket.tryTake();
+        if (!acquired) {
+            bucket.rejected.increment();
+        }
+        return acquired;
+    }
+
+    /**
+     * 應用程式啟動完成（Flyway 已建立 RATE_LIMIT_BUCKET）後，為 app.cluster-rate-limit.rate-limiters
+     * （未設定時為 resilience4j 已建立的所有 rate limiter）非同步租借第一批 token，避免第一個請求因本地沒有 token 而被拒絕。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Collection<String> names = properties.getRateLimiters().isEmpty()
+                ? rateLimiterRegistry.getAllRateLimiters().stream().map(RateLimiter::getName).toList()
+                : properties.getRateLimiters();
+        names.forEach(name -> refillAsync(buckets.computeIfAbsent(name, this::createBucket)));
+    }
+
+    /**
+     * 停止租借用的 executor（由 Resilience4jConfig 設為 bean 的 destroy method）。
+     */
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * @return 共用 bucket 目前是否無法存取（改用本地限流）
+     */
+    public boolean isFallback() {
+        return fallbackUntilMillis != 0;
+    }
+
+    private LeasedBucket createBucket(String rateLimiterName) {
+        RateLimiterConfig config = rateLimiterRegistry.rateLimiter(rateLimiterName).getRateLimiterConfig();
+        int capacity = config.getLimitForPeriod();
+        double tokensPerMilli = capacity / (double) Math.max(1, config.getLimitRefreshPeriod().toMillis());
+        long leaseSize = Math.max(1, Math.round(capacity * properties.getLeaseFraction()));
+        // 本地限流的起點設為一個週期前，啟動時資料庫就無法存取也能先有一整份 1 / replicas 的 token
+        LeasedBucket bucket = new LeasedBucket(rateLimiterName, capacity, tokensPerMilli, leaseSize,
+                clock.millis() - config.getLimitRefreshPeriod().toMillis(),
+                Counter.builder("cluster.ratelimit.leased")
+                        .description("Tokens leased from the shared rate limit bucket")
+                        .tag("name", rateLimiterName)
+                        .register(meterRegistry),
+                Counter.builder("cluster.ratelimit.rejected")
+                        .description("Calls rejected by the cluster rate limiter")
+                        .tag("name", rateLimiterName)
+                        .register(meterRegistry));
+        Gauge.builder("cluster.ratelimit.local.tokens", bucket.tokens, AtomicLong::get)
+                .description("Leased tokens left on this node")
+                .tag("name", rateLimiterName)
+                .register(meterRegistry);
+        return bucket;
+    }
+
+    private void refillAsync(LeasedBucket bucket) {
+        if (clock.millis() < bucket.nextRefillMillis || !bucket.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refill(bucket);
+                } finally {
+                    bucket.refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 關閉中 executor 不再接受工作，請求只用本地剩下的 token
+            bucket.refilling.set(false);
+        }
+    }
+
+    private void refill(LeasedBucket bucket) {
+        long now = clock.millis();
+        long fallbackUntil = fallbackUntilMillis;
+        if (fallbackUntil != 0 && now < fallbackUntil) {
+            refillLocally(bucket, now);
+            return;
+        }
+        long granted;
+        try {
+            granted = store.lease(bucket.name, bucket.leaseSize, bucket.capacity, bucket.tokensPerMilli, now);
+        } catch (DataAccessException | TransactionException e) {
+            // 含租借交易逾時（TransactionTimedOutException）與取不到連線
+            if (fallbackUntil == 0) {
+                log.warn("無法存取共用限流 bucket，改用本地限流（上限 1/{}）：{}", properties.getReplicas(), e.getMessage());
+            }
+            fallbackUntilMillis = now + properties.getRetryInterval().toMillis();
+            refillLocally(bucket, now);
+            return;
+        }
+        if (fallbackUntil != 0) {
+            log.info("共用限流 bucket 已恢復，停止本地限流");
+            fallbackUntilMillis = 0;
+        }
+        bucket.tokens.addAndGet(granted);
+        bucket.leased.increment(granted);
+        bucket.lastLocalRefillMillis = now;
+        bucket.nextRefillMillis = granted < bucket.leaseSize
+                ? now + millisFor(bucket.leaseSize - granted, bucket.tokensPerMilli)
+                : now;
+    }
+
+    /**
+     * 共用 bucket 無法存取時的本地 token bucket：以 1 / replicas 的速率補充，最多補到 1 / replicas 的容量。
+     */
+    private void refillLocally(LeasedBucket bucket, long now) {
+        double tokensPerMilli = bucket.tokensPerMilli / properties.getReplicas();
+        long capacity = Math.max(1, bucket.capacity / properties.getReplicas());
+        long elapsed = Math.max(0, now - bucket.lastLocalRefillMillis);
+        long room = Math.max(0, capacity - bucket.tokens.get());
+        long added = Math.min(room, (long) Math.floor(elapsed * tokensPerMilli));
+        if (added > 0) {
+            bucket.tokens.addAndGet(added);
+            bucket.lastLocalRefillMillis = room == added ? now
+                    : bucket.lastLocalRefillMillis + millisFor(added, tokensPerMilli);
+        }
+        bucket.nextRefillMillis = added > 0 ? now : now + millisFor(1, tokensPerMilli);
+    }
+
+    private static long millisFor(long tokens, double tokensPerMilli) {
+        return (long) Math.ceil(tokens / tokensPerMilli);
+    }
+
+    /**
+     * 單一名稱在本節點租到的 token。tokens 由請求執行緒以 CAS 扣減；
+     * 其餘欄位只由租借（同一時間僅一個）讀寫，請求執行緒只讀取 nextRefillMillis。
+     */
+    private static final class LeasedBucket {
+        private final String name;
+        private final int capacity;
+        private final double tokensPerMilli;
+        private final long leaseSize;
+        private final Counter leased;
+        private final Counter rejected;
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private volatile long nextRefillMillis;
+        private volatile long lastLocalRefillMillis;
+
+        private LeasedBucket(String name, int capacity, double tokensPerMilli, long leaseSize, long localRefillMillis,
+                Counter leased, Counter rejected) {
+            this.name = name;
+            this.capacity = capacity;
+            this.tokensPerMilli = tokensPerMilli;
+            this.leaseSize = leaseSize;
+            this.lastLocalRefillMillis = localRefillMillis;
+            this.leased = leased;
+            this.rejected = rejected;
+        }
+
+        private boolean tryTake() {
+            long current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ibm.demo.config;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 內部端點的 token 認證：帶有效 X-Internal-Token 的請求直接以 internal 身分（ROLE_INTERNAL）通過，
+ * 不經 BCrypt。沒帶 token 或 token 無效時不做任何事，交給後面的 HTTP Basic 處理。
+ *
+ * 只掛在 SecurityConfig 的 internal filter chain 上；刻意不註冊為 bean，避免 Boot 把它加到全域 servlet filter。
+ */
+public class InternalTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final List<SimpleGrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_INTERNAL"));
+
+    private final InternalTokenService internalTokenService;
+    private final String internalUsername;
+    private final SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder
+            .getContextHolderStrategy();
+
+    public InternalTokenAuthenticationFilter(InternalTokenService internalTokenService, String internalUsername) {
+        this.internalTokenService = internalTokenService;
+        this.internalUsername = internalUsername;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (internalTokenService.isValid(request.getHeader(InternalTokenService.HEADER))) {
+            // 以 UsernamePasswordAuthenticationToken 表示，後面的 BasicAuthenticationFilter 看到同名已認證身分即略過
+            SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+            context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(internalUsername, null, AUTHORITIES));
+            securityContextHolderStrategy.setContext(context);
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ibm.demo.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.util.StringUtils;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+/**
+ * 內部服務 token：取代 loopback 自呼叫每次都要跑 BCrypt 的 HTTP Basic。
+ *
+ * token 格式為 {@code <到期 epoch 秒>.<HMAC-SHA256(到期時間) 的 Base64URL>}：
+ * - 簽章金鑰取自 app.auth.internal-token.secret；未設定時於啟動時隨機產生（僅同一個 JVM 內的 loopback 可驗證）。
+ *   模組拆分部署時，各服務需設定相同的 secret。
+ * - 發出端（RestClientConfig）以 {@link #currentToken()} 取得 token，過了一半存活時間即重新簽發，
+ *   不會送出即將過期的 token。
+ * - 驗證端（InternalTokenAuthenticationFilter）以 {@link #isValid(String)} 檢查到期時間與簽章，
+ *   簽章以 {@link MessageDigest#isEqual(byte[], byte[])} 做常數時間比對；整體只需一次 HMAC，為微秒等級。
+ */
+public class InternalTokenService {
+
+    public static final String HEADER = "X-Internal-Token";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    private volatile MintedToken current;
+
+    public InternalTokenService(AppProperties.Auth.InternalToken properties, Clock clock) {
+        byte[] secret;
+        if (StringUtils.hasText(properties.getSecret())) {
+            secret = properties.getSecret().getBytes(StandardCharsets.UTF_8);
+        } else {
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        }
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.ttl = properties.getTtl();
+        this.clock = clock;
+    }
+
+    /**
+     * @return 目前可用的 token；已過一半存活時間時重新簽發
+     */
+    public String currentToken() {
+        MintedToken minted = current;
+        long now = clock.instant().getEpochSecond();
+        if (minted == null || now >= minted.expiresAt() - ttl.toSeconds() / 2) {
+            long expiresAt = now + ttl.toSeconds();
+            minted = new MintedToken(expiresAt + "." + sign(expiresAt), expiresAt);
+            current = minted;
+        }
+        return minted.token();
+    }
+
+    /**
+     * 驗證 token：格式正確、未過期且簽章相符才回傳 true。
+     *
+     * @param token X-Internal-Token header 的值
+     * @return 是否為有效的內部 token
+     */
+    public boolean isValid(String token) {
+        if (token == null) {
+            return false;
+        }
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return false;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(token.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (clock.instant().getEpochSecond() >= expiresAt) {
+            return false;
+        }
+        byte[] expected = sign(expiresAt).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private String sign(long expiresAt) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal(Long.toString(expiresAt).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    private record MintedToken(String token, long expiresAt) {
+    }
+}
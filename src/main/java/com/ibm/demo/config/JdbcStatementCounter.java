@@ -0,0 +1,32 @@
+package com.ibm.demo.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * 計算目前執行緒送出的 JDBC round trip 數（單一 statement 執行或一次 batch 執行各算一次）。
+ *
+ * 由 Hibernate 以 hibernate.session.events.auto 為每個 Session 建立實例（見 application.yml），
+ * 無法注入 Spring bean，因此計數放在 ThreadLocal：呼叫端在同一執行緒內取前後差值即可得到該段工作的
+ * round trip 數（見 OrderWriteMetrics）。
+ */
+public class JdbcStatementCounter implements SessionEventListener {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * @return 目前執行緒累計的 JDBC round trip 數
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        COUNT.get()[0]++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        COUNT.get()[0]++;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ibm.demo.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ibm.demo.account.AccountClient;
+import com.ibm.demo.account.AccountService;
+import com.ibm.demo.account.LocalAccountClient;
+import com.ibm.demo.order.LocalOrderClient;
+import com.ibm.demo.order.OrderClient;
+import com.ibm.demo.order.OrderService;
+import com.ibm.demo.product.LocalProductClient;
+import com.ibm.demo.product.ProductClient;
+import com.ibm.demo.product.ProductService;
+
+/**
+ * 同 JVM（co-located）部署模式：app.internal-client.mode=local 時，將三個 {@code @HttpExchange}
+ * 介面直接綁定到本應用內的 Service，取代 RestClientConfig 的 loopback HTTP 綁定。
+ *
+ * 呼叫仍經過 Service 的 Spring proxy，因此 @Transactional / @Bulkhead / @RateLimiter /
+ * @CircuitBreaker 行為與走 HTTP 時一致；省下的是序列化、socket 與 Security filter chain（BCrypt）成本。
+ *
+ * AccountService 依賴 OrderClient、OrderService 又依賴 AccountClient，直接注入會形成循環依賴，
+ * 故以 ObjectProvider 延遲到實際呼叫時才取得 Service。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.internal-client", name = "mode", havingValue = "local")
+public class LocalClientConfig {
+
+    @Bean
+    AccountClient localAccountClient(ObjectProvider<AccountService> accountService) {
+        return new LocalAccountClient(accountService);
+    }
+
+    @Bean
+    OrderClient localOrderClient(ObjectProvider<OrderService> orderService) {
+        return new LocalOrderClient(orderService);
+    }
+
+    @Bean
+    ProductClient localProductClient(ObjectProvider<ProductService> productService) {
+        return new LocalProductClient(productService);
+    }
+}
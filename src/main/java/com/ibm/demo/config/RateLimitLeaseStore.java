@@ -0,0 +1,90 @@
+package com.ibm.demo.config;
+
+import java.util.List;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * RATE_LIMIT_BUCKET 的 JDBC 存取：所有 replica 共用的 token bucket，每次租借一批 token 給單一節點。
+ *
+ * 一次租借在同一個交易內完成：SELECT ... FOR UPDATE 鎖住該列 → 依經過時間補充（不超過容量）→ 扣除本次租出的數量。
+ * 補充以呼叫端傳入的時間計算，LAST_REFILL_MS 只會往前推進；節點間時鐘偏差只會讓補充稍慢，不會多發 token。
+ * 租借一律在獨立的短交易（REQUIRES_NEW）中執行：呼叫端已在業務交易中時，列鎖不會持有到業務交易結束，
+ * 租借失敗也不會把業務交易標記為 rollback-only。
+ */
+@Component
+public class RateLimitLeaseStore {
+
+    private static final String SELECT_FOR_UPDATE_SQL = """
+            SELECT TOKENS, LAST_REFILL_MS FROM RATE_LIMIT_BUCKET WHERE NAME = ? FOR UPDATE
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO RATE_LIMIT_BUCKET (NAME, TOKENS, LAST_REFILL_MS) VALUES (?, ?, ?)
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE RATE_LIMIT_BUCKET SET TOKENS = ?, LAST_REFILL_MS = ? WHERE NAME = ?
+            """;
+
+    // 租借只有三條短 SQL，逾時代表該列被長時間鎖住，交由呼叫端改用本地限流
+    private static final int LEASE_TIMEOUT_SECONDS = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public RateLimitLeaseStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setTimeout(LEASE_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * 從共用 bucket 租借最多 requested 個 token；bucket 不存在時以滿容量建立。
+     *
+     * @param name           @RateLimiter 的 name
+     * @param requested      希望租借的 token 數
+     * @param capacity       bucket 容量（limit-for-period）
+     * @param tokensPerMilli 每毫秒補充的 token 數（limit-for-period ÷ limit-refresh-period）
+     * @param nowMillis      目前時間（epoch 毫秒）
+     * @return 實際租到的 token 數，介於 0 與 requested 之間
+     */
+    public long lease(String name, long requested, double capacity, double tokensPerMilli, long nowMillis) {
+        Long granted = transactionTemplate.execute(status -> {
+            Bucket bucket = lockBucket(name);
+            if (bucket == null) {
+                insertIgnoringDuplicate(name, capacity, nowMillis);
+                bucket = lockBucket(name);
+            }
+            double elapsed = Math.max(0, nowMillis - bucket.lastRefillMillis());
+            double available = Math.min(capacity, bucket.tokens() + elapsed * tokensPerMilli);
+            long leased = Math.min(requested, (long) Math.floor(available));
+            jdbcTemplate.update(UPDATE_SQL, available - leased, Math.max(bucket.lastRefillMillis(), nowMillis), name);
+            return leased;
+        });
+        return granted != null ? granted : 0;
+    }
+
+    private Bucket lockBucket(String name) {
+        List<Bucket> rows = jdbcTemplate.query(SELECT_FOR_UPDATE_SQL,
+                (rs, rowNum) -> new Bucket(rs.getDouble("TOKENS"), rs.getLong("LAST_REFILL_MS")), name);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void insertIgnoringDuplicate(String name, double capacity, long nowMillis) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, name, capacity, nowMillis);
+        } catch (DuplicateKeyException e) {
+            // 其他節點同時建立了同一列，接著鎖住它即可
+        }
+    }
+
+    private record Bucket(double tokens, long lastRefillMillis) {
+    }
+}
@@ -1,7 +1,17 @@
 package com.ibm.demo.config;
 
+import java.time.Clock;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Resilience4j 配置類
  * 
@@ -11,9 +21,19 @@ import org.springframework.context.annotation.Configuration;
  * 使用方式：
  * - @Bulkhead(name = "database") - 控制並發數量
  * - @RateLimiter(name = "database") - 控制請求速率
+ *
+ * 啟用 app.cluster-rate-limit.enabled 時，@RateLimiter 另由 ClusterRateLimiter 以跨 replica 的共用 bucket 限流。
  */
 @Configuration
 public class Resilience4jConfig {
     // 配置由 application.yml 和 Resilience4j 自動配置處理
-    // 此類作為配置的標記和文檔說明
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "app.cluster-rate-limit", name = "enabled", havingValue = "true")
+    public ClusterRateLimiter clusterRateLimiter(RateLimitLeaseStore rateLimitLeaseStore,
+            RateLimiterRegistry rateLimiterRegistry, MeterRegistry meterRegistry, AppProperties appProperties) {
+        // 租借在虛擬執行緒上等待資料庫，不佔用請求執行緒；executor 隨 bean 銷毀而關閉
+        return new ClusterRateLimiter(rateLimitLeaseStore, rateLimiterRegistry, meterRegistry, appProperties,
+                Clock.systemUTC(), Executors.newVirtualThreadPerTaskExecutor());
+    }
 }
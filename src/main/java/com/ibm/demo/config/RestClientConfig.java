@@ -6,6 +6,7 @@ import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,8 +29,12 @@ import lombok.RequiredArgsConstructor;
  * 透過 Boot 4 HTTP Service Clients 自動註冊 {@code @HttpExchange} 介面為 bean。
  * {@code @ImportHttpServices} 將三個 client 歸入 "internal" group；底層 RestClient
  * （baseUrl / 自訂連線池 / 錯誤轉譯）由下方的 group configurer 統一設定。
+ *
+ * 僅在 app.internal-client.mode=http（預設）時生效；同 JVM 部署改用 local 模式時，
+ * 由 LocalClientConfig 將三個介面直接綁定到對應的 Service。
  */
 @Configuration
+@ConditionalOnProperty(prefix = "app.internal-client", name = "mode", havingValue = "http", matchIfMissing = true)
 @RequiredArgsConstructor
 @EnableConfigurationProperties({ AppProperties.class, HttpClientProperties.class })
 @ImportHttpServices(group = "internal", types = { AccountClient.class, OrderClient.class, ProductClient.class })
@@ -73,15 +78,24 @@ public class RestClientConfig {
      * base URL 指向本應用自己（loopback），因此加了 Spring Security 後這些自呼叫會撞上自己的
      * filter chain；為此掛上 internal 服務帳號的 HTTP Basic 憑證（見 SecurityConfig），讓自呼叫
      * 能通過認證。憑證由 app.auth.internal-* 提供，可由 env 覆寫。
+     *
+     * 另外每個請求都帶上 X-Internal-Token：reserve / release / adjustStock 等內部端點由 internal filter chain
+     * 以 HMAC 驗證 token，不必跑 BCrypt；其餘端點（如 /account/{id}、/product/batch）仍走 HTTP Basic。
+     * token 於送出時才取得，過了一半存活時間會自動換新。
      */
     @Bean
-    RestClientHttpServiceGroupConfigurer internalHttpServiceGroupConfigurer(RestClientErrorHandler errorHandler) {
+    RestClientHttpServiceGroupConfigurer internalHttpServiceGroupConfigurer(RestClientErrorHandler errorHandler,
+            InternalTokenService internalTokenService) {
         ClientHttpRequestFactory requestFactory = clientHttpRequestFactory();
         AppProperties.Auth auth = appProperties.getAuth();
         return groups -> groups.forEachClient((group, clientBuilder) -> clientBuilder
                 .baseUrl(appProperties.getBaseUrl())
                 .requestFactory(requestFactory)
                 .defaultHeaders(headers -> headers.setBasicAuth(auth.getInternalUsername(), auth.getInternalPassword()))
+                .requestInterceptor((request, body, execution) -> {
+                    request.getHeaders().set(InternalTokenService.HEADER, internalTokenService.currentToken());
+                    return execution.execute(request, body);
+                })
                 .defaultStatusHandler(HttpStatusCode::isError, (request, response) -> errorHandler.handle(response)));
     }
 }
@@ -1,9 +1,16 @@
 package com.ibm.demo.config;
 
+import java.time.Clock;
+import java.util.List;
+
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -15,9 +22,14 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import com.ibm.demo.config.properties.AppProperties;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -38,8 +50,43 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final List<RequestMatcher> INTERNAL_ENDPOINTS = List.of(
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, "/product/reserve"),
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, "/product/release"),
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, "/product/adjustStock"),
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.GET, "/order/account/{accountId}/exists"),
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.GET, "/account/{id}/order-eligibility"),
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, "/account/order-eligibility"));
+
     private final AppProperties appProperties;
 
+    /**
+     * 內部端點專用的 filter chain（優先於 apiFilterChain 比對）：只供 *Client 自呼叫使用的
+     * reserve / release / adjustStock / exists / order-eligibility。
+     * 以 X-Internal-Token（HMAC，見 InternalTokenService）認證，每次只需一次 HMAC 而非 BCrypt；
+     * 未帶 token 時仍可用 internal 帳號的 HTTP Basic。兩種方式都只接受 internal 身分（ROLE_INTERNAL）。
+     */
+    @Bean
+    @Order(1)
+    @Profile("!openapi")
+    SecurityFilterChain internalFilterChain(HttpSecurity http, InternalTokenService internalTokenService)
+            throws Exception {
+        http
+                .securityMatcher(new OrRequestMatcher(INTERNAL_ENDPOINTS))
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("INTERNAL"))
+                .addFilterBefore(new InternalTokenAuthenticationFilter(internalTokenService,
+                        appProperties.getAuth().getInternalUsername()), BasicAuthenticationFilter.class)
+                .httpBasic(Customizer.withDefaults());
+        return http.build();
+    }
+
+    @Bean
+    InternalTokenService internalTokenService() {
+        return new InternalTokenService(appProperties.getAuth().getInternalToken(), Clock.systemUTC());
+    }
+
     /**
      * 一般 profile 的 filter chain：純 REST、無狀態、HTTP Basic。放行監控與文件端點，其餘一律需認證。
      * actuator 以路徑比對（預設 base path /actuator）放行 health/info/prometheus；
@@ -76,6 +123,23 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * 帳密驗證：DaoAuthenticationProvider 以 BCrypt 比對密碼，外層包一層已驗證帳密快取
+     * （見 CachingAuthenticationProvider），讓每個請求不必都重跑 BCrypt。
+     * 註冊為 bean 後由全域 AuthenticationManager 採用，HTTP Basic filter 也透過它認證。
+     */
+    @Bean
+    AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder, MeterRegistry meterRegistry) {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider(userDetailsService);
+        daoProvider.setPasswordEncoder(passwordEncoder);
+        AppProperties.Auth.CredentialCache credentialCache = appProperties.getAuth().getCredentialCache();
+        if (!credentialCache.isEnabled()) {
+            return daoProvider;
+        }
+        return new CachingAuthenticationProvider(daoProvider, credentialCache, meterRegistry);
+    }
+
     @Bean
     PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
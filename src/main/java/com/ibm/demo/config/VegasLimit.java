@@ -0,0 +1,135 @@
+package com.ibm.demo.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+/**
+ * Vegas 式自適應併發上限（TCP Vegas 壅塞控制的同一套想法）：
+ *
+ * 以「無負載時的延遲」minRtt 為基準、window 內的平均延遲 rtt 為目前延遲，
+ * 估計目前排隊中的請求數 queue = limit × (1 − minRtt / rtt)：
+ * - queue ≤ alpha（3·log10(limit)）且確實用滿一半以上的上限：下游還有餘裕，上限 + log10(limit)。
+ * - queue ≥ beta（6·log10(limit)）：請求開始在下游（通常是 Hikari 連線池）排隊，上限 − log10(limit)。
+ * - 介於兩者之間維持不變。
+ * 下游真正的容量為 C 時，上限會收斂到 C 加上少量排隊（alpha ~ beta）的區間。
+ *
+ * 每個 window 計算一次。minRtt 取單筆呼叫的最小延遲（即使滿載，也總有呼叫一進來就拿到連線，不必排隊），
+ * 每 probe-interval 個 window 以當期最小值重設一次，讓下游變慢（資料量增長）後基準能跟著調整。重新計算由完成呼叫的執行緒以 CAS 搶到的那一個負責，不需要額外的排程執行緒。
+ * onLimitChanged 在該執行緒上呼叫，不可阻塞（例如 AdaptiveBulkheadLimiter 交給背景執行緒套用）。
+ */
+public class VegasLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int probeInterval;
+    private final IntConsumer onLimitChanged;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final AtomicLong windowMinRtt = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong windowStart;
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private volatile double limit;
+    private double minRtt;
+    private long windows;
+
+    public VegasLimit(int initialLimit, AppProperties.AdaptiveConcurrency properties, long nowNanos,
+            IntConsumer onLimitChanged) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.windowNanos = properties.getWindow().toNanos();
+        this.probeInterval = properties.getProbeInterval();
+        this.onLimitChanged = onLimitChanged;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.windowStart = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 目前的併發上限
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * 呼叫開始（已取得 bulkhead permit）。
+     */
+    public void onCallStarted() {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+    }
+
+    /**
+     * 呼叫未執行（被 bulkhead / rate limiter 拒絕），不計入延遲。
+     */
+    public void onCallDropped() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 呼叫完成：記錄延遲，window 到期時重新計算上限。
+     *
+     * @param startNanos 開始時間（System.nanoTime）
+     * @param endNanos   完成時間（System.nanoTime）
+     */
+    public void onCallFinished(long startNanos, long endNanos) {
+        inFlight.decrementAndGet();
+        long rtt = endNanos - startNanos;
+        rttSum.add(rtt);
+        samples.increment();
+        windowMinRtt.accumulateAndGet(rtt, Math::min);
+        if (endNanos - windowStart.get() >= windowNanos && updating.compareAndSet(false, true)) {
+            try {
+                // 取得更新權後再確認一次，避免剛被別的執行緒更新過的 window 又被重算
+                if (endNanos - windowStart.get() >= windowNanos) {
+                    windowStart.set(endNanos);
+                    update();
+                }
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    private void update() {
+        long count = samples.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        long sampleMinRtt = windowMinRtt.getAndSet(Long.MAX_VALUE);
+        int peakInFlight = maxInFlight.getAndSet(inFlight.get());
+        if (count == 0) {
+            return;
+        }
+        double rtt = (double) sum / count;
+        windows++;
+        if (minRtt == 0 || sampleMinRtt < minRtt || windows % probeInterval == 0) {
+            minRtt = Math.max(1, sampleMinRtt);
+        }
+
+        double current = limit;
+        double log = Math.max(1, Math.log10(current));
+        double queue = current * (1 - minRtt / rtt);
+        double next = current;
+        if (queue <= 3 * log) {
+            // 沒用滿上限時延遲低是因為流量少，不代表下游有餘裕，不放大上限
+            if (peakInFlight >= current / 2) {
+                next = current + log;
+            }
+        } else if (queue >= 6 * log) {
+            next = current - log;
+        }
+        next = Math.clamp(next, minLimit, maxLimit);
+        limit = next;
+        if ((int) next != (int) current) {
+            onLimitChanged.accept((int) next);
+        }
+    }
+}
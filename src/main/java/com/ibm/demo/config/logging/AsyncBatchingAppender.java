@@ -0,0 +1,231 @@
+package com.ibm.demo.config.logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+/**
+ * 非同步、批次輸出的 Logback appender（設定見 logback-spring.xml）。
+ *
+ * - 請求執行緒只把事件放進 {@link BoundedRingBuffer}（無鎖），不碰下游 appender 的鎖與 I/O，
+ *   虛擬執行緒不會因 appender 鎖或磁碟 flush 卡住 carrier。
+ * - 單一背景執行緒一次取出最多 batchSize 筆交給下游 appender，整批寫完後才 flush 一次；
+ *   下游 OutputStreamAppender 應設定 immediateFlush=false，由這裡統一 flush。
+ *   buffer 空了就 park 到有新事件（append 時 unpark），沒有日誌時背景執行緒不會被喚醒。
+ * - buffer 滿時依 overflowPolicy 處理：
+ *   DROP：INFO 以下直接丟棄並計數，WARN 以上仍等待空位（最多 maxBlockMillis）。
+ *   BLOCK：所有事件都等待空位（最多 maxBlockMillis），逾時才丟棄。
+ * - 排隊深度、容量與丟棄數由 AsyncLogMetrics 發佈為 logging.async.* 指標。
+ */
+public class AsyncBatchingAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private int capacity = 8192;
+    private int batchSize = 256;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private long maxBlockMillis = 100;
+
+    private BoundedRingBuffer<ILoggingEvent> buffer;
+    private Thread worker;
+    private volatile boolean running;
+    // 背景執行緒已（或即將）park；append 只在此時 unpark，平常不多一次系統呼叫
+    private volatile boolean idle;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        buffer = new BoundedRingBuffer<>(capacity);
+        running = true;
+        // 平台執行緒：長駐的 I/O 迴圈，不需要虛擬執行緒
+        worker = Thread.ofPlatform().daemon().name("async-log-writer-" + getName()).start(this::drainLoop);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // 在呼叫端執行緒先固定 MDC、訊息格式化等內容，背景執行緒寫出時才不會讀到別的請求的狀態
+        event.prepareForDeferredProcessing();
+        if (buffer.offer(event)) {
+            wakeWorker();
+            return;
+        }
+        boolean mayBlock = overflowPolicy == OverflowPolicy.BLOCK || event.getLevel().isGreaterOrEqual(Level.WARN);
+        if (mayBlock && offerWithin(event, TimeUnit.MILLISECONDS.toNanos(maxBlockMillis))) {
+            wakeWorker();
+            return;
+        }
+        dropped.increment();
+    }
+
+    private void wakeWorker() {
+        if (idle) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private boolean offerWithin(ILoggingEvent event, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drainBatch() == 0) {
+                idle = true;
+                // 先標記 idle 再檢查一次：在兩者之間放入的事件，其 append 必定看得到 idle 而 unpark
+                if (buffer.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+            }
+        }
+        // 關閉時把剩下的事件寫完
+        int drained;
+        do {
+            drained = drainBatch();
+        } while (drained > 0);
+    }
+
+    private int drainBatch() {
+        int count = 0;
+        ILoggingEvent event;
+        while (count < batchSize && (event = buffer.poll()) != null) {
+            appenders.appendLoopOnAppenders(event);
+            count++;
+        }
+        if (count > 0) {
+            flushAppenders();
+        }
+        return count;
+    }
+
+    private void flushAppenders() {
+        Iterator<Appender<ILoggingEvent>> it = appenders.iteratorForAppenders();
+        while (it.hasNext()) {
+            if (it.next() instanceof OutputStreamAppender<ILoggingEvent> streamAppender) {
+                OutputStream out = streamAppender.getOutputStream();
+                if (out != null) {
+                    try {
+                        out.flush();
+                    } catch (IOException e) {
+                        addError("Failed to flush appender [" + streamAppender.getName() + "]", e);
+                    }
+                }
+            }
+        }
+    }
+
+    // ---- 指標（見 AsyncLogMetrics）----
+
+    public int getQueueDepth() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    public int getQueueCapacity() {
+        return buffer == null ? capacity : buffer.capacity();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // ---- logback-spring.xml 設定 ----
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setMaxBlockMillis(long maxBlockMillis) {
+        this.maxBlockMillis = maxBlockMillis;
+    }
+
+    // ---- AppenderAttachable：委派給 AppenderAttachableImpl ----
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
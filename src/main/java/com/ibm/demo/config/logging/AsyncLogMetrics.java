@@ -0,0 +1,49 @@
+package com.ibm.demo.config.logging;
+
+import java.util.Iterator;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 將 root logger 上的 {@link AsyncBatchingAppender} 發佈為指標（tag appender=名稱）：
+ * - logging.async.queue.depth：排隊中的事件數。
+ * - logging.async.queue.capacity：ring buffer 容量。
+ * - logging.async.dropped：buffer 滿而被丟棄的事件數。
+ */
+@Component
+public class AsyncLogMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> it = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (it.hasNext()) {
+            if (it.next() instanceof AsyncBatchingAppender appender) {
+                Gauge.builder("logging.async.queue.depth", appender, AsyncBatchingAppender::getQueueDepth)
+                        .description("Log events waiting in the async appender buffer")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                Gauge.builder("logging.async.queue.capacity", appender, AsyncBatchingAppender::getQueueCapacity)
+                        .description("Async appender buffer capacity")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                FunctionCounter.builder("logging.async.dropped", appender, AsyncBatchingAppender::getDroppedCount)
+                        .description("Log events dropped because the async appender buffer was full")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+            }
+        }
+    }
+}
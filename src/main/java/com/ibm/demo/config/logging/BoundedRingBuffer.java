@@ -0,0 +1,94 @@
+package com.ibm.demo.config.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 固定容量、無鎖的多生產者 / 單一消費者 ring buffer（Vyukov bounded queue）。
+ *
+ * 每個槽位帶一個序號：生產者以 CAS 推進 tail 取得槽位，寫入後把序號設為 pos + 1 發佈給消費者；
+ * 消費者取走後把序號設為 pos + capacity，讓下一輪的生產者可以重用。滿了 {@link #offer(Object)} 直接回傳 false，
+ * 不會阻塞，也不會像 synchronized / ReentrantLock 那樣讓虛擬執行緒卡住 carrier。
+ *
+ * @param <E> 元素型別
+ */
+final class BoundedRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity 容量，會進位到 2 的次方
+     */
+    BoundedRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.items = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 放入一個元素；buffer 已滿時回傳 false。可由多個執行緒同時呼叫。
+     */
+    boolean offer(E item) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items.set(index, item);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 取出一個元素；沒有已發佈的元素時回傳 null。只能由單一消費者執行緒呼叫。
+     */
+    E poll() {
+        long pos = head.get();
+        int index = (int) (pos & mask);
+        if (sequences.get(index) != pos + 1) {
+            return null;
+        }
+        E item = items.get(index);
+        items.set(index, null);
+        sequences.set(index, pos + mask + 1);
+        head.set(pos + 1);
+        return item;
+    }
+
+    /**
+     * @return 目前排隊中的元素數（近似值）
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * @return 沒有任何已取得槽位的元素時為 true（生產者取得槽位但尚未發佈時為 false）
+     */
+    boolean isEmpty() {
+        return tail.get() == head.get();
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
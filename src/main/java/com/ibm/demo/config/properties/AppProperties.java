@@ -1,12 +1,24 @@
 package com.ibm.demo.config.properties;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.validation.annotation.Validated;
 
+import com.ibm.demo.config.AdmissionQueue;
+
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -23,12 +35,70 @@ public class AppProperties {
     @NestedConfigurationProperty
     private Auth auth = new Auth();
 
+    @Valid
+    @NestedConfigurationProperty
+    private InternalClient internalClient = new InternalClient();
+
+    @Valid
+    @NestedConfigurationProperty
+    private Inventory inventory = new Inventory();
+
+    @Valid
+    @NestedConfigurationProperty
+    private ProductCache productCache = new ProductCache();
+
+    @Valid
+    @NestedConfigurationProperty
+    private AccountEligibilityCache accountEligibilityCache = new AccountEligibilityCache();
+
+    @Valid
+    @NestedConfigurationProperty
+    private Pagination pagination = new Pagination();
+
+    @Valid
+    @NestedConfigurationProperty
+    private Tracing tracing = new Tracing();
+
+    @Valid
+    @NestedConfigurationProperty
+    private AdaptiveConcurrency adaptiveConcurrency = new AdaptiveConcurrency();
+
+    @Valid
+    @NestedConfigurationProperty
+    private Admission admission = new Admission();
+
+    @Valid
+    @NestedConfigurationProperty
+    private ClusterRateLimit clusterRateLimit = new ClusterRateLimit();
+
+    @Valid
+    @NestedConfigurationProperty
+    private Idempotency idempotency = new Idempotency();
+
+    @Valid
+    @NestedConfigurationProperty
+    private StockSaga stockSaga = new StockSaga();
+
+    @Valid
+    @NestedConfigurationProperty
+    private BulkOrder bulkOrder = new BulkOrder();
+
+    @Valid
+    @NestedConfigurationProperty
+    private ProductImport productImport = new ProductImport();
+
+    @Valid
+    @NestedConfigurationProperty
+    private OrderExport orderExport = new OrderExport();
+
     /**
      * HTTP Basic 認證帳密：
      * - api：一般 API 呼叫端使用。
      * - internal：供內部 *Client loopback 自呼叫帶入，讓自呼叫能通過自己的 Security filter chain
      *   （見 RestClientConfig）。
      * 帳密以 env 覆寫（見 application.yml 的 app.auth.*）。
+     * - credential-cache：已驗證帳密快取（見 CachingAuthenticationProvider）。
+     * - internal-token：內部端點的 HMAC token（見 InternalTokenService）。
      */
     @Getter
     @Setter
@@ -41,5 +111,360 @@ public class AppProperties {
         private String internalUsername;
         @NotBlank
         private String internalPassword;
+
+        @Valid
+        @NestedConfigurationProperty
+        private CredentialCache credentialCache = new CredentialCache();
+
+        /**
+         * 已驗證帳密快取：同一組帳密在 ttl 內重複認證時不再跑 BCrypt。
+         * - ttl：驗證成功後可沿用多久；帳密輪替後舊帳密最多仍可用這麼久。
+         * - maximum-size：最多快取幾組帳密。
+         */
+        @Getter
+        @Setter
+        public static class CredentialCache {
+            private boolean enabled = true;
+
+            @NotNull
+            private Duration ttl = Duration.ofSeconds(60);
+
+            @Positive
+            private long maximumSize = 1_000;
+        }
+
+        @Valid
+        @NestedConfigurationProperty
+        private InternalToken internalToken = new InternalToken();
+
+        /**
+         * 內部服務 token：
+         * - secret：HMAC 簽章金鑰；未設定時於啟動時隨機產生，只有同一個 JVM 的 loopback 呼叫能驗證。
+         * - ttl：token 存活時間，發出端過了一半即重新簽發。
+         */
+        @Getter
+        @Setter
+        public static class InternalToken {
+            private String secret;
+
+            @NotNull
+            private Duration ttl = Duration.ofMinutes(5);
+        }
+    }
+
+    /**
+     * 內部 *Client（AccountClient / OrderClient / ProductClient）的綁定方式：
+     * - http：走 loopback HTTP（預設），模組拆分部署時使用（見 RestClientConfig）。
+     * - local：同 JVM 部署時直接綁定到對應的 Service，省去序列化、socket 與 BCrypt 認證成本
+     *   （見 LocalClientConfig）。
+     */
+    @Getter
+    @Setter
+    public static class InternalClient {
+        @NotNull
+        private Mode mode = Mode.HTTP;
+
+        public enum Mode {
+            HTTP,
+            LOCAL
+        }
+    }
+
+    /**
+     * 庫存設定：
+     * - striping：熱門商品庫存分桶（stock bucket）模式。啟用後，經 POST /product/{id}/stock-buckets
+     *   分桶的商品，其 AVAILABLE / RESERVED 會分散到 bucket-count 個 PRODUCT_STOCK_BUCKET 列，
+     *   預留時隨機挑一個 bucket 起跳、不足再往相鄰 bucket 找，避免所有訂單搶同一列鎖。
+     *   enabled 只控制能否再分桶；關閉後已分桶商品的庫存仍留在 bucket，查詢、預留與更新照常讀寫 bucket。
+     */
+    @Getter
+    @Setter
+    public static class Inventory {
+        @Valid
+        @NestedConfigurationProperty
+        private Striping striping = new Striping();
+
+        @Getter
+        @Setter
+        public static class Striping {
+            private boolean enabled = false;
+
+            @Positive
+            private int bucketCount = 8;
+        }
+    }
+
+    /**
+     * 商品目錄快取（見 ProductCatalogCache）：
+     * - maximum-size：最多快取的商品筆數，超過時依 Caffeine 的 W-TinyLFU 策略逐出。
+     * - expire-after-write：寫入後存活時間，作為漏失失效通知時的上限。商品異動只失效本節點的快取，
+     *   其他 replica 最多仍回傳舊的名稱 / 價格這麼久。
+     */
+    @Getter
+    @Setter
+    public static class ProductCache {
+        @Positive
+        private long maximumSize = 10_000;
+
+        @NotNull
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+
+    /**
+     * 訂單端的帳戶下單資格快取（見 AccountEligibilityCache）：
+     * - eligible-ttl：具資格的結果可沿用多久；同一個 JVM 內由帳戶異動事件立即失效，
+     *   其他 replica 收不到事件，停用 / 刪除帳戶後最多仍可下單這麼久。
+     * - ineligible-ttl：不具資格（查無或已停用）的結果可沿用多久，擋下對同一個帳戶 ID 的重複查詢。
+     * - maximum-size：最多快取幾個帳戶。
+     */
+    @Getter
+    @Setter
+    public static class AccountEligibilityCache {
+        private boolean enabled = true;
+
+        @NotNull
+        private Duration eligibleTtl = Duration.ofMinutes(1);
+
+        @NotNull
+        private Duration ineligibleTtl = Duration.ofSeconds(10);
+
+        @Positive
+        private long maximumSize = 100_000;
+    }
+
+    /**
+     * 分頁設定（見 CountEstimateCache）：
+     * - count-estimate-ttl：Slice 列表附帶的總筆數估計值快取多久，期間內不重複 COUNT(*)。
+     * - count-estimate-maximum-size：最多快取幾個列表的估計值（例如每個帳戶的訂單列表各一筆）。
+     */
+    @Getter
+    @Setter
+    public static class Pagination {
+        @NotNull
+        private Duration countEstimateTtl = Duration.ofSeconds(30);
+
+        @Positive
+        private long countEstimateMaximumSize = 10_000;
+    }
+
+    /**
+     * Controller / Service 追蹤（見 LoggingAspect）：
+     * - default-sample-rate：DEBUG 啟用時，記錄參數與回傳值的呼叫比例（0–1）。
+     * - sample-rates：個別方法的抽樣率，鍵為「類別簡名.方法名」，例如 [OrderController.createOrder]: 1.0。
+     * - max-render-length：參數 / 回傳值轉成字串後的長度上限。
+     * 執行時間不受抽樣影響，一律記錄到 method.execution Timer。
+     */
+    @Getter
+    @Setter
+    public static class Tracing {
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double defaultSampleRate = 0.01;
+
+        @NotNull
+        private Map<String, @DecimalMin("0.0") @DecimalMax("1.0") Double> sampleRates = new HashMap<>();
+
+        @Positive
+        private int maxRenderLength = 256;
+    }
+
+    /**
+     * 自適應併發上限（見 AdaptiveBulkheadLimiter、VegasLimit）：依實測延遲調整各 @Bulkhead 的 max-concurrent-calls，
+     * resilience4j.bulkhead.instances 的設定值只作為起始值。
+     * - bulkheads：要自適應的 bulkhead 名稱；留空表示全部。
+     * - min-limit / max-limit：上限的調整範圍。
+     * - window：每隔多久依該期間的平均延遲重新計算一次。
+     * - probe-interval：每幾個 window 重設一次無負載延遲基準（minRtt）。
+     */
+    @Getter
+    @Setter
+    public static class AdaptiveConcurrency {
+        private boolean enabled = false;
+
+        @NotNull
+        private Set<String> bulkheads = new HashSet<>();
+
+        @Positive
+        private int minLimit = 2;
+
+        @Positive
+        private int maxLimit = 1_000;
+
+        @NotNull
+        private Duration window = Duration.ofSeconds(1);
+
+        @Positive
+        private int probeInterval = 60;
+    }
+
+    /**
+     * bulkhead 准入佇列（見 AdmissionController）：滿載時請求排隊等待，而非立即 503。
+     * - ordering：FIFO 或 PRIORITY（寫入優先於讀取）。
+     * - default-deadline：最多等待多久；預估等待時間超過此值的請求直接拒絕。
+     * - deadlines / priorities：個別設定，鍵為「類別簡名.方法名」或 bulkhead 名稱，例如 [order-write]: 1s。
+     */
+    @Getter
+    @Setter
+    public static class Admission {
+        private boolean enabled = false;
+
+        @NotNull
+        private AdmissionQueue.Ordering ordering = AdmissionQueue.Ordering.PRIORITY;
+
+        @NotNull
+        private Duration defaultDeadline = Duration.ofMillis(200);
+
+        @NotNull
+        private Map<String, Duration> deadlines = new HashMap<>();
+
+        @NotNull
+        private Map<String, AdmissionQueue.Priority> priorities = new HashMap<>();
+    }
+
+    /**
+     * 跨 replica 共用的 @RateLimiter 上限（見 ClusterRateLimiter）。
+     * - rate-limiters：只對這些名稱生效，空集合代表全部。
+     * - lease-fraction：每次從共用 bucket 租借的數量佔 limit-for-period 的比例。
+     * - replicas：共用 bucket 無法存取時，各節點改用 limit-for-period ÷ replicas 的本地上限。
+     * - retry-interval：本地限流期間多久再嘗試共用 bucket。
+     */
+    @Getter
+    @Setter
+    public static class ClusterRateLimit {
+        private boolean enabled = false;
+
+        @NotNull
+        private Set<String> rateLimiters = new HashSet<>();
+
+        @DecimalMin("0.01")
+        @DecimalMax("1.0")
+        private double leaseFraction = 0.1;
+
+        @Positive
+        private int replicas = 1;
+
+        @NotNull
+        private Duration retryInterval = Duration.ofSeconds(5);
+    }
+
+    /**
+     * POST /order 的 Idempotency-Key 去重（見 OrderIdempotencyStore）。
+     * - key-ttl：訂單建立後，同一個鍵多久內的重送回傳原訂單 ID。
+     * - pending-timeout：第一次請求處理中的保留時間，逾時（例如處理中途當機）後可由重送接手。
+     * - recent-key-cache-*：最近完成的鍵的記憶體快取，命中時不查詢資料庫。
+     * - purge-interval / purge-batch-size：背景刪除過期鍵的間隔與每批筆數。
+     */
+    @Getter
+    @Setter
+    public static class Idempotency {
+        @NotNull
+        private Duration keyTtl = Duration.ofHours(24);
+
+        @NotNull
+        private Duration pendingTimeout = Duration.ofSeconds(30);
+
+        @Positive
+        private long recentKeyCacheSize = 10_000;
+
+        @NotNull
+        private Duration recentKeyCacheTtl = Duration.ofMinutes(10);
+
+        @NotNull
+        private Duration purgeInterval = Duration.ofMinutes(10);
+
+        @Positive
+        private int purgeBatchSize = 1_000;
+    }
+
+    /**
+     * 訂單與庫存的 saga 補償（見 StockSaga / StockCompensationDispatcher）。
+     * - in-flight-timeout：補償寫入 outbox 後，多久內視為請求仍在處理中而不套用（也是 dispatcher 取走一批後的保留時間）。
+     * - dispatch-interval / batch-size：背景套用補償的間隔與每批筆數。
+     * - initial-backoff / max-backoff / max-attempts：套用失敗時的指數退避；超過次數後標記為 FAILED 待人工處理。
+     * - operation-retention / operation-purge-interval：商品端庫存操作 ID 的保留期限與清除間隔。
+     */
+    @Getter
+    @Setter
+    public static class StockSaga {
+        @NotNull
+        private Duration inFlightTimeout = Duration.ofSeconds(30);
+
+        @NotNull
+        private Duration dispatchInterval = Duration.ofSeconds(1);
+
+        @Positive
+        private int batchSize = 100;
+
+        @NotNull
+        private Duration initialBackoff = Duration.ofSeconds(1);
+
+        @NotNull
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        @Positive
+        private int maxAttempts = 20;
+
+        @NotNull
+        private Duration operationRetention = Duration.ofDays(7);
+
+        @NotNull
+        private Duration operationPurgeInterval = Duration.ofHours(1);
+    }
+
+    /**
+     * 批次建立訂單（POST /order/bulk，見 OrderService.createOrders）。
+     * - max-orders：單次請求的訂單筆數上限；帳戶資格以一次 IN 查詢驗證，故不得超過 Oracle IN 清單上限 1000。
+     */
+    @Getter
+    @Setter
+    public static class BulkOrder {
+        @Positive
+        @Max(1_000)
+        private int maxOrders = 500;
+    }
+
+    /**
+     * 商品批次匯入（POST /product/import，見 ProductImportService）。
+     * - max-concurrent：同時進行的匯入數；匯入會長時間佔用一條連線，不走自適應的 @Bulkhead，超過時回 503。
+     * - chunk-size：每個交易寫入的列數，也是名稱重複檢查一次 IN 查詢的名稱數（不得超過 Oracle IN 清單上限 1000）。
+     * - max-error-samples：每次匯入保留的被拒列明細上限，超過只計數，讓記憶體不隨檔案大小成長。
+     * - history-size：GET /product/import 保留的最近匯入筆數。
+     */
+    @Getter
+    @Setter
+    public static class ProductImport {
+        @Positive
+        private int maxConcurrent = 2;
+
+        @Positive
+        @Max(1_000)
+        private int chunkSize = 500;
+
+        @Positive
+        private int maxErrorSamples = 100;
+
+        @Positive
+        private int historySize = 20;
+    }
+
+    /**
+     * 訂單 NDJSON 匯出（GET /order/account/{accountId}/export，見 OrderExportService）。
+     * - max-concurrent：同時進行的匯出數；匯出期間佔用一條資料庫連線，超過時回 503。
+     * - fetch-size：JDBC 游標每次向資料庫取回的列數（Oracle 驅動預設僅 10）。
+     * - chunk-size：每累積幾張訂單（或幾個不重複商品）查詢一次商品價格並 flush 到輸出串流。
+     */
+    @Getter
+    @Setter
+    public static class OrderExport {
+        @Positive
+        private int maxConcurrent = 2;
+
+        @Positive
+        private int fetchSize = 500;
+
+        // 商品價格以 IN 查詢，上限受 Oracle 的 IN 清單 1000 個元素限制
+        @Positive
+        @Max(1000)
+        private int chunkSize = 200;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.ibm.demo.exception.BusinessLogicCheck;
+
+import com.ibm.demo.util.ErrorCode;
+
+public class IdempotencyKeyInUseException extends BusinessException {
+    public IdempotencyKeyInUseException(String message) {
+        super(ErrorCode.IDEMPOTENCY_KEY_IN_USE, message);
+    }
+}
@@ -0,0 +1,165 @@
+package com.ibm.demo.order;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ibm.demo.account.AccountEligibilityChangedEvent;
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.exception.BusinessLogicCheck.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 訂單端的帳戶下單資格快取：建立訂單前的 AccountClient.assertCanPlaceOrder 命中時不必再經過一次
+ * 帳戶服務（HTTP + findById）。
+ *
+ * - 具資格與不具資格（帳戶服務回 ResourceNotFoundException）都會快取，存活時間分別為
+ *   app.account-eligibility-cache 的 eligible-ttl / ineligible-ttl；其他例外（逾時、服務不可用）不快取。
+ * - AccountService 建立、變更狀態、刪除帳戶時發佈 {@link AccountEligibilityChangedEvent}，
+ *   commit 後失效該帳戶；收不到事件的其他 replica 以 TTL 作為過期上限。
+ * - 查詢期間若發生失效，查詢結果不放入快取，避免以失效前讀到的狀態覆蓋。
+ * - 命中 / 未命中 / 逐出數以 cache.gets、cache.evictions（tag cache=account-eligibility）發佈到 Micrometer。
+ */
+@Component
+public class AccountEligibilityCache {
+
+    static final String CACHE_NAME = "account-eligibility";
+
+    private final boolean enabled;
+    private final Cache<Integer, Boolean> cache;
+    // 每次失效遞增；查詢前後不同代表期間有失效，結果可能已過時
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AccountEligibilityCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.AccountEligibilityCache properties = appProperties.getAccountEligibilityCache();
+        long eligibleNanos = properties.getEligibleTtl().toNanos();
+        long ineligibleNanos = properties.getIneligibleTtl().toNanos();
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<Integer, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(Integer accountId, Boolean eligible, long currentTime) {
+                        return eligible ? eligibleNanos : ineligibleNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Integer accountId, Boolean eligible, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(accountId, eligible, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Integer accountId, Boolean eligible, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 驗證帳戶具下單資格：命中快取時直接判斷，未命中時以 check 查詢帳戶服務並記住結果。
+     *
+     * @param accountId 帳戶 ID
+     * @param check     向帳戶服務驗證的函式（例如 AccountClient::assertCanPlaceOrder）
+     * @throws ResourceNotFoundException 帳戶不存在或已停用
+     */
+    public void assertCanPlaceOrder(Integer accountId, Consumer<Integer> check) {
+        if (!enabled) {
+            check.accept(accountId);
+            return;
+        }
+        Boolean eligible = cache.getIfPresent(accountId);
+        if (eligible != null) {
+            if (!eligible) {
+                throw new ResourceNotFoundException("Account not found with id: " + accountId);
+            }
+            return;
+        }
+
+        long generation = invalidations.get();
+        try {
+            check.accept(accountId);
+        } catch (ResourceNotFoundException e) {
+            putIfNotInvalidated(accountId, false, generation);
+            throw e;
+        }
+        putIfNotInvalidated(accountId, true, generation);
+    }
+
+    /**
+     * 批次版的 {@link #assertCanPlaceOrder(Integer, Consumer)}：命中快取的帳戶直接判斷，
+     * 未命中者以一次 loader 呼叫查詢帳戶服務，查詢結果（具資格與不具資格）都放入快取。
+     *
+     * @param accountIds 帳戶 ID 集合
+     * @param loader     批次查詢具資格帳戶 ID 的函式（例如 AccountClient::findOrderEligibleAccountIds）
+     * @return 具下單資格的帳戶 ID
+     */
+    public Set<Integer> findEligible(Set<Integer> accountIds, Function<Set<Integer>, Set<Integer>> loader) {
+        if (!enabled) {
+            return loader.apply(accountIds);
+        }
+        Set<Integer> eligible = new HashSet<>();
+        Set<Integer> misses = new HashSet<>();
+        for (Integer accountId : accountIds) {
+            Boolean cached = cache.getIfPresent(accountId);
+            if (cached == null) {
+                misses.add(accountId);
+            } else if (cached) {
+                eligible.add(accountId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return eligible;
+        }
+
+        long generation = invalidations.get();
+        Set<Integer> loaded = loader.apply(misses);
+        for (Integer accountId : misses) {
+            boolean isEligible = loaded.contains(accountId);
+            putIfNotInvalidated(accountId, isEligible, generation);
+            if (isEligible) {
+                eligible.add(accountId);
+            }
+        }
+        return eligible;
+    }
+
+    /**
+     * 帳戶異動 commit 後失效該帳戶；未在交易中發佈的事件立即處理。
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountEligibilityChanged(AccountEligibilityChangedEvent event) {
+        invalidate(event.accountId());
+    }
+
+    /**
+     * 失效單一帳戶。
+     *
+     * @param accountId 帳戶 ID
+     */
+    public void invalidate(Integer accountId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(accountId);
+    }
+
+    private void putIfNotInvalidated(Integer accountId, boolean eligible, long generation) {
+        cache.put(accountId, eligible);
+        if (invalidations.get() != generation) {
+            cache.invalidate(accountId);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ibm.demo.order.DTO;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Builder;
+
+/**
+ * 批次建立訂單請求。個別訂單不做 Bean Validation 級聯（不加 @Valid），
+ * 由 OrderService.createOrders 逐筆驗證，不合法的訂單只讓該筆失敗，不影響同批其他訂單。
+ */
+@Builder
+@Schema(description = "批次建立訂單請求")
+public record BulkCreateOrderRequest(
+        @NotEmpty(message = "Orders are required")
+        @Schema(description = "要建立的訂單（筆數上限見 app.bulk-order.max-orders）", requiredMode = Schema.RequiredMode.REQUIRED)
+        List<CreateOrderRequest> orders) {
+}
@@ -0,0 +1,19 @@
+package com.ibm.demo.order.DTO;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+@Builder
+@Schema(description = "批次建立訂單回應")
+public record BulkCreateOrderResponse(
+        @Schema(description = "建立成功的筆數", example = "9")
+        int succeeded,
+
+        @Schema(description = "建立失敗的筆數", example = "1")
+        int failed,
+
+        @Schema(description = "逐筆結果，順序與請求的 orders 相同")
+        List<BulkCreateOrderResult> results) {
+}
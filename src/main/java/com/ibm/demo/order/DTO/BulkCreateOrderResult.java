@@ -0,0 +1,20 @@
+package com.ibm.demo.order.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+@Builder
+@Schema(description = "批次建立訂單中單筆訂單的結果")
+public record BulkCreateOrderResult(
+        @Schema(description = "訂單在請求 orders 中的索引（從 0 開始）", example = "0")
+        int index,
+
+        @Schema(description = "建立成功時的訂單 ID，失敗時為 null", example = "1")
+        Integer orderId,
+
+        @Schema(description = "失敗時的錯誤代碼（同 ApiErrorResponse.code），成功時為 null", example = "SYS_002")
+        String errorCode,
+
+        @Schema(description = "失敗原因，成功時為 null", example = "同一訂單中同一商品只能有一筆明細，請合併重複的商品明細後再提交訂單。")
+        String message) {
+}
@@ -0,0 +1,26 @@
+package com.ibm.demo.order.DTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+@Builder
+@Schema(description = "訂單匯出（NDJSON 的一行）")
+public record ExportOrderResponse(
+        @Schema(description = "訂單 ID", example = "1")
+        Integer orderId,
+
+        @Schema(description = "帳戶 ID", example = "1")
+        Integer accountId,
+
+        @Schema(description = "訂單狀態 (1001=訂單建立)", example = "1001")
+        Integer status,
+
+        @Schema(description = "訂單總金額；任一明細的商品已下架而查無價格時為 null", example = "500.00")
+        BigDecimal totalAmount,
+
+        @Schema(description = "訂單明細項目列表（商品已下架時 productName / productPrice 為 null）")
+        List<OrderItemDTO> items) {
+}
@@ -36,7 +36,7 @@ public class OrderDetail {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_detail_seq_gen")
-    @SequenceGenerator(name = "order_detail_seq_gen", sequenceName = "order_product_detail_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "order_detail_seq_gen", sequenceName = "order_product_detail_id_seq", allocationSize = 50) // pooled，見 V4 migration
     @Column(name = "ID", columnDefinition = "NUMBER(10)")
     private Integer id;
 
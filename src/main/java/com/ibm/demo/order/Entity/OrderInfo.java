@@ -37,7 +37,7 @@ public class OrderInfo {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq_gen")
-    @SequenceGenerator(name = "order_seq_gen", sequenceName = "order_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "order_seq_gen", sequenceName = "order_id_seq", allocationSize = 50) // pooled，見 V4 migration
     @Column(name = "ID", columnDefinition = "NUMBER(10)")
     private Integer id;
 
@@ -0,0 +1,18 @@
+package com.ibm.demo.order;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * OrderClient 的同 JVM 實作：直接委派給 OrderService（見 LocalClientConfig）。
+ */
+@RequiredArgsConstructor
+public class LocalOrderClient implements OrderClient {
+    private final ObjectProvider<OrderService> orderService;
+
+    @Override
+    public Boolean accountIdIsInOrder(Integer accountId) {
+        return orderService.getObject().isActiveAccountInOrder(accountId);
+    }
+}
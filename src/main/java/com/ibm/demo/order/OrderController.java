@@ -1,7 +1,10 @@
 package com.ibm.demo.order;
 
+import java.nio.charset.StandardCharsets;
+
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,15 +12,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ibm.demo.exception.ApiErrorResponse;
+import com.ibm.demo.order.DTO.BulkCreateOrderRequest;
+import com.ibm.demo.order.DTO.BulkCreateOrderResponse;
 import com.ibm.demo.order.DTO.CreateOrderRequest;
+import com.ibm.demo.order.DTO.ExportOrderResponse;
 import com.ibm.demo.order.DTO.GetOrderDetailResponse;
 import com.ibm.demo.order.DTO.GetOrderListResponse;
 import com.ibm.demo.order.DTO.UpdateOrderRequest;
+import com.ibm.demo.util.CursorPageRequest;
+import com.ibm.demo.util.CursorPageResponse;
 import com.ibm.demo.util.PageResponse;
+import com.ibm.demo.util.SliceResponse;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,6 +37,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -35,20 +47,35 @@ import lombok.RequiredArgsConstructor;
 @Tag(name = "Order", description = "訂單管理 API")
 public class OrderController {
         private final OrderService orderService;
+        private final OrderExportService orderExportService;
 
         // Create Order
-        @Operation(summary = "建立新訂單", description = "建立新訂單。先驗證帳戶具下單資格（受 SQLRestriction 限制，停用或不存在的帳戶一律回傳 NotFound），檢查訂單內是否有重複商品（重複則拋出 InvalidRequestException），最後透過商品服務預留庫存（商品不可銷售視為 NotFound、庫存不足則拋出 ProductStockNotEnoughException）。成功則新增訂單主檔（預設狀態 1001）與明細。")
+        @Operation(summary = "建立新訂單", description = "建立新訂單。先驗證帳戶具下單資格（受 SQLRestriction 限制，停用或不存在的帳戶一律回傳 NotFound），檢查訂單內是否有重複商品（重複則拋出 InvalidRequestException），最後透過商品服務預留庫存（商品不可銷售視為 NotFound、庫存不足則拋出 ProductStockNotEnoughException）。成功則新增訂單主檔（預設狀態 1001）與明細。帶 Idempotency-Key 時，相同鍵與相同內容的重送直接回傳原訂單 ID（不同內容回 400，第一次請求仍在處理中回 409）。")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "建立成功，回傳訂單 ID"),
                         @ApiResponse(responseCode = "400", description = "參數驗證失敗、重複商品或庫存不足", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
-                        @ApiResponse(responseCode = "404", description = "帳戶不具下單資格或商品不存在", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+                        @ApiResponse(responseCode = "404", description = "帳戶不具下單資格或商品不存在", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+                        @ApiResponse(responseCode = "409", description = "相同 Idempotency-Key 的請求仍在處理中", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
         })
         @PostMapping
-        public ResponseEntity<Integer> createOrder(@Valid @RequestBody CreateOrderRequest createOrderRequest) {
-                Integer orderId = orderService.createOrder(createOrderRequest);
+        public ResponseEntity<Integer> createOrder(@Valid @RequestBody CreateOrderRequest createOrderRequest,
+                        @Parameter(description = "冪等鍵（1~64 個可見 ASCII 字元，例如 UUID）；重送相同鍵時回傳原訂單 ID") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+                Integer orderId = orderService.createOrder(createOrderRequest, idempotencyKey);
                 return ResponseEntity.ok(orderId);
         }
 
+        // Create Orders (Bulk)
+        @Operation(summary = "批次建立訂單", description = "一次建立多筆訂單（筆數上限見 app.bulk-order.max-orders），規則與 POST /order 相同，但逐筆回報結果：個別訂單參數不合法、含重複商品或帳戶不具下單資格時只有該筆失敗。整批帳戶資格以一次查詢驗證、庫存依商品加總後一次預留，訂單在同一個交易中以 JDBC batch 寫入；整批預留被拒（例如某商品庫存不足）時改為逐筆預留，只有預留不到的訂單失敗。不支援 Idempotency-Key。")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "已處理，逐筆結果見 results（成功者帶 orderId，失敗者帶 errorCode 與 message）"),
+                        @ApiResponse(responseCode = "400", description = "orders 為空或超過筆數上限", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+        })
+        @PostMapping("/bulk")
+        public ResponseEntity<BulkCreateOrderResponse> createOrders(
+                        @Valid @RequestBody BulkCreateOrderRequest bulkCreateOrderRequest) {
+                return ResponseEntity.ok(orderService.createOrders(bulkCreateOrderRequest.orders()));
+        }
+
         // Read Order List (Paginated)
         @Operation(summary = "獲取帳戶訂單清單（分頁）", description = "獲取該帳戶的所有有效訂單分頁清單。受限於SQLRestriction規則，僅會回傳未被軟刪除且狀態為 1001 (CREATED) 的訂單。")
         @ApiResponse(responseCode = "200", description = "成功取得訂單分頁列表")
@@ -61,6 +88,50 @@ public class OrderController {
                 return ResponseEntity.ok(orderPage);
         }
 
+        // Read Order List (Slice)
+        @Operation(summary = "獲取帳戶訂單清單（不計總數分頁）", description = "與 GET /order/account/{accountId} 相同的 Offset 分頁，但不執行 COUNT(*)，以多取一筆判斷 hasNext，適合不需顯示「第 X 頁 / 共 Y 頁」的呼叫端。estimate=true 時附帶快取的總筆數估計值（TTL 見 app.pagination.count-estimate-ttl）。")
+        @ApiResponse(responseCode = "200", description = "成功取得訂單分頁列表")
+        @GetMapping("/account/{accountId}/slice")
+        public ResponseEntity<SliceResponse<GetOrderListResponse>> getOrderSlice(
+                        @Parameter(description = "帳戶 ID", example = "1", required = true) @PathVariable Integer accountId,
+                        @Parameter(description = "分頁參數（page=頁碼從0開始, size=每頁筆數, sort=排序欄位,方向）", example = "page=0&size=20&sort=id,asc") @PageableDefault(size = 20) Pageable pageable,
+                        @Parameter(description = "是否附帶總筆數估計值") @RequestParam(defaultValue = "false") boolean estimate) {
+                return ResponseEntity.ok(orderService.getOrderSliceByAccountId(accountId, pageable, estimate));
+        }
+
+        // Read Order List (Cursor)
+        @Operation(summary = "獲取帳戶訂單清單（游標分頁）", description = "以訂單 ID 遞增的游標分頁獲取該帳戶的有效訂單，不計算總筆數，適合深頁或無限捲動。第一頁不傳 after，之後帶入上一頁回傳的 nextCursor；cursor 格式錯誤或 size 超出 1~100 則拋出 InvalidRequestException。")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "成功取得訂單游標分頁列表"),
+                        @ApiResponse(responseCode = "400", description = "游標或每頁筆數不合法", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+        })
+        @GetMapping("/account/{accountId}/cursor")
+        public ResponseEntity<CursorPageResponse<GetOrderListResponse>> getOrderListByCursor(
+                        @Parameter(description = "帳戶 ID", example = "1", required = true) @PathVariable Integer accountId,
+                        @Parameter(description = "上一頁回傳的 nextCursor，第一頁不傳") @RequestParam(required = false) String after,
+                        @Parameter(description = "每頁筆數", example = "20") @RequestParam(defaultValue = "20") int size) {
+                return ResponseEntity.ok(orderService.getOrderListByAccountIdByCursor(accountId,
+                                CursorPageRequest.of(after, size)));
+        }
+
+        // Export Order List (NDJSON)
+        @Operation(summary = "匯出帳戶訂單（NDJSON 串流）", description = "以 NDJSON（每行一張訂單，含明細與總金額）串流匯出該帳戶的所有有效訂單，依訂單 ID 遞增排序；條件與 GET /order/account/{accountId} 相同（未軟刪除且狀態為 1001）。資料庫游標逐批讀取、商品價格逐批查詢並邊查邊寫出，伺服器記憶體用量與訂單數無關。同時進行的匯出數上限見 app.order-export.max-concurrent。開始寫出後才發生的錯誤只會使內容截斷，無法再改變狀態碼。")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "匯出內容（application/x-ndjson）", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ExportOrderResponse.class))),
+                        @ApiResponse(responseCode = "503", description = "同時進行的匯出已達上限", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+        })
+        @GetMapping("/account/{accountId}/export")
+        public void exportOrders(
+                        @Parameter(description = "帳戶 ID", example = "1", required = true) @PathVariable Integer accountId,
+                        HttpServletResponse response) {
+                // 不宣告 produces 且在第一次寫出時才設定 Content-Type：寫出前的錯誤仍可由 GlobalExceptionHandler 回傳 JSON 格式的 ApiErrorResponse
+                orderExportService.exportOrders(accountId, () -> {
+                        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                        return response.getOutputStream();
+                });
+        }
+
         // Read Order Detail
         @Operation(summary = "獲取訂單詳細資訊", description = "獲取指定訂單的詳細資訊。受限於SQLRestriction規則，若訂單不存在、已被軟刪除或狀態非 1001 (CREATED)，將回傳 NotFound。")
         @ApiResponses(value = {
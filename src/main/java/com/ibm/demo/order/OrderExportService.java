@@ -0,0 +1,234 @@
+package com.ibm.demo.order;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.order.DTO.ExportOrderResponse;
+import com.ibm.demo.order.DTO.OrderItemDTO;
+import com.ibm.demo.product.ProductCatalogCache;
+import com.ibm.demo.product.ProductClient;
+import com.ibm.demo.product.DTO.GetProductDetailResponse;
+import com.ibm.demo.util.ServiceValidator;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 以 NDJSON 串流匯出帳戶的所有有效訂單，記憶體用量與訂單數無關：
+ * 1. 以一個 forward-only、read-only 的 JDBC 游標依訂單 ID 順序讀取表頭與明細（fetch-size 見 app.order-export），
+ *    不經過 Hibernate，沒有持久化內容會隨讀取筆數成長。
+ * 2. 每累積 chunk-size 張訂單，以一次 ProductCatalogCache.getAll 取得這批訂單涉及的商品價格（未命中才呼叫商品服務），
+ *    寫出後 flush 到輸出串流，再清空這批訂單。
+ * 條件與 OrderInfo / OrderDetail 的 @SQLRestriction 相同（未刪除且狀態為 1001）。
+ */
+@Slf4j
+@Service
+public class OrderExportService {
+
+    private static final String EXPORT_SQL = """
+            SELECT o.ID, o.STATUS, d.PRODUCT_ID, d.QUANTITY
+            FROM ORDER_INFO o
+            LEFT JOIN ORDER_PRODUCT_DETAIL d ON d.ORDER_ID = o.ID AND d.DELETED = false
+            WHERE o.ACCOUNT_ID = ? AND o.DELETED = false AND o.STATUS = 1001
+            ORDER BY o.ID
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductClient productClient;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int chunkSize;
+    // 不放進 BulkheadRegistry：匯出長時間佔用連線，不應被自適應併發上限放大，也不排入准入佇列
+    private final Bulkhead bulkhead;
+
+    public OrderExportService(JdbcTemplate jdbcTemplate, ProductCatalogCache productCatalogCache,
+            ProductClient productClient, ObjectMapper objectMapper, AppProperties appProperties) {
+        AppProperties.OrderExport properties = appProperties.getOrderExport();
+        this.jdbcTemplate = jdbcTemplate;
+        this.productCatalogCache = productCatalogCache;
+        this.productClient = productClient;
+        this.objectMapper = objectMapper;
+        this.fetchSize = properties.getFetchSize();
+        this.chunkSize = properties.getChunkSize();
+        this.bulkhead = Bulkhead.of("order-export", BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getMaxConcurrent())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    /**
+     * 將帳戶的有效訂單以 NDJSON（每行一個 {@link ExportOrderResponse}）寫入輸出串流。
+     * 輸出串流在第一次寫出前才開啟，之前發生的錯誤（例如 BulkheadFullException）仍可由呼叫端回傳錯誤回應；
+     * 開始寫出後發生的錯誤無法再改變 HTTP 狀態碼，呼叫端只會收到截斷的內容（每一行仍是完整的 JSON）。
+     *
+     * @param accountId 帳戶 ID
+     * @param output    開啟輸出串流的函式（例如設定回應標頭後回傳 HttpServletResponse 的 OutputStream）
+     * @return 匯出的訂單數
+     * @throws io.github.resilience4j.bulkhead.BulkheadFullException 同時進行的匯出已達 app.order-export.max-concurrent
+     */
+    public long exportOrders(Integer accountId, ExportOutput output) {
+        ServiceValidator.validateNotNull(accountId, "Account ID");
+        return bulkhead.executeSupplier(() -> {
+            OrderExportWriter writer = new OrderExportWriter(accountId, output);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setInt(1, accountId);
+                return statement;
+            }, writer);
+            writer.finish();
+            log.info("訂單匯出完成，帳戶ID: {}, 訂單數: {}", accountId, writer.exported);
+            return writer.exported;
+        });
+    }
+
+    private Map<Integer, GetProductDetailResponse> fetchProductDetails(Set<Integer> productIds) {
+        return productClient.getProductDetails(productIds).stream()
+                .collect(Collectors.toMap(GetProductDetailResponse::id, product -> product));
+    }
+
+    /**
+     * 匯出內容的輸出目的地，於第一次寫出前開啟一次。
+     */
+    @FunctionalInterface
+    public interface ExportOutput {
+        OutputStream open() throws IOException;
+    }
+
+    /**
+     * 游標的每一列是一筆明細（無明細的訂單為一列 PRODUCT_ID 為 null），同一張訂單的列相鄰。
+     */
+    private final class OrderExportWriter implements RowCallbackHandler {
+
+        private final Integer accountId;
+        private final ExportOutput output;
+        private final List<PendingOrder> chunk = new ArrayList<>();
+        private final Set<Integer> productIds = new HashSet<>();
+        private OutputStream outputStream;
+        private PendingOrder current;
+        private long exported;
+
+        private OrderExportWriter(Integer accountId, ExportOutput output) {
+            this.accountId = accountId;
+            this.output = output;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            int orderId = rs.getInt("ID");
+            if (current == null || current.orderId() != orderId) {
+                if (current != null) {
+                    add(current);
+                }
+                current = new PendingOrder(orderId, rs.getInt("STATUS"), new ArrayList<>());
+            }
+            int productId = rs.getInt("PRODUCT_ID");
+            if (!rs.wasNull()) {
+                current.items().add(new PendingItem(productId, rs.getInt("QUANTITY")));
+                productIds.add(productId);
+            }
+        }
+
+        private void add(PendingOrder order) {
+            chunk.add(order);
+            if (chunk.size() >= chunkSize || productIds.size() >= chunkSize) {
+                writeChunk();
+            }
+        }
+
+        private void finish() {
+            if (current != null) {
+                chunk.add(current);
+                current = null;
+            }
+            writeChunk();
+            // 沒有任何訂單時仍開啟輸出串流，回傳空的內容
+            try {
+                outputStream().flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private OutputStream outputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = output.open();
+            }
+            return outputStream;
+        }
+
+        private void writeChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Map<Integer, GetProductDetailResponse> products = productIds.isEmpty()
+                    ? Map.of()
+                    : productCatalogCache.getAll(Set.copyOf(productIds), OrderExportService.this::fetchProductDetails);
+            try {
+                OutputStream out = outputStream();
+                for (PendingOrder order : chunk) {
+                    out.write(objectMapper.writeValueAsBytes(toResponse(order, products)));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            exported += chunk.size();
+            chunk.clear();
+            productIds.clear();
+        }
+
+        private ExportOrderResponse toResponse(PendingOrder order, Map<Integer, GetProductDetailResponse> products) {
+            List<OrderItemDTO> items = new ArrayList<>(order.items().size());
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            for (PendingItem item : order.items()) {
+                GetProductDetailResponse product = products.get(item.productId());
+                items.add(OrderItemDTO.builder()
+                        .productId(item.productId())
+                        .productName(product == null ? null : product.name())
+                        .quantity(item.quantity())
+                        .productPrice(product == null ? null : product.price())
+                        .build());
+                // 查無價格時總金額無法計算，整張訂單的 totalAmount 為 null
+                totalAmount = product == null || totalAmount == null
+                        ? null
+                        : totalAmount.add(product.price().multiply(BigDecimal.valueOf(item.quantity())));
+            }
+            return ExportOrderResponse.builder()
+                    .orderId(order.orderId())
+                    .accountId(accountId)
+                    .status(order.status())
+                    .totalAmount(totalAmount)
+                    .items(items)
+                    .build();
+        }
+    }
+
+    private record PendingOrder(int orderId, int status, List<PendingItem> items) {
+    }
+
+    private record PendingItem(int productId, int quantity) {
+    }
+}
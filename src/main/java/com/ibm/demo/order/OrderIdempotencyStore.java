@@ -0,0 +1,257 @@
+package com.ibm.demo.order;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.exception.BusinessLogicCheck.IdempotencyKeyInUseException;
+import com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException;
+import com.ibm.demo.order.DTO.CreateOrderDetailRequest;
+import com.ibm.demo.order.DTO.CreateOrderRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * POST /order 的 Idempotency-Key 去重：ORDER_IDEMPOTENCY_KEY 表 + 最近完成的鍵的記憶體快取。
+ *
+ * - claim：第一次出現的鍵寫入一筆「處理中」（ORDER_ID 為 NULL，到期時間為 pending-timeout）；
+ *   已完成的鍵直接回傳原訂單 ID，呼叫端不再預留庫存或寫入訂單。
+ * - 同一個鍵但請求內容不同時回 400；第一次請求仍在處理中時回 409，避免重試風暴同時重複下單。
+ * - complete 在建立訂單的同一個交易中寫入訂單 ID，交易提交後才放入快取；建立失敗時以 release 刪除處理中的鍵。
+ * - 使用權以取得時寫入的 EXPIRES_AT_MS 為憑證（見 {@link Claim}）：complete 與 release 只作用在憑證仍相符的處理中資料列，
+ *   處理超過 pending-timeout 而被重送接手後，原請求的 complete 拋出 409 讓訂單回滾，release 不會刪除接手者的鍵。
+ * - 過期的鍵由 {@link #purgeExpired()} 定期分批刪除；快取命中以 cache.*（tag cache=idempotency-key）發佈，
+ *   重送次數以 order.idempotency.replayed 發佈。
+ */
+@Slf4j
+@Component
+public class OrderIdempotencyStore {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO ORDER_IDEMPOTENCY_KEY (IDEMPOTENCY_KEY, REQUEST_HASH, ORDER_ID, EXPIRES_AT_MS)
+            VALUES (?, ?, NULL, ?)
+            """;
+
+    private static final String SELECT_SQL = """
+            SELECT REQUEST_HASH, ORDER_ID, EXPIRES_AT_MS FROM ORDER_IDEMPOTENCY_KEY WHERE IDEMPOTENCY_KEY = ?
+            """;
+
+    // 接手已過期的鍵：以讀到的到期時間作為條件，兩個重送同時接手時只有一個成功
+    private static final String TAKE_OVER_SQL = """
+            UPDATE ORDER_IDEMPOTENCY_KEY SET REQUEST_HASH = ?, ORDER_ID = NULL, EXPIRES_AT_MS = ?
+            WHERE IDEMPOTENCY_KEY = ? AND EXPIRES_AT_MS = ?
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE ORDER_IDEMPOTENCY_KEY SET ORDER_ID = ?, EXPIRES_AT_MS = ?
+            WHERE IDEMPOTENCY_KEY = ? AND ORDER_ID IS NULL AND EXPIRES_AT_MS = ?
+            """;
+
+    private static final String RELEASE_SQL = """
+            DELETE FROM ORDER_IDEMPOTENCY_KEY WHERE IDEMPOTENCY_KEY = ? AND ORDER_ID IS NULL AND EXPIRES_AT_MS = ?
+            """;
+
+    private static final String PURGE_SQL = """
+            DELETE FROM ORDER_IDEMPOTENCY_KEY WHERE EXPIRES_AT_MS < ? AND ROWNUM <= ?
+            """;
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AppProperties.Idempotency properties;
+    private final Cache<String, Completed> recentKeys;
+    private final Counter replayed;
+
+    public OrderIdempotencyStore(JdbcTemplate jdbcTemplate, AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = appProperties.getIdempotency();
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(properties.getRecentKeyCacheSize())
+                .expireAfterWrite(properties.getRecentKeyCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recentKeys, "idempotency-key");
+        this.replayed = Counter.builder("order.idempotency.replayed")
+                .description("Order creations answered from a previous request with the same Idempotency-Key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 取得鍵的使用權。
+     *
+     * @param key         Idempotency-Key（1~64 個可見 ASCII 字元）
+     * @param requestHash 請求內容的 SHA-256 摘要（見 {@link #fingerprint(CreateOrderRequest)}）
+     * @return 鍵已完成時為帶有原訂單 ID 的重送結果；成功取得使用權時呼叫端須再以同一個 Claim 呼叫 complete 或 release
+     * @throws InvalidRequestException       鍵格式錯誤，或同一個鍵搭配不同的請求內容
+     * @throws IdempotencyKeyInUseException 同一個鍵的請求仍在處理中
+     */
+    public Claim claim(String key, String requestHash) {
+        validateKey(key);
+        Completed cached = recentKeys.getIfPresent(key);
+        if (cached != null) {
+            return Claim.replay(key, replay(key, cached.requestHash(), cached.orderId(), requestHash));
+        }
+
+        long now = System.currentTimeMillis();
+        long pendingExpiresAt = now + properties.getPendingTimeout().toMillis();
+        try {
+            jdbcTemplate.update(INSERT_SQL, key, requestHash, pendingExpiresAt);
+            return new Claim(key, requestHash, null, pendingExpiresAt);
+        } catch (DuplicateKeyException e) {
+            // 鍵已存在，依現有資料判斷
+        }
+
+        List<Entry> rows = jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> new Entry(rs.getString("REQUEST_HASH"), rs.getObject("ORDER_ID", Integer.class),
+                        rs.getLong("EXPIRES_AT_MS")),
+                key);
+        if (rows.isEmpty()) {
+            // 剛好被清除，視為處理中，讓呼叫端稍後重試
+            throw new IdempotencyKeyInUseException("Idempotency-Key 正在處理中，請稍後再試: " + key);
+        }
+        Entry entry = rows.get(0);
+        if (entry.expiresAtMillis() < now) {
+            // 接手後的到期時間必大於原到期時間，原請求的憑證因此失效
+            if (jdbcTemplate.update(TAKE_OVER_SQL, requestHash, pendingExpiresAt, key, entry.expiresAtMillis()) == 1) {
+                return new Claim(key, requestHash, null, pendingExpiresAt);
+            }
+            throw new IdempotencyKeyInUseException("Idempotency-Key 正在處理中，請稍後再試: " + key);
+        }
+        if (!entry.requestHash().equals(requestHash)) {
+            throw new InvalidRequestException("Idempotency-Key 已用於不同的訂單內容: " + key);
+        }
+        if (entry.orderId() == null) {
+            throw new IdempotencyKeyInUseException("Idempotency-Key 正在處理中，請稍後再試: " + key);
+        }
+        recentKeys.put(key, new Completed(entry.orderId(), entry.requestHash()));
+        return Claim.replay(key, replay(key, entry.requestHash(), entry.orderId(), requestHash));
+    }
+
+    /**
+     * 記錄鍵對應的訂單 ID，須在建立訂單的交易中呼叫；交易提交後才放入快取。
+     *
+     * @throws IdempotencyKeyInUseException 使用權已逾時並被重送接手，呼叫端的交易應回滾
+     */
+    public void complete(Claim claim, Integer orderId) {
+        String key = claim.key();
+        int updated = jdbcTemplate.update(COMPLETE_SQL, orderId,
+                System.currentTimeMillis() + properties.getKeyTtl().toMillis(), key, claim.expiresAtMillis());
+        if (updated == 0) {
+            throw new IdempotencyKeyInUseException("Idempotency-Key 的處理已逾時並由其他請求接手: " + key);
+        }
+        Completed completed = new Completed(orderId, claim.requestHash());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentKeys.put(key, completed);
+                }
+            });
+        } else {
+            recentKeys.put(key, completed);
+        }
+    }
+
+    /**
+     * 建立訂單失敗時放棄使用權，讓之後的重送可以重新嘗試；使用權已被接手時不刪除。
+     */
+    public void release(Claim claim) {
+        jdbcTemplate.update(RELEASE_SQL, claim.key(), claim.expiresAtMillis());
+    }
+
+    /**
+     * 分批刪除過期的鍵，每批最多 purge-batch-size 筆，避免一次刪除過多資料列長時間持有鎖。
+     *
+     * @return 刪除的筆數
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:10m}",
+            initialDelayString = "${app.idempotency.purge-interval:10m}")
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, now, properties.getPurgeBatchSize());
+            total += deleted;
+        } while (deleted == properties.getPurgeBatchSize());
+        if (total > 0) {
+            log.debug("已刪除 {} 筆過期的 Idempotency-Key", total);
+        }
+        return total;
+    }
+
+    /**
+     * 請求內容的 SHA-256 摘要（64 個十六進位字元）：帳戶 ID 與依商品 ID 排序後的明細（商品 ID、數量），
+     * 明細順序不同視為相同內容；32 位元雜湊容易碰撞，會讓不同內容的請求被當成重送。
+     */
+    public static String fingerprint(CreateOrderRequest request) {
+        String items = request.items() == null ? "" : request.items().stream()
+                .sorted(Comparator.comparing(CreateOrderDetailRequest::productId,
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(CreateOrderDetailRequest::quantity,
+                                Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(item -> item.productId() + ":" + item.quantity())
+                .collect(Collectors.joining(","));
+        String canonical = request.accountId() + "|" + items;
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // 每個 JDK 都必須提供 SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Integer replay(String key, String storedHash, Integer orderId, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new InvalidRequestException("Idempotency-Key 已用於不同的訂單內容: " + key);
+        }
+        replayed.increment();
+        log.info("Idempotency-Key 重送，回傳原訂單ID: {}", orderId);
+        return orderId;
+    }
+
+    private static void validateKey(String key) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH || !key.chars().allMatch(c -> c > 0x20 && c < 0x7F)) {
+            throw new InvalidRequestException("Idempotency-Key 須為 1~" + MAX_KEY_LENGTH + " 個可見 ASCII 字元");
+        }
+    }
+
+    /**
+     * claim 的結果。existingOrderId 不為 null 表示鍵已完成、這次是重送；
+     * 否則呼叫端取得使用權，expiresAtMillis 是取得時寫入的到期時間，complete / release 以它確認使用權仍屬於自己。
+     */
+    public record Claim(String key, String requestHash, Integer existingOrderId, long expiresAtMillis) {
+
+        private static Claim replay(String key, Integer orderId) {
+            return new Claim(key, null, orderId, 0);
+        }
+
+        public boolean isReplay() {
+            return existingOrderId != null;
+        }
+    }
+
+    private record Entry(String requestHash, Integer orderId, long expiresAtMillis) {
+    }
+
+    private record Completed(Integer orderId, String requestHash) {
+    }
+}
@@ -1,21 +1,32 @@
 package com.ibm.demo.order;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import com.ibm.demo.account.AccountClient;
+import com.ibm.demo.config.properties.AppProperties;
 import com.ibm.demo.enums.OrderStatus;
+import com.ibm.demo.exception.BusinessLogicCheck.BusinessException;
 import com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException;
 import com.ibm.demo.exception.BusinessLogicCheck.OrderStatusInvalidException;
 import com.ibm.demo.exception.BusinessLogicCheck.ResourceNotFoundException;
+import com.ibm.demo.order.DTO.BulkCreateOrderResponse;
+import com.ibm.demo.order.DTO.BulkCreateOrderResult;
+import com.ibm.demo.order.DTO.CreateOrderDetailRequest;
 import com.ibm.demo.order.DTO.CreateOrderRequest;
 import com.ibm.demo.order.DTO.GetOrderDetailResponse;
 import com.ibm.demo.order.DTO.GetOrderListResponse;
@@ -24,12 +35,17 @@ import com.ibm.demo.order.DTO.UpdateOrderRequest;
 import com.ibm.demo.order.Entity.OrderDetail;
 import com.ibm.demo.order.Entity.OrderInfo;
 import com.ibm.demo.order.Repository.OrderInfoRepository;
+import com.ibm.demo.product.ProductCatalogCache;
 import com.ibm.demo.product.ProductClient;
 import com.ibm.demo.product.DTO.GetProductDetailResponse;
-import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
 import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+import com.ibm.demo.util.CountEstimateCache;
+import com.ibm.demo.util.CursorPageRequest;
+import com.ibm.demo.util.CursorPageResponse;
+import com.ibm.demo.util.ErrorCode;
 import com.ibm.demo.util.PageResponse;
 import com.ibm.demo.util.ServiceValidator;
+import com.ibm.demo.util.SliceResponse;
 
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -46,6 +62,12 @@ public class OrderService {
         private final AccountClient accountClient;
         private final ProductClient productClient;
         private final OrderTransactionalService orderTransactionalService;
+        private final ProductCatalogCache productCatalogCache;
+        private final CountEstimateCache countEstimateCache;
+        private final OrderIdempotencyStore orderIdempotencyStore;
+        private final StockSaga stockSaga;
+        private final AccountEligibilityCache accountEligibilityCache;
+        private final AppProperties appProperties;
 
         /**
          * 注入Repository和Client，已用lombok註解RequiredArgsConstructor定義建構子。
@@ -54,6 +76,12 @@ public class OrderService {
          * @param orderDetailRepository 訂單明細資料庫存取介面
          * @param accountClient         帳戶服務的Client，用於驗證帳戶狀態
          * @param productClient         商品服務的Client，用於驗證商品庫存和獲取商品資訊
+         * @param productCatalogCache   商品目錄快取，訂單讀取時優先由此取得商品名稱與價格
+         * @param countEstimateCache    Slice 列表的總筆數估計值快取
+         * @param orderIdempotencyStore 建立訂單的 Idempotency-Key 去重
+         * @param stockSaga             庫存異動與本地交易的 saga，本地交易失敗時由 outbox 補償庫存
+         * @param accountEligibilityCache 帳戶下單資格快取，命中時不必呼叫帳戶服務
+         * @param appProperties         批次建立訂單的筆數上限（app.bulk-order）
          */
 
         /**
@@ -62,12 +90,49 @@ public class OrderService {
         @Bulkhead(name = "order-write")
         @RateLimiter(name = "order-write")
         public Integer createOrder(CreateOrderRequest createOrderRequest) {
+                return createOrder(createOrderRequest, null);
+        }
+
+        /**
+         * 建立訂單；帶 Idempotency-Key 時，同一個鍵的重送直接回傳原訂單 ID，不再驗證帳戶、預留庫存或寫入訂單。
+         *
+         * @param createOrderRequest 建立訂單請求
+         * @param idempotencyKey     Idempotency-Key，可為 null（不去重）
+         * @return 訂單 ID
+         */
+        @Bulkhead(name = "order-write")
+        @RateLimiter(name = "order-write")
+        public Integer createOrder(CreateOrderRequest createOrderRequest, String idempotencyKey) {
                 ServiceValidator.validateNotNull(createOrderRequest, "Create order request");
                 ServiceValidator.validateNotNull(createOrderRequest.accountId(), "Account ID");
                 ServiceValidator.validateNotEmpty(createOrderRequest.items(), "Order details");
-                // 驗證帳戶具下單資格（資格規則由帳戶領域負責）
+                if (idempotencyKey == null) {
+                        return reserveAndCreateOrder(createOrderRequest, null);
+                }
+
+                OrderIdempotencyStore.Claim claim = orderIdempotencyStore.claim(idempotencyKey,
+                                OrderIdempotencyStore.fingerprint(createOrderRequest));
+                if (claim.isReplay()) {
+                        return claim.existingOrderId();
+                }
+                try {
+                        return reserveAndCreateOrder(createOrderRequest, claim);
+                } catch (RuntimeException e) {
+                        // 放棄這個鍵，讓之後的重送可以重新建立；刪除失敗時鍵會在 pending-timeout 後過期
+                        try {
+                                orderIdempotencyStore.release(claim);
+                        } catch (RuntimeException releaseEx) {
+                                log.warn("釋放 Idempotency-Key 失敗: {}", releaseEx.getMessage());
+                        }
+                        throw e;
+                }
+        }
+
+        private Integer reserveAndCreateOrder(CreateOrderRequest createOrderRequest,
+                        OrderIdempotencyStore.Claim claim) {
+                // 驗證帳戶具下單資格（資格規則由帳戶領域負責，結果由 AccountEligibilityCache 快取）
                 Integer accountId = createOrderRequest.accountId();
-                accountClient.assertCanPlaceOrder(accountId);
+                accountEligibilityCache.assertCanPlaceOrder(accountId, accountClient::assertCanPlaceOrder);
 
                 // 驗證並轉換訂單明細，確保同一訂單中同一商品只有一筆明細
                 Set<OrderItemRequest> uniqueItems = validateAndConvertToUniqueItems(
@@ -75,29 +140,201 @@ public class OrderService {
                                 detail -> detail.productId(),
                                 detail -> detail.quantity());
 
-                productClient.reserveStock(uniqueItems);
+                // 預留庫存後再寫入訂單；寫入失敗時由 outbox 的補償歸還庫存（見 StockSaga）
+                return stockSaga.execute(Set.of(), uniqueItems, "建立訂單 帳戶ID: " + accountId,
+                                () -> claim == null
+                                                ? orderTransactionalService.createOrder(createOrderRequest)
+                                                : orderTransactionalService.createOrder(createOrderRequest, claim));
+        }
 
-                // 將資料庫操作委派給交易服務，若失敗則補償歸還庫存
-                try {
-                        return orderTransactionalService.createOrder(createOrderRequest);
-                } catch (Exception e) {
-                        // 補償: 釋放已預留的庫存
+        /**
+         * 批次建立訂單，整批只佔用一次 order-write 的 bulkhead / rate limiter 許可：
+         * 1. 逐筆驗證（帳戶 ID、明細欄位、同一訂單內的重複商品），不合法的訂單只讓該筆失敗。
+         * 2. 整批去重後的帳戶 ID 以一次查詢驗證下單資格（AccountEligibilityCache 命中者不再查詢）。
+         * 3. 依商品加總整批的數量，以一次 adjustStock 預留庫存。
+         * 4. 在同一個交易中以 JDBC batch 寫入整批訂單（OrderTransactionalService.createOrders）。
+         * 整批預留被拒（例如其中某項商品庫存不足）時改為逐筆預留與寫入，只有預留不到的訂單失敗；
+         * 整批預留成功但寫入失敗（或預留結果不明）時整批的補償仍在 outbox 中，不再逐筆預留，整批標記為失敗。
+         *
+         * @param createOrderRequests 建立訂單請求，筆數上限為 app.bulk-order.max-orders
+         * @return 逐筆結果，順序與請求相同
+         * @throws InvalidRequestException 請求為空或超過筆數上限
+         */
+        @Bulkhead(name = "order-write")
+        @RateLimiter(name = "order-write")
+        public BulkCreateOrderResponse createOrders(List<CreateOrderRequest> createOrderRequests) {
+                ServiceValidator.validateNotNull(createOrderRequests, "Orders");
+                ServiceValidator.validateNotEmpty(createOrderRequests, "Orders");
+                int maxOrders = appProperties.getBulkOrder().getMaxOrders();
+                if (createOrderRequests.size() > maxOrders) {
+                        throw new InvalidRequestException("單次最多建立 " + maxOrders + " 筆訂單，目前為 "
+                                        + createOrderRequests.size() + " 筆。");
+                }
+
+                // 1. 逐筆驗證，一次走完整批
+                BulkCreateOrderResult[] results = new BulkCreateOrderResult[createOrderRequests.size()];
+                List<BulkOrderCandidate> candidates = new ArrayList<>();
+                for (int i = 0; i < createOrderRequests.size(); i++) {
+                        CreateOrderRequest request = createOrderRequests.get(i);
                         try {
-                                productClient.releaseStock(uniqueItems);
-                        } catch (Exception compensationEx) {
-                                log.error("建立訂單失敗後，補償歸還庫存也失敗，需人工介入處理。" +
-                                                "帳戶ID: {}, 商品清單: {}, 原始異常: {}, 補償異常: {}",
-                                                createOrderRequest.accountId(),
-                                                uniqueItems.stream()
-                                                                .map(item -> String.format("商品%d(數量%d)",
-                                                                                item.productId(), item.quantity()))
-                                                                .collect(Collectors.joining(", ")),
-                                                e.getMessage(),
-                                                compensationEx.getMessage(),
-                                                compensationEx);
+                                candidates.add(new BulkOrderCandidate(i, request, validateBulkOrder(request)));
+                        } catch (BusinessException e) {
+                                results[i] = bulkFailure(i, e.getErrorCode(), e.getMessage());
                         }
-                        throw e;
                 }
+
+                // 2. 帳戶資格：整批只查詢一次
+                Set<Integer> accountIds = candidates.stream()
+                                .map(candidate -> candidate.request().accountId())
+                                .collect(Collectors.toSet());
+                Set<Integer> eligibleAccountIds = accountIds.isEmpty()
+                                ? Set.of()
+                                : accountEligibilityCache.findEligible(accountIds,
+                                                accountClient::findOrderEligibleAccountIds);
+                List<BulkOrderCandidate> eligibleCandidates = new ArrayList<>();
+                for (BulkOrderCandidate candidate : candidates) {
+                        Integer accountId = candidate.request().accountId();
+                        if (eligibleAccountIds.contains(accountId)) {
+                                eligibleCandidates.add(candidate);
+                        } else {
+                                results[candidate.index()] = bulkFailure(candidate.index(), ErrorCode.RESOURCE_NOT_FOUND,
+                                                "Account not found with id: " + accountId);
+                        }
+                }
+
+                // 3 & 4. 整批預留庫存並寫入
+                if (!eligibleCandidates.isEmpty()) {
+                        createEligibleOrders(eligibleCandidates, results);
+                }
+
+                int succeeded = (int) Arrays.stream(results).filter(result -> result.orderId() != null).count();
+                return BulkCreateOrderResponse.builder()
+                                .succeeded(succeeded)
+                                .failed(results.length - succeeded)
+                                .results(Arrays.asList(results))
+                                .build();
+        }
+
+        private void createEligibleOrders(List<BulkOrderCandidate> candidates, BulkCreateOrderResult[] results) {
+                // 依商品加總整批的數量，整批只呼叫一次商品服務
+                Set<OrderItemRequest> aggregatedItems;
+                try {
+                        Map<Integer, Integer> quantities = new HashMap<>();
+                        candidates.forEach(candidate -> candidate.items().forEach(
+                                        item -> quantities.merge(item.productId(), item.quantity(), Math::addExact)));
+                        aggregatedItems = quantities.entrySet().stream()
+                                        .map(entry -> OrderItemRequest.builder()
+                                                        .productId(entry.getKey())
+                                                        .quantity(entry.getValue())
+                                                        .build())
+                                        .collect(Collectors.toSet());
+                } catch (ArithmeticException e) {
+                        log.info("批次建立訂單加總數量溢位，改為逐筆建立 {} 筆", candidates.size());
+                        candidates.forEach(candidate -> results[candidate.index()] = createBulkOrder(candidate));
+                        return;
+                }
+
+                // 本地交易開始時整批預留已成功，用來區分失敗發生在預留或寫入
+                AtomicBoolean reserved = new AtomicBoolean();
+                List<Integer> orderIds;
+                try {
+                        // 寫入失敗時由 outbox 的補償歸還整批預留的庫存（見 StockSaga）
+                        orderIds = stockSaga.execute(Set.of(), aggregatedItems,
+                                        "批次建立訂單 " + candidates.size() + " 筆",
+                                        () -> {
+                                                reserved.set(true);
+                                                return orderTransactionalService.createOrders(candidates.stream()
+                                                                .map(BulkOrderCandidate::request)
+                                                                .toList());
+                                        });
+                } catch (BusinessException e) {
+                        if (!reserved.get()) {
+                                // 整批預留被拒時庫存未異動，且無從得知是哪幾筆造成，改為逐筆處理以保留其他訂單
+                                log.info("批次建立訂單整批預留失敗，改為逐筆建立 {} 筆: {}", candidates.size(), e.getMessage());
+                                candidates.forEach(candidate -> results[candidate.index()] = createBulkOrder(candidate));
+                                return;
+                        }
+                        markAllFailed(candidates, results, e.getErrorCode(), e.getMessage());
+                        return;
+                } catch (RuntimeException e) {
+                        // 預留結果不明或寫入失敗：整批的補償仍在 outbox 中，逐筆重新預留會重複扣庫存，整批標記失敗讓呼叫端重送
+                        log.warn("批次建立訂單 {} 筆失敗（整批預留{}）: {}", candidates.size(),
+                                        reserved.get() ? "已成功，寫入失敗" : "結果不明", e.getMessage());
+                        markAllFailed(candidates, results, ErrorCode.SERVICE_UNAVAILABLE,
+                                        ErrorCode.SERVICE_UNAVAILABLE.getMessage());
+                        return;
+                }
+                for (int i = 0; i < candidates.size(); i++) {
+                        int index = candidates.get(i).index();
+                        results[index] = BulkCreateOrderResult.builder()
+                                        .index(index)
+                                        .orderId(orderIds.get(i))
+                                        .build();
+                }
+        }
+
+        private static void markAllFailed(List<BulkOrderCandidate> candidates, BulkCreateOrderResult[] results,
+                        ErrorCode errorCode, String message) {
+                candidates.forEach(candidate -> results[candidate.index()] = bulkFailure(candidate.index(), errorCode,
+                                message));
+        }
+
+        private BulkCreateOrderResult createBulkOrder(BulkOrderCandidate candidate) {
+                Integer accountId = candidate.request().accountId();
+                try {
+                        Integer orderId = stockSaga.execute(Set.of(), candidate.items(), "建立訂單 帳戶ID: " + accountId,
+                                        () -> orderTransactionalService.createOrder(candidate.request()));
+                        return BulkCreateOrderResult.builder()
+                                        .index(candidate.index())
+                                        .orderId(orderId)
+                                        .build();
+                } catch (BusinessException e) {
+                        return bulkFailure(candidate.index(), e.getErrorCode(), e.getMessage());
+                } catch (RuntimeException e) {
+                        // 已建立的訂單不回滾，這筆標記失敗讓呼叫端重送
+                        log.warn("批次建立訂單第 {} 筆失敗，帳戶ID: {}: {}", candidate.index(), accountId, e.getMessage());
+                        return bulkFailure(candidate.index(), ErrorCode.SERVICE_UNAVAILABLE,
+                                        ErrorCode.SERVICE_UNAVAILABLE.getMessage());
+                }
+        }
+
+        /**
+         * 批次請求不對個別訂單做 Bean Validation 級聯，與 CreateOrderRequest 相同的欄位規則在此逐筆檢查。
+         */
+        private Set<OrderItemRequest> validateBulkOrder(CreateOrderRequest request) {
+                ServiceValidator.validateNotNull(request, "Create order request");
+                ServiceValidator.validateNotNull(request.accountId(), "Account ID");
+                ServiceValidator.validateNotNull(request.items(), "Order details");
+                ServiceValidator.validateNotEmpty(request.items(), "Order details");
+                if (request.accountId() <= 0) {
+                        throw new InvalidRequestException("Account ID must be positive");
+                }
+                for (CreateOrderDetailRequest item : request.items()) {
+                        if (item == null || item.productId() == null || item.quantity() == null) {
+                                throw new InvalidRequestException("Product ID and quantity are required");
+                        }
+                        if (item.productId() <= 0 || item.quantity() <= 0) {
+                                throw new InvalidRequestException("Product ID and quantity must be positive");
+                        }
+                }
+                return validateAndConvertToUniqueItems(
+                                request.items(),
+                                detail -> detail.productId(),
+                                detail -> detail.quantity());
+        }
+
+        private static BulkCreateOrderResult bulkFailure(int index, ErrorCode errorCode, String message) {
+                return BulkCreateOrderResult.builder()
+                                .index(index)
+                                .errorCode(errorCode.getCode())
+                                .message(message)
+                                .build();
+        }
+
+        /**
+         * 通過驗證的批次訂單：在請求中的索引、原始請求與去重後的明細。
+         */
+        private record BulkOrderCandidate(int index, CreateOrderRequest request, Set<OrderItemRequest> items) {
         }
 
         @Bulkhead(name = "order-read")
@@ -113,25 +350,56 @@ public class OrderService {
                 ServiceValidator.validateNotNull(accountId, "Account ID");
                 Page<OrderInfo> orderInfoPage = orderInfoRepository.findByAccountId(accountId, pageable);
 
-                // 收集當前頁所有訂單涉及的商品 ID
-                Set<Integer> allProductIds = orderInfoPage.getContent().stream()
-                                .flatMap(order -> order.getOrderDetails().stream())
-                                .map(OrderDetail::getProductId)
-                                .collect(Collectors.toSet());
+                // 整頁訂單共用一次明細查詢與一次商品查詢
+                Page<GetOrderListResponse> responsePage = orderInfoPage
+                                .map(orderListMapper(orderInfoPage.getContent()));
 
-                // 一次性批量查詢所有商品
-                Map<Integer, GetProductDetailResponse> productMap = allProductIds.isEmpty()
-                                ? Collections.emptyMap()
-                                : batchGetProductDetails(allProductIds);
+                return PageResponse.from(responsePage);
+        }
 
-                // 計算每個訂單的總金額並轉換為 DTO
-                Page<GetOrderListResponse> responsePage = orderInfoPage.map(orderInfo -> GetOrderListResponse.builder()
-                                .orderId(orderInfo.getId())
-                                .status(orderInfo.getStatus())
-                                .totalAmount(calculateOrderTotalAmount(orderInfo, productMap))
-                                .build());
+        /**
+         * 以 Slice 分頁獲取指定帳戶的訂單列表：不執行 COUNT(*)，以多取一筆判斷是否有下一頁。
+         *
+         * @param accountId    帳戶 ID
+         * @param pageable     分頁參數
+         * @param withEstimate 是否附帶總筆數估計值（快取，TTL 見 app.pagination）
+         * @return 不計總數的訂單分頁回應
+         */
+        @Bulkhead(name = "order-read")
+        @RateLimiter(name = "order-read")
+        public SliceResponse<GetOrderListResponse> getOrderSliceByAccountId(Integer accountId, Pageable pageable,
+                        boolean withEstimate) {
+                ServiceValidator.validateNotNull(accountId, "Account ID");
+                Slice<OrderInfo> orderInfoSlice = orderInfoRepository.findSliceByAccountId(accountId, pageable);
+
+                Slice<GetOrderListResponse> responseSlice = orderInfoSlice
+                                .map(orderListMapper(orderInfoSlice.getContent()));
+                Long estimate = withEstimate
+                                ? countEstimateCache.estimate("order:account:" + accountId,
+                                                () -> orderInfoRepository.countByAccountId(accountId))
+                                : null;
+                return SliceResponse.from(responseSlice, estimate);
+        }
 
-                return PageResponse.from(responsePage);
+        /**
+         * 以游標分頁獲取指定帳戶的訂單列表（不計算總筆數，深頁成本與第一頁相同）。
+         *
+         * @param accountId         帳戶 ID
+         * @param cursorPageRequest 游標分頁請求
+         * @return 包含訂單列表資訊的游標分頁回應
+         */
+        @Bulkhead(name = "order-read")
+        @RateLimiter(name = "order-read")
+        public CursorPageResponse<GetOrderListResponse> getOrderListByAccountIdByCursor(Integer accountId,
+                        CursorPageRequest cursorPageRequest) {
+                ServiceValidator.validateNotNull(accountId, "Account ID");
+                List<OrderInfo> orders = orderInfoRepository.findByAccountIdAfter(accountId,
+                                cursorPageRequest.lastId(), cursorPageRequest.limit());
+
+                // 只為實際回傳的訂單查詢明細與商品（多取的那一筆僅用來判斷 hasNext）
+                List<OrderInfo> pageOrders = orders.subList(0, Math.min(orders.size(), cursorPageRequest.size()));
+                return CursorPageResponse.from(orders, cursorPageRequest, OrderInfo::getId,
+                                orderListMapper(pageOrders));
         }
 
         /**
@@ -145,7 +413,7 @@ public class OrderService {
                 OrderInfo orderInfo = findOrderByIdOrThrow(orderId);
                 List<OrderDetail> details = orderInfo.getOrderDetails();
 
-                // 2. 批量獲取商品資訊（先收集 ID 再一次查詢，避免 N+1 問題）
+                // 2. 批量獲取商品資訊（先收集 ID 再一次查詢，避免 N+1 問題；明細與總金額共用這一次查詢結果）
                 Set<Integer> productIds = details.stream()
                                 .map(OrderDetail::getProductId)
                                 .collect(Collectors.toSet());
@@ -165,11 +433,16 @@ public class OrderService {
                                 })
                                 .collect(Collectors.toList());
 
-                // 4. 回傳結果
+                // 4. 總金額直接由已組裝的明細加總，不再重新查詢商品
+                BigDecimal totalAmount = itemDTOs.stream()
+                                .map(item -> item.productPrice().multiply(BigDecimal.valueOf(item.quantity())))
+                                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+                // 5. 回傳結果
                 GetOrderDetailResponse response = GetOrderDetailResponse.builder()
                                 .accountId(orderInfo.getAccountId())
                                 .orderStatus(orderInfo.getStatus())
-                                .totalAmount(calculateOrderTotalAmount(orderInfo))
+                                .totalAmount(totalAmount)
                                 .items(itemDTOs)
                                 .build();
                 return response;
@@ -201,40 +474,13 @@ public class OrderService {
                                 detail -> detail.productId(),
                                 detail -> detail.quantity());
 
-                productClient.adjustStock(AdjustStockRequest.builder()
-                                .from(originalItems)
-                                .to(uniqueItems)
-                                .build());
-
-                // 將資料庫操作委派給交易服務，若失敗則補償反轉庫存操作
-                try {
-                        orderTransactionalService.updateOrder(request, order);
-                } catch (Exception e) {
-                        // 補償: 將庫存調整回原狀 (from 與 to 互換)
-                        try {
-                                productClient.adjustStock(AdjustStockRequest.builder()
-                                                .from(uniqueItems)
-                                                .to(originalItems)
-                                                .build());
-                        } catch (Exception compensationEx) {
-                                log.error("更新訂單失敗後，補償反轉庫存也失敗，需人工介入處理。" +
-                                                "訂單ID: {}, 帳戶ID: {}, 原商品清單: {}, 新商品清單: {}, 原始異常: {}, 補償異常: {}",
-                                                request.orderId(),
-                                                order.getAccountId(),
-                                                originalItems.stream()
-                                                                .map(item -> String.format("商品%d(數量%d)",
-                                                                                item.productId(), item.quantity()))
-                                                                .collect(Collectors.joining(", ")),
-                                                uniqueItems.stream()
-                                                                .map(item -> String.format("商品%d(數量%d)",
-                                                                                item.productId(), item.quantity()))
-                                                                .collect(Collectors.joining(", ")),
-                                                e.getMessage(),
-                                                compensationEx.getMessage(),
-                                                compensationEx);
-                        }
-                        throw e;
-                }
+                // 調整庫存後再更新訂單；更新失敗時由 outbox 的補償將庫存調整回原狀（見 StockSaga）
+                stockSaga.execute(originalItems, uniqueItems,
+                                "更新訂單 訂單ID: " + request.orderId() + " 帳戶ID: " + order.getAccountId(),
+                                () -> {
+                                        orderTransactionalService.updateOrder(request, order);
+                                        return null;
+                                });
         }
 
         /**
@@ -260,30 +506,50 @@ public class OrderService {
                                                 .build())
                                 .collect(Collectors.toSet());
 
-                productClient.releaseStock(originalItems);
+                // 4. 再刪除訂單；刪除失敗時由 outbox 的補償重新扣回庫存（見 StockSaga）
+                stockSaga.execute(originalItems, Set.of(),
+                                "刪除訂單 訂單ID: " + orderId + " 帳戶ID: " + existingOrderInfo.getAccountId(),
+                                () -> {
+                                        orderTransactionalService.deleteOrder(existingOrderInfo,
+                                                        existingOrderInfo.getVersion());
+                                        return null;
+                                });
+        }
 
-                // 4. 再刪除訂單，若失敗則補償重新扣回庫存
-                try {
-                        orderTransactionalService.deleteOrder(existingOrderInfo, existingOrderInfo.getVersion());
-                } catch (Exception e) {
-                        // 補償: 重新預留已歸還的庫存
-                        try {
-                                productClient.reserveStock(originalItems);
-                        } catch (Exception compensationEx) {
-                                log.error("刪除訂單失敗後，補償重新扣回庫存也失敗，需人工介入處理。" +
-                                                "訂單ID: {}, 帳戶ID: {}, 商品清單: {}, 原始異常: {}, 補償異常: {}",
-                                                orderId,
-                                                existingOrderInfo.getAccountId(),
-                                                originalItems.stream()
-                                                                .map(item -> String.format("商品%d(數量%d)",
-                                                                                item.productId(), item.quantity()))
-                                                                .collect(Collectors.joining(", ")),
-                                                e.getMessage(),
-                                                compensationEx.getMessage(),
-                                                compensationEx);
-                        }
-                        throw e;
-                }
+        /**
+         * 建立一頁訂單表頭轉列表 DTO 的函式：
+         * 1. 以一次 fetch join 載入整頁訂單的明細，避免逐筆觸發 lazy 集合查詢（N+1）。
+         * 2. 一次性批量查詢整頁涉及的商品。
+         *
+         * @param orders 當前頁的訂單表頭
+         * @return 訂單表頭轉列表 DTO 的函式
+         */
+        private Function<OrderInfo, GetOrderListResponse> orderListMapper(List<OrderInfo> orders) {
+                Map<Integer, OrderInfo> ordersWithDetails = orders.isEmpty()
+                                ? Collections.emptyMap()
+                                : orderInfoRepository.findWithDetailsByIdIn(orders.stream().map(OrderInfo::getId).toList())
+                                                .stream()
+                                                .collect(Collectors.toMap(OrderInfo::getId, Function.identity()));
+
+                // 兩次查詢之間被刪除的訂單不在 fetch 結果中，退回表頭本身（其明細改走 lazy 載入）
+                Function<OrderInfo, OrderInfo> resolve = orderInfo -> ordersWithDetails
+                                .getOrDefault(orderInfo.getId(), orderInfo);
+
+                Set<Integer> productIds = orders.stream()
+                                .map(resolve)
+                                .flatMap(order -> order.getOrderDetails().stream())
+                                .map(OrderDetail::getProductId)
+                                .collect(Collectors.toSet());
+                Map<Integer, GetProductDetailResponse> productMap = batchGetProductDetails(productIds);
+
+                return orderInfo -> {
+                        OrderInfo order = resolve.apply(orderInfo);
+                        return GetOrderListResponse.builder()
+                                        .orderId(order.getId())
+                                        .status(order.getStatus())
+                                        .totalAmount(calculateOrderTotalAmount(order, productMap))
+                                        .build();
+                };
         }
 
         /**
@@ -295,37 +561,26 @@ public class OrderService {
                         return Collections.emptyMap();
                 }
 
-                List<GetProductDetailResponse> productList = productClient.getProductDetails(productIds);
-
-                // 將 List 轉換為 Map，方便後續根據 ID 查找
-                Map<Integer, GetProductDetailResponse> productMap = productList.stream()
-                                .collect(Collectors.toMap(
-                                                GetProductDetailResponse::id,
-                                                product -> product));
+                // 先查商品目錄快取，只有未命中的 ID 才打商品服務
+                Map<Integer, GetProductDetailResponse> productMap = productCatalogCache.getAll(productIds,
+                                this::fetchProductDetails);
 
                 // 不應該 Throw Exception，除非歷史訂單也不准看停售商品
                 return productMap;
         }
 
         /**
-         * @param orderInfo
-         * @return BigDecimal
+         * @param productIds 快取未命中的商品 ID
+         * @return Map<Integer, GetProductDetailResponse>
          */
-        private BigDecimal calculateOrderTotalAmount(OrderInfo orderInfo) {
-                List<OrderDetail> orderDetails = orderInfo.getOrderDetails();
-                Set<Integer> productIds = orderInfo.getOrderDetails().stream()
-                                .map(OrderDetail::getProductId)
-                                .collect(Collectors.toSet());
-                Map<Integer, GetProductDetailResponse> productDetailsMap = batchGetProductDetails(
-                                productIds);
-
-                BigDecimal totalAmount = BigDecimal.ZERO;
-                for (OrderDetail detail : orderDetails) {
-                        GetProductDetailResponse productDetail = productDetailsMap.get(detail.getProductId());
-                        totalAmount = totalAmount.add(
-                                        productDetail.price().multiply(BigDecimal.valueOf(detail.getQuantity())));
-                }
-                return totalAmount;
+        private Map<Integer, GetProductDetailResponse> fetchProductDetails(Set<Integer> productIds) {
+                List<GetProductDetailResponse> productList = productClient.getProductDetails(productIds);
+
+                // 將 List 轉換為 Map，方便後續根據 ID 查找
+                return productList.stream()
+                                .collect(Collectors.toMap(
+                                                GetProductDetailResponse::id,
+                                                product -> product));
         }
 
         /**
@@ -368,21 +623,23 @@ public class OrderService {
                                                 .build())
                                 .collect(Collectors.toSet());
 
-                if (uniqueItems.size() != items.size()) {
+                // 以商品 ID 判斷重複：同一商品、不同數量的兩筆明細也視為重複
+                long distinctProducts = uniqueItems.stream().map(OrderItemRequest::productId).distinct().count();
+                if (distinctProducts != items.size()) {
                         throw new InvalidRequestException("同一訂單中同一商品只能有一筆明細，請合併重複的商品明細後再提交訂單。");
                 }
                 return uniqueItems;
         }
 
         /**
-         * 驗證帳戶是否有關聯的訂單
+         * 驗證帳戶是否有關聯的訂單（存在性查詢，找到第一筆即停止，不載入訂單）
          * 
          * @param accountId 帳戶ID
          * @return 若帳戶有關聯訂單則返回 true，否則返回 false
          */
         public boolean isActiveAccountInOrder(Integer accountId) {
                 ServiceValidator.validateNotNull(accountId, "Account ID");
-                return !orderInfoRepository.findByAccountId(accountId).isEmpty();
+                return orderInfoRepository.existsByAccountId(accountId);
         }
 
 }
@@ -1,5 +1,6 @@
 package com.ibm.demo.order;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -28,6 +29,19 @@ import lombok.RequiredArgsConstructor;
 public class OrderTransactionalService {
         private final OrderInfoRepository orderInfoRepository;
         private final OrderDetailRepository orderDetailRepository;
+        private final OrderWriteMetrics orderWriteMetrics;
+        private final OrderIdempotencyStore orderIdempotencyStore;
+
+        /**
+         * 建立訂單，並在同一個交易中記錄 Idempotency-Key 對應的訂單 ID：訂單與鍵一起提交或一起回滾。
+         * 鍵的使用權已逾時並被重送接手時 complete 拋出 IdempotencyKeyInUseException，訂單隨之回滾。
+         */
+        @Transactional
+        public Integer createOrder(CreateOrderRequest createOrderRequest, OrderIdempotencyStore.Claim claim) {
+                Integer orderId = createOrder(createOrderRequest);
+                orderIdempotencyStore.complete(claim, orderId);
+                return orderId;
+        }
 
         @Transactional
         public Integer createOrder(CreateOrderRequest createOrderRequest) {
@@ -35,6 +49,7 @@ public class OrderTransactionalService {
                         createOrderRequest.accountId(), 
                         createOrderRequest.items().size());
                 
+                long statementsStart = orderWriteMetrics.start();
                 // 建立新訂單
                 OrderInfo newOrderInfo = OrderInfo.builder()
                                 .accountId(createOrderRequest.accountId())
@@ -42,19 +57,10 @@ public class OrderTransactionalService {
                                 .build();
 
                 OrderInfo savedOrderInfo = orderInfoRepository.save(newOrderInfo);
-                List<OrderDetail> orderDetails = createOrderRequest.items().stream()
-                                .map(detailRequest -> {
-                                        Integer productId = detailRequest.productId();
-                                        Integer quantity = detailRequest.quantity();
-                                        // 建立訂單明細
-                                        return OrderDetail.builder()
-                                                        .orderInfo(savedOrderInfo)
-                                                        .productId(productId)
-                                                        .quantity(quantity)
-                                                        .build();
-                                })
-                                .collect(Collectors.toList());
-                orderDetailRepository.saveAll(orderDetails);
+                orderDetailRepository.saveAll(toOrderDetails(savedOrderInfo, createOrderRequest));
+                // 明細以 JDBC batch 送出（見 application.yml 的 hibernate.jdbc.*），flush 後記錄這張訂單的 round trip 數
+                orderDetailRepository.flush();
+                orderWriteMetrics.record(statementsStart);
                 
                 log.info("訂單建立成功，訂單ID: {}, 帳戶ID: {}", 
                         savedOrderInfo.getId(), 
@@ -62,6 +68,38 @@ public class OrderTransactionalService {
                 return savedOrderInfo.getId();
         }
 
+        /**
+         * 批次建立訂單：整批表頭與明細在同一個交易中 saveAll，最後只 flush 一次，
+         * INSERT 由 JDBC batch 合併送出（pooled sequence 讓 ID 在記憶體中配發，見 application.yml 的 hibernate.jdbc.*）。
+         * 任一筆寫入失敗時整批回滾。
+         *
+         * @param createOrderRequests 已驗證的建立訂單請求
+         * @return 訂單 ID，順序與 createOrderRequests 相同
+         */
+        @Transactional
+        public List<Integer> createOrders(List<CreateOrderRequest> createOrderRequests) {
+                log.debug("開始批次建立訂單，筆數: {}", createOrderRequests.size());
+
+                long statementsStart = orderWriteMetrics.start();
+                List<OrderInfo> savedOrderInfos = orderInfoRepository.saveAll(createOrderRequests.stream()
+                                .map(request -> OrderInfo.builder()
+                                                .accountId(request.accountId())
+                                                .status(OrderStatus.CREATED.getCode())
+                                                .build())
+                                .toList());
+                List<OrderDetail> orderDetails = new ArrayList<>();
+                for (int i = 0; i < createOrderRequests.size(); i++) {
+                        orderDetails.addAll(toOrderDetails(savedOrderInfos.get(i), createOrderRequests.get(i)));
+                }
+                orderDetailRepository.saveAll(orderDetails);
+                orderDetailRepository.flush();
+                orderWriteMetrics.record(statementsStart, createOrderRequests.size());
+
+                List<Integer> orderIds = savedOrderInfos.stream().map(OrderInfo::getId).toList();
+                log.info("批次建立訂單成功，筆數: {}", orderIds.size());
+                return orderIds;
+        }
+
         @Transactional
         public void updateOrder(UpdateOrderRequest request, OrderInfo order) {
                 log.debug("開始更新訂單，訂單ID: {}, 新狀態: {}, 商品數量: {}", 
@@ -69,6 +107,7 @@ public class OrderTransactionalService {
                         request.orderStatus(), 
                         request.items().size());
                 
+                long statementsStart = orderWriteMetrics.start();
                 Map<Integer, OrderDetail> existingMap = order.getOrderDetails().stream()
                                 .collect(Collectors.toMap(OrderDetail::getProductId, Function.identity()));
                 Map<Integer, UpdateOrderDetailRequest> incomingMap = request.items().stream()
@@ -95,6 +134,9 @@ public class OrderTransactionalService {
                                                                 .build()));
                 order.setStatus(request.orderStatus());
                 orderInfoRepository.save(order);
+                // 新增 / 修改 / 移除的明細以 JDBC batch 送出，flush 後記錄這張訂單的 round trip 數
+                orderInfoRepository.flush();
+                orderWriteMetrics.record(statementsStart);
                 
                 log.info("訂單更新成功，訂單ID: {}, 新狀態: {}", 
                         request.orderId(), 
@@ -115,4 +157,14 @@ public class OrderTransactionalService {
                 
                 log.info("訂單刪除成功，訂單ID: {}", orderId);
         }
-}
\ No newline at end of file
+
+        private List<OrderDetail> toOrderDetails(OrderInfo orderInfo, CreateOrderRequest createOrderRequest) {
+                return createOrderRequest.items().stream()
+                                .map(detailRequest -> OrderDetail.builder()
+                                                .orderInfo(orderInfo)
+                                                .productId(detailRequest.productId())
+                                                .quantity(detailRequest.quantity())
+                                                .build())
+                                .collect(Collectors.toList());
+        }
+}
@@ -0,0 +1,68 @@
+package com.ibm.demo.order;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.ibm.demo.config.JdbcStatementCounter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 訂單寫入的 JDBC round trip 指標：
+ * - order.write.statements：每張訂單寫入（建立 / 更新）送出的 round trip 數分布。
+ * - order.write.statements.per.order：啟動以來的平均值（round trip 總數 / 訂單數）。
+ * 啟用 JDBC batch 後，不論明細筆數多寡，此值應維持在個位數（sequence、表頭、明細 batch）。
+ */
+@Component
+public class OrderWriteMetrics {
+
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final DistributionSummary statementsPerOrder;
+
+    public OrderWriteMetrics(MeterRegistry meterRegistry) {
+        this.statementsPerOrder = DistributionSummary.builder("order.write.statements")
+                .description("JDBC round trips per order write")
+                .register(meterRegistry);
+        Gauge.builder("order.write.statements.per.order", this, OrderWriteMetrics::ratio)
+                .description("Average JDBC round trips per order write since startup")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 開始量測：回傳目前執行緒的 round trip 計數，寫入完成並 flush 後交給 {@link #record(long)}。
+     */
+    public long start() {
+        return JdbcStatementCounter.current();
+    }
+
+    /**
+     * 記錄一張訂單的寫入。
+     *
+     * @param start {@link #start()} 的回傳值
+     */
+    public void record(long start) {
+        record(start, 1);
+    }
+
+    /**
+     * 記錄一次批次寫入（多張訂單共用一次 flush），分布中記錄的是平均每張訂單的 round trip 數。
+     *
+     * @param start      {@link #start()} 的回傳值
+     * @param orderCount 這次寫入的訂單數
+     */
+    public void record(long start, int orderCount) {
+        long used = JdbcStatementCounter.current() - start;
+        orders.add(orderCount);
+        statements.add(used);
+        statementsPerOrder.record((double) used / orderCount);
+    }
+
+    private double ratio() {
+        long count = orders.sum();
+        return count == 0 ? 0 : (double) statements.sum() / count;
+    }
+}
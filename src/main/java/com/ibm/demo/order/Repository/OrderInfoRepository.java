@@ -1,9 +1,12 @@
 package com.ibm.demo.order.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,11 +16,27 @@ import com.ibm.demo.order.Entity.OrderInfo;
 import com.ibm.demo.util.SoftDeleteRepository;
 
 public interface OrderInfoRepository extends JpaRepository<OrderInfo, Integer>, SoftDeleteRepository<Integer> {
-    // @Query("SELECT o FROM OrderInfo o WHERE o.accountId = :accountId")
-    List<OrderInfo> findByAccountId(@Param("accountId") Integer accountId);
+    // 只判斷帳戶是否有訂單：SELECT ID ... WHERE ACCOUNT_ID = ? FETCH FIRST 1 ROWS ONLY，
+    // 由 IDX_ORDER_INFO_ACCOUNT 取到第一筆即停止，不載入訂單實體
+    boolean existsByAccountId(@Param("accountId") Integer accountId);
 
     Page<OrderInfo> findByAccountId(@Param("accountId") Integer accountId, Pageable pageable);
 
+    // 以 ID 批次 fetch join 明細，供列表頁一次載入整頁訂單的明細（避免逐筆 lazy 載入的 N+1）。
+    // 分頁由表頭查詢負責，這裡不帶 Pageable，因此不會觸發 Hibernate 記憶體內分頁（HHH90003004）。
+    @Query("SELECT o FROM OrderInfo o LEFT JOIN FETCH o.orderDetails WHERE o.id IN :ids")
+    List<OrderInfo> findWithDetailsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Slice：多取一筆判斷 hasNext，不執行 COUNT(*)
+    Slice<OrderInfo> findSliceByAccountId(@Param("accountId") Integer accountId, Pageable pageable);
+
+    long countByAccountId(@Param("accountId") Integer accountId);
+
+    // 游標分頁：WHERE account_id = :accountId AND id > :lastId ORDER BY id FETCH FIRST n ROWS，不做 COUNT(*)
+    @Query("SELECT o FROM OrderInfo o WHERE o.accountId = :accountId AND o.id > :lastId ORDER BY o.id ASC")
+    List<OrderInfo> findByAccountIdAfter(@Param("accountId") Integer accountId, @Param("lastId") Integer lastId,
+            Limit limit);
+
     @Override
     @Modifying
     @Query("""
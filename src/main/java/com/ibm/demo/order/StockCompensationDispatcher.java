@@ -0,0 +1,116 @@
+package com.ibm.demo.order;
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.product.ProductClient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 背景套用 STOCK_COMPENSATION_OUTBOX 中到期的庫存補償。
+ *
+ * - 每 dispatch-interval 取走最多 batch-size 筆到期的補償，取走後 in-flight-timeout 內其他節點不會重複套用。
+ * - 每筆補償在一個交易中先以 lease 期限為條件刪除 outbox 再套用：lease 已過期且被其他節點重新取走時刪除 0 筆而略過；
+ *   套用失敗時交易回滾，outbox 保留。商品服務在本地時補償與刪除在同一個交易中提交。
+ * - 補償帶有自己的操作 ID 與被補償的操作 ID，商品端據此保證只套用一次，且原操作未套用時不做異動；
+ *   因此重複套用（例如套用成功但刪除 outbox 前當機）不會多歸還庫存。
+ * - 套用失敗時以指數退避（initial-backoff × 2^(次數-1)，上限 max-backoff）重試；
+ *   失敗 max-attempts 次後標記為 FAILED 並記錄 error，交由人工處理。
+ * - 指標：stock.compensation.applied / retried / failed。
+ */
+@Slf4j
+@Component
+public class StockCompensationDispatcher {
+
+    private final ProductClient productClient;
+    private final StockCompensationOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties.StockSaga properties;
+    private final Counter applied;
+    private final Counter retried;
+    private final Counter failed;
+
+    public StockCompensationDispatcher(ProductClient productClient, StockCompensationOutbox outbox,
+            PlatformTransactionManager transactionManager, AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.productClient = productClient;
+        this.outbox = outbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = appProperties.getStockSaga();
+        this.applied = Counter.builder("stock.compensation.applied")
+                .description("Stock compensations applied from the outbox")
+                .register(meterRegistry);
+        this.retried = Counter.builder("stock.compensation.retried")
+                .description("Stock compensation attempts that failed and were rescheduled")
+                .register(meterRegistry);
+        this.failed = Counter.builder("stock.compensation.failed")
+                .description("Stock compensations that exhausted their attempts and need manual handling")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 套用一批到期的補償。
+     *
+     * @return 成功套用的筆數
+     */
+    @Scheduled(fixedDelayString = "${app.stock-saga.dispatch-interval:1s}",
+            initialDelayString = "${app.stock-saga.dispatch-interval:1s}")
+    public int dispatch() {
+        long now = System.currentTimeMillis();
+        long leaseUntil = now + properties.getInFlightTimeout().toMillis();
+        List<StockCompensationOutbox.Entry> due = outbox.claimDue(properties.getBatchSize(), now, leaseUntil);
+        int done = 0;
+        for (StockCompensationOutbox.Entry entry : due) {
+            try {
+                if (apply(entry, leaseUntil)) {
+                    done++;
+                }
+            } catch (RuntimeException e) {
+                onFailure(entry, leaseUntil, e);
+            }
+        }
+        applied.increment(done);
+        if (done > 0) {
+            log.info("已套用 {} 筆庫存補償", done);
+        }
+        return done;
+    }
+
+    private boolean apply(StockCompensationOutbox.Entry entry, long leaseUntil) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (outbox.remove(entry.operationId(), leaseUntil) == 0) {
+                log.info("{} 的庫存補償已不屬於本次 lease，略過。操作ID: {}", entry.context(), entry.operationId());
+                return false;
+            }
+            productClient.adjustStock(entry.toRequest());
+            return true;
+        }));
+    }
+
+    private void onFailure(StockCompensationOutbox.Entry entry, long leaseUntil, RuntimeException e) {
+        int attempts = entry.attempts() + 1;
+        boolean exhausted = attempts >= properties.getMaxAttempts();
+        long backoff = Math.min(properties.getMaxBackoff().toMillis(),
+                properties.getInitialBackoff().toMillis() << Math.min(attempts - 1, 30));
+        outbox.reschedule(entry.operationId(), leaseUntil, attempts, System.currentTimeMillis() + backoff,
+                e.getMessage(), exhausted);
+        if (exhausted) {
+            failed.increment();
+            log.error("{} 的庫存補償已失敗 {} 次，需人工介入處理。操作ID: {}, 補償內容: {} -> {}, 最後異常: {}",
+                    entry.context(), attempts, entry.operationId(),
+                    StockCompensationOutbox.encode(entry.from()), StockCompensationOutbox.encode(entry.to()),
+                    e.getMessage(), e);
+        } else {
+            retried.increment();
+            log.warn("{} 的庫存補償失敗，{} 毫秒後重試（第 {} 次）。操作ID: {}, 異常: {}",
+                    entry.context(), backoff, attempts, entry.operationId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.ibm.demo.order;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
+import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+
+/**
+ * STOCK_COMPENSATION_OUTBOX 的 JDBC 存取：尚未確認不需要的庫存補償。
+ *
+ * 每筆以原庫存操作 ID 為鍵，保存補償的 from / to（格式「商品ID:數量,...」）。
+ * 由 {@link StockSaga} 寫入與刪除，{@link StockCompensationDispatcher} 取出到期的補償套用。
+ * NEXT_ATTEMPT_AT_MS 同時是持有權的標記：dispatcher 取走後即改寫，saga 之後的刪除會得到 0 筆而回滾訂單。
+ */
+@Component
+public class StockCompensationOutbox {
+
+    private static final String STATUS_PENDING = "PENDING";
+    private static final String STATUS_FAILED = "FAILED";
+    private static final int MAX_CONTEXT_LENGTH = 200;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO STOCK_COMPENSATION_OUTBOX
+                (OPERATION_ID, FROM_ITEMS, TO_ITEMS, CONTEXT, STATUS, ATTEMPTS, NEXT_ATTEMPT_AT_MS, CREATED_AT_MS)
+            VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)
+            """;
+
+    private static final String SELECT_DUE_SQL = """
+            SELECT OPERATION_ID, FROM_ITEMS, TO_ITEMS, CONTEXT, ATTEMPTS, NEXT_ATTEMPT_AT_MS
+            FROM STOCK_COMPENSATION_OUTBOX
+            WHERE STATUS = 'PENDING' AND NEXT_ATTEMPT_AT_MS <= ?
+            ORDER BY NEXT_ATTEMPT_AT_MS
+            FETCH FIRST ? ROWS ONLY
+            """;
+
+    // 以讀到的 NEXT_ATTEMPT_AT_MS 為條件取走，多個 replica 同時執行時同一筆只會被一個取走
+    private static final String CLAIM_SQL = """
+            UPDATE STOCK_COMPENSATION_OUTBOX SET NEXT_ATTEMPT_AT_MS = ?
+            WHERE OPERATION_ID = ? AND STATUS = 'PENDING' AND NEXT_ATTEMPT_AT_MS = ?
+            """;
+
+    // 以下三個操作都以 NEXT_ATTEMPT_AT_MS 等於呼叫端持有的值為條件：saga 持有寫入時的 in-flight 期限，
+    // dispatcher 持有取走時的 lease 期限；任一方改寫 NEXT_ATTEMPT_AT_MS 後，另一方的操作即不再生效
+    private static final String RESCHEDULE_SQL = """
+            UPDATE STOCK_COMPENSATION_OUTBOX SET ATTEMPTS = ?, NEXT_ATTEMPT_AT_MS = ?, LAST_ERROR = ?, STATUS = ?
+            WHERE OPERATION_ID = ? AND STATUS = 'PENDING' AND NEXT_ATTEMPT_AT_MS = ?
+            """;
+
+    private static final String EXPEDITE_SQL = """
+            UPDATE STOCK_COMPENSATION_OUTBOX SET NEXT_ATTEMPT_AT_MS = ?
+            WHERE OPERATION_ID = ? AND STATUS = 'PENDING' AND NEXT_ATTEMPT_AT_MS = ?
+            """;
+
+    private static final String DELETE_SQL = """
+            DELETE FROM STOCK_COMPENSATION_OUTBOX
+            WHERE OPERATION_ID = ? AND STATUS = 'PENDING' AND NEXT_ATTEMPT_AT_MS = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockCompensationOutbox(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 待套用的補償。
+     *
+     * @param operationId 原庫存操作 ID
+     * @param from        補償的調整前項目（即原操作的 to）
+     * @param to          補償的調整後項目（即原操作的 from）
+     * @param context     記錄用的說明（例如「建立訂單 帳戶ID: 1」）
+     * @param attempts    已失敗的次數
+     */
+    public record Entry(String operationId, Set<OrderItemRequest> from, Set<OrderItemRequest> to, String context,
+            int attempts) {
+
+        /**
+         * @return 送往商品服務的補償請求：以原操作 ID 加上後綴作為補償自己的操作 ID
+         */
+        public AdjustStockRequest toRequest() {
+            return AdjustStockRequest.builder()
+                    .from(from)
+                    .to(to)
+                    .operationId(operationId + ":compensation")
+                    .compensates(operationId)
+                    .build();
+        }
+    }
+
+    /**
+     * 寫入補償，in-flight-timeout 之後才會被 dispatcher 取走。
+     */
+    public void add(Entry entry, long nextAttemptAtMillis) {
+        jdbcTemplate.update(INSERT_SQL, entry.operationId(), encode(entry.from()), encode(entry.to()),
+                truncate(entry.context(), MAX_CONTEXT_LENGTH), nextAttemptAtMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * 刪除仍由呼叫端持有的補償；在本地交易中呼叫時與訂單寫入（或補償的套用）一起提交。
+     *
+     * @param operationId             原庫存操作 ID
+     * @param nextAttemptAtMillis     呼叫端持有的 NEXT_ATTEMPT_AT_MS（saga 為寫入時的期限，dispatcher 為 lease 期限）
+     * @return 刪除的筆數；0 表示補償已被對方取走（或已不存在），呼叫端不應再提交依賴它的異動
+     */
+    public int remove(String operationId, long nextAttemptAtMillis) {
+        return jdbcTemplate.update(DELETE_SQL, operationId, nextAttemptAtMillis);
+    }
+
+    /**
+     * 讓補償在下一輪 dispatch 立即套用（本地交易已確定失敗）；已被 dispatcher 取走時不變更。
+     */
+    public void expedite(String operationId, long nextAttemptAtMillis) {
+        jdbcTemplate.update(EXPEDITE_SQL, System.currentTimeMillis(), operationId, nextAttemptAtMillis);
+    }
+
+    /**
+     * 取走最多 limit 筆到期的補償，並將其下次嘗試時間延後到 leaseUntilMillis，避免其他節點同時套用。
+     */
+    public List<Entry> claimDue(int limit, long nowMillis, long leaseUntilMillis) {
+        List<DueRow> rows = jdbcTemplate.query(SELECT_DUE_SQL,
+                (rs, rowNum) -> new DueRow(new Entry(rs.getString("OPERATION_ID"),
+                        decode(rs.getString("FROM_ITEMS")), decode(rs.getString("TO_ITEMS")),
+                        rs.getString("CONTEXT"), rs.getInt("ATTEMPTS")),
+                        rs.getLong("NEXT_ATTEMPT_AT_MS")),
+                nowMillis, limit);
+        return rows.stream()
+                .filter(row -> jdbcTemplate.update(CLAIM_SQL, leaseUntilMillis, row.entry().operationId(),
+                        row.nextAttemptAtMillis()) == 1)
+                .map(DueRow::entry)
+                .toList();
+    }
+
+    /**
+     * 記錄一次失敗；failed 為 true 時不再重試。lease 已過期且被其他節點重新取走時不變更。
+     */
+    public void reschedule(String operationId, long leaseUntilMillis, int attempts, long nextAttemptAtMillis,
+            String error, boolean failed) {
+        jdbcTemplate.update(RESCHEDULE_SQL, attempts, nextAttemptAtMillis, truncate(error, MAX_ERROR_LENGTH),
+                failed ? STATUS_FAILED : STATUS_PENDING, operationId, leaseUntilMillis);
+    }
+
+    static String encode(Set<OrderItemRequest> items) {
+        if (items.isEmpty()) {
+            return null;
+        }
+        return items.stream()
+                .map(item -> item.productId() + ":" + item.quantity())
+                .collect(Collectors.joining(","));
+    }
+
+    static Set<OrderItemRequest> decode(String value) {
+        if (value == null || value.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(pair -> pair.split(":"))
+                .map(pair -> OrderItemRequest.builder()
+                        .productId(Integer.valueOf(pair[0]))
+                        .quantity(Integer.valueOf(pair[1]))
+                        .build())
+                .collect(Collectors.toSet());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private record DueRow(Entry entry, long nextAttemptAtMillis) {
+    }
+}
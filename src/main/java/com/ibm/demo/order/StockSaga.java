@@ -0,0 +1,104 @@
+package com.ibm.demo.order;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.exception.BusinessLogicCheck.BusinessException;
+import com.ibm.demo.product.ProductClient;
+import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
+import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 訂單寫入與庫存異動的 saga：庫存先由商品服務調整，再執行本地交易；本地交易失敗時的反向調整交給背景補償。
+ *
+ * 1. 產生庫存操作 ID，先把補償（to -> from）寫入 STOCK_COMPENSATION_OUTBOX，in-flight-timeout 內不會被套用。
+ * 2. 以該 ID 呼叫商品服務調整庫存（from -> to）；同一個 ID 在商品端只會套用一次。
+ *    商品服務以業務例外拒絕時（庫存不足等）庫存未異動，直接刪除補償；逾時等結果不明時由補償依 ID 判斷是否需要反轉。
+ * 3. 本地交易與刪除補償在同一個交易中提交：成功則補償消失；失敗則補償保留並提前到下一輪 dispatch，
+ *    請求執行緒不等待補償完成即拋出原始例外。刪除只針對仍未被 dispatcher 取走的補償（NEXT_ATTEMPT_AT_MS 仍為寫入時的期限），
+ *    本地交易超過 in-flight-timeout 而補償已被取走時刪除 0 筆，拋出 ConcurrencyFailureException 讓本地交易回滾。
+ *
+ * 補償由 {@link StockCompensationDispatcher} 非同步套用與重試，取代原本在 catch 中同步補償、失敗只記錄日誌的作法。
+ */
+@Slf4j
+@Component
+public class StockSaga {
+
+    private final ProductClient productClient;
+    private final StockCompensationOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties.StockSaga properties;
+
+    public StockSaga(ProductClient productClient, StockCompensationOutbox outbox,
+            PlatformTransactionManager transactionManager, AppProperties appProperties) {
+        this.productClient = productClient;
+        this.outbox = outbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = appProperties.getStockSaga();
+    }
+
+    /**
+     * 將庫存從 from 的預留狀態調整為 to，再執行本地交易。
+     *
+     * @param from             調整前的預留項目（建立訂單時為空集合）
+     * @param to               調整後的預留項目（刪除訂單時為空集合）
+     * @param context          記錄用的說明，例如「建立訂單 帳戶ID: 1」
+     * @param localTransaction 本地資料庫操作，與刪除補償在同一個交易中執行
+     * @return 本地交易的回傳值
+     */
+    public <T> T execute(Set<OrderItemRequest> from, Set<OrderItemRequest> to, String context,
+            Supplier<T> localTransaction) {
+        String operationId = UUID.randomUUID().toString();
+        long inFlightUntil = System.currentTimeMillis() + properties.getInFlightTimeout().toMillis();
+        outbox.add(new StockCompensationOutbox.Entry(operationId, to, from, context, 0), inFlightUntil);
+
+        try {
+            productClient.adjustStock(AdjustStockRequest.builder()
+                    .from(from)
+                    .to(to)
+                    .operationId(operationId)
+                    .build());
+        } catch (BusinessException e) {
+            // 商品服務整批回滾，庫存未異動；刪除失敗時補償會發現原操作未套用而略過
+            runQuietly(() -> outbox.remove(operationId, inFlightUntil), operationId);
+            throw e;
+        } catch (RuntimeException e) {
+            runQuietly(() -> outbox.expedite(operationId, inFlightUntil), operationId);
+            throw e;
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                T result = localTransaction.get();
+                // 本地交易超過 in-flight-timeout 時補償可能已被 dispatcher 取走並歸還庫存，此時不可提交訂單
+                if (outbox.remove(operationId, inFlightUntil) == 0) {
+                    throw new ConcurrencyFailureException(
+                            "Stock compensation " + operationId + " was claimed before the local transaction committed");
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            log.warn("{} 失敗，庫存將由背景補償歸還。操作ID: {}, 原始異常: {}", context, operationId, e.getMessage());
+            runQuietly(() -> outbox.expedite(operationId, inFlightUntil), operationId);
+            throw e;
+        }
+    }
+
+    private static void runQuietly(Runnable action, String operationId) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            // 補償仍在 outbox 中，最晚於 in-flight-timeout 之後套用
+            log.warn("更新庫存補償狀態失敗，將於 in-flight-timeout 後處理。操作ID: {}, 異常: {}", operationId, e.getMessage());
+        }
+    }
+}
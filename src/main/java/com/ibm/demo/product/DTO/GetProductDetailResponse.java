@@ -21,5 +21,8 @@ public record GetProductDetailResponse(
         Integer saleStatus,
 
         @Schema(description = "可用庫存數量", example = "100")
-        Integer available) {
+        Integer available,
+
+        @Schema(description = "商品版本（樂觀鎖 @Version），供快取判斷資料新舊", example = "3")
+        Integer version) {
 }
@@ -0,0 +1,17 @@
+package com.ibm.demo.product.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+@Builder
+@Schema(description = "商品匯入被拒的列")
+public record ProductImportRowError(
+        @Schema(description = "在上傳內容中的行號（從 1 開始，含 CSV 標題列）", example = "42")
+        long line,
+
+        @Schema(description = "商品名稱（無法解析時為 null）", example = "商品A")
+        String name,
+
+        @Schema(description = "被拒原因", example = "商品A already exists")
+        String message) {
+}
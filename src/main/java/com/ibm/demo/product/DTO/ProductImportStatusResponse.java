@@ -0,0 +1,44 @@
+package com.ibm.demo.product.DTO;
+
+import java.time.Instant;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+@Builder
+@Schema(description = "商品匯入進度")
+public record ProductImportStatusResponse(
+        @Schema(description = "匯入 ID", example = "6f1c2a7e-9b1d-4c3e-8f0a-2d4b6c8e0f12")
+        String importId,
+
+        @Schema(description = "內容格式（NDJSON / CSV）", example = "CSV")
+        String format,
+
+        @Schema(description = "狀態（RUNNING / COMPLETED / FAILED）", example = "COMPLETED")
+        String status,
+
+        @Schema(description = "已讀取的資料列數（不含空行與 CSV 標題列）", example = "100000")
+        long rowsRead,
+
+        @Schema(description = "已寫入的商品數", example = "99990")
+        long imported,
+
+        @Schema(description = "被拒的列數（格式錯誤、驗證失敗或名稱重複）", example = "10")
+        long rejected,
+
+        @Schema(description = "每秒處理的列數", example = "8500.0")
+        double rowsPerSecond,
+
+        @Schema(description = "開始時間")
+        Instant startedAt,
+
+        @Schema(description = "結束時間，進行中為 null")
+        Instant finishedAt,
+
+        @Schema(description = "匯入中止的原因，未中止為 null")
+        String failureMessage,
+
+        @Schema(description = "被拒列的明細（最多 app.product-import.max-error-samples 筆，其餘只計入 rejected）")
+        List<ProductImportRowError> errors) {
+}
@@ -12,7 +12,13 @@ public record AdjustStockRequest(
     Set<OrderItemRequest> from,
 
     @Schema(description = "調整後的訂單項目集合（新預留）")
-    Set<OrderItemRequest> to
+    Set<OrderItemRequest> to,
+
+    @Schema(description = "庫存操作 ID（選填）：同一個 ID 只會套用一次，重送時略過")
+    String operationId,
+
+    @Schema(description = "被補償的庫存操作 ID（選填）：該操作從未套用時不做任何異動，並使其之後到達時被略過")
+    String compensates
 ) {
 
 }
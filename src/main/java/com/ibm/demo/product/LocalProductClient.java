@@ -0,0 +1,41 @@
+package com.ibm.demo.product;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.ibm.demo.product.DTO.GetProductDetailResponse;
+import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
+import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * ProductClient 的同 JVM 實作：直接委派給 ProductService（見 LocalClientConfig）。
+ * 回傳型別與 ProductController 的 HTTP 回應一致（batch 查詢回傳 List）。
+ */
+@RequiredArgsConstructor
+public class LocalProductClient implements ProductClient {
+    private final ObjectProvider<ProductService> productService;
+
+    @Override
+    public List<GetProductDetailResponse> getProductDetails(Set<Integer> ids) {
+        return productService.getObject().getProductDetails(ids).values().stream().toList();
+    }
+
+    @Override
+    public void reserveStock(Set<OrderItemRequest> items) {
+        productService.getObject().reserveStock(items);
+    }
+
+    @Override
+    public void releaseStock(Set<OrderItemRequest> items) {
+        productService.getObject().releaseStock(items);
+    }
+
+    @Override
+    public void adjustStock(AdjustStockRequest request) {
+        productService.getObject().adjustStock(request);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ibm.demo.product;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.product.DTO.GetProductDetailResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 商品目錄快取：以商品 ID 快取 GetProductDetailResponse，供訂單讀取路徑取得商品名稱與價格，
+ * 命中時不必再經 ProductClient 打一次商品服務（HTTP + findAllById）。
+ *
+ * - 容量與存活時間見 app.product-cache（AppProperties.ProductCache）。
+ * - 商品名稱 / 價格 / 銷售狀態只在 @Version 遞增的寫入（updateProduct、deleteProduct）時改變，
+ *   由 ProductService 在交易 commit 後呼叫 {@link #invalidate(Integer, Integer)}，帶入提交後的版本。
+ *   失效時先記錄該版本為此商品的最低版本，再移除快取；之後才完成的載入若帶回較舊的版本（commit 前讀到的資料）不會放入快取。
+ * - 失效只作用在本節點；其他 replica 要等 expire-after-write 到期才會讀到新資料，這也是漏失通知時的上限。
+ * - 快取值中的 available 不保證是最新庫存（預留 / 釋放不會失效快取），呼叫端不應拿來判斷庫存。
+ * - 命中 / 未命中 / 逐出數以 cache.gets、cache.evictions（tag cache=product-catalog）發佈到 Micrometer。
+ */
+@Component
+public class ProductCatalogCache {
+
+    static final String CACHE_NAME = "product-catalog";
+
+    private final Cache<Integer, GetProductDetailResponse> cache;
+    // 已知提交過的最新版本，存活時間與快取相同：超過之後快取中也不可能還留著更舊的載入結果
+    private final Cache<Integer, Integer> minVersions;
+
+    public ProductCatalogCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.ProductCache properties = appProperties.getProductCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.minVersions = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 批次讀取：命中的直接回傳，未命中的 ID 以一次 loader 呼叫補齊後放入快取。
+     * loader 未回傳的 ID（不存在或不可銷售）不會被快取，也不會出現在結果中；
+     * 版本早於已失效版本的載入結果仍回傳給這次呼叫，但不放入快取。
+     *
+     * @param ids    商品 ID 集合
+     * @param loader 以未命中的 ID 集合批次查詢商品的函式
+     * @return 以商品 ID 為鍵的商品資訊 Map
+     */
+    public Map<Integer, GetProductDetailResponse> getAll(Set<Integer> ids,
+            Function<Set<Integer>, Map<Integer, GetProductDetailResponse>> loader) {
+        Map<Integer, GetProductDetailResponse> result = new HashMap<>(cache.getAllPresent(ids));
+        Set<Integer> missingIds = new HashSet<>(ids);
+        missingIds.removeAll(result.keySet());
+        if (missingIds.isEmpty()) {
+            return result;
+        }
+        loader.apply(Set.copyOf(missingIds)).forEach((id, product) -> {
+            result.put(id, product);
+            putIfCurrent(id, product);
+        });
+        return result;
+    }
+
+    /**
+     * 失效單一商品。在交易中呼叫時延後到 commit 之後，避免 commit 前被並行讀取以舊資料重新載入。
+     *
+     * @param productId 商品 ID
+     * @param version   提交後的 @Version；較舊版本的載入結果之後不會再放入快取
+     */
+    public void invalidate(Integer productId, Integer version) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(productId, version);
+                }
+            });
+        } else {
+            evict(productId, version);
+        }
+    }
+
+    private void evict(Integer productId, Integer version) {
+        // 先記錄最低版本再移除：與 putIfCurrent 在同一個鍵上互斥，移除之後的放入一定看得到最低版本
+        minVersions.asMap().merge(productId, version, Math::max);
+        cache.invalidate(productId);
+    }
+
+    private void putIfCurrent(Integer productId, GetProductDetailResponse product) {
+        cache.asMap().compute(productId, (id, cached) -> {
+            Integer minVersion = minVersions.getIfPresent(id);
+            if (minVersion != null && (product.version() == null || product.version() < minVersion)) {
+                return cached;
+            }
+            if (cached != null && cached.version() != null && product.version() != null
+                    && cached.version() > product.version()) {
+                return cached;
+            }
+            return product;
+        });
+    }
+}
@@ -1,10 +1,13 @@
 package com.ibm.demo.product;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Set;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,18 +15,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ibm.demo.exception.ApiErrorResponse;
+import com.ibm.demo.exception.BusinessLogicCheck.ResourceNotFoundException;
 import com.ibm.demo.product.DTO.CreateProductRequest;
 import com.ibm.demo.product.DTO.GetProductDetailResponse;
 import com.ibm.demo.product.DTO.GetProductListResponse;
+import com.ibm.demo.product.DTO.ProductImportStatusResponse;
 import com.ibm.demo.product.DTO.UpdateProductRequest;
 import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
 import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+import com.ibm.demo.util.CursorPageRequest;
+import com.ibm.demo.util.CursorPageResponse;
 import com.ibm.demo.util.PageResponse;
+import com.ibm.demo.util.SliceResponse;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -41,6 +50,8 @@ import lombok.RequiredArgsConstructor;
 @Tag(name = "Product", description = "商品管理 API")
 public class ProductController {
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductImportTracker productImportTracker;
 
     // Create Product
     @Operation(summary = "新增商品", description = "建立新商品。若已存在同名商品則拋出 ProductAlreadyExistException。成功則新增商品資料，預設銷售狀態為 1001 (AVAILABLE)。")
@@ -54,6 +65,40 @@ public class ProductController {
         return ResponseEntity.ok(productId);
     }
 
+    // Import Products (Bulk)
+    @Operation(summary = "批次匯入商品", description = "以串流方式匯入大量商品，內容為 NDJSON（application/x-ndjson，每行一個與 POST /product 相同的 JSON 物件）或 CSV（text/csv，第一行為標題列 name,price,available）。逐行讀取不緩衝整個檔案，每 app.product-import.chunk-size 列以一次查詢檢查名稱重複並以 JDBC batch 寫入、各自 commit。格式錯誤、驗證失敗或名稱已存在的列計入 rejected（明細最多保留 app.product-import.max-error-samples 筆），不中斷匯入；寫入失敗時中止，已 commit 的部分保留，重新匯入同一檔案時已匯入的商品會因名稱重複被略過。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "匯入完成，回傳匯入結果"),
+            @ApiResponse(responseCode = "400", description = "不支援的 Content-Type 或 CSV 標題列缺少欄位", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "同時進行的匯入已達上限 app.product-import.max-concurrent", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping(value = "/import", consumes = { ProductImportFormat.NDJSON_VALUE, ProductImportFormat.CSV_VALUE })
+    public ResponseEntity<ProductImportStatusResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        ProductImportFormat format = ProductImportFormat.of(MediaType.parseMediaType(contentType));
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
+    // Read Product Import Progress
+    @Operation(summary = "查詢商品匯入進度", description = "回傳本節點進行中與最近結束的匯入（新的在前，保留筆數見 app.product-import.history-size），包含已讀取、已匯入、被拒的列數與每秒處理列數。")
+    @ApiResponse(responseCode = "200", description = "成功取得匯入進度")
+    @GetMapping("/import")
+    public ResponseEntity<List<ProductImportStatusResponse>> getProductImports() {
+        return ResponseEntity.ok(productImportTracker.recent());
+    }
+
+    @Operation(summary = "查詢單次商品匯入進度", description = "依匯入 ID 查詢本節點的匯入進度；不在本節點或已超出保留筆數時回傳 NotFound。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "成功取得匯入進度"),
+            @ApiResponse(responseCode = "404", description = "找不到該次匯入", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<ProductImportStatusResponse> getProductImport(
+            @Parameter(description = "匯入 ID", required = true) @PathVariable String importId) {
+        return ResponseEntity.ok(productImportTracker.find(importId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product import not found with id: " + importId)));
+    }
+
     // Read Product List (Paginated)
     @Operation(summary = "獲取商品列表（分頁）", description = "獲取所有商品的分頁列表。受限於 SQLRestriction 規則，僅會回傳未被軟刪除且銷售狀態為 1001 (AVAILABLE) 的商品。")
     @ApiResponse(responseCode = "200", description = "成功取得商品分頁列表")
@@ -64,6 +109,29 @@ public class ProductController {
         return ResponseEntity.ok(productPage);
     }
 
+    // Read Product List (Slice)
+    @Operation(summary = "獲取商品列表（不計總數分頁）", description = "與 GET /product 相同的 Offset 分頁，但不執行 COUNT(*)，以多取一筆判斷 hasNext，適合不需顯示「第 X 頁 / 共 Y 頁」的呼叫端。estimate=true 時附帶快取的總筆數估計值（TTL 見 app.pagination.count-estimate-ttl）。")
+    @ApiResponse(responseCode = "200", description = "成功取得商品分頁列表")
+    @GetMapping("/slice")
+    public ResponseEntity<SliceResponse<GetProductListResponse>> getProductSlice(
+            @Parameter(description = "分頁參數（page=頁碼從0開始, size=每頁筆數, sort=排序欄位,方向）", example = "page=0&size=20&sort=id,asc") @PageableDefault(size = 20) Pageable pageable,
+            @Parameter(description = "是否附帶總筆數估計值") @RequestParam(defaultValue = "false") boolean estimate) {
+        return ResponseEntity.ok(productService.getProductSlice(pageable, estimate));
+    }
+
+    // Read Product List (Cursor)
+    @Operation(summary = "獲取商品列表（游標分頁）", description = "以商品 ID 遞增的游標分頁獲取可銷售商品，不計算總筆數，適合深頁或無限捲動。第一頁不傳 after，之後帶入上一頁回傳的 nextCursor；cursor 格式錯誤或 size 超出 1~100 則拋出 InvalidRequestException。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "成功取得商品游標分頁列表"),
+            @ApiResponse(responseCode = "400", description = "游標或每頁筆數不合法", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<GetProductListResponse>> getProductListByCursor(
+            @Parameter(description = "上一頁回傳的 nextCursor，第一頁不傳") @RequestParam(required = false) String after,
+            @Parameter(description = "每頁筆數", example = "20") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.getProductListByCursor(CursorPageRequest.of(after, size)));
+    }
+
     // Batch Read Product Detail
     @Operation(summary = "批量獲取商品詳細資訊", description = "根據多個 ID 獲取商品詳細資訊。受限於 SQLRestriction 規則，若商品不存在、已軟刪除或銷售狀態非 1001 (AVAILABLE)，該 ID 將被忽略。")
     @ApiResponse(responseCode = "200", description = "成功取得商品詳細資訊列表")
@@ -114,6 +182,20 @@ public class ProductController {
         return ResponseEntity.ok().build();
     }
 
+    // Stripe Product Stock
+    @Operation(summary = "商品庫存分桶", description = "管理使用：將熱門商品的可用 / 預留庫存平均分配到 app.inventory.striping.bucket-count 個 bucket，之後的預留會分散到不同資料列上鎖。需啟用 app.inventory.striping.enabled，否則拋出 InvalidRequestException。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "分桶成功"),
+            @ApiResponse(responseCode = "400", description = "未啟用庫存分桶", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "商品不存在", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping("/{id}/stock-buckets")
+    public ResponseEntity<Void> stripeStock(
+            @Parameter(description = "商品 ID", example = "1", required = true) @PathVariable Integer id) {
+        productService.stripeStock(id);
+        return ResponseEntity.ok().build();
+    }
+
     @Operation(summary = "預留商品庫存", description = "內部使用：建立訂單時預留(reserve)商品庫存。")
     @ApiResponse(responseCode = "200", description = "預留成功")
     @PostMapping("/reserve")
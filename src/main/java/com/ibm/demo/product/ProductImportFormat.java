@@ -0,0 +1,39 @@
+package com.ibm.demo.product;
+
+import org.springframework.http.MediaType;
+
+import com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException;
+
+/**
+ * 商品匯入支援的內容格式，由請求的 Content-Type 決定。
+ */
+public enum ProductImportFormat {
+    /** 每行一個 CreateProductRequest JSON 物件。 */
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    /** 第一行為標題列（name,price,available，順序不拘），之後每行一個商品。 */
+    CSV(new MediaType("text", "csv"));
+
+    public static final String NDJSON_VALUE = MediaType.APPLICATION_NDJSON_VALUE;
+    public static final String CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+
+    ProductImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @param contentType 請求的 Content-Type
+     * @return 對應的匯入格式
+     * @throws InvalidRequestException 不支援的 Content-Type
+     */
+    public static ProductImportFormat of(MediaType contentType) {
+        for (ProductImportFormat format : values()) {
+            if (contentType != null && format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Unsupported import content type: " + contentType
+                + " (expected " + NDJSON_VALUE + " or " + CSV_VALUE + ")");
+    }
+}
@@ -0,0 +1,94 @@
+package com.ibm.demo.product;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.demo.product.DTO.ProductImportRowError;
+import com.ibm.demo.product.DTO.ProductImportStatusResponse;
+
+/**
+ * 一次商品匯入的進度。只由執行匯入的請求執行緒寫入，進度查詢可由其他執行緒讀取。
+ * 被拒列的明細最多保留 maxErrorSamples 筆，其餘只計數。
+ */
+class ProductImportJob {
+
+    enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final ProductImportFormat format;
+    private final int maxErrorSamples;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<ProductImportRowError> errors = new CopyOnWriteArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile long finishedNanos;
+    private volatile String failureMessage;
+
+    ProductImportJob(ProductImportFormat format, int maxErrorSamples) {
+        this.format = format;
+        this.maxErrorSamples = maxErrorSamples;
+    }
+
+    String id() {
+        return id;
+    }
+
+    boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void imported(int count) {
+        imported.addAndGet(count);
+    }
+
+    void reject(long line, String name, String message) {
+        rejected.incrementAndGet();
+        if (errors.size() < maxErrorSamples) {
+            errors.add(ProductImportRowError.builder()
+                    .line(line)
+                    .name(name)
+                    .message(message)
+                    .build());
+        }
+    }
+
+    void finish(Status status, String failureMessage) {
+        this.finishedNanos = System.nanoTime();
+        this.finishedAt = Instant.now();
+        this.failureMessage = failureMessage;
+        this.status = status;
+    }
+
+    ProductImportStatusResponse toResponse() {
+        Status current = status;
+        long endNanos = current == Status.RUNNING ? System.nanoTime() : finishedNanos;
+        double seconds = (endNanos - startNanos) / 1_000_000_000.0;
+        long read = rowsRead.get();
+        return ProductImportStatusResponse.builder()
+                .importId(id)
+                .format(format.name())
+                .status(current.name())
+                .rowsRead(read)
+                .imported(imported.get())
+                .rejected(rejected.get())
+                .rowsPerSecond(seconds > 0 ? read / seconds : 0)
+                .startedAt(startedAt)
+                .finishedAt(current == Status.RUNNING ? null : finishedAt)
+                .failureMessage(failureMessage)
+                .errors(List.copyOf(errors))
+                .build();
+    }
+}
@@ -0,0 +1,158 @@
+package com.ibm.demo.product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException;
+import com.ibm.demo.product.DTO.CreateProductRequest;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 逐行讀取商品匯入內容（NDJSON 或 CSV），一次只持有一行，不緩衝整個請求本文。
+ * 無法解析的行以帶 error 的 {@link Row} 回傳，由呼叫端計入被拒列，不中斷匯入。
+ * CSV 支援雙引號包住的欄位與 "" 跳脫，不支援欄位內換行。
+ */
+class ProductImportReader {
+
+    /**
+     * 讀到的一列：request 與 error 恰有一個不為 null。
+     *
+     * @param line    行號（從 1 開始）
+     * @param request 解析出的建立商品請求（尚未經 Bean Validation）
+     * @param error   無法解析的原因
+     */
+    record Row(long line, CreateProductRequest request, String error) {
+    }
+
+    private static final String NAME = "name";
+    private static final String PRICE = "price";
+    private static final String AVAILABLE = "available";
+
+    private final BufferedReader reader;
+    private final ProductImportFormat format;
+    private final ObjectMapper objectMapper;
+    private long line;
+    // CSV 標題列中 name / price / available 的欄位位置，讀到標題列前為 null
+    private int[] csvColumns;
+
+    ProductImportReader(InputStream body, ProductImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return 下一個非空行；讀完時回傳 null
+     * @throws InvalidRequestException CSV 標題列缺少必要欄位
+     */
+    Row next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            // 略過 UTF-8 BOM（Excel 匯出的 CSV 常見）
+            if (line == 1 && text.startsWith("\uFEFF")) {
+                text = text.substring(1);
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == ProductImportFormat.CSV && csvColumns == null) {
+                csvColumns = parseHeader(text);
+                continue;
+            }
+            try {
+                CreateProductRequest request = format == ProductImportFormat.NDJSON
+                        ? objectMapper.readValue(text, CreateProductRequest.class)
+                        : parseCsvRow(text);
+                return new Row(line, request, null);
+            } catch (JacksonException e) {
+                return new Row(line, null, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                return new Row(line, null, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private int[] parseHeader(String text) {
+        List<String> headers = splitCsv(text).stream()
+                .map(header -> header.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int[] columns = { headers.indexOf(NAME), headers.indexOf(PRICE), headers.indexOf(AVAILABLE) };
+        for (int column : columns) {
+            if (column < 0) {
+                throw new InvalidRequestException("CSV header must contain name, price and available, got: " + text);
+            }
+        }
+        return columns;
+    }
+
+    private CreateProductRequest parseCsvRow(String text) {
+        List<String> fields = splitCsv(text);
+        return CreateProductRequest.builder()
+                .name(field(fields, csvColumns[0]))
+                .price(parseNumber(field(fields, csvColumns[1]), PRICE, BigDecimal::new))
+                .available(parseNumber(field(fields, csvColumns[2]), AVAILABLE, Integer::valueOf))
+                .build();
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parseNumber(String value, String column, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
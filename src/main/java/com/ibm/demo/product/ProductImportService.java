@@ -0,0 +1,170 @@
+package com.ibm.demo.product;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.product.DTO.CreateProductRequest;
+import com.ibm.demo.product.DTO.ProductImportStatusResponse;
+import com.ibm.demo.util.ServiceValidator;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 商品批次匯入：逐行串流讀取 NDJSON / CSV，記憶體用量與檔案大小無關。
+ * 1. 每列以與 POST /product 相同的 Bean Validation 規則驗證，不合法的列計入被拒列，不中斷匯入。
+ * 2. 每累積 app.product-import.chunk-size 列為一個 chunk：以一次 IN 查詢檢查名稱是否已存在
+ *    （與 createProduct 的 existsByName 規則相同，同一 chunk 內重複的名稱只保留第一筆），
+ *    再以 saveAll + flush 寫入（pooled sequence 配發 ID、JDBC batch 送出 INSERT），每個 chunk 一個交易。
+ * 3. 每個 chunk commit 後清除 EntityManager（open-in-view 下持久化內容跨整個請求，不清除會隨檔案成長）。
+ * 寫入失敗時匯入中止，已 commit 的 chunk 保留；以同一份檔案重新匯入時，已匯入的商品會因名稱重複被略過。
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    private final ProductRepository productRepository;
+    private final ProductImportTracker productImportTracker;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    // 不放進 BulkheadRegistry：匯入長時間執行，不應被自適應併發上限放大，也不排入准入佇列
+    private final Bulkhead bulkhead;
+
+    public ProductImportService(ProductRepository productRepository, ProductImportTracker productImportTracker,
+            ObjectMapper objectMapper, Validator validator, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, AppProperties appProperties) {
+        this.productRepository = productRepository;
+        this.productImportTracker = productImportTracker;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = appProperties.getProductImport().getChunkSize();
+        this.bulkhead = Bulkhead.of("product-import", BulkheadConfig.custom()
+                .maxConcurrentCalls(appProperties.getProductImport().getMaxConcurrent())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    /**
+     * 匯入商品，讀完整個內容後回傳結果；進行中的進度可由 {@link ProductImportTracker#recent()} 查詢。
+     *
+     * @param body   請求本文
+     * @param format 內容格式
+     * @return 匯入結果
+     * @throws io.github.resilience4j.bulkhead.BulkheadFullException 同時進行的匯入已達 app.product-import.max-concurrent
+     * @throws com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException CSV 標題列缺少必要欄位
+     */
+    public ProductImportStatusResponse importProducts(InputStream body, ProductImportFormat format) {
+        ServiceValidator.validateNotNull(body, "Import body");
+        ServiceValidator.validateNotNull(format, "Import format");
+        return bulkhead.executeSupplier(() -> runImport(body, format));
+    }
+
+    private ProductImportStatusResponse runImport(InputStream body, ProductImportFormat format) {
+        ProductImportJob job = productImportTracker.start(format);
+        log.info("開始匯入商品，匯入ID: {}, 格式: {}", job.id(), format);
+        try {
+            ProductImportReader reader = new ProductImportReader(body, format, objectMapper);
+            List<ProductImportReader.Row> chunk = new ArrayList<>(chunkSize);
+            ProductImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                job.rowRead();
+                String error = row.error() != null ? row.error() : validate(row.request());
+                if (error != null) {
+                    productImportTracker.reject(job, row.line(), row.request() == null ? null : row.request().name(),
+                            error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk);
+            }
+        } catch (IOException e) {
+            fail(job, e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            fail(job, e);
+            throw e;
+        }
+        productImportTracker.complete(job);
+        ProductImportStatusResponse response = job.toResponse();
+        log.info("商品匯入完成，匯入ID: {}, 讀取: {}, 匯入: {}, 被拒: {}, 每秒 {} 列",
+                job.id(), response.rowsRead(), response.imported(), response.rejected(),
+                Math.round(response.rowsPerSecond()));
+        return response;
+    }
+
+    private void importChunk(ProductImportJob job, List<ProductImportReader.Row> chunk) {
+        long start = System.nanoTime();
+        Integer imported = transactionTemplate.execute(status -> {
+            Set<String> existingNames = new HashSet<>(productRepository.findExistingNames(chunk.stream()
+                    .map(row -> row.request().name())
+                    .collect(Collectors.toSet())));
+            Set<String> chunkNames = new HashSet<>();
+            List<Product> products = new ArrayList<>(chunk.size());
+            for (ProductImportReader.Row row : chunk) {
+                CreateProductRequest request = row.request();
+                if (existingNames.contains(request.name()) || !chunkNames.add(request.name())) {
+                    productImportTracker.reject(job, row.line(), request.name(), request.name() + " already exists");
+                    continue;
+                }
+                products.add(Product.builder()
+                        .name(request.name())
+                        .price(request.price())
+                        .available(request.available())
+                        .saleStatus(ProductStatus.AVAILABLE.getCode())
+                        .build());
+            }
+            if (!products.isEmpty()) {
+                productRepository.saveAll(products);
+                productRepository.flush();
+            }
+            return products.size();
+        });
+        entityManager.clear();
+        productImportTracker.imported(job, imported, System.nanoTime() - start);
+    }
+
+    private String validate(CreateProductRequest request) {
+        Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void fail(ProductImportJob job, Exception e) {
+        log.error("商品匯入中止，匯入ID: {}, 已匯入: {}: {}", job.id(), job.toResponse().imported(), e.getMessage());
+        productImportTracker.fail(job, e.getMessage());
+    }
+}
@@ -0,0 +1,126 @@
+package com.ibm.demo.product;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.product.DTO.ProductImportStatusResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 商品匯入的進度與指標：
+ * - 保留進行中與最近 app.product-import.history-size 筆已結束的匯入，供 GET /product/import 查詢（僅限本節點）。
+ * - product.import.rows（tag result=imported / rejected）：匯入與被拒的列數，rate 即吞吐量。
+ * - product.import.chunk：每個 chunk（一次名稱查詢 + 一次 batch 寫入 + commit）的耗時。
+ * - product.import.active：進行中的匯入數。
+ */
+@Component
+public class ProductImportTracker {
+
+    private final int historySize;
+    private final int maxErrorSamples;
+    // 依開始順序排列；進行中的匯入不會被逐出
+    private final Map<String, ProductImportJob> jobs = new LinkedHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final Timer chunkTimer;
+
+    public ProductImportTracker(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.historySize = appProperties.getProductImport().getHistorySize();
+        this.maxErrorSamples = appProperties.getProductImport().getMaxErrorSamples();
+        this.importedRows = Counter.builder("product.import.rows")
+                .tag("result", "imported")
+                .description("Product import rows")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("product.import.rows")
+                .tag("result", "rejected")
+                .description("Product import rows")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("product.import.chunk")
+                .description("Time to check names, insert and commit one product import chunk")
+                .register(meterRegistry);
+        Gauge.builder("product.import.active", active, AtomicInteger::get)
+                .description("Product imports in progress")
+                .register(meterRegistry);
+    }
+
+    ProductImportJob start(ProductImportFormat format) {
+        ProductImportJob job = new ProductImportJob(format, maxErrorSamples);
+        synchronized (jobs) {
+            jobs.put(job.id(), job);
+            evictFinished();
+        }
+        active.incrementAndGet();
+        return job;
+    }
+
+    void imported(ProductImportJob job, int count, long chunkNanos) {
+        job.imported(count);
+        importedRows.increment(count);
+        chunkTimer.record(chunkNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void reject(ProductImportJob job, long line, String name, String message) {
+        job.reject(line, name, message);
+        rejectedRows.increment();
+    }
+
+    void complete(ProductImportJob job) {
+        finish(job, ProductImportJob.Status.COMPLETED, null);
+    }
+
+    void fail(ProductImportJob job, String message) {
+        finish(job, ProductImportJob.Status.FAILED, message);
+    }
+
+    /**
+     * @param importId 匯入 ID
+     * @return 該次匯入的進度；不在本節點或已被逐出時為空
+     */
+    public Optional<ProductImportStatusResponse> find(String importId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(importId)).map(ProductImportJob::toResponse);
+        }
+    }
+
+    /**
+     * @return 進行中與最近結束的匯入，新的在前
+     */
+    public List<ProductImportStatusResponse> recent() {
+        List<ProductImportStatusResponse> responses = new ArrayList<>();
+        synchronized (jobs) {
+            jobs.values().forEach(job -> responses.add(0, job.toResponse()));
+        }
+        return responses;
+    }
+
+    private void finish(ProductImportJob job, ProductImportJob.Status status, String failureMessage) {
+        job.finish(status, failureMessage);
+        active.decrementAndGet();
+        synchronized (jobs) {
+            evictFinished();
+        }
+    }
+
+    private void evictFinished() {
+        Iterator<ProductImportJob> iterator = jobs.values().iterator();
+        while (jobs.size() > historySize && iterator.hasNext()) {
+            if (!iterator.next().isRunning()) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ibm.demo.product;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * 庫存批次異動的自訂 Repository fragment（由 ProductRepository 繼承，實作見 ProductInventoryRepositoryImpl）。
+ */
+public interface ProductInventoryRepository {
+
+    /**
+     * 以單一 JDBC batch 套用整組庫存差值：正值為預留（AVAILABLE → RESERVED），負值為釋放（RESERVED → AVAILABLE）。
+     * 依商品 ID 遞增順序送出，使列鎖取得順序固定，避免併發訂單互相死結。
+     *
+     * @param deltas 以商品 ID 排序的差值（Key: ProductId, Value: 數量差值，不含 0）
+     * @return 未被更新的商品 ID（庫存不足、預留不足，或預留時商品不存在/不可銷售）；全部成功時為空集合
+     */
+    Set<Integer> applyStockDeltas(SortedMap<Integer, Integer> deltas);
+
+    /**
+     * 查詢哪些商品已分桶（PRODUCT_STOCK_BUCKET 有資料列）。
+     *
+     * @param productIds 商品 ID 集合
+     * @return 已分桶的商品 ID
+     */
+    Set<Integer> findStripedProductIds(Collection<Integer> productIds);
+
+    /**
+     * 對已分桶商品套用庫存差值：每個商品隨機挑一個 bucket 起跳，條件不成立時依序改試相鄰 bucket；
+     * 沒有單一 bucket 容得下時，依 BUCKET_NO 遞增鎖住所有 bucket 並拆分到多個 bucket。
+     * 商品依 ID 遞增順序處理。須在交易中呼叫。
+     *
+     * @param deltas      以商品 ID 排序的差值
+     * @param bucketCount 分桶數
+     * @return 各 bucket 合計的可用（預留時）或預留（釋放時）庫存不足，或預留時商品不可銷售的商品 ID
+     */
+    Set<Integer> applyBucketDeltas(SortedMap<Integer, Integer> deltas, int bucketCount);
+
+    /**
+     * 加總已分桶商品各 bucket 的可用庫存。
+     *
+     * @param productIds 商品 ID 集合
+     * @return Key: ProductId, Value: bucket 可用庫存合計；未分桶的商品不會出現在結果中
+     */
+    Map<Integer, Integer> sumBucketAvailable(Collection<Integer> productIds);
+
+    /**
+     * 將商品目前全部的可用 / 預留庫存（PRODUCT 列 + 既有 bucket）重新平均分配到 bucketCount 個 bucket，
+     * PRODUCT 列的 AVAILABLE / RESERVED 歸零。須在交易中呼叫，期間鎖住該商品的 PRODUCT 列。
+     *
+     * @param productId   商品 ID
+     * @param bucketCount 分桶數
+     */
+    void restripe(Integer productId, int bucketCount);
+
+    /**
+     * 清空商品各 bucket 的可用庫存（保留預留量），供管理端重設總可用庫存前使用。
+     *
+     * @param productId 商品 ID
+     */
+    void clearBucketAvailable(Integer productId);
+
+    /**
+     * 記錄已套用的庫存操作 ID（STOCK_OPERATION），須與庫存異動在同一個交易中呼叫。
+     *
+     * @param operationId 庫存操作 ID
+     * @return 第一次記錄時為 true；ID 已存在（已套用過或已被補償略過）時為 false
+     */
+    boolean recordStockOperation(String operationId);
+
+    /**
+     * 刪除建立時間早於指定時間的庫存操作紀錄。
+     *
+     * @param createdBeforeMillis epoch 毫秒
+     * @return 刪除的筆數
+     */
+    int purgeStockOperations(long createdBeforeMillis);
+}
@@ -0,0 +1,235 @@
+package com.ibm.demo.product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * ProductInventoryRepository 的 JDBC 實作。
+ *
+ * 預留與釋放共用同一條 UPDATE：以 delta 同時調整 AVAILABLE / RESERVED，條件為兩欄皆不得變為負數；
+ * 預留（delta > 0）另須商品未刪除且可銷售（等同 Product 的 @SQLRestriction），釋放則不限，
+ * 讓已下架商品的預留仍可歸還。整組差值只有一次 batch round trip，由外層交易負責失敗時回滾。
+ */
+public class ProductInventoryRepositoryImpl implements ProductInventoryRepository {
+
+    private static final String APPLY_STOCK_DELTA_SQL = """
+            UPDATE PRODUCT
+            SET AVAILABLE = AVAILABLE - ?, RESERVED = RESERVED + ?
+            WHERE ID = ?
+            AND AVAILABLE - ? >= 0
+            AND RESERVED + ? >= 0
+            AND (? < 0 OR (DELETED = false AND SALE_STATUS = 1001))
+            """;
+
+    private static final String APPLY_BUCKET_DELTA_SQL = """
+            UPDATE PRODUCT_STOCK_BUCKET b
+            SET b.AVAILABLE = b.AVAILABLE - ?, b.RESERVED = b.RESERVED + ?
+            WHERE b.PRODUCT_ID = ? AND b.BUCKET_NO = ?
+            AND b.AVAILABLE - ? >= 0
+            AND b.RESERVED + ? >= 0
+            AND (? < 0 OR EXISTS (SELECT 1 FROM PRODUCT p
+                    WHERE p.ID = b.PRODUCT_ID AND p.DELETED = false AND p.SALE_STATUS = 1001))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public ProductInventoryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public Set<Integer> applyStockDeltas(SortedMap<Integer, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return Set.of();
+        }
+        List<Map.Entry<Integer, Integer>> entries = List.copyOf(deltas.entrySet());
+        List<Object[]> batchArgs = entries.stream()
+                .map(entry -> {
+                    Integer delta = entry.getValue();
+                    return new Object[] { delta, delta, entry.getKey(), delta, delta, delta };
+                })
+                .toList();
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(APPLY_STOCK_DELTA_SQL, batchArgs);
+
+        // ojdbc11 於 batch 中回傳每筆語句的實際影響列數，0 即代表該商品條件不成立
+        Set<Integer> rejectedIds = new LinkedHashSet<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                rejectedIds.add(entries.get(i).getKey());
+            }
+        }
+        return rejectedIds;
+    }
+
+    @Override
+    public Set<Integer> findStripedProductIds(Collection<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return Set.of();
+        }
+        List<Integer> ids = namedParameterJdbcTemplate.queryForList(
+                "SELECT DISTINCT PRODUCT_ID FROM PRODUCT_STOCK_BUCKET WHERE PRODUCT_ID IN (:ids)",
+                Map.of("ids", productIds), Integer.class);
+        return new HashSet<>(ids);
+    }
+
+    @Override
+    public Set<Integer> applyBucketDeltas(SortedMap<Integer, Integer> deltas, int bucketCount) {
+        Set<Integer> rejectedIds = new LinkedHashSet<>();
+        deltas.forEach((productId, delta) -> {
+            // 隨機起跳分散熱點；不足時依序往相鄰 bucket 找，最多繞一圈
+            int startBucket = ThreadLocalRandom.current().nextInt(bucketCount);
+            boolean applied = false;
+            for (int i = 0; i < bucketCount && !applied; i++) {
+                int bucketNo = (startBucket + i) % bucketCount;
+                applied = jdbcTemplate.update(APPLY_BUCKET_DELTA_SQL,
+                        delta, delta, productId, bucketNo, delta, delta, delta) == 1;
+            }
+            // 沒有單一 bucket 容得下時（差值大於平均分配後的單桶份額），改為跨 bucket 拆分
+            if (!applied && !applySplitBucketDelta(productId, delta)) {
+                rejectedIds.add(productId);
+            }
+        });
+        return rejectedIds;
+    }
+
+    /**
+     * 將單一差值拆到多個 bucket：依 BUCKET_NO 遞增鎖住該商品所有 bucket，合計足夠才依序扣到每個 bucket，
+     * 與其他拆分交易的鎖取得順序一致。須在外層交易中呼叫，鎖持有到交易結束。
+     *
+     * @return 合計的可用（預留時）或預留（釋放時）庫存足夠且已套用時為 true
+     */
+    private boolean applySplitBucketDelta(Integer productId, int delta) {
+        if (delta > 0 && !isSellable(productId)) {
+            return false;
+        }
+        // delta > 0 時從 AVAILABLE 搬到 RESERVED，delta < 0 時反向
+        String sourceColumn = delta > 0 ? "AVAILABLE" : "RESERVED";
+        List<int[]> buckets = jdbcTemplate.query("""
+                SELECT BUCKET_NO, AVAILABLE, RESERVED FROM PRODUCT_STOCK_BUCKET
+                WHERE PRODUCT_ID = ? ORDER BY BUCKET_NO FOR UPDATE
+                """,
+                (rs, rowNum) -> new int[] { rs.getInt("BUCKET_NO"), rs.getInt(sourceColumn) },
+                productId);
+        int remaining = Math.abs(delta);
+        if (buckets.stream().mapToInt(bucket -> bucket[1]).sum() < remaining) {
+            return false;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>();
+        for (int[] bucket : buckets) {
+            int moved = Math.min(remaining, bucket[1]);
+            if (moved == 0) {
+                continue;
+            }
+            int bucketDelta = delta > 0 ? moved : -moved;
+            batchArgs.add(new Object[] { bucketDelta, bucketDelta, productId, bucket[0] });
+            remaining -= moved;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        jdbcTemplate.batchUpdate("""
+                UPDATE PRODUCT_STOCK_BUCKET SET AVAILABLE = AVAILABLE - ?, RESERVED = RESERVED + ?
+                WHERE PRODUCT_ID = ? AND BUCKET_NO = ?
+                """, batchArgs);
+        return true;
+    }
+
+    private boolean isSellable(Integer productId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM PRODUCT WHERE ID = ? AND DELETED = false AND SALE_STATUS = 1001",
+                Integer.class, productId);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public Map<Integer, Integer> sumBucketAvailable(Collection<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, Integer> result = new HashMap<>();
+        namedParameterJdbcTemplate.query("""
+                SELECT PRODUCT_ID, SUM(AVAILABLE) AS AVAILABLE
+                FROM PRODUCT_STOCK_BUCKET
+                WHERE PRODUCT_ID IN (:ids)
+                GROUP BY PRODUCT_ID
+                """,
+                Map.of("ids", productIds),
+                rs -> {
+                    result.put(rs.getInt("PRODUCT_ID"), rs.getInt("AVAILABLE"));
+                });
+        return result;
+    }
+
+    @Override
+    public void restripe(Integer productId, int bucketCount) {
+        // 1. 鎖住 PRODUCT 列，避免重新分配期間有其他交易異動庫存
+        Map<String, Object> product = jdbcTemplate.queryForMap(
+                "SELECT AVAILABLE, RESERVED FROM PRODUCT WHERE ID = ? FOR UPDATE", productId);
+        Map<String, Object> buckets = jdbcTemplate.queryForMap("""
+                SELECT COALESCE(SUM(AVAILABLE), 0) AS AVAILABLE, COALESCE(SUM(RESERVED), 0) AS RESERVED
+                FROM PRODUCT_STOCK_BUCKET WHERE PRODUCT_ID = ?
+                """, productId);
+        int totalAvailable = toInt(product.get("AVAILABLE")) + toInt(buckets.get("AVAILABLE"));
+        int totalReserved = toInt(product.get("RESERVED")) + toInt(buckets.get("RESERVED"));
+
+        // 2. 以新的 bucket 數重建，餘數分給編號較小的 bucket
+        jdbcTemplate.update("DELETE FROM PRODUCT_STOCK_BUCKET WHERE PRODUCT_ID = ?", productId);
+        List<Object[]> rows = new ArrayList<>(bucketCount);
+        for (int bucketNo = 0; bucketNo < bucketCount; bucketNo++) {
+            rows.add(new Object[] { productId, bucketNo,
+                    share(totalAvailable, bucketCount, bucketNo),
+                    share(totalReserved, bucketCount, bucketNo) });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO PRODUCT_STOCK_BUCKET (PRODUCT_ID, BUCKET_NO, AVAILABLE, RESERVED) VALUES (?, ?, ?, ?)",
+                rows);
+
+        // 3. 庫存已全數搬到 bucket
+        jdbcTemplate.update("UPDATE PRODUCT SET AVAILABLE = 0, RESERVED = 0 WHERE ID = ?", productId);
+    }
+
+    @Override
+    public void clearBucketAvailable(Integer productId) {
+        jdbcTemplate.update("UPDATE PRODUCT_STOCK_BUCKET SET AVAILABLE = 0 WHERE PRODUCT_ID = ?", productId);
+    }
+
+    @Override
+    public boolean recordStockOperation(String operationId) {
+        try {
+            jdbcTemplate.update("INSERT INTO STOCK_OPERATION (OPERATION_ID, CREATED_AT_MS) VALUES (?, ?)",
+                    operationId, System.currentTimeMillis());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int purgeStockOperations(long createdBeforeMillis) {
+        return jdbcTemplate.update("DELETE FROM STOCK_OPERATION WHERE CREATED_AT_MS < ?", createdBeforeMillis);
+    }
+
+    private static int share(int total, int bucketCount, int bucketNo) {
+        return total / bucketCount + (bucketNo < total % bucketCount ? 1 : 0);
+    }
+
+    private static int toInt(Object value) {
+        return ((Number) value).intValue();
+    }
+}
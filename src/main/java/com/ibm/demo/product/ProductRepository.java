@@ -1,9 +1,12 @@
 package com.ibm.demo.product;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,7 +14,8 @@ import org.springframework.data.repository.query.Param;
 
 import com.ibm.demo.util.SoftDeleteRepository;
 
-public interface ProductRepository extends JpaRepository<Product, Integer>, SoftDeleteRepository<Integer> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, SoftDeleteRepository<Integer>,
+        ProductInventoryRepository {
     List<Product> findBySaleStatus(Integer saleStatus);
 
     @Query("SELECT p FROM Product p")
@@ -20,6 +24,14 @@ public interface ProductRepository extends JpaRepository<Product, Integer>, Soft
     @Query("SELECT p FROM Product p")
     Page<Product> findAllProducts(Pageable pageable);
 
+    // Slice：多取一筆判斷 hasNext，不執行 COUNT(*)
+    @Query("SELECT p FROM Product p")
+    Slice<Product> findAllProductsAsSlice(Pageable pageable);
+
+    // 游標分頁：WHERE id > :lastId ORDER BY id FETCH FIRST n ROWS，不做 COUNT(*)
+    @Query("SELECT p FROM Product p WHERE p.id > :lastId ORDER BY p.id ASC")
+    List<Product> findAllProductsAfter(@Param("lastId") Integer lastId, Limit limit);
+
     @Modifying
     @Query("UPDATE Product p SET p.available = p.available - :qty, p.reserved = p.reserved + :qty WHERE p.id = :productId AND p.available >= :qty")
     Integer reserveProduct(Integer productId, Integer qty);
@@ -46,4 +58,8 @@ public interface ProductRepository extends JpaRepository<Product, Integer>, Soft
     int softDeleteById(@Param("id") Integer id, @Param("version") Integer version);
 
     boolean existsByName(String name);
+
+    // 批次匯入的名稱重複檢查：一次 IN 查詢取回已存在的名稱（與 existsByName 相同，受 SQLRestriction 限制）
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
 }
@@ -1,16 +1,25 @@
 package com.ibm.demo.product;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.ibm.demo.config.properties.AppProperties;
 import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException;
 import com.ibm.demo.exception.BusinessLogicCheck.ProductAlreadyExistException;
 import com.ibm.demo.exception.BusinessLogicCheck.ProductStockNotEnoughException;
 import com.ibm.demo.exception.BusinessLogicCheck.ResourceNotFoundException;
@@ -20,23 +29,32 @@ import com.ibm.demo.product.DTO.GetProductListResponse;
 import com.ibm.demo.product.DTO.UpdateProductRequest;
 import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
 import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+import com.ibm.demo.util.CountEstimateCache;
+import com.ibm.demo.util.CursorPageRequest;
+import com.ibm.demo.util.CursorPageResponse;
 import com.ibm.demo.util.DBAssertion;
 import com.ibm.demo.util.PageResponse;
 import com.ibm.demo.util.ServiceValidator;
+import com.ibm.demo.util.SliceResponse;
 
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @CircuitBreaker(name = "ProductService")
 public class ProductService {
     private final ProductRepository productRepository;
+    private final AppProperties appProperties;
+    private final ProductCatalogCache productCatalogCache;
+    private final CountEstimateCache countEstimateCache;
 
-    // 建構子，注入 Repository，已用lombok註解RequiredArgsConstructor定義。
+    // 建構子，注入 Repository、設定與快取，已用lombok註解RequiredArgsConstructor定義。
 
     /**
      * 建立新商品。
@@ -73,11 +91,49 @@ public class ProductService {
     @Bulkhead(name = "product-read")
     @RateLimiter(name = "product-read")
     public PageResponse<GetProductListResponse> getProductList(Pageable pageable) {
-        Page<GetProductListResponse> page = productRepository.findAllProducts(pageable)
-                .map(this::mapProductToListResponse);
+        Page<Product> productPage = productRepository.findAllProducts(pageable);
+        Map<Integer, Integer> bucketAvailable = findBucketAvailable(
+                productPage.getContent().stream().map(Product::getId).toList());
+        Page<GetProductListResponse> page = productPage
+                .map(product -> mapProductToListResponse(product, bucketAvailable));
         return PageResponse.from(page);
     }
 
+    /**
+     * 以 Slice 分頁獲取商品列表：不執行 COUNT(*)，以多取一筆判斷是否有下一頁。
+     *
+     * @param pageable     分頁參數
+     * @param withEstimate 是否附帶總筆數估計值（快取，TTL 見 app.pagination）
+     * @return 不計總數的商品分頁回應
+     */
+    @Bulkhead(name = "product-read")
+    @RateLimiter(name = "product-read")
+    public SliceResponse<GetProductListResponse> getProductSlice(Pageable pageable, boolean withEstimate) {
+        Slice<Product> productSlice = productRepository.findAllProductsAsSlice(pageable);
+        Map<Integer, Integer> bucketAvailable = findBucketAvailable(
+                productSlice.getContent().stream().map(Product::getId).toList());
+        Slice<GetProductListResponse> slice = productSlice
+                .map(product -> mapProductToListResponse(product, bucketAvailable));
+        Long estimate = withEstimate ? countEstimateCache.estimate("product", productRepository::count) : null;
+        return SliceResponse.from(slice, estimate);
+    }
+
+    /**
+     * 以游標分頁獲取商品列表（不計算總筆數，深頁成本與第一頁相同）。
+     *
+     * @param cursorPageRequest 游標分頁請求
+     * @return 包含商品列表資訊的游標分頁回應
+     */
+    @Bulkhead(name = "product-read")
+    @RateLimiter(name = "product-read")
+    public CursorPageResponse<GetProductListResponse> getProductListByCursor(CursorPageRequest cursorPageRequest) {
+        List<Product> products = productRepository.findAllProductsAfter(cursorPageRequest.lastId(),
+                cursorPageRequest.limit());
+        Map<Integer, Integer> bucketAvailable = findBucketAvailable(products.stream().map(Product::getId).toList());
+        return CursorPageResponse.from(products, cursorPageRequest, Product::getId,
+                product -> mapProductToListResponse(product, bucketAvailable));
+    }
+
     /**
      * 根據 ID 獲取單一商品的詳細資訊。
      *
@@ -88,7 +144,7 @@ public class ProductService {
     @RateLimiter(name = "product-read")
     public GetProductDetailResponse getProductDetail(Integer id) {
         Product existingProduct = findProductByIdOrThrow(id);
-        return mapProductToDetailResponse(existingProduct);
+        return mapProductToDetailResponse(existingProduct, findBucketAvailable(Set.of(id)));
     }
 
     /**
@@ -129,13 +185,24 @@ public class ProductService {
         if (!existingProduct.getName().equals(requestProductName)) {
             checkProductExistsByNameOrThrow(requestProductName);
         }
-        // 3. 更新商品屬性
+        // 3. 已分桶商品：請求的 available 代表新的總可用庫存，先清空各 bucket 的可用量
+        boolean striped = !productRepository.findStripedProductIds(Set.of(id)).isEmpty();
+        if (striped) {
+            productRepository.clearBucketAvailable(id);
+        }
+        // 4. 更新商品屬性
         existingProduct.setName(updateProductRequestDto.name());
         existingProduct.setPrice(updateProductRequestDto.price());
         existingProduct.setSaleStatus(updateProductRequestDto.saleStatus());
         existingProduct.setAvailable(updateProductRequestDto.available());
-        // 4. 儲存商品資料
+        // 5. 儲存商品資料並 flush 取得遞增後的版本；已分桶商品再把新的可用庫存重新分配到各 bucket
         productRepository.save(existingProduct);
+        productRepository.flush();
+        if (striped) {
+            productRepository.restripe(id, appProperties.getInventory().getStriping().getBucketCount());
+        }
+        // 6. commit 後失效商品目錄快取
+        productCatalogCache.invalidate(id, existingProduct.getVersion());
     }
 
     /**
@@ -150,6 +217,25 @@ public class ProductService {
         Product existingProduct = findProductByIdOrThrow(productId);
         int updated = productRepository.softDeleteById(productId, existingProduct.getVersion());
         DBAssertion.assertUpdated(updated, Product.class, productId);
+        // softDeleteById 以讀到的版本為條件並將版本 + 1
+        productCatalogCache.invalidate(productId, existingProduct.getVersion() + 1);
+    }
+
+    /**
+     * 將商品庫存分桶（熱門商品使用）：目前所有可用 / 預留庫存平均分配到設定的 bucket 數，
+     * 之後的預留會分散到不同 bucket 列上鎖。對已分桶的商品再次呼叫會依目前設定重新分配。
+     *
+     * @param productId 商品 ID
+     */
+    @Transactional
+    @Bulkhead(name = "product-write")
+    @RateLimiter(name = "product-write")
+    public void stripeStock(Integer productId) {
+        if (!isStripingEnabled()) {
+            throw new InvalidRequestException("Stock striping is not enabled (app.inventory.striping.enabled)");
+        }
+        findProductByIdOrThrow(productId);
+        productRepository.restripe(productId, appProperties.getInventory().getStriping().getBucketCount());
     }
 
     /**
@@ -177,7 +263,10 @@ public class ProductService {
     }
 
     /**
-     * 調整庫存（更新訂單時使用）：將庫存從 from 的預留狀態調整為 to 的預留狀態。
+     * 調整庫存（訂單的建立、更新、刪除皆經由 StockSaga 使用）：將庫存從 from 的預留狀態調整為 to 的預留狀態。
+     *
+     * 帶 operationId 時，同一個 ID 只套用一次（見 STOCK_OPERATION），重送直接略過；
+     * 帶 compensates 時為補償操作：被補償的操作從未套用則不做任何異動，並記錄該 ID 使其之後到達時被略過。
      *
      * @param request 包含調整前(from)與調整後(to)訂單項目集合的請求
      */
@@ -186,101 +275,210 @@ public class ProductService {
     @RateLimiter(name = "product-inventory")
     public void adjustStock(AdjustStockRequest request) {
         ServiceValidator.validateNotNull(request, "Adjust stock request");
+        if (request.operationId() != null && !productRepository.recordStockOperation(request.operationId())) {
+            log.info("庫存操作已套用過，略過。操作ID: {}", request.operationId());
+            return;
+        }
+        if (request.compensates() != null && productRepository.recordStockOperation(request.compensates())) {
+            log.info("被補償的庫存操作未曾套用，略過補償。操作ID: {}", request.compensates());
+            return;
+        }
         applyStockDelta(request.from(), request.to());
     }
 
+    /**
+     * 定期刪除超過保留期限的庫存操作紀錄（app.stock-saga.operation-retention）。
+     */
+    @Scheduled(fixedDelayString = "${app.stock-saga.operation-purge-interval:1h}",
+            initialDelayString = "${app.stock-saga.operation-purge-interval:1h}")
+    @Transactional
+    public void purgeStockOperations() {
+        long createdBefore = System.currentTimeMillis()
+                - appProperties.getStockSaga().getOperationRetention().toMillis();
+        int deleted = productRepository.purgeStockOperations(createdBefore);
+        if (deleted > 0) {
+            log.debug("已刪除 {} 筆過期的庫存操作紀錄", deleted);
+        }
+    }
+
     /**
      * 庫存差值計算與套用：對每個涉及的商品計算 (新數量 - 舊數量) 的差值，
-     * 正值代表需預留(reserve)、負值代表需釋放(release)、零則不處理。
+     * 正值代表需預留(reserve)、負值代表需釋放(release)、零則不異動庫存。
+     * 所有非零差值依商品 ID 遞增排序後，以單一 batch 一次套用（見 ProductInventoryRepository），
+     * 任一商品失敗即拋出例外並由交易整批回滾。
      *
      * @param originalItems 調整前的預留項目集合
      * @param updatedItems  調整後的預留項目集合
      */
     private void applyStockDelta(Set<OrderItemRequest> originalItems, Set<OrderItemRequest> updatedItems) {
-        // 0. 驗證輸入的訂單商品明細集合是否為空，且updatedItems中productId要存在，否則拋出ResourceNotFound
         ServiceValidator.validateNotNull(originalItems, "Original order items");
         ServiceValidator.validateNotNull(updatedItems, "Updated order items");
 
-        Set<Integer> updatedProductIds = updatedItems.stream()
-                .map(OrderItemRequest::productId)
-                .collect(Collectors.toSet());
-
-        if (!updatedProductIds.isEmpty()) {
-            List<Product> foundProducts = productRepository.findAllById(updatedProductIds);
-            if (foundProducts.size() != updatedProductIds.size()) {
-                Set<Integer> foundIds = foundProducts.stream().map(Product::getId).collect(Collectors.toSet());
-                String missingIds = updatedProductIds.stream().filter(id -> !foundIds.contains(id))
-                        .map(String::valueOf).collect(Collectors.joining(", "));
-                throw new ResourceNotFoundException("Products not found with IDs: " + missingIds);
-            }
-        }
-
         // 1. 將新舊項目轉成 Map，方便快速比對 (Key: ProductId, Value: Quantity)
         Map<Integer, Integer> oldMap = originalItems.stream()
                 .collect(Collectors.toMap(OrderItemRequest::productId, OrderItemRequest::quantity));
         Map<Integer, Integer> newMap = updatedItems.stream()
                 .collect(Collectors.toMap(OrderItemRequest::productId, OrderItemRequest::quantity));
 
-        // 2. 獲取所有涉及到的 Product ID (聯集)
+        // 2. 獲取所有涉及到的 Product ID (聯集)，計算差值；TreeMap 保證以商品 ID 遞增順序上鎖
         Set<Integer> allProductIds = new HashSet<>();
         allProductIds.addAll(oldMap.keySet());
         allProductIds.addAll(newMap.keySet());
 
-        // 3. 統一計算差值並處理
+        SortedMap<Integer, Integer> deltas = new TreeMap<>();
+        Set<Integer> unchangedProductIds = new HashSet<>();
         for (Integer productId : allProductIds) {
-            int oldQty = oldMap.getOrDefault(productId, 0);
-            int newQty = newMap.getOrDefault(productId, 0);
-
-            int diff = newQty - oldQty;
-
-            if (diff > 0) {
-                // 需要更多庫存
-                int rowsAffected = productRepository.reserveProduct(productId, diff);
-                if (rowsAffected == 0) {
-                    throw new ProductStockNotEnoughException("商品 ID " + productId + " 庫存不足，無法預留");
-                }
-            } else if (diff == 0) {
-                // 數量沒變不處理
-                continue;
-            } else if (diff < 0) {
-                // 釋放多餘庫存
-                int rowsAffected = productRepository.releaseProduct(productId, Math.abs(diff));
-                if (rowsAffected == 0) {
-                    throw new ProductStockNotEnoughException("商品 ID " + productId + " 預留的庫存不足，無法釋放");
-                }
+            int diff = newMap.getOrDefault(productId, 0) - oldMap.getOrDefault(productId, 0);
+            if (diff != 0) {
+                deltas.put(productId, diff);
+            } else if (newMap.containsKey(productId)) {
+                unchangedProductIds.add(productId);
             }
         }
+
+        // 3. 數量沒變的商品不異動庫存，但仍須存在且可銷售（與預留的商品一致）
+        if (!unchangedProductIds.isEmpty()) {
+            checkProductsExistOrThrow(unchangedProductIds);
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // 4. 單一 round trip 套用所有差值；已分桶商品的 PRODUCT 列庫存為 0，改由 bucket 套用
+        // （不看 striping.enabled：關閉後已分桶商品的庫存仍在 bucket 中）
+        Set<Integer> rejectedIds = productRepository.applyStockDeltas(deltas);
+        if (!rejectedIds.isEmpty()) {
+            rejectedIds = applyToStripedProducts(deltas, rejectedIds);
+        }
+        // 5. 失敗時精確回報是哪些商品
+        if (!rejectedIds.isEmpty()) {
+            throw stockDeltaRejected(deltas, rejectedIds);
+        }
+    }
+
+    /**
+     * 將 PRODUCT 列套用失敗的商品中，已分桶者改由 bucket 套用。
+     *
+     * @param deltas      本次套用的差值
+     * @param rejectedIds PRODUCT 列未被更新的商品 ID
+     * @return 最終仍未能套用的商品 ID
+     */
+    private Set<Integer> applyToStripedProducts(SortedMap<Integer, Integer> deltas, Set<Integer> rejectedIds) {
+        Set<Integer> stripedIds = productRepository.findStripedProductIds(rejectedIds);
+        if (stripedIds.isEmpty()) {
+            return rejectedIds;
+        }
+        SortedMap<Integer, Integer> stripedDeltas = new TreeMap<>();
+        stripedIds.forEach(id -> stripedDeltas.put(id, deltas.get(id)));
+
+        Set<Integer> remainingIds = new HashSet<>(rejectedIds);
+        remainingIds.removeAll(stripedIds);
+        remainingIds.addAll(productRepository.applyBucketDeltas(stripedDeltas,
+                appProperties.getInventory().getStriping().getBucketCount()));
+        return remainingIds;
+    }
+
+    /**
+     * 將 batch 中未成功套用的商品分類為對應的例外：預留失敗的商品若已不存在（或不可銷售）視為 NotFound，
+     * 其餘為庫存不足（預留）或預留量不足（釋放）。只在失敗路徑多查一次 DB。
+     *
+     * @param deltas      本次套用的差值
+     * @param rejectedIds 未被更新的商品 ID
+     * @return 應拋出的業務例外
+     */
+    private RuntimeException stockDeltaRejected(SortedMap<Integer, Integer> deltas, Set<Integer> rejectedIds) {
+        Set<Integer> rejectedReserveIds = rejectedIds.stream()
+                .filter(id -> deltas.get(id) > 0)
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (!rejectedReserveIds.isEmpty()) {
+            Set<Integer> foundIds = findProductsByIds(rejectedReserveIds).stream()
+                    .map(Product::getId)
+                    .collect(Collectors.toSet());
+            String missingIds = rejectedReserveIds.stream().filter(id -> !foundIds.contains(id))
+                    .map(String::valueOf).collect(Collectors.joining(", "));
+            if (!missingIds.isEmpty()) {
+                return new ResourceNotFoundException("Products not found with IDs: " + missingIds);
+            }
+        }
+
+        String shortReserveIds = joinIds(rejectedIds, id -> deltas.get(id) > 0);
+        String shortReleaseIds = joinIds(rejectedIds, id -> deltas.get(id) < 0);
+        if (!shortReserveIds.isEmpty()) {
+            return new ProductStockNotEnoughException("商品 ID " + shortReserveIds + " 庫存不足，無法預留");
+        }
+        return new ProductStockNotEnoughException("商品 ID " + shortReleaseIds + " 預留的庫存不足，無法釋放");
+    }
+
+    private String joinIds(Set<Integer> ids, Predicate<Integer> filter) {
+        return ids.stream().filter(filter).sorted()
+                .map(String::valueOf).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * 驗證一組商品 ID 皆存在且可銷售，否則拋出 ResourceNotFoundException 並列出缺少的 ID。
+     *
+     * @param productIds 商品 ID 集合
+     */
+    private void checkProductsExistOrThrow(Set<Integer> productIds) {
+        List<Product> foundProducts = findProductsByIds(productIds);
+        if (foundProducts.size() != productIds.size()) {
+            Set<Integer> foundIds = foundProducts.stream().map(Product::getId).collect(Collectors.toSet());
+            String missingIds = productIds.stream().filter(id -> !foundIds.contains(id))
+                    .map(String::valueOf).collect(Collectors.joining(", "));
+            throw new ResourceNotFoundException("Products not found with IDs: " + missingIds);
+        }
     }
 
     /**
      * 將單一 Product 實體映射到 GetProductDetailResponse DTO。
      *
-     * @param product 商品實體
+     * @param product         商品實體
+     * @param bucketAvailable 已分桶商品的 bucket 可用庫存合計
      * @return 商品詳細資訊 DTO
      */
-    private GetProductDetailResponse mapProductToDetailResponse(Product product) {
+    private GetProductDetailResponse mapProductToDetailResponse(Product product,
+            Map<Integer, Integer> bucketAvailable) {
         return GetProductDetailResponse.builder()
                 .id(product.getId())
                 .name(product.getName())
                 .price(product.getPrice())
                 .saleStatus(product.getSaleStatus())
-                .available(product.getAvailable())
+                .available(availableOf(product, bucketAvailable))
+                .version(product.getVersion())
                 .build();
     }
 
     /**
      * 將單一 Product 實體映射到 GetProductListResponse DTO。
      *
-     * @param product 商品實體
+     * @param product         商品實體
+     * @param bucketAvailable 已分桶商品的 bucket 可用庫存合計
      * @return 商品列表資訊 DTO
      */
-    private GetProductListResponse mapProductToListResponse(Product product) {
+    private GetProductListResponse mapProductToListResponse(Product product, Map<Integer, Integer> bucketAvailable) {
         return new GetProductListResponse(
                 product.getId(),
                 product.getName(),
                 product.getPrice(),
                 product.getSaleStatus(),
-                product.getAvailable());
+                availableOf(product, bucketAvailable));
+    }
+
+    // 可用庫存 = PRODUCT 列 + 各 bucket 合計（未分桶商品 bucket 合計視為 0）
+    private Integer availableOf(Product product, Map<Integer, Integer> bucketAvailable) {
+        return product.getAvailable() + bucketAvailable.getOrDefault(product.getId(), 0);
+    }
+
+    // striping.enabled 只管能否再分桶；關閉前已分桶的商品仍須讀 bucket 表
+    private Map<Integer, Integer> findBucketAvailable(Collection<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.sumBucketAvailable(productIds);
+    }
+
+    private boolean isStripingEnabled() {
+        return appProperties.getInventory().getStriping().isEnabled();
     }
 
     /**
@@ -302,8 +500,10 @@ public class ProductService {
      * @return 以商品 ID 為鍵，商品詳細資訊 DTO 為值的 Map
      */
     private Map<Integer, GetProductDetailResponse> mapProductsToDetailResponses(List<Product> products) {
+        Map<Integer, Integer> bucketAvailable = findBucketAvailable(products.stream().map(Product::getId).toList());
         return products.stream()
-                .collect(Collectors.toMap(Product::getId, this::mapProductToDetailResponse));
+                .collect(Collectors.toMap(Product::getId,
+                        product -> mapProductToDetailResponse(product, bucketAvailable)));
     }
 
     // 根據商品名稱檢查商品是否已存在
@@ -0,0 +1,46 @@
+package com.ibm.demo.util;
+
+import java.util.function.LongSupplier;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 列表總筆數的快取估計值：同一個 key（例如 "product"、"order:account:1"）在 TTL 內只執行一次 COUNT(*)，
+ * 供 SliceResponse 的 totalElementsEstimate 使用。值可能落後實際筆數最多一個 TTL，
+ * 僅適合「約 N 筆」這類顯示用途，不可作為業務判斷依據。
+ *
+ * TTL 與筆數上限見 app.pagination（AppProperties.Pagination）；命中率以 cache.*（tag cache=count-estimate）發佈。
+ */
+@Component
+public class CountEstimateCache {
+
+    private final Cache<String, Long> cache;
+
+    public CountEstimateCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.Pagination properties = appProperties.getPagination();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCountEstimateMaximumSize())
+                .expireAfterWrite(properties.getCountEstimateTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "count-estimate");
+    }
+
+    /**
+     * 取得總筆數估計值，過期或不存在時以 counter 重新計算。
+     *
+     * @param key     列表識別鍵
+     * @param counter 實際執行 COUNT(*) 的函式
+     * @return 總筆數估計值
+     */
+    public long estimate(String key, LongSupplier counter) {
+        return cache.get(key, k -> counter.getAsLong());
+    }
+}
@@ -0,0 +1,56 @@
+package com.ibm.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.domain.Limit;
+
+import com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException;
+
+/**
+ * 游標分頁（keyset pagination）請求。
+ * 查詢條件固定為 {@code WHERE id > :lastId ORDER BY id}，多取一筆判斷是否有下一頁，不做 COUNT(*)；
+ * 深頁與第一頁成本相同。對外的游標是不透明 token（Base64URL），呼叫端只需原樣帶回 nextCursor。
+ *
+ * @param lastId 上一頁最後一筆的 ID，第一頁為 0
+ * @param size   每頁筆數
+ */
+public record CursorPageRequest(Integer lastId, int size) {
+
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * 由 API 參數建立請求。
+     *
+     * @param after 上一頁回傳的 nextCursor，第一頁不傳
+     * @param size  每頁筆數（1 ~ MAX_SIZE）
+     * @return CursorPageRequest 實例
+     */
+    public static CursorPageRequest of(String after, int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new InvalidRequestException("Size must be between 1 and " + MAX_SIZE + ".");
+        }
+        return new CursorPageRequest(after == null || after.isBlank() ? 0 : decode(after), size);
+    }
+
+    /**
+     * 查詢筆數上限：多取一筆，用來判斷是否還有下一頁。
+     */
+    public Limit limit() {
+        return Limit.of(size + 1);
+    }
+
+    static String encode(Integer id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Integer decode(String cursor) {
+        try {
+            return Integer.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException 亦為 IllegalArgumentException
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ibm.demo.util;
+
+import java.util.List;
+import java.util.function.Function;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * 游標分頁回應格式（見 CursorPageRequest）。
+ * 與 PageResponse 不同，不提供總筆數 / 總頁數，以省去 COUNT(*) 查詢。
+ *
+ * @param <T> 資料內容的型別
+ */
+@Schema(description = "游標分頁回應")
+public record CursorPageResponse<T>(
+        @Schema(description = "資料內容") List<T> content,
+
+        @Schema(description = "每頁筆數", example = "20") int size,
+
+        @Schema(description = "是否有下一頁") boolean hasNext,
+
+        @Schema(description = "下一頁游標（不透明 token，原樣帶入下次請求的 after；無下一頁時為 null）", example = "NDI") String nextCursor) {
+
+    /**
+     * 從 keyset 查詢結果（最多 size + 1 筆，依 ID 遞增）轉換為 CursorPageResponse。
+     *
+     * @param rows    以 request.limit() 查詢的結果
+     * @param request 游標分頁請求
+     * @param idOf    取得實體 ID 的函式
+     * @param mapper  實體轉 DTO 的函式
+     * @param <E>     實體型別
+     * @param <T>     DTO 型別
+     * @return CursorPageResponse 實例
+     */
+    public static <E, T> CursorPageResponse<T> from(List<E> rows, CursorPageRequest request,
+            Function<E, Integer> idOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > request.size();
+        List<E> page = hasNext ? rows.subList(0, request.size()) : rows;
+        String nextCursor = hasNext ? CursorPageRequest.encode(idOf.apply(page.get(page.size() - 1))) : null;
+        return new CursorPageResponse<>(
+                page.stream().map(mapper).toList(),
+                request.size(),
+                hasNext,
+                nextCursor);
+    }
+}
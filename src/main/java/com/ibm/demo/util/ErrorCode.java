@@ -10,6 +10,7 @@ import lombok.Getter;
 public enum ErrorCode {
     ACCOUNT_STILL_HAS_ORDER_CAN_NOT_BE_DELETED(HttpStatus.BAD_REQUEST, "ACCOUNT_002", "帳戶仍有訂單，無法刪除"),
     ORDER_STATUS_INVALID(HttpStatus.BAD_REQUEST, "ORDER_001", "訂單狀態無效"),
+    IDEMPOTENCY_KEY_IN_USE(HttpStatus.CONFLICT, "ORDER_002", "相同 Idempotency-Key 的請求仍在處理中"),
     PRODUCT_ALREADY_EXIST(HttpStatus.BAD_REQUEST, "PRODUCT_001", "商品名稱已存在"),
     PRODUCT_STOCK_NOT_ENOUGH(HttpStatus.BAD_REQUEST, "PRODUCT_003", "商品庫存不足"),
     RESOURCE_NOT_FOUND(HttpStatus.NOT_FOUND, "SYS_001", "找不到資源"),
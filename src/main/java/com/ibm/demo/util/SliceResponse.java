@@ -0,0 +1,44 @@
+package com.ibm.demo.util;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * 不計總數的分頁回應格式。
+ * 將 Spring Data 的 Slice<T> 轉換為 API 回應：以多取一筆判斷 hasNext，不執行 COUNT(*)。
+ * 需要顯示總數時可附上 CountEstimateCache 提供的快取估計值（可能落後於實際筆數）。
+ *
+ * @param <T> 資料內容的型別
+ */
+@Schema(description = "不計總數的分頁回應")
+public record SliceResponse<T>(
+        @Schema(description = "資料內容") List<T> content,
+
+        @Schema(description = "當前頁碼（從 0 開始）", example = "0") int page,
+
+        @Schema(description = "每頁筆數", example = "20") int size,
+
+        @Schema(description = "是否有下一頁") boolean hasNext,
+
+        @Schema(description = "總筆數估計值（快取，未要求時為 null）", example = "100", nullable = true) Long totalElementsEstimate) {
+
+    /**
+     * 從 Spring Data Slice 轉換為 SliceResponse。
+     *
+     * @param slice                 Spring Data 的 Slice 物件
+     * @param totalElementsEstimate 總筆數估計值，未要求時傳 null
+     * @param <T>                   資料型別
+     * @return SliceResponse 實例
+     */
+    public static <T> SliceResponse<T> from(Slice<T> slice, Long totalElementsEstimate) {
+        return new SliceResponse<>(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                slice.hasNext(),
+                totalElementsEstimate);
+    }
+}
@@ -0,0 +1,22 @@
+-- ============================================================================
+-- Flyway Migration V2: Product Stock Buckets
+-- ============================================================================
+-- 熱門商品庫存分桶（見 AppProperties.Inventory.Striping）。
+-- 分桶後的商品，其 AVAILABLE / RESERVED 由 PRODUCT 搬到本表的 N 列，
+-- 預留時分散到不同列上鎖；可用庫存 = PRODUCT.AVAILABLE + SUM(bucket AVAILABLE)。
+-- 未分桶的商品在本表沒有任何資料列。
+-- Compatible with both H2 (Oracle mode) and Oracle databases.
+-- ============================================================================
+
+CREATE TABLE PRODUCT_STOCK_BUCKET (
+    PRODUCT_ID INTEGER NOT NULL,
+    BUCKET_NO INTEGER NOT NULL,
+    AVAILABLE INTEGER DEFAULT 0 NOT NULL,
+    RESERVED INTEGER DEFAULT 0 NOT NULL,
+    CONSTRAINT PK_PRODUCT_STOCK_BUCKET PRIMARY KEY (PRODUCT_ID, BUCKET_NO),
+    CONSTRAINT FK_BUCKET_PRODUCT FOREIGN KEY (PRODUCT_ID) REFERENCES PRODUCT(ID)
+);
+
+-- ============================================================================
+-- End of Migration V2
+-- ============================================================================
@@ -0,0 +1,24 @@
+-- ============================================================================
+-- Flyway Migration V3: Order Lookup Indexes
+-- ============================================================================
+-- V1 只有主鍵與外鍵約束，Oracle 不會自動替外鍵欄位建立索引；
+-- 以下查詢原本都是全表掃描：
+-- - OrderInfoRepository.findByAccountId（訂單列表、Slice、游標分頁）
+-- - OrderInfo.orderDetails 集合載入
+-- - OrderDetailRepository.softDeleteByOrderId
+--
+-- 索引欄位依 @SQLRestriction 條件排列：
+-- - ORDER_INFO：WHERE ACCOUNT_ID = ? AND DELETED = false AND STATUS = 1001 ORDER BY ID，
+--   ID 放在最後讓依 ID 排序 / 游標分頁可直接沿索引順序讀取。
+-- - ORDER_PRODUCT_DETAIL：WHERE ORDER_ID = ? AND DELETED = false。
+-- 兩個索引同時涵蓋外鍵欄位，刪除父表資料時不必鎖整張子表。
+-- Compatible with both H2 (Oracle mode) and Oracle databases.
+-- ============================================================================
+
+CREATE INDEX IDX_ORDER_INFO_ACCOUNT ON ORDER_INFO (ACCOUNT_ID, DELETED, STATUS, ID);
+
+CREATE INDEX IDX_ORDER_DETAIL_ORDER ON ORDER_PRODUCT_DETAIL (ORDER_ID, DELETED);
+
+-- ============================================================================
+-- End of Migration V3
+-- ============================================================================
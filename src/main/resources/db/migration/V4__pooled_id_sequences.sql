@@ -0,0 +1,24 @@
+-- ============================================================================
+-- Flyway Migration V4: Pooled ID Sequences
+-- ============================================================================
+-- 實體主鍵改為 @SequenceGenerator(allocationSize = 50)，Hibernate 使用 pooled optimizer：
+-- 每次 NEXTVAL 取得一整段 50 個 ID（回傳值為該段上限），段內的 insert 不必再查詢 sequence。
+-- Sequence 的 INCREMENT BY 必須與 allocationSize 一致，否則 Hibernate 啟動時的 schema 驗證會失敗。
+--
+-- 既有資料不受影響：下一次 NEXTVAL = 目前值 + 50，Hibernate 取用 (目前值 + 1) ~ (目前值 + 50)，
+-- 不會與已發出的 ID 重疊。直接以 SQL 使用 NEXTVAL 當 ID 的寫入者同樣安全（該段不會再被 Hibernate 取用），
+-- 但 ID 不再連續，且重啟後未用完的段會被跳過。
+-- Compatible with both H2 (Oracle mode) and Oracle databases.
+-- ============================================================================
+
+ALTER SEQUENCE account_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE product_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE order_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE order_product_detail_id_seq INCREMENT BY 50;
+
+-- ============================================================================
+-- End of Migration V4
+-- ============================================================================
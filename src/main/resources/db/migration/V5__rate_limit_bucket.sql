@@ -0,0 +1,20 @@
+-- ============================================================================
+-- Flyway Migration V5: Cluster Rate Limit Buckets
+-- ============================================================================
+-- 跨 replica 共用的 token bucket（見 ClusterRateLimiter / RateLimitLeaseStore）。
+-- 每個 @RateLimiter 名稱一列：TOKENS 為目前剩餘 token（可含小數），LAST_REFILL_MS 為上次補充的 epoch 毫秒。
+-- 各節點每次以 SELECT ... FOR UPDATE 鎖住該列、依經過時間補充後租借一批 token，請求本身不存取此表。
+-- 容量與補充速率不存在表中，取自各節點 resilience4j.ratelimiter.instances 的設定（各 replica 相同）。
+-- Compatible with both H2 (Oracle mode) and Oracle databases.
+-- ============================================================================
+
+CREATE TABLE RATE_LIMIT_BUCKET (
+    NAME VARCHAR2(100) NOT NULL,
+    TOKENS NUMBER(19, 3) NOT NULL,
+    LAST_REFILL_MS NUMBER(19) NOT NULL,
+    CONSTRAINT PK_RATE_LIMIT_BUCKET PRIMARY KEY (NAME)
+);
+
+-- ============================================================================
+-- End of Migration V5
+-- ============================================================================
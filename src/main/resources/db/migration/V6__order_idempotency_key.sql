@@ -0,0 +1,23 @@
+-- ============================================================================
+-- Flyway Migration V6: Order Idempotency Keys
+-- ============================================================================
+-- POST /order 的 Idempotency-Key 去重表（見 OrderIdempotencyStore）。
+-- 只保存判斷重送所需的最少欄位：鍵、請求內容的 SHA-256 摘要（十六進位）、建立出的訂單 ID 與到期時間（epoch 毫秒）。
+-- ORDER_ID 為 NULL 表示第一次請求仍在處理中，此時 EXPIRES_AT_MS 為較短的 pending-timeout，
+-- 處理中途當機留下的鍵逾時後可被重送接手；訂單建立後改為 key-ttl。過期資料由背景排程分批刪除。
+-- Compatible with both H2 (Oracle mode) and Oracle databases.
+-- ============================================================================
+
+CREATE TABLE ORDER_IDEMPOTENCY_KEY (
+    IDEMPOTENCY_KEY VARCHAR2(64) NOT NULL,
+    REQUEST_HASH VARCHAR2(64) NOT NULL,
+    ORDER_ID INTEGER,
+    EXPIRES_AT_MS NUMBER(19) NOT NULL,
+    CONSTRAINT PK_ORDER_IDEMPOTENCY_KEY PRIMARY KEY (IDEMPOTENCY_KEY)
+);
+
+CREATE INDEX IDX_ORDER_IDEMPOTENCY_EXPIRES ON ORDER_IDEMPOTENCY_KEY (EXPIRES_AT_MS);
+
+-- ============================================================================
+-- End of Migration V6
+-- ============================================================================
@@ -0,0 +1,43 @@
+-- ============================================================================
+-- Flyway Migration V7: Stock Saga (Operation Log + Compensation Outbox)
+-- ============================================================================
+-- 訂單寫入與庫存異動的 saga（見 StockSaga / StockCompensationDispatcher）。
+--
+-- STOCK_OPERATION：商品端已套用的庫存操作 ID，與庫存異動在同一個交易中寫入，
+--   同一個 ID 再次到達時略過，讓庫存操作與其補償都可以安全重送。
+--   補償操作會一併寫入被補償的 ID：若原操作從未套用，這筆紀錄讓它之後才到達時也被略過。
+--   超過 app.stock-saga.operation-retention 的紀錄由背景排程刪除。
+--
+-- STOCK_COMPENSATION_OUTBOX：訂單端在呼叫商品服務前先寫入的補償（FROM_ITEMS -> TO_ITEMS，格式「商品ID:數量,...」，
+--   空集合為 NULL）。本地交易提交時一併刪除；交易失敗或請求中斷時留下，由背景排程分批套用並依指數退避重試。
+--   NEXT_ATTEMPT_AT_MS 初始為 in-flight-timeout 之後，避免與仍在處理中的請求競爭；
+--   重試超過 max-attempts 後 STATUS 改為 FAILED，保留供人工處理。
+-- Compatible with both H2 (Oracle mode) and Oracle databases.
+-- ============================================================================
+
+CREATE TABLE STOCK_OPERATION (
+    OPERATION_ID VARCHAR2(64) NOT NULL,
+    CREATED_AT_MS NUMBER(19) NOT NULL,
+    CONSTRAINT PK_STOCK_OPERATION PRIMARY KEY (OPERATION_ID)
+);
+
+CREATE INDEX IDX_STOCK_OPERATION_CREATED ON STOCK_OPERATION (CREATED_AT_MS);
+
+CREATE TABLE STOCK_COMPENSATION_OUTBOX (
+    OPERATION_ID VARCHAR2(64) NOT NULL,
+    FROM_ITEMS CLOB,
+    TO_ITEMS CLOB,
+    CONTEXT NVARCHAR2(200),
+    STATUS VARCHAR2(10) NOT NULL,
+    ATTEMPTS INTEGER DEFAULT 0 NOT NULL,
+    NEXT_ATTEMPT_AT_MS NUMBER(19) NOT NULL,
+    LAST_ERROR NVARCHAR2(1000),
+    CREATED_AT_MS NUMBER(19) NOT NULL,
+    CONSTRAINT PK_STOCK_COMPENSATION_OUTBOX PRIMARY KEY (OPERATION_ID)
+);
+
+CREATE INDEX IDX_STOCK_COMPENSATION_DUE ON STOCK_COMPENSATION_OUTBOX (STATUS, NEXT_ATTEMPT_AT_MS);
+
+-- ============================================================================
+-- End of Migration V7
+-- ============================================================================
@@ -0,0 +1,69 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.ibm.demo.config.AdaptiveBulkheadLimiter;
+import com.ibm.demo.order.OrderService;
+import com.ibm.demo.util.CursorPageRequest;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+/**
+ * AdaptiveBulkheadAspect 必須在 Resilience4j 的 Bulkhead 切面內層：被 bulkhead 拒絕的呼叫不應進入
+ * AdaptiveBulkheadLimiter（不呼叫 limitFor / onCallStarted），只有取得 permit 的呼叫才會被量測。
+ */
+@Tag("IntegrationTest")
+public class AdaptiveBulkheadAspectOrderIntegrationTest extends BaseIntegrationTest {
+
+    private static final String BULKHEAD_NAME = "order-read";
+    private static final Integer MISSING_ACCOUNT_ID = Integer.MAX_VALUE;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @MockitoSpyBean
+    private AdaptiveBulkheadLimiter adaptiveBulkheadLimiter;
+
+    @Test
+    @DisplayName("自適應上限只看到取得 bulkhead permit 的呼叫，被拒絕的呼叫不計入")
+    public void testAdaptiveLimiter_SeesOnlyPermittedCalls() {
+        // Arrange：佔滿 order-read 的 permit（准入佇列不知道這些 permit，會放行到 bulkhead 才被拒絕）
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(BULKHEAD_NAME);
+        int held = 0;
+        while (bulkhead.tryAcquirePermission()) {
+            held++;
+        }
+
+        try {
+            // Act & Assert：被 bulkhead 拒絕
+            assertThatThrownBy(() -> orderService.getOrderListByAccountIdByCursor(MISSING_ACCOUNT_ID,
+                    CursorPageRequest.of(null, 20)))
+                    .isInstanceOf(BulkheadFullException.class);
+            verify(adaptiveBulkheadLimiter, never()).limitFor(BULKHEAD_NAME);
+        } finally {
+            for (int i = 0; i < held; i++) {
+                bulkhead.onComplete();
+            }
+        }
+
+        // Act & Assert：釋放後取得 permit 的呼叫才被量測
+        assertThat(orderService.getOrderListByAccountIdByCursor(MISSING_ACCOUNT_ID, CursorPageRequest.of(null, 20))
+                .content()).isEmpty();
+        verify(adaptiveBulkheadLimiter, times(1)).limitFor(BULKHEAD_NAME);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ibm.demo.config.ClusterRateLimiter;
+import com.ibm.demo.config.RateLimitLeaseStore;
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 以兩個 ClusterRateLimiter 模擬兩個 replica，共用 Oracle 中同一列 RATE_LIMIT_BUCKET。
+ * 時鐘固定不動（bucket 不會補充），因此兩個節點合計最多只能取得 limit-for-period 個 token。
+ */
+@Tag("IntegrationTest")
+public class ClusterRateLimitIntegrationTest extends BaseIntegrationTest {
+
+    private static final int LIMIT_FOR_PERIOD = 20;
+
+    @Autowired
+    private RateLimitLeaseStore rateLimitLeaseStore;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("跨節點限流：兩個節點共用同一個 bucket，合計放行數不超過 limit-for-period")
+    public void testTwoNodes_ShareOneBucket() {
+        String name = "cluster-it-" + UUID.randomUUID();
+        RateLimiterRegistry rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(LIMIT_FOR_PERIOD)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .build());
+        Clock clock = Clock.fixed(Instant.now(), ZoneOffset.UTC);
+        List<ClusterRateLimiter> nodes = List.of(
+                newNode(rateLimiterRegistry, clock), newNode(rateLimiterRegistry, clock));
+
+        int permitted = 0;
+        for (int i = 0; i < LIMIT_FOR_PERIOD * 2; i++) {
+            if (nodes.get(i % 2).tryAcquire(name)) {
+                permitted++;
+            }
+        }
+
+        assertThat(permitted).isEqualTo(LIMIT_FOR_PERIOD);
+        assertThat(nodes).noneMatch(ClusterRateLimiter::isFallback);
+    }
+
+    @Test
+    @DisplayName("跨節點限流：經過一個 limit-refresh-period 後，共用 bucket 依速率補充")
+    public void testLease_RefillsByElapsedTime() {
+        String name = "cluster-it-" + UUID.randomUUID();
+        long now = System.currentTimeMillis();
+
+        long first = rateLimitLeaseStore.lease(name, 100, LIMIT_FOR_PERIOD, LIMIT_FOR_PERIOD / 1000.0, now);
+        long drained = rateLimitLeaseStore.lease(name, 100, LIMIT_FOR_PERIOD, LIMIT_FOR_PERIOD / 1000.0, now);
+        long halfPeriodLater = rateLimitLeaseStore.lease(name, 100, LIMIT_FOR_PERIOD, LIMIT_FOR_PERIOD / 1000.0,
+                now + 500);
+
+        assertThat(first).isEqualTo(LIMIT_FOR_PERIOD);
+        assertThat(drained).isZero();
+        assertThat(halfPeriodLater).isEqualTo(LIMIT_FOR_PERIOD / 2);
+    }
+
+    @Test
+    @DisplayName("跨節點限流：在業務交易中租借時以獨立交易提交，業務交易回滾不影響已租出的 token")
+    public void testLease_InsideCallerTransaction_CommitsIndependently() {
+        String name = "cluster-it-" + UUID.randomUUID();
+        long now = System.currentTimeMillis();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            rateLimitLeaseStore.lease(name, LIMIT_FOR_PERIOD, LIMIT_FOR_PERIOD, LIMIT_FOR_PERIOD / 1000.0, now);
+            status.setRollbackOnly();
+        });
+        long afterRollback = rateLimitLeaseStore.lease(name, 100, LIMIT_FOR_PERIOD, LIMIT_FOR_PERIOD / 1000.0, now);
+
+        assertThat(afterRollback).isZero();
+    }
+
+    private ClusterRateLimiter newNode(RateLimiterRegistry rateLimiterRegistry, Clock clock) {
+        return new ClusterRateLimiter(rateLimitLeaseStore, rateLimiterRegistry, new SimpleMeterRegistry(),
+                appProperties, clock, Runnable::run);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ibm.demo;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ibm.demo.account.Account;
+import com.ibm.demo.account.AccountRepository;
+import com.ibm.demo.config.InternalTokenService;
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.enums.AccountStatus;
+
+/**
+ * 內部端點的 filter chain：對外的 api 使用者即使帳密正確也應被拒（403），
+ * 只有帶有效 X-Internal-Token（或 internal 使用者）的呼叫才能通過。
+ */
+@Tag("IntegrationTest")
+public class InternalEndpointSecurityIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private InternalTokenService internalTokenService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(SecurityMockMvcConfigurers.springSecurity())
+                .build();
+    }
+
+    @Test
+    @DisplayName("api 使用者呼叫批次下單資格查詢應回傳 403")
+    public void testBulkOrderEligibility_ApiUser_ShouldBeForbidden() throws Exception {
+        AppProperties.Auth auth = appProperties.getAuth();
+
+        mockMvc.perform(post("/account/order-eligibility")
+                .with(httpBasic(auth.getApiUsername(), auth.getApiPassword()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1]"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("帶有效內部 token 呼叫批次下單資格查詢應回傳具資格的帳戶")
+    public void testBulkOrderEligibility_ValidInternalToken_ShouldBeAllowed() throws Exception {
+        Account account = accountRepository.saveAndFlush(Account.builder()
+                .name("內部端點權限測試帳戶")
+                .status(AccountStatus.ACTIVE.getCode())
+                .build());
+
+        mockMvc.perform(post("/account/order-eligibility")
+                .header(InternalTokenService.HEADER, internalTokenService.currentToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + account.getId() + "]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[" + account.getId() + "]"));
+    }
+
+    @Test
+    @DisplayName("無效的內部 token 且無帳密時應回傳 401")
+    public void testBulkOrderEligibility_InvalidInternalToken_ShouldBeUnauthorized() throws Exception {
+        mockMvc.perform(post("/account/order-eligibility")
+                .header(InternalTokenService.HEADER, "invalid-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1]"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("單筆下單資格查詢同樣拒絕 api 使用者、接受內部 token")
+    public void testSingleOrderEligibility_ApiUserDenied_InternalTokenAllowed() throws Exception {
+        AppProperties.Auth auth = appProperties.getAuth();
+        Account account = accountRepository.saveAndFlush(Account.builder()
+                .name("內部端點權限測試帳戶")
+                .status(AccountStatus.ACTIVE.getCode())
+                .build());
+
+        mockMvc.perform(get("/account/{id}/order-eligibility", account.getId())
+                .with(httpBasic(auth.getApiUsername(), auth.getApiPassword())))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/account/{id}/order-eligibility", account.getId())
+                .header(InternalTokenService.HEADER, internalTokenService.currentToken()))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,104 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.support.RestClientHttpServiceGroupConfigurer;
+
+import com.ibm.demo.account.Account;
+import com.ibm.demo.account.AccountClient;
+import com.ibm.demo.account.AccountRepository;
+import com.ibm.demo.account.AccountService;
+import com.ibm.demo.account.LocalAccountClient;
+import com.ibm.demo.config.LocalClientConfig;
+import com.ibm.demo.config.RestClientConfig;
+import com.ibm.demo.enums.AccountStatus;
+import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.exception.BusinessLogicCheck.AccountStillHasOrderCanNotBeDeleteException;
+import com.ibm.demo.order.LocalOrderClient;
+import com.ibm.demo.order.OrderClient;
+import com.ibm.demo.order.OrderService;
+import com.ibm.demo.order.DTO.CreateOrderDetailRequest;
+import com.ibm.demo.order.DTO.CreateOrderRequest;
+import com.ibm.demo.product.LocalProductClient;
+import com.ibm.demo.product.Product;
+import com.ibm.demo.product.ProductClient;
+import com.ibm.demo.product.ProductRepository;
+
+/**
+ * app.internal-client.mode=local 時的 context 載入測試：RestClientConfig 不生效、三個 client 介面
+ * 只各有一個 LocalClientConfig 提供的實作（不與 @ImportHttpServices 的 proxy 衝突），
+ * 且 AccountService ⇄ OrderService 經 ObjectProvider 互相呼叫時不會形成循環依賴。
+ */
+@Tag("IntegrationTest")
+@TestPropertySource(properties = "app.internal-client.mode=local")
+public class LocalClientModeIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("local 模式下只載入 LocalClientConfig，三個 client 介面各只有一個同 JVM 實作")
+    public void testContextLoads_WithLocalClients() {
+        assertThat(applicationContext.getBeansOfType(LocalClientConfig.class)).hasSize(1);
+        assertThat(applicationContext.getBeansOfType(RestClientConfig.class)).isEmpty();
+        assertThat(applicationContext.getBeansOfType(RestClientHttpServiceGroupConfigurer.class)).isEmpty();
+
+        assertThat(applicationContext.getBeansOfType(AccountClient.class).values())
+                .singleElement().isInstanceOf(LocalAccountClient.class);
+        assertThat(applicationContext.getBeansOfType(OrderClient.class).values())
+                .singleElement().isInstanceOf(LocalOrderClient.class);
+        assertThat(applicationContext.getBeansOfType(ProductClient.class).values())
+                .singleElement().isInstanceOf(LocalProductClient.class);
+    }
+
+    @Test
+    @DisplayName("local 模式下建立訂單（Order → Account / Product）與刪除帳戶（Account → Order）皆可互相呼叫")
+    public void testCrossServiceCalls_ThroughLocalClients() {
+        // Arrange
+        Account account = accountRepository.saveAndFlush(Account.builder()
+                .name("local 模式測試帳戶")
+                .status(AccountStatus.ACTIVE.getCode())
+                .build());
+        Product product = productRepository.saveAndFlush(Product.builder()
+                .name("local 模式測試商品-" + UUID.randomUUID().toString().substring(0, 8))
+                .price(new BigDecimal("100"))
+                .saleStatus(ProductStatus.AVAILABLE.getCode())
+                .available(10)
+                .build());
+
+        // Act：OrderService 經 LocalAccountClient / LocalProductClient 驗證帳戶並預留庫存
+        Integer orderId = orderService.createOrder(CreateOrderRequest.builder()
+                .accountId(account.getId())
+                .items(List.of(new CreateOrderDetailRequest(product.getId(), 2)))
+                .build());
+
+        // Assert：庫存已預留；AccountService 經 LocalOrderClient 查到帳戶仍有訂單而拒絕刪除
+        assertThat(orderId).isNotNull();
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getAvailable()).isEqualTo(8);
+        assertThatThrownBy(() -> accountService.deleteAccount(account.getId()))
+                .isInstanceOf(AccountStillHasOrderCanNotBeDeleteException.class);
+    }
+}
@@ -0,0 +1,134 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.ibm.demo.account.Account;
+import com.ibm.demo.account.AccountRepository;
+import com.ibm.demo.config.JdbcStatementCounter;
+import com.ibm.demo.enums.AccountStatus;
+import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.order.OrderTransactionalService;
+import com.ibm.demo.order.DTO.CreateOrderDetailRequest;
+import com.ibm.demo.order.DTO.CreateOrderRequest;
+import com.ibm.demo.order.Repository.OrderDetailRepository;
+import com.ibm.demo.product.Product;
+import com.ibm.demo.product.ProductRepository;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * 固定建立訂單的 JDBC round trip 數：啟用 hibernate.jdbc.batch_size 與 pooled sequence 後，
+ * 一張 LINE_COUNT 筆明細的訂單應只需個位數的 round trip（sequence + 表頭 + 明細 batch），
+ * 而不是每筆明細各一次 INSERT；批次建立多張訂單時，表頭也合併成 batch。
+ */
+@Tag("IntegrationTest")
+public class OrderBatchInsertIntegrationTest extends BaseIntegrationTest {
+
+    private static final int LINE_COUNT = 50;
+    private static final long MAX_ROUND_TRIPS = 6;
+    private static final int BULK_ORDER_COUNT = 20;
+    private static final int BULK_LINES_PER_ORDER = 5;
+    // sequence（表頭 + 明細）+ 表頭 batch + 明細 batch（100 筆 / batch_size 50）
+    private static final long MAX_BULK_ROUND_TRIPS = 10;
+
+    @Autowired
+    private OrderTransactionalService orderTransactionalService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderDetailRepository orderDetailRepository;
+
+    @Test
+    @DisplayName("建立多筆明細的訂單時，明細應以 JDBC batch 寫入，round trip 數不隨明細筆數增加")
+    @Transactional
+    public void testCreateOrder_BatchesDetailInserts() {
+        // Arrange
+        Account account = accountRepository.saveAndFlush(Account.builder()
+                .name("批次寫入測試帳戶")
+                .status(AccountStatus.ACTIVE.getCode())
+                .build());
+        List<Product> products = productRepository.saveAllAndFlush(IntStream.range(0, LINE_COUNT)
+                .mapToObj(i -> Product.builder()
+                        .name("批次寫入測試商品-" + i)
+                        .price(new BigDecimal("100"))
+                        .saleStatus(ProductStatus.AVAILABLE.getCode())
+                        .build())
+                .toList());
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .accountId(account.getId())
+                .items(products.stream()
+                        .map(product -> CreateOrderDetailRequest.builder()
+                                .productId(product.getId())
+                                .quantity(1)
+                                .build())
+                        .toList())
+                .build();
+        long start = JdbcStatementCounter.current();
+
+        // Act
+        Integer orderId = orderTransactionalService.createOrder(request);
+
+        // Assert
+        long roundTrips = JdbcStatementCounter.current() - start;
+        assertThat(orderDetailRepository.findAll())
+                .filteredOn(detail -> detail.getOrderInfo().getId().equals(orderId))
+                .hasSize(LINE_COUNT);
+        assertThat(roundTrips).isLessThanOrEqualTo(MAX_ROUND_TRIPS);
+    }
+
+    @Test
+    @DisplayName("批次建立多張訂單時，表頭與明細都以 JDBC batch 寫入，round trip 數不隨訂單數增加")
+    @Transactional
+    public void testCreateOrders_BatchesHeaderAndDetailInserts() {
+        // Arrange
+        Account account = accountRepository.saveAndFlush(Account.builder()
+                .name("批次建立訂單測試帳戶")
+                .status(AccountStatus.ACTIVE.getCode())
+                .build());
+        List<Product> products = productRepository.saveAllAndFlush(IntStream.range(0, BULK_LINES_PER_ORDER)
+                .mapToObj(i -> Product.builder()
+                        .name("批次建立訂單測試商品-" + i)
+                        .price(new BigDecimal("100"))
+                        .saleStatus(ProductStatus.AVAILABLE.getCode())
+                        .build())
+                .toList());
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .accountId(account.getId())
+                .items(products.stream()
+                        .map(product -> CreateOrderDetailRequest.builder()
+                                .productId(product.getId())
+                                .quantity(1)
+                                .build())
+                        .toList())
+                .build();
+        List<CreateOrderRequest> requests = IntStream.range(0, BULK_ORDER_COUNT)
+                .mapToObj(i -> request)
+                .toList();
+        long start = JdbcStatementCounter.current();
+
+        // Act
+        List<Integer> orderIds = orderTransactionalService.createOrders(requests);
+
+        // Assert
+        long roundTrips = JdbcStatementCounter.current() - start;
+        assertThat(orderIds).hasSize(BULK_ORDER_COUNT).doesNotHaveDuplicates();
+        assertThat(orderDetailRepository.findAll())
+                .filteredOn(detail -> orderIds.contains(detail.getOrderInfo().getId()))
+                .hasSize(BULK_ORDER_COUNT * BULK_LINES_PER_ORDER);
+        assertThat(roundTrips).isLessThanOrEqualTo(MAX_BULK_ROUND_TRIPS);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.ibm.demo.account.Account;
+import com.ibm.demo.account.AccountRepository;
+import com.ibm.demo.enums.AccountStatus;
+import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.order.OrderService;
+import com.ibm.demo.order.DTO.BulkCreateOrderResponse;
+import com.ibm.demo.order.DTO.CreateOrderDetailRequest;
+import com.ibm.demo.order.DTO.CreateOrderRequest;
+import com.ibm.demo.product.Product;
+import com.ibm.demo.product.ProductClient;
+import com.ibm.demo.product.ProductRepository;
+import com.ibm.demo.product.ProductService;
+import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
+
+/**
+ * 批次建立訂單的整批預留落在已分桶的熱門商品上：依商品加總後的數量大於單一 bucket 的份額，
+ * 仍應以一次 adjustStock 預留成功（跨 bucket 拆分），不退回逐筆預留。
+ */
+@Tag("IntegrationTest")
+@TestPropertySource(properties = "app.inventory.striping.enabled=true")
+public class OrderBulkStripedStockIntegrationTest extends BaseIntegrationTest {
+
+    private static final int INITIAL_STOCK = 100;
+    private static final int ORDER_COUNT = 4;
+    // 8 個 bucket 時每個 bucket 約 12~13，加總後 40 必須跨 bucket
+    private static final int QUANTITY_PER_ORDER = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockitoSpyBean
+    private ProductClient productClient;
+
+    @Test
+    @DisplayName("整批預留的加總數量超過單一 bucket 的份額時，仍以一次 adjustStock 預留成功")
+    public void testCreateOrders_AggregatedQuantitySpansBuckets_ReservesInOneCall() {
+        // Arrange
+        Account account = accountRepository.saveAndFlush(Account.builder()
+                .name("分桶批次下單測試帳戶")
+                .status(AccountStatus.ACTIVE.getCode())
+                .build());
+        Product product = productRepository.saveAndFlush(Product.builder()
+                .name("分桶批次下單測試商品-" + UUID.randomUUID().toString().substring(0, 8))
+                .price(new BigDecimal("100"))
+                .saleStatus(ProductStatus.AVAILABLE.getCode())
+                .available(INITIAL_STOCK)
+                .build());
+        productService.stripeStock(product.getId());
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .accountId(account.getId())
+                .items(List.of(new CreateOrderDetailRequest(product.getId(), QUANTITY_PER_ORDER)))
+                .build();
+        List<CreateOrderRequest> requests = IntStream.range(0, ORDER_COUNT).mapToObj(i -> request).toList();
+
+        // Act
+        BulkCreateOrderResponse response = orderService.createOrders(requests);
+
+        // Assert
+        assertThat(response.succeeded()).isEqualTo(ORDER_COUNT);
+        verify(productClient, times(1)).adjustStock(any(AdjustStockRequest.class));
+        assertThat(productRepository.sumBucketAvailable(Set.of(product.getId())))
+                .containsEntry(product.getId(), INITIAL_STOCK - ORDER_COUNT * QUANTITY_PER_ORDER);
+    }
+}
@@ -0,0 +1,100 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ibm.demo.exception.BusinessLogicCheck.IdempotencyKeyInUseException;
+import com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException;
+import com.ibm.demo.order.OrderIdempotencyStore;
+
+@Tag("IntegrationTest")
+public class OrderIdempotencyIntegrationTest extends BaseIntegrationTest {
+
+    private static final String REQUEST_HASH = "a".repeat(64);
+    private static final String OTHER_REQUEST_HASH = "b".repeat(64);
+
+    @Autowired
+    private OrderIdempotencyStore orderIdempotencyStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Idempotency-Key：處理中重送回 409，完成後重送回傳原訂單 ID，不同內容回 400")
+    public void testClaim_LifecycleOfOneKey() {
+        String key = UUID.randomUUID().toString();
+
+        OrderIdempotencyStore.Claim claim = orderIdempotencyStore.claim(key, REQUEST_HASH);
+        assertThat(claim.isReplay()).isFalse();
+        assertThatThrownBy(() -> orderIdempotencyStore.claim(key, REQUEST_HASH))
+                .isInstanceOf(IdempotencyKeyInUseException.class);
+
+        orderIdempotencyStore.complete(claim, 888);
+
+        assertThat(orderIdempotencyStore.claim(key, REQUEST_HASH).existingOrderId()).isEqualTo(888);
+        assertThatThrownBy(() -> orderIdempotencyStore.claim(key, OTHER_REQUEST_HASH))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key：建立失敗釋放後，重送可重新取得使用權")
+    public void testRelease_AllowsRetryToClaimAgain() {
+        String key = UUID.randomUUID().toString();
+        OrderIdempotencyStore.Claim claim = orderIdempotencyStore.claim(key, REQUEST_HASH);
+
+        orderIdempotencyStore.release(claim);
+
+        assertThat(orderIdempotencyStore.claim(key, REQUEST_HASH).isReplay()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key：逾時被重送接手後，原請求的 complete 應拋出 409、release 不應刪除接手者的鍵")
+    public void testTakenOverClaim_CannotCompleteOrReleaseKey() {
+        String key = UUID.randomUUID().toString();
+        OrderIdempotencyStore.Claim original = orderIdempotencyStore.claim(key, REQUEST_HASH);
+        // 模擬原請求處理超過 pending-timeout
+        jdbcTemplate.update("UPDATE ORDER_IDEMPOTENCY_KEY SET EXPIRES_AT_MS = ? WHERE IDEMPOTENCY_KEY = ?",
+                System.currentTimeMillis() - 1_000, key);
+        OrderIdempotencyStore.Claim retry = orderIdempotencyStore.claim(key, REQUEST_HASH);
+        assertThat(retry.isReplay()).isFalse();
+
+        orderIdempotencyStore.release(original);
+        assertThatThrownBy(() -> orderIdempotencyStore.complete(original, 888))
+                .isInstanceOf(IdempotencyKeyInUseException.class);
+
+        orderIdempotencyStore.complete(retry, 999);
+        assertThat(orderIdempotencyStore.claim(key, REQUEST_HASH).existingOrderId()).isEqualTo(999);
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key：處理中逾時的鍵可由重送接手，過期的鍵由背景清除")
+    public void testExpiredKeys_AreTakenOverAndPurged() {
+        String abandoned = UUID.randomUUID().toString();
+        String completed = UUID.randomUUID().toString();
+        long past = System.currentTimeMillis() - 1_000;
+        jdbcTemplate.update("""
+                INSERT INTO ORDER_IDEMPOTENCY_KEY (IDEMPOTENCY_KEY, REQUEST_HASH, ORDER_ID, EXPIRES_AT_MS)
+                VALUES (?, ?, NULL, ?)
+                """, abandoned, REQUEST_HASH, past);
+        jdbcTemplate.update("""
+                INSERT INTO ORDER_IDEMPOTENCY_KEY (IDEMPOTENCY_KEY, REQUEST_HASH, ORDER_ID, EXPIRES_AT_MS)
+                VALUES (?, ?, 777, ?)
+                """, completed, REQUEST_HASH, past);
+
+        assertThat(orderIdempotencyStore.claim(abandoned, REQUEST_HASH).isReplay()).isFalse();
+        assertThat(orderIdempotencyStore.purgeExpired()).isGreaterThanOrEqualTo(1);
+
+        Integer remaining = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ORDER_IDEMPOTENCY_KEY WHERE IDEMPOTENCY_KEY IN (?, ?)", Integer.class,
+                abandoned, completed);
+        assertThat(remaining).isEqualTo(1);
+    }
+}
@@ -0,0 +1,153 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 驗證 V3 的訂單查詢索引確實被 Oracle 執行計畫採用。
+ *
+ * 以 EXPLAIN PLAN 取得與 Hibernate 產生的 SQL 等價的查詢計畫（含 @SQLRestriction 條件），
+ * 並檢查 PLAN_TABLE 中出現對應的索引。為了讓 CBO 的選擇貼近正式環境，先灌入一個大帳戶的訂單
+ * 並蒐集統計資訊，使 ACCOUNT_ID / ORDER_ID 條件具選擇性。
+ *
+ * DBMS_STATS 會隱含 commit，因此本測試不使用 @Transactional，資料只在整個類別開始前灌一次，結束後自行清除。
+ */
+@Tag("IntegrationTest")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class OrderIndexExecutionPlanIntegrationTest extends BaseIntegrationTest {
+
+    private static final int BULK_ORDER_COUNT = 2_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Integer> accountIds = new ArrayList<>();
+    private Integer productId;
+    private Integer targetAccountId;
+    private Integer targetOrderId;
+
+    @BeforeAll
+    void setUp() {
+        productId = jdbcTemplate.queryForObject("SELECT product_id_seq.NEXTVAL FROM DUAL", Integer.class);
+        jdbcTemplate.update("""
+                INSERT INTO PRODUCT (ID, NAME, PRICE, SALE_STATUS, AVAILABLE, RESERVED)
+                VALUES (?, ?, 100, 1001, 0, 0)
+                """, productId, "索引測試商品-" + UUID.randomUUID());
+
+        Integer bulkAccountId = insertAccount();
+        targetAccountId = insertAccount();
+        for (int i = 0; i < BULK_ORDER_COUNT; i++) {
+            insertOrderWithDetail(bulkAccountId);
+        }
+        targetOrderId = insertOrderWithDetail(targetAccountId);
+
+        jdbcTemplate.execute("BEGIN DBMS_STATS.GATHER_TABLE_STATS(USER, 'ORDER_INFO', cascade => TRUE); END;");
+        jdbcTemplate.execute(
+                "BEGIN DBMS_STATS.GATHER_TABLE_STATS(USER, 'ORDER_PRODUCT_DETAIL', cascade => TRUE); END;");
+    }
+
+    @AfterAll
+    void tearDown() {
+        for (Integer accountId : accountIds) {
+            jdbcTemplate.update("""
+                    DELETE FROM ORDER_PRODUCT_DETAIL
+                    WHERE ORDER_ID IN (SELECT ID FROM ORDER_INFO WHERE ACCOUNT_ID = ?)
+                    """, accountId);
+            jdbcTemplate.update("DELETE FROM ORDER_INFO WHERE ACCOUNT_ID = ?", accountId);
+            jdbcTemplate.update("DELETE FROM ACCOUNT WHERE ID = ?", accountId);
+        }
+        jdbcTemplate.update("DELETE FROM PRODUCT WHERE ID = ?", productId);
+    }
+
+    @Test
+    @DisplayName("依帳戶查詢訂單列表（含 @SQLRestriction 與 ID 排序）應使用 IDX_ORDER_INFO_ACCOUNT")
+    public void testFindByAccountId_UsesAccountIndex() {
+        List<String> planObjects = explain("""
+                SELECT o.ID, o.ACCOUNT_ID, o.STATUS, o.VERSION FROM ORDER_INFO o
+                WHERE o.ACCOUNT_ID = %d AND (o.DELETED = false AND o.STATUS = 1001)
+                ORDER BY o.ID
+                FETCH FIRST 21 ROWS ONLY
+                """.formatted(targetAccountId));
+
+        assertThat(planObjects).contains("IDX_ORDER_INFO_ACCOUNT");
+    }
+
+    @Test
+    @DisplayName("帳戶訂單存在性查詢應只走 IDX_ORDER_INFO_ACCOUNT，不回表讀取 ORDER_INFO")
+    public void testExistsByAccountId_UsesAccountIndexOnly() {
+        List<String> planObjects = explain("""
+                SELECT o.ID FROM ORDER_INFO o
+                WHERE o.ACCOUNT_ID = %d AND (o.DELETED = false AND o.STATUS = 1001)
+                FETCH FIRST 1 ROWS ONLY
+                """.formatted(targetAccountId));
+
+        assertThat(planObjects).contains("IDX_ORDER_INFO_ACCOUNT").doesNotContain("ORDER_INFO");
+    }
+
+    @Test
+    @DisplayName("載入訂單明細集合（含 @SQLRestriction）應使用 IDX_ORDER_DETAIL_ORDER")
+    public void testOrderDetailsLoad_UsesOrderIndex() {
+        List<String> planObjects = explain("""
+                SELECT d.ID, d.PRODUCT_ID, d.QUANTITY FROM ORDER_PRODUCT_DETAIL d
+                WHERE d.ORDER_ID = %d AND (d.DELETED = false)
+                """.formatted(targetOrderId));
+
+        assertThat(planObjects).contains("IDX_ORDER_DETAIL_ORDER");
+    }
+
+    @Test
+    @DisplayName("依訂單軟刪除明細應使用 IDX_ORDER_DETAIL_ORDER 定位資料列")
+    public void testSoftDeleteByOrderId_UsesOrderIndex() {
+        List<String> planObjects = explain("""
+                UPDATE ORDER_PRODUCT_DETAIL
+                SET DELETED = true, DELETED_AT = CURRENT_TIMESTAMP, VERSION = VERSION + 1
+                WHERE ORDER_ID = %d
+                """.formatted(targetOrderId));
+
+        assertThat(planObjects).contains("IDX_ORDER_DETAIL_ORDER");
+    }
+
+    /**
+     * 以 EXPLAIN PLAN 取得查詢計畫中使用到的物件名稱（資料表、索引）。
+     */
+    private List<String> explain(String sql) {
+        String statementId = UUID.randomUUID().toString().substring(0, 30);
+        jdbcTemplate.execute("EXPLAIN PLAN SET STATEMENT_ID = '" + statementId + "' FOR " + sql);
+        List<String> objects = jdbcTemplate.queryForList(
+                "SELECT OBJECT_NAME FROM PLAN_TABLE WHERE STATEMENT_ID = ? AND OBJECT_NAME IS NOT NULL",
+                String.class, statementId);
+        jdbcTemplate.update("DELETE FROM PLAN_TABLE WHERE STATEMENT_ID = ?", statementId);
+        return objects;
+    }
+
+    private Integer insertAccount() {
+        Integer accountId = jdbcTemplate.queryForObject("SELECT account_id_seq.NEXTVAL FROM DUAL", Integer.class);
+        jdbcTemplate.update("INSERT INTO ACCOUNT (ID, NAME, STATUS) VALUES (?, ?, 'Y')",
+                accountId, "索引測試帳戶-" + accountId);
+        accountIds.add(accountId);
+        return accountId;
+    }
+
+    private Integer insertOrderWithDetail(Integer accountId) {
+        Integer orderId = jdbcTemplate.queryForObject("SELECT order_id_seq.NEXTVAL FROM DUAL", Integer.class);
+        jdbcTemplate.update("INSERT INTO ORDER_INFO (ID, ACCOUNT_ID, STATUS) VALUES (?, ?, 1001)",
+                orderId, accountId);
+        jdbcTemplate.update("""
+                INSERT INTO ORDER_PRODUCT_DETAIL (ID, ORDER_ID, PRODUCT_ID, QUANTITY)
+                VALUES (order_product_detail_id_seq.NEXTVAL, ?, ?, 1)
+                """, orderId, productId);
+        return orderId;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.ibm.demo.account.Account;
+import com.ibm.demo.account.AccountRepository;
+import com.ibm.demo.enums.AccountStatus;
+import com.ibm.demo.enums.OrderStatus;
+import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.order.OrderService;
+import com.ibm.demo.order.DTO.GetOrderListResponse;
+import com.ibm.demo.order.Entity.OrderDetail;
+import com.ibm.demo.order.Entity.OrderInfo;
+import com.ibm.demo.order.Repository.OrderInfoRepository;
+import com.ibm.demo.product.Product;
+import com.ibm.demo.product.ProductClient;
+import com.ibm.demo.product.ProductRepository;
+import com.ibm.demo.product.DTO.GetProductDetailResponse;
+import com.ibm.demo.util.PageResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+
+/**
+ * 以 Hibernate Statistics 固定訂單列表頁的 SQL 次數：一頁訂單應只需「表頭分頁查詢 + 一次明細 fetch join」兩個 statement，
+ * 不隨訂單筆數增加（N+1）。商品資訊來自 ProductClient，這裡以 mock 取代，只計算訂單側的查詢。
+ */
+@Tag("IntegrationTest")
+public class OrderListQueryCountIntegrationTest extends BaseIntegrationTest {
+
+    private static final int ORDER_COUNT = 5;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderInfoRepository orderInfoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @Test
+    @DisplayName("訂單列表頁應以兩個 statement 載入表頭與明細，不因訂單筆數產生 N+1")
+    @Transactional
+    public void testGetOrderListByAccountId_LoadsHeadersAndDetailsInTwoStatements() {
+        // Arrange
+        Account account = accountRepository.saveAndFlush(Account.builder()
+                .name("N+1 測試帳戶")
+                .status(AccountStatus.ACTIVE.getCode())
+                .build());
+        Product product = productRepository.saveAndFlush(Product.builder()
+                .name("N+1 測試商品")
+                .price(new BigDecimal("100"))
+                .saleStatus(ProductStatus.AVAILABLE.getCode())
+                .build());
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            OrderInfo order = OrderInfo.builder()
+                    .accountId(account.getId())
+                    .status(OrderStatus.CREATED.getCode())
+                    .orderDetails(new ArrayList<>())
+                    .build();
+            order.getOrderDetails().add(OrderDetail.builder()
+                    .orderInfo(order)
+                    .productId(product.getId())
+                    .quantity(2)
+                    .build());
+            orderInfoRepository.save(order);
+        }
+        orderInfoRepository.flush();
+        // 清空 persistence context，讓明細必須從 DB 載入
+        entityManager.clear();
+
+        when(productClient.getProductDetails(anySet())).thenReturn(List.of(GetProductDetailResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .build()));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Act
+        PageResponse<GetOrderListResponse> page = orderService.getOrderListByAccountId(account.getId(),
+                PageRequest.of(0, 20));
+
+        // Assert：第一頁且筆數未滿一頁時 Spring Data 省略 COUNT，因此只有表頭 + 明細兩個 statement
+        long statements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        assertThat(page.content()).hasSize(ORDER_COUNT)
+                .allSatisfy(order -> assertThat(order.totalAmount()).isEqualByComparingTo("200"));
+        assertThat(statements).isEqualTo(2);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.product.Product;
+import com.ibm.demo.product.ProductImportFormat;
+import com.ibm.demo.product.ProductImportService;
+import com.ibm.demo.product.ProductRepository;
+import com.ibm.demo.product.DTO.ProductImportStatusResponse;
+
+@Tag("IntegrationTest")
+public class ProductImportIntegrationTest extends BaseIntegrationTest {
+
+    // 超過一個 chunk（預設 500），驗證跨 chunk 的名稱重複與逐 chunk commit
+    private static final int ROW_COUNT = 1_200;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("CSV 匯入：跨多個 chunk 寫入商品，已存在與檔案內重複的名稱被拒")
+    public void testImportProducts_Csv_InsertsAcrossChunks() {
+        // Arrange
+        String prefix = "匯入測試-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        productRepository.saveAndFlush(Product.builder()
+                .name(prefix + 0)
+                .price(new BigDecimal("100"))
+                .saleStatus(ProductStatus.AVAILABLE.getCode())
+                .build());
+        String rows = IntStream.range(0, ROW_COUNT)
+                .mapToObj(i -> prefix + i + ",100," + i)
+                .collect(Collectors.joining("\n"));
+        // 最後一列與第 2 列同名，落在不同 chunk
+        String content = "name,price,available\n" + rows + "\n" + prefix + 1 + ",50,1\n";
+
+        // Act
+        ProductImportStatusResponse response = productImportService.importProducts(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), ProductImportFormat.CSV);
+
+        // Assert
+        assertThat(response.status()).isEqualTo("COMPLETED");
+        assertThat(response.rowsRead()).isEqualTo(ROW_COUNT + 1);
+        assertThat(response.imported()).isEqualTo(ROW_COUNT - 1);
+        assertThat(response.rejected()).isEqualTo(2);
+        List<String> names = IntStream.range(0, ROW_COUNT).mapToObj(i -> prefix + i).toList();
+        assertThat(names.stream().filter(productRepository::existsByName).count()).isEqualTo(ROW_COUNT);
+    }
+}
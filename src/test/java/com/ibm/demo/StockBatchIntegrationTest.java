@@ -0,0 +1,115 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.product.Product;
+import com.ibm.demo.product.ProductRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+@Tag("IntegrationTest")
+public class StockBatchIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("批次庫存異動：預留與釋放於同一個 batch 套用，且正確搬移 AVAILABLE / RESERVED")
+    @Transactional
+    public void testApplyStockDeltas_ReserveAndRelease() {
+        Product reserveTarget = saveProduct("批次預留商品", 10, 0);
+        Product releaseTarget = saveProduct("批次釋放商品", 0, 5);
+
+        Set<Integer> rejectedIds = productRepository.applyStockDeltas(new TreeMap<>(Map.of(
+                reserveTarget.getId(), 4,
+                releaseTarget.getId(), -5)));
+
+        assertThat(rejectedIds).isEmpty();
+        entityManager.clear();
+        Product reserved = productRepository.findById(reserveTarget.getId()).orElseThrow();
+        Product released = productRepository.findById(releaseTarget.getId()).orElseThrow();
+        assertThat(reserved.getAvailable()).isEqualTo(6);
+        assertThat(reserved.getReserved()).isEqualTo(4);
+        assertThat(released.getAvailable()).isEqualTo(5);
+        assertThat(released.getReserved()).isZero();
+    }
+
+    @Test
+    @DisplayName("批次庫存異動：只回報庫存不足、預留不足與不存在的商品 ID")
+    @Transactional
+    public void testApplyStockDeltas_ReportsRejectedProductsPrecisely() {
+        Product enough = saveProduct("庫存足夠商品", 10, 0);
+        Product notEnough = saveProduct("庫存不足商品", 1, 0);
+        Product reservedNotEnough = saveProduct("預留不足商品", 10, 1);
+        Integer missingId = Integer.MAX_VALUE;
+
+        Set<Integer> rejectedIds = productRepository.applyStockDeltas(new TreeMap<>(Map.of(
+                enough.getId(), 3,
+                notEnough.getId(), 2,
+                reservedNotEnough.getId(), -2,
+                missingId, 1)));
+
+        assertThat(rejectedIds).containsExactlyInAnyOrder(notEnough.getId(), reservedNotEnough.getId(), missingId);
+    }
+
+    @Test
+    @DisplayName("分桶庫存異動：差值大於單一 bucket 的份額時拆到多個 bucket，只有合計不足才拒絕")
+    @Transactional
+    public void testApplyBucketDeltas_SplitsAcrossBuckets() {
+        // 4 個 bucket，每個 bucket 可用 25、預留 25
+        Product releaseTarget = saveProduct("分桶拆分釋放商品", 100, 100);
+        Product reserveTarget = saveProduct("分桶拆分預留商品", 100, 0);
+        Product shortTarget = saveProduct("分桶合計不足商品", 100, 100);
+        productRepository.restripe(releaseTarget.getId(), 4);
+        productRepository.restripe(reserveTarget.getId(), 4);
+        productRepository.restripe(shortTarget.getId(), 4);
+
+        Set<Integer> rejectedIds = productRepository.applyBucketDeltas(new TreeMap<>(Map.of(
+                releaseTarget.getId(), -40,
+                reserveTarget.getId(), 60,
+                shortTarget.getId(), -101)), 4);
+
+        assertThat(rejectedIds).containsExactly(shortTarget.getId());
+        assertThat(bucketTotals(releaseTarget.getId())).containsExactly(140, 60);
+        assertThat(bucketTotals(reserveTarget.getId())).containsExactly(40, 60);
+        assertThat(bucketTotals(shortTarget.getId())).containsExactly(100, 100);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM PRODUCT_STOCK_BUCKET WHERE AVAILABLE < 0 OR RESERVED < 0", Integer.class))
+                .isZero();
+    }
+
+    private int[] bucketTotals(Integer productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT SUM(AVAILABLE), SUM(RESERVED) FROM PRODUCT_STOCK_BUCKET WHERE PRODUCT_ID = ?",
+                (rs, rowNum) -> new int[] { rs.getInt(1), rs.getInt(2) }, productId);
+    }
+
+    private Product saveProduct(String name, int available, int reserved) {
+        return productRepository.saveAndFlush(Product.builder()
+                .name(name)
+                .price(new BigDecimal("100"))
+                .saleStatus(ProductStatus.AVAILABLE.getCode())
+                .available(available)
+                .reserved(reserved)
+                .build());
+    }
+}
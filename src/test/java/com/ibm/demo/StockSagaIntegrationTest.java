@@ -0,0 +1,133 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.order.StockCompensationDispatcher;
+import com.ibm.demo.order.StockCompensationOutbox;
+import com.ibm.demo.product.Product;
+import com.ibm.demo.product.ProductRepository;
+import com.ibm.demo.product.ProductService;
+import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
+import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+
+@Tag("IntegrationTest")
+public class StockSagaIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockCompensationOutbox stockCompensationOutbox;
+
+    @Autowired
+    private StockCompensationDispatcher stockCompensationDispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("庫存 saga：outbox 中的補償由 dispatcher 套用並刪除，重複套用不會多歸還庫存")
+    public void testDispatch_AppliesCompensationExactlyOnce() {
+        Product product = saveProduct("補償歸還商品", 10);
+        Set<OrderItemRequest> items = Set.of(item(product.getId(), 3));
+        String operationId = UUID.randomUUID().toString();
+        productService.adjustStock(AdjustStockRequest.builder()
+                .from(Set.of())
+                .to(items)
+                .operationId(operationId)
+                .build());
+        StockCompensationOutbox.Entry entry = new StockCompensationOutbox.Entry(operationId, items, Set.of(),
+                "建立訂單 帳戶ID: 1", 0);
+        stockCompensationOutbox.add(entry, System.currentTimeMillis() - 1);
+
+        assertThat(stockCompensationDispatcher.dispatch()).isGreaterThanOrEqualTo(1);
+        productService.adjustStock(entry.toRequest());
+
+        assertStock(product.getId(), 10, 0);
+        Integer remaining = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM STOCK_COMPENSATION_OUTBOX WHERE OPERATION_ID = ?", Integer.class, operationId);
+        assertThat(remaining).isZero();
+    }
+
+    @Test
+    @DisplayName("庫存 saga：原操作未套用時補償不異動庫存，之後才到達的原操作也會被略過")
+    public void testCompensation_BeforeForwardOperation_LeavesStockUntouched() {
+        Product product = saveProduct("補償先到商品", 10);
+        Set<OrderItemRequest> items = Set.of(item(product.getId(), 3));
+        String operationId = UUID.randomUUID().toString();
+
+        productService.adjustStock(new StockCompensationOutbox.Entry(operationId, items, Set.of(),
+                "建立訂單 帳戶ID: 1", 0).toRequest());
+        productService.adjustStock(AdjustStockRequest.builder()
+                .from(Set.of())
+                .to(items)
+                .operationId(operationId)
+                .build());
+
+        assertStock(product.getId(), 10, 0);
+    }
+
+    @Test
+    @DisplayName("庫存 saga：補償被 dispatcher 取走後，saga 以寫入時的期限刪除應得到 0 筆")
+    public void testRemove_AfterClaim_IsRefused() {
+        String operationId = UUID.randomUUID().toString();
+        long inFlightUntil = System.currentTimeMillis() - 1;
+        stockCompensationOutbox.add(new StockCompensationOutbox.Entry(operationId, Set.of(item(1, 1)), Set.of(),
+                "建立訂單 帳戶ID: 1", 0), inFlightUntil);
+
+        // 背景排程也可能先取走同一筆；不論由誰取走，NEXT_ATTEMPT_AT_MS 都已不是 saga 寫入時的期限
+        long now = System.currentTimeMillis();
+        stockCompensationOutbox.claimDue(Integer.MAX_VALUE, now, now + 60_000);
+
+        assertThat(stockCompensationOutbox.remove(operationId, inFlightUntil)).isZero();
+    }
+
+    @Test
+    @DisplayName("庫存 saga：尚未被取走的補償可由 saga 以寫入時的期限刪除")
+    public void testRemove_BeforeClaim_DeletesEntry() {
+        String operationId = UUID.randomUUID().toString();
+        long inFlightUntil = System.currentTimeMillis() + 60_000;
+        stockCompensationOutbox.add(new StockCompensationOutbox.Entry(operationId, Set.of(item(1, 1)), Set.of(),
+                "建立訂單 帳戶ID: 1", 0), inFlightUntil);
+
+        assertThat(stockCompensationOutbox.remove(operationId, inFlightUntil - 1)).isZero();
+        assertThat(stockCompensationOutbox.remove(operationId, inFlightUntil)).isEqualTo(1);
+    }
+
+    private void assertStock(Integer productId, int available, int reserved) {
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertThat(product.getAvailable()).isEqualTo(available);
+        assertThat(product.getReserved()).isEqualTo(reserved);
+    }
+
+    private static OrderItemRequest item(Integer productId, int quantity) {
+        return OrderItemRequest.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+
+    private Product saveProduct(String name, int available) {
+        return productRepository.saveAndFlush(Product.builder()
+                .name(name)
+                .price(new BigDecimal("100"))
+                .saleStatus(ProductStatus.AVAILABLE.getCode())
+                .available(available)
+                .reserved(0)
+                .build());
+    }
+}
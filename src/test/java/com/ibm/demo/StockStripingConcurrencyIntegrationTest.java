@@ -0,0 +1,134 @@
+package com.ibm.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.product.Product;
+import com.ibm.demo.product.ProductRepository;
+
+/**
+ * 熱門商品庫存分桶的併發測試：同一個 SKU 在未分桶（單一 PRODUCT 列）與分桶（多個 bucket 列）
+ * 兩種模式下，以相同併發度各執行同樣數量的預留，驗證每筆預留都成功、沒有遺失的更新，
+ * 且 AVAILABLE / RESERVED 的合計與預留數完全吻合。
+ *
+ * 每筆預留交易在更新後持有列鎖 HOLD_MILLIS 毫秒，模擬同一交易內後續工作的鎖持有時間。
+ * 兩種模式的耗時只寫入 log 供比較，不作為斷言（受 CI 機器負載影響）。
+ */
+@Tag("IntegrationTest")
+public class StockStripingConcurrencyIntegrationTest extends BaseIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockStripingConcurrencyIntegrationTest.class);
+
+    private static final int RESERVATIONS = 400;
+    private static final int THREADS = 8;
+    private static final int BUCKET_COUNT = 8;
+    private static final int INITIAL_STOCK = 10_000;
+    private static final long HOLD_MILLIS = 5;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("單一 SKU 併發預留時，單列與分桶模式都不應遺失更新，且可用 / 預留合計與預留數吻合")
+    public void testConcurrentReservations_ShouldNotLoseUpdates() throws Exception {
+        Product plain = saveProduct("分桶測試-單列商品");
+        Product striped = saveProduct("分桶測試-分桶商品");
+        transactionTemplate.executeWithoutResult(status -> productRepository.restripe(striped.getId(), BUCKET_COUNT));
+
+        long plainElapsed = runReservations(id -> productRepository.applyStockDeltas(new TreeMap<>(Map.of(id, 1))),
+                plain.getId());
+        long stripedElapsed = runReservations(
+                id -> productRepository.applyBucketDeltas(new TreeMap<>(Map.of(id, 1)), BUCKET_COUNT),
+                striped.getId());
+
+        logger.info("單一 SKU {} 筆預留（{} threads）：單列 {} ms（{} req/s），分桶 {} ms（{} req/s）",
+                RESERVATIONS, THREADS,
+                plainElapsed, RESERVATIONS * 1000L / Math.max(plainElapsed, 1),
+                stripedElapsed, RESERVATIONS * 1000L / Math.max(stripedElapsed, 1));
+
+        // 沒有遺失的更新：每筆成功的預留都恰好把 1 個可用量移到預留量
+        Product plainAfter = productRepository.findById(plain.getId()).orElseThrow();
+        assertThat(plainAfter.getAvailable()).isEqualTo(INITIAL_STOCK - RESERVATIONS);
+        assertThat(plainAfter.getReserved()).isEqualTo(RESERVATIONS);
+
+        // 分桶商品：PRODUCT 列已歸零，各 bucket 合計承接全部庫存
+        Product stripedAfter = productRepository.findById(striped.getId()).orElseThrow();
+        Map<String, Object> bucketTotals = jdbcTemplate.queryForMap("""
+                SELECT COUNT(*) AS BUCKETS, SUM(AVAILABLE) AS AVAILABLE, SUM(RESERVED) AS RESERVED
+                FROM PRODUCT_STOCK_BUCKET
+                WHERE PRODUCT_ID = ?
+                """, striped.getId());
+        assertThat(stripedAfter.getAvailable()).isZero();
+        assertThat(stripedAfter.getReserved()).isZero();
+        assertThat(((Number) bucketTotals.get("BUCKETS")).intValue()).isEqualTo(BUCKET_COUNT);
+        assertThat(((Number) bucketTotals.get("AVAILABLE")).intValue()).isEqualTo(INITIAL_STOCK - RESERVATIONS);
+        assertThat(((Number) bucketTotals.get("RESERVED")).intValue()).isEqualTo(RESERVATIONS);
+    }
+
+    /**
+     * 以固定併發度執行預留，每筆一個交易；回傳總耗時（毫秒），並驗證每筆都成功。
+     */
+    private long runReservations(Function<Integer, Set<Integer>> reserve, Integer productId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Set<Integer>>> futures = new ArrayList<>(RESERVATIONS);
+            long start = System.nanoTime();
+            for (int i = 0; i < RESERVATIONS; i++) {
+                futures.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                    Set<Integer> rejected = reserve.apply(productId);
+                    sleepQuietly(HOLD_MILLIS);
+                    return rejected;
+                })));
+            }
+            for (Future<Set<Integer>> future : futures) {
+                assertThat(future.get()).isEmpty();
+            }
+            return (System.nanoTime() - start) / 1_000_000;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Product saveProduct(String name) {
+        return productRepository.saveAndFlush(Product.builder()
+                .name(name)
+                .price(new BigDecimal("100"))
+                .saleStatus(ProductStatus.AVAILABLE.getCode())
+                .available(INITIAL_STOCK)
+                .build());
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,18 +4,22 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
@@ -26,16 +30,22 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.ibm.demo.account.DTO.CreateAccountRequest;
 import com.ibm.demo.account.DTO.GetAccountListResponse;
 import com.ibm.demo.account.DTO.UpdateAccountRequest;
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.util.CountEstimateCache;
 import com.ibm.demo.util.PageResponse;
+import com.ibm.demo.util.SliceResponse;
 import com.ibm.demo.enums.AccountStatus;
 import com.ibm.demo.exception.BusinessLogicCheck.AccountStillHasOrderCanNotBeDeleteException;
 import com.ibm.demo.exception.BusinessLogicCheck.ResourceNotFoundException;
 import com.ibm.demo.order.OrderClient;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @Tag("UnitTest")
 @ExtendWith(MockitoExtension.class)
 public class AccountServiceTest {
@@ -46,6 +56,9 @@ public class AccountServiceTest {
     @Mock
     private OrderClient orderClient;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     // 顯性建立被測物件 (SUT)
     private AccountService accountService;
 
@@ -58,7 +71,8 @@ public class AccountServiceTest {
     @BeforeEach
     void setUp() {
         // 手動注入 Mock 依賴，結構清晰且易於維護
-        accountService = new AccountService(accountRepository, orderClient);
+        accountService = new AccountService(accountRepository, orderClient,
+                new CountEstimateCache(new AppProperties(), new SimpleMeterRegistry()), eventPublisher);
     }
 
     @Nested
@@ -86,6 +100,7 @@ public class AccountServiceTest {
             assertThat(captor.getValue())
                     .hasFieldOrPropertyWithValue("name", DEFAULT_NAME)
                     .hasFieldOrPropertyWithValue("status", STATUS_ACTIVE);
+            verify(eventPublisher).publishEvent(new AccountEligibilityChangedEvent(100));
         }
     }
 
@@ -120,6 +135,22 @@ public class AccountServiceTest {
                     .isInstanceOf(ResourceNotFoundException.class)
                     .hasMessageContaining("Account not found");
         }
+
+        @Test
+        @DisplayName("批次驗證時，以一次查詢回傳具資格的帳戶 ID，受 @SQLRestriction 濾除者不在結果中")
+        void findOrderEligibleAccountIds_ShouldReturnVisibleIds() {
+            // Arrange
+            Integer missingId = 999;
+            when(accountRepository.findIdsByIdIn(Set.of(ACTIVE_ACCOUNT_ID, missingId)))
+                    .thenReturn(List.of(ACTIVE_ACCOUNT_ID));
+
+            // Act
+            Set<Integer> eligible = accountService.findOrderEligibleAccountIds(Set.of(ACTIVE_ACCOUNT_ID, missingId));
+
+            // Assert
+            assertThat(eligible).containsExactly(ACTIVE_ACCOUNT_ID);
+            verify(accountRepository, never()).findById(any());
+        }
     }
 
     @Nested
@@ -163,6 +194,29 @@ public class AccountServiceTest {
             verify(accountRepository).findAllAccount(pageable);
         }
 
+        @Test
+        @DisplayName("Slice 查詢不應執行 COUNT，要求估計值時同一列表在 TTL 內只 COUNT 一次")
+        void getAccountSlice_ShouldSkipCountAndCacheEstimate() {
+            // Arrange
+            Pageable pageable = PageRequest.of(0, 1);
+            Slice<Account> accountSlice = new SliceImpl<>(
+                    List.of(createTestAccount(ACTIVE_ACCOUNT_ID, DEFAULT_NAME, STATUS_ACTIVE)), pageable, true);
+            when(accountRepository.findAllAccountAsSlice(pageable)).thenReturn(accountSlice);
+            when(accountRepository.count()).thenReturn(42L);
+
+            // Act
+            SliceResponse<GetAccountListResponse> withoutEstimate = accountService.getAccountSlice(pageable, false);
+            accountService.getAccountSlice(pageable, true);
+            SliceResponse<GetAccountListResponse> withEstimate = accountService.getAccountSlice(pageable, true);
+
+            // Assert
+            assertThat(withoutEstimate.hasNext()).isTrue();
+            assertThat(withoutEstimate.totalElementsEstimate()).isNull();
+            assertThat(withEstimate.totalElementsEstimate()).isEqualTo(42L);
+            verify(accountRepository, times(1)).count();
+            verify(accountRepository, never()).findAllAccount(any(Pageable.class));
+        }
+
         @Test
         @DisplayName("查詢存在的帳戶應成功回傳詳細資訊")
         void getAccountDetail_WhenExists_Success() {
@@ -235,6 +289,8 @@ public class AccountServiceTest {
 
             // 重要驗證：確保沒有呼叫 orderClient（因為是啟用帳戶）
             verifyNoInteractions(orderClient);
+            // 狀態改變，訂單端的資格快取需失效
+            verify(eventPublisher).publishEvent(new AccountEligibilityChangedEvent(ACTIVE_ACCOUNT_ID));
         }
 
         @Test
@@ -255,6 +311,8 @@ public class AccountServiceTest {
             // Assert
             verify(accountRepository).save(any(Account.class));
             verifyNoInteractions(orderClient);
+            // 狀態未變，下單資格不受影響
+            verifyNoInteractions(eventPublisher);
         }
     }
 
@@ -339,6 +397,7 @@ public class AccountServiceTest {
 
             // Assert
             verify(accountRepository).softDeleteById(ACTIVE_ACCOUNT_ID, 1);
+            verify(eventPublisher).publishEvent(new AccountEligibilityChangedEvent(ACTIVE_ACCOUNT_ID));
         }
     }
 
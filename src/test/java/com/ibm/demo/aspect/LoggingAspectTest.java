@@ -0,0 +1,77 @@
+package com.ibm.demo.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("UnitTest")
+class LoggingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SampleService sampleService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect(new AppProperties(), meterRegistry));
+        sampleService = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("每次呼叫都應記錄到 method.execution Timer，並依成功 / 失敗區分 outcome")
+    void logExecution_ShouldRecordTimerPerOutcome() {
+        // Act
+        sampleService.list();
+        sampleService.list();
+        assertThatThrownBy(() -> sampleService.fail()).isInstanceOf(IllegalStateException.class);
+
+        // Assert
+        assertThat(meterRegistry.get(LoggingAspect.TIMER_NAME)
+                .tags("class", "SampleService", "method", "list", "outcome", "success")
+                .timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(LoggingAspect.TIMER_NAME)
+                .tags("class", "SampleService", "method", "fail", "outcome", "error")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("參數 / 回傳值轉字串時應截斷超長內容，集合只輸出筆數")
+    void rendered_ShouldCapLengthAndSummarizeCollections() {
+        // Act
+        String longArg = new LoggingAspect.Rendered(new Object[] { "x".repeat(1_000), 1 }, 20).toString();
+        String collection = new LoggingAspect.Rendered(List.of(1, 2, 3), 20).toString();
+        String shortArgs = new LoggingAspect.Rendered(new Object[] { 1, "a" }, 20).toString();
+
+        // Assert
+        assertThat(longArg).hasSize(20 + "...(truncated)".length()).endsWith("...(truncated)");
+        assertThat(collection).endsWith("(size=3)");
+        assertThat(shortArgs).isEqualTo("[1, a]");
+    }
+
+    @Service
+    static class SampleService {
+
+        public List<Integer> list() {
+            return List.of(1, 2, 3);
+        }
+
+        public void fail() {
+            throw new IllegalStateException("boom");
+        }
+    }
+}
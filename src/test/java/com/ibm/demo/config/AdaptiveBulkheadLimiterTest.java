@@ -0,0 +1,80 @@
+package com.ibm.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("UnitTest")
+class AdaptiveBulkheadLimiterTest {
+
+    private static final String BULKHEAD_NAME = "order-write";
+    private static final int INITIAL_LIMIT = 100;
+    private static final long WINDOW_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private Bulkhead bulkhead;
+
+    private AdaptiveBulkheadLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAdaptiveConcurrency().setWindow(Duration.ofSeconds(1));
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(INITIAL_LIMIT)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        bulkhead = bulkheadRegistry.bulkhead(BULKHEAD_NAME);
+        limiter = new AdaptiveBulkheadLimiter(bulkheadRegistry, new SimpleMeterRegistry(), appProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limiter.destroy();
+    }
+
+    @Test
+    @DisplayName("調降上限時 permit 仍被佔用，完成呼叫的請求執行緒不應等待，上限於 permit 歸還後由背景套用")
+    void onCallFinished_WhenLimitShrinksWhilePermitsHeld_ShouldNotBlockRequestThread() throws Exception {
+        // Arrange：所有 permit 都被執行中的呼叫佔用
+        for (int i = 0; i < INITIAL_LIMIT; i++) {
+            assertThat(bulkhead.tryAcquirePermission()).isTrue();
+        }
+        VegasLimit limit = limiter.limitFor(BULKHEAD_NAME);
+        long base = System.nanoTime();
+        limit.onCallStarted();
+        limit.onCallStarted();
+
+        // Act：window 內延遲從 1ms 升到 100ms，判定下游排隊而調降上限
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            limit.onCallFinished(base, base + Duration.ofMillis(1).toNanos());
+            limit.onCallFinished(base + WINDOW_NANOS, base + WINDOW_NANOS + Duration.ofMillis(100).toNanos());
+        });
+
+        // Assert：permit 歸還前仍是原本的上限，歸還後套用新上限
+        int newLimit = limit.getLimit();
+        assertThat(newLimit).isLessThan(INITIAL_LIMIT);
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(INITIAL_LIMIT);
+        for (int i = 0; i < INITIAL_LIMIT; i++) {
+            bulkhead.onComplete();
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (bulkhead.getBulkheadConfig().getMaxConcurrentCalls() != newLimit && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(newLimit);
+    }
+}
@@ -0,0 +1,130 @@
+package com.ibm.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.ibm.demo.config.AdmissionQueue.Ordering;
+import com.ibm.demo.config.AdmissionQueue.Outcome;
+import com.ibm.demo.config.AdmissionQueue.Priority;
+
+@Tag("UnitTest")
+class AdmissionQueueTest {
+
+    private static final long SERVICE_MILLIS = 20;
+
+    @Test
+    @DisplayName("突波超過上限時，有等待預算的請求應排隊後全部完成；預算為 0（fail-fast）時超出上限的請求被拒絕")
+    void acquire_BurstAboveLimit_ShouldQueueWithinDeadline() throws Exception {
+        // Act
+        List<Outcome> queued = burst(Duration.ofSeconds(2), 10);
+        List<Outcome> failFast = burst(Duration.ZERO, 10);
+
+        // Assert
+        assertThat(queued).containsOnly(Outcome.ADMITTED);
+        assertThat(failFast).filteredOn(outcome -> outcome == Outcome.ADMITTED).hasSizeLessThan(10);
+        assertThat(failFast).contains(Outcome.TIMED_OUT);
+    }
+
+    @Test
+    @DisplayName("PRIORITY 排序時，空位應先給寫入（HIGH）再給讀取（NORMAL），即使讀取先到")
+    void release_WithPriorityOrdering_ShouldAdmitHighPriorityFirst() throws Exception {
+        // Arrange：上限 1 且已被佔用
+        AdmissionQueue queue = new AdmissionQueue(() -> 1, Ordering.PRIORITY);
+        assertThat(queue.acquire(Priority.NORMAL, 0)).isEqualTo(Outcome.ADMITTED);
+        List<Priority> admissionOrder = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<?> read = executor.submit(() -> acquireAndRecord(queue, Priority.NORMAL, admissionOrder));
+            awaitWaiting(queue, 1);
+            Future<?> write = executor.submit(() -> acquireAndRecord(queue, Priority.HIGH, admissionOrder));
+            awaitWaiting(queue, 2);
+
+            // Act
+            queue.release(0);
+            read.get();
+            write.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertThat(admissionOrder).containsExactly(Priority.HIGH, Priority.NORMAL);
+    }
+
+    @Test
+    @DisplayName("預估等待時間超過預算時應立即拒絕，不進入佇列")
+    void acquire_WhenExpectedWaitExceedsDeadline_ShouldShed() throws Exception {
+        // Arrange：平均執行時間 1 秒，上限 1 且已被佔用
+        AdmissionQueue queue = new AdmissionQueue(() -> 1, Ordering.FIFO);
+        queue.acquire(Priority.NORMAL, 0);
+        queue.release(Duration.ofSeconds(1).toNanos());
+        queue.acquire(Priority.NORMAL, 0);
+
+        // Act
+        long start = System.nanoTime();
+        Outcome outcome = queue.acquire(Priority.NORMAL, Duration.ofMillis(100).toNanos());
+
+        // Assert
+        assertThat(outcome).isEqualTo(Outcome.SHED);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(100));
+        assertThat(queue.getWaiting()).isZero();
+    }
+
+    /**
+     * 上限 2、每筆執行 SERVICE_MILLIS 毫秒，同時送出 requests 筆請求。
+     */
+    private List<Outcome> burst(Duration deadline, int requests) throws Exception {
+        AdmissionQueue queue = new AdmissionQueue(() -> 2, Ordering.FIFO);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> {
+                    Outcome outcome = queue.acquire(Priority.NORMAL, deadline.toNanos());
+                    if (outcome == Outcome.ADMITTED) {
+                        Thread.sleep(SERVICE_MILLIS);
+                        queue.release(Duration.ofMillis(SERVICE_MILLIS).toNanos());
+                    }
+                    return outcome;
+                }));
+            }
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Future<Outcome> future : futures) {
+                outcomes.add(future.get());
+            }
+            return outcomes;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void acquireAndRecord(AdmissionQueue queue, Priority priority, List<Priority> admissionOrder) {
+        try {
+            if (queue.acquire(priority, Duration.ofSeconds(5).toNanos()) == Outcome.ADMITTED) {
+                admissionOrder.add(priority);
+                queue.release(0);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitWaiting(AdmissionQueue queue, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (queue.getWaiting() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(queue.getWaiting()).isEqualTo(expected);
+    }
+}
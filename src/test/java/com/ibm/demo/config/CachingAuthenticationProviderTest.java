@@ -0,0 +1,114 @@
+package com.ibm.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("UnitTest")
+@ExtendWith(MockitoExtension.class)
+class CachingAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CachingAuthenticationProvider cachingAuthenticationProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachingAuthenticationProvider = new CachingAuthenticationProvider(delegate,
+                new AppProperties.Auth.CredentialCache(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("同一組帳密第二次認證應命中快取，不再呼叫實際驗證，並記錄命中與省下的驗證時間")
+    void authenticate_SameCredentials_ShouldVerifyOnce() {
+        // Arrange
+        when(delegate.authenticate(any())).thenReturn(authenticated("internal"));
+
+        // Act
+        cachingAuthenticationProvider.authenticate(request("internal", "secret"));
+        Authentication second = cachingAuthenticationProvider.authenticate(request("internal", "secret"));
+
+        // Assert
+        verify(delegate, times(1)).authenticate(any());
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo("internal");
+        assertThat(second.getCredentials()).isNull();
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_INTERNAL");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "auth-credential").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "auth-credential").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        // 一次未命中（實際驗證）+ 一次命中：省下的時間 = 1 × 平均驗證耗時
+        Timer verification = meterRegistry.get("auth.credential.verification").timer();
+        assertThat(verification.count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.credential.verification.saved").functionCounter().count())
+                .isCloseTo(verification.mean(TimeUnit.SECONDS), within(1e-9));
+    }
+
+    @Test
+    @DisplayName("密碼不同時不得命中快取，應重新驗證")
+    void authenticate_DifferentPassword_ShouldNotHitCache() {
+        // Arrange
+        when(delegate.authenticate(any()))
+                .thenReturn(authenticated("internal"))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+        cachingAuthenticationProvider.authenticate(request("internal", "secret"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> cachingAuthenticationProvider.authenticate(request("internal", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    @DisplayName("驗證失敗的帳密不應被快取，每次都重新驗證")
+    void authenticate_BadCredentials_ShouldNotBeCached() {
+        // Arrange
+        when(delegate.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> cachingAuthenticationProvider.authenticate(request("api", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> cachingAuthenticationProvider.authenticate(request("api", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    private static UsernamePasswordAuthenticationToken request(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+
+    private static Authentication authenticated(String username) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                List.of(new SimpleGrantedAuthority("ROLE_INTERNAL")));
+    }
+}
@@ -0,0 +1,160 @@
+package com.ibm.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("UnitTest")
+@ExtendWith(MockitoExtension.class)
+class ClusterRateLimiterTest {
+
+    private static final String NAME = "order-write";
+    private static final long NOW = 1_000_000L;
+
+    @Mock
+    private RateLimitLeaseStore store;
+
+    @Mock
+    private Clock clock;
+
+    private AppProperties appProperties;
+
+    private ClusterRateLimiter clusterRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        // limit-for-period 100/s，每批 10 個 token
+        RateLimiterRegistry rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(100)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .build());
+        appProperties = new AppProperties();
+        appProperties.getClusterRateLimit().setReplicas(4);
+        when(clock.millis()).thenReturn(NOW);
+        // 同步執行租借，讓測試結果確定
+        clusterRateLimiter = new ClusterRateLimiter(store, rateLimiterRegistry, new SimpleMeterRegistry(),
+                appProperties, clock, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("租到的 token 在本地扣減，只有剩不到半批時才再向共用 bucket 租借")
+    void tryAcquire_WithLeasedTokens_ShouldOnlyLeaseInBatches() {
+        // Arrange
+        when(store.lease(eq(NAME), eq(10L), eq(100.0), anyDouble(), anyLong())).thenReturn(10L);
+
+        // Act
+        int permitted = 0;
+        for (int i = 0; i < 30; i++) {
+            if (clusterRateLimiter.tryAcquire(NAME)) {
+                permitted++;
+            }
+        }
+
+        // Assert：首批 10 個，之後每用掉 10 個補一批，30 個請求共租借 4 次
+        assertThat(permitted).isEqualTo(30);
+        verify(store, times(4)).lease(eq(NAME), eq(10L), eq(100.0), anyDouble(), anyLong());
+    }
+
+    @Test
+    @DisplayName("共用 bucket 已用盡時應拒絕（429），且在補充前不再反覆查詢資料庫")
+    void acquirePermission_WhenSharedBucketExhausted_ShouldRejectWithoutHammeringStore() {
+        // Arrange：共用 bucket 只剩 3 個
+        when(store.lease(eq(NAME), anyLong(), anyDouble(), anyDouble(), anyLong())).thenReturn(3L);
+
+        // Act
+        int permitted = 0;
+        int rejected = 0;
+        for (int i = 0; i < 50; i++) {
+            try {
+                clusterRateLimiter.acquirePermission(NAME);
+                permitted++;
+            } catch (RequestNotPermitted e) {
+                rejected++;
+            }
+        }
+
+        // Assert
+        assertThat(permitted).isEqualTo(3);
+        assertThat(rejected).isEqualTo(47);
+        verify(store, times(1)).lease(eq(NAME), anyLong(), anyDouble(), anyDouble(), anyLong());
+        assertThatThrownBy(() -> clusterRateLimiter.acquirePermission(NAME)).isInstanceOf(RequestNotPermitted.class);
+    }
+
+    @Test
+    @DisplayName("第一次出現的名稱不應在請求執行緒上租借，租借交給 executor；啟動完成時先為已知名稱租借第一批")
+    void tryAcquire_ForNewName_ShouldLeaseOnExecutorOnly() {
+        // Arrange：executor 先收集工作不執行，模擬租借尚未完成
+        List<Runnable> pending = new ArrayList<>();
+        RateLimiterRegistry rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(100)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .build());
+        rateLimiterRegistry.rateLimiter(NAME);
+        ClusterRateLimiter limiter = new ClusterRateLimiter(store, rateLimiterRegistry, new SimpleMeterRegistry(),
+                appProperties, clock, pending::add);
+        when(store.lease(eq(NAME), eq(10L), eq(100.0), anyDouble(), anyLong())).thenReturn(10L);
+
+        // Act
+        limiter.warmUp();
+        boolean beforeLease = limiter.tryAcquire(NAME);
+        pending.forEach(Runnable::run);
+        boolean afterLease = limiter.tryAcquire(NAME);
+
+        // Assert：同一時間只排入一個租借，租借完成前請求執行緒不存取資料庫
+        assertThat(pending).hasSize(1);
+        assertThat(beforeLease).isFalse();
+        assertThat(afterLease).isTrue();
+        verify(store, times(1)).lease(eq(NAME), eq(10L), eq(100.0), anyDouble(), anyLong());
+    }
+
+    @Test
+    @DisplayName("資料庫無法存取時應改用 1 / replicas 的本地上限，並在 retry-interval 之後恢復共用 bucket")
+    void tryAcquire_WhenStoreUnreachable_ShouldFallBackToLocalShare() {
+        // Arrange
+        when(store.lease(eq(NAME), anyLong(), anyDouble(), anyDouble(), anyLong()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(10L);
+
+        // Act：同一個時間點內，本地上限為 100 / 4 = 25
+        int permitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (clusterRateLimiter.tryAcquire(NAME)) {
+                permitted++;
+            }
+        }
+        boolean fallbackDuringOutage = clusterRateLimiter.isFallback();
+        when(clock.millis()).thenReturn(NOW + appProperties.getClusterRateLimit().getRetryInterval().toMillis());
+        clusterRateLimiter.tryAcquire(NAME);
+
+        // Assert
+        assertThat(permitted).isEqualTo(25);
+        assertThat(fallbackDuringOutage).isTrue();
+        assertThat(clusterRateLimiter.isFallback()).isFalse();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ibm.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+@Tag("UnitTest")
+class InternalTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private AppProperties.Auth.InternalToken properties;
+
+    private InternalTokenService internalTokenService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppProperties.Auth.InternalToken();
+        properties.setSecret("test-internal-token-secret");
+        properties.setTtl(Duration.ofMinutes(5));
+        internalTokenService = new InternalTokenService(properties, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("自行簽發的 token 應驗證通過")
+    void isValid_CurrentToken_ShouldPass() {
+        // Act
+        String token = internalTokenService.currentToken();
+
+        // Assert
+        assertThat(internalTokenService.isValid(token)).isTrue();
+    }
+
+    @Test
+    @DisplayName("竄改簽章、格式錯誤或缺少 token 時應驗證失敗")
+    void isValid_TamperedOrMalformedToken_ShouldFail() {
+        // Arrange
+        String token = internalTokenService.currentToken();
+        String expiresAt = token.substring(0, token.indexOf('.'));
+        String extendedExpiry = (Long.parseLong(expiresAt) + 3600) + token.substring(token.indexOf('.'));
+
+        // Assert
+        assertThat(internalTokenService.isValid(extendedExpiry)).isFalse();
+        assertThat(internalTokenService.isValid(expiresAt + ".AAAA")).isFalse();
+        assertThat(internalTokenService.isValid("not-a-token")).isFalse();
+        assertThat(internalTokenService.isValid(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("不同金鑰簽發的 token 應驗證失敗")
+    void isValid_TokenFromOtherSecret_ShouldFail() {
+        // Arrange
+        AppProperties.Auth.InternalToken otherProperties = new AppProperties.Auth.InternalToken();
+        otherProperties.setSecret("another-secret");
+        InternalTokenService other = new InternalTokenService(otherProperties, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // Assert
+        assertThat(internalTokenService.isValid(other.currentToken())).isFalse();
+    }
+
+    @Test
+    @DisplayName("超過存活時間的 token 應驗證失敗，發出端過半存活時間後應換發新 token")
+    void currentToken_AfterHalfTtl_ShouldRotateAndExpireOldToken() {
+        // Arrange
+        String token = internalTokenService.currentToken();
+        InternalTokenService later = new InternalTokenService(properties,
+                Clock.fixed(NOW.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+        InternalTokenService halfway = new InternalTokenService(properties,
+                Clock.fixed(NOW.plus(Duration.ofMinutes(3)), ZoneOffset.UTC));
+
+        // Assert
+        assertThat(later.isValid(token)).isFalse();
+        assertThat(internalTokenService.currentToken()).isEqualTo(token);
+        assertThat(halfway.isValid(token)).isTrue();
+        assertThat(halfway.currentToken()).isNotEqualTo(token);
+    }
+}
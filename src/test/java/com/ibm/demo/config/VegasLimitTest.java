@@ -0,0 +1,103 @@
+package com.ibm.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.ibm.demo.config.properties.AppProperties;
+
+/**
+ * 以模擬負載驗證 VegasLimit 會收斂：下游（例如 Hikari 連線池）只能同時處理 CAPACITY 個請求，
+ * 超過的請求依序排隊，第 i 個請求的延遲為基準延遲 × (1 + i / CAPACITY)。
+ * 在持續打滿上限的負載下，不論起始值比容量小（product-read: 5）或大（order-write: 100），
+ * 上限都應收斂到容量附近。
+ */
+@Tag("UnitTest")
+class VegasLimitTest {
+
+    private static final int CAPACITY = 20;
+    private static final long BASE_RTT_NANOS = Duration.ofMillis(5).toNanos();
+    private static final long WINDOW_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final int WINDOWS = 300;
+
+    private AppProperties.AdaptiveConcurrency properties;
+
+    private List<Integer> changes;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppProperties.AdaptiveConcurrency();
+        properties.setWindow(Duration.ofSeconds(1));
+        changes = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("起始上限小於下游容量時，持續滿載下應逐步放大並收斂到容量附近")
+    void limit_StartingBelowCapacity_ShouldConvergeUp() {
+        // Arrange
+        VegasLimit limit = new VegasLimit(5, properties, 0, changes::add);
+
+        // Act
+        simulateSaturatedLoad(limit);
+
+        // Assert
+        assertThat(limit.getLimit()).isBetween(CAPACITY, CAPACITY * 2);
+        assertThat(changes).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("起始上限遠大於下游容量時，排隊造成延遲上升，上限應逐步縮小並收斂到容量附近")
+    void limit_StartingAboveCapacity_ShouldConvergeDown() {
+        // Arrange
+        VegasLimit limit = new VegasLimit(100, properties, 0, changes::add);
+
+        // Act
+        simulateSaturatedLoad(limit);
+
+        // Assert
+        assertThat(limit.getLimit()).isBetween(CAPACITY, CAPACITY * 2);
+    }
+
+    @Test
+    @DisplayName("流量未用滿上限時，延遲低不代表有餘裕，上限不應放大")
+    void limit_WhenUnderutilized_ShouldNotGrow() {
+        // Arrange
+        VegasLimit limit = new VegasLimit(50, properties, 0, changes::add);
+
+        // Act：每個 window 只有 5 個併發請求
+        for (int window = 1; window <= WINDOWS; window++) {
+            runWindow(limit, window, 5);
+        }
+
+        // Assert
+        assertThat(limit.getLimit()).isEqualTo(50);
+        assertThat(changes).isEmpty();
+    }
+
+    /**
+     * 每個 window 都以目前上限的併發數打滿下游。
+     */
+    private void simulateSaturatedLoad(VegasLimit limit) {
+        for (int window = 1; window <= WINDOWS; window++) {
+            runWindow(limit, window, limit.getLimit());
+        }
+    }
+
+    private void runWindow(VegasLimit limit, int window, int concurrency) {
+        long end = window * WINDOW_NANOS;
+        for (int i = 0; i < concurrency; i++) {
+            limit.onCallStarted();
+        }
+        for (int i = 0; i < concurrency; i++) {
+            long rtt = BASE_RTT_NANOS * (1 + i / CAPACITY);
+            limit.onCallFinished(end - rtt, end);
+        }
+    }
+}
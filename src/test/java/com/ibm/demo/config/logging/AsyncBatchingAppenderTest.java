@@ -0,0 +1,141 @@
+package com.ibm.demo.config.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+@Tag("UnitTest")
+class AsyncBatchingAppenderTest {
+
+    private static final int CAPACITY = 8;
+
+    private LoggerContext loggerContext;
+
+    private GatedAppender downstream;
+
+    private AsyncBatchingAppender asyncAppender;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        downstream = new GatedAppender();
+        downstream.setContext(loggerContext);
+        downstream.start();
+
+        asyncAppender = new AsyncBatchingAppender();
+        asyncAppender.setContext(loggerContext);
+        asyncAppender.setName("ASYNC");
+        asyncAppender.setCapacity(CAPACITY);
+        asyncAppender.setMaxBlockMillis(50);
+        asyncAppender.addAppender(downstream);
+        asyncAppender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        downstream.gate.countDown();
+        asyncAppender.stop();
+    }
+
+    @Test
+    @DisplayName("所有事件應由背景執行緒依序寫到下游 appender")
+    void append_ShouldDeliverEventsInOrder() throws Exception {
+        // Arrange
+        downstream.gate.countDown();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            asyncAppender.doAppend(event(Level.INFO, "message-" + i));
+        }
+        asyncAppender.stop();
+
+        // Assert
+        assertThat(downstream.received).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactlyElementsOf(IntStream.range(0, 20).mapToObj(i -> "message-" + i).toList());
+        assertThat(asyncAppender.getDroppedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("buffer 滿時 DROP 策略應丟棄 INFO 事件並計數，不阻塞呼叫端")
+    void append_WhenBufferFull_ShouldDropInfoEvents() throws Exception {
+        // Arrange：第一筆被背景執行緒取走後卡在下游，之後的事件只能留在 buffer
+        asyncAppender.doAppend(event(Level.INFO, "first"));
+        assertThat(downstream.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        for (int i = 0; i < CAPACITY + 5; i++) {
+            asyncAppender.doAppend(event(Level.INFO, "overflow-" + i));
+        }
+
+        // Assert
+        assertThat(asyncAppender.getQueueDepth()).isEqualTo(CAPACITY);
+        assertThat(asyncAppender.getDroppedCount()).isEqualTo(5);
+
+        downstream.gate.countDown();
+        asyncAppender.stop();
+        assertThat(downstream.received).hasSize(CAPACITY + 1);
+    }
+
+    @Test
+    @DisplayName("沒有日誌時背景執行緒應 park 等待（不定時輪詢），新事件寫入後立即被喚醒")
+    void drainLoop_WhenIdle_ShouldParkUntilNextEvent() throws Exception {
+        // Arrange
+        downstream.gate.countDown();
+        Thread worker = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("async-log-writer-ASYNC"))
+                .findFirst()
+                .orElseThrow();
+
+        // Act & Assert：無逾時的 park 為 WAITING（parkNanos 輪詢則為 TIMED_WAITING）
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (worker.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(worker.getState()).isEqualTo(Thread.State.WAITING);
+
+        asyncAppender.doAppend(event(Level.INFO, "after-idle"));
+        assertThat(downstream.entered.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private ILoggingEvent event(Level level, String message) {
+        return new LoggingEvent(AsyncBatchingAppenderTest.class.getName(), loggerContext.getLogger("test"), level,
+                message, null, null);
+    }
+
+    /**
+     * 下游 appender：收到第一筆後等 gate 開啟才繼續，用來模擬寫出被卡住。
+     */
+    private static class GatedAppender extends AppenderBase<ILoggingEvent> {
+
+        private final List<ILoggingEvent> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch gate = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event);
+        }
+    }
+}
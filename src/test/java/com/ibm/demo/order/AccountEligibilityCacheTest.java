@@ -0,0 +1,154 @@
+package com.ibm.demo.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.ibm.demo.account.AccountEligibilityChangedEvent;
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.exception.BusinessLogicCheck.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("UnitTest")
+class AccountEligibilityCacheTest {
+
+    private static final Integer ELIGIBLE_ID = 1;
+    private static final Integer INELIGIBLE_ID = 2;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AccountEligibilityCache accountEligibilityCache;
+
+    // 記錄每次向帳戶服務查詢的帳戶 ID
+    private List<Integer> checkedIds;
+
+    private Consumer<Integer> check;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accountEligibilityCache = new AccountEligibilityCache(new AppProperties(), meterRegistry);
+        checkedIds = new ArrayList<>();
+        // 模擬帳戶服務：INELIGIBLE_ID 已停用（受 SQLRestriction 濾除而查無），其餘皆具資格
+        check = id -> {
+            checkedIds.add(id);
+            if (INELIGIBLE_ID.equals(id)) {
+                throw new ResourceNotFoundException("Account not found with id: " + id);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("具資格的帳戶只查詢帳戶服務一次，之後由快取判斷")
+    void assertCanPlaceOrder_WhenEligible_ShouldCheckOnce() {
+        // Act
+        accountEligibilityCache.assertCanPlaceOrder(ELIGIBLE_ID, check);
+        accountEligibilityCache.assertCanPlaceOrder(ELIGIBLE_ID, check);
+
+        // Assert
+        assertThat(checkedIds).containsExactly(ELIGIBLE_ID);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", AccountEligibilityCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("不具資格的帳戶也應快取，重複下單直接拋出 ResourceNotFoundException")
+    void assertCanPlaceOrder_WhenIneligible_ShouldCacheNegativeResult() {
+        // Act & Assert
+        assertThatThrownBy(() -> accountEligibilityCache.assertCanPlaceOrder(INELIGIBLE_ID, check))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> accountEligibilityCache.assertCanPlaceOrder(INELIGIBLE_ID, check))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining(String.valueOf(INELIGIBLE_ID));
+
+        assertThat(checkedIds).containsExactly(INELIGIBLE_ID);
+    }
+
+    @Test
+    @DisplayName("帳戶服務不可用等其他例外不應快取")
+    void assertCanPlaceOrder_WhenCheckFails_ShouldNotCache() {
+        // Arrange
+        Consumer<Integer> unavailable = id -> {
+            checkedIds.add(id);
+            throw new IllegalStateException("account service unavailable");
+        };
+
+        // Act
+        assertThatThrownBy(() -> accountEligibilityCache.assertCanPlaceOrder(ELIGIBLE_ID, unavailable))
+                .isInstanceOf(IllegalStateException.class);
+        accountEligibilityCache.assertCanPlaceOrder(ELIGIBLE_ID, check);
+
+        // Assert
+        assertThat(checkedIds).containsExactly(ELIGIBLE_ID, ELIGIBLE_ID);
+    }
+
+    @Test
+    @DisplayName("收到帳戶異動事件後應失效，下次下單重新查詢帳戶服務")
+    void onAccountEligibilityChanged_ShouldEvict() {
+        // Arrange
+        accountEligibilityCache.assertCanPlaceOrder(ELIGIBLE_ID, check);
+
+        // Act
+        accountEligibilityCache.onAccountEligibilityChanged(new AccountEligibilityChangedEvent(ELIGIBLE_ID));
+        accountEligibilityCache.assertCanPlaceOrder(ELIGIBLE_ID, check);
+
+        // Assert
+        assertThat(checkedIds).containsExactly(ELIGIBLE_ID, ELIGIBLE_ID);
+    }
+
+    @Test
+    @DisplayName("查詢期間發生失效時，查詢結果不應放入快取")
+    void assertCanPlaceOrder_WhenInvalidatedDuringCheck_ShouldNotCacheStaleResult() {
+        // Arrange: 查詢帳戶服務的同時，帳戶被停用並發出失效事件
+        Consumer<Integer> racingCheck = id -> {
+            checkedIds.add(id);
+            accountEligibilityCache.invalidate(id);
+        };
+
+        // Act
+        accountEligibilityCache.assertCanPlaceOrder(ELIGIBLE_ID, racingCheck);
+        accountEligibilityCache.assertCanPlaceOrder(ELIGIBLE_ID, check);
+
+        // Assert
+        assertThat(checkedIds).containsExactly(ELIGIBLE_ID, ELIGIBLE_ID);
+    }
+
+    @Test
+    @DisplayName("批次查詢只向帳戶服務查詢未命中的帳戶，查詢結果（含不具資格）都放入快取")
+    void findEligible_ShouldLoadOnlyMissesAndCacheBothResults() {
+        // Arrange
+        Integer otherId = 3;
+        accountEligibilityCache.assertCanPlaceOrder(ELIGIBLE_ID, check);
+        List<Set<Integer>> loadedBatches = new ArrayList<>();
+
+        // Act
+        Set<Integer> first = accountEligibilityCache.findEligible(Set.of(ELIGIBLE_ID, INELIGIBLE_ID, otherId),
+                ids -> {
+                    loadedBatches.add(ids);
+                    return Set.of(otherId);
+                });
+        Set<Integer> second = accountEligibilityCache.findEligible(Set.of(ELIGIBLE_ID, INELIGIBLE_ID, otherId),
+                ids -> {
+                    loadedBatches.add(ids);
+                    return ids;
+                });
+
+        // Assert
+        assertThat(first).containsExactlyInAnyOrder(ELIGIBLE_ID, otherId);
+        assertThat(second).containsExactlyInAnyOrder(ELIGIBLE_ID, otherId);
+        assertThat(loadedBatches).containsExactly(Set.of(INELIGIBLE_ID, otherId));
+        assertThatThrownBy(() -> accountEligibilityCache.assertCanPlaceOrder(INELIGIBLE_ID, check))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(checkedIds).containsExactly(ELIGIBLE_ID);
+    }
+}
@@ -0,0 +1,171 @@
+package com.ibm.demo.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.product.ProductCatalogCache;
+import com.ibm.demo.product.ProductClient;
+import com.ibm.demo.product.DTO.GetProductDetailResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+@Tag("UnitTest")
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    private static final Integer ACCOUNT_ID = 1;
+    private static final int CHUNK_SIZE = 2;
+    private static final int FETCH_SIZE = 50;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ProductClient productClient;
+    @Mock
+    private ResultSet resultSet;
+
+    private ObjectMapper objectMapper;
+
+    private OrderExportService orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        // 商品目錄快取用真的實作，驗證跨 chunk 的商品只向商品服務查詢一次
+        AppProperties appProperties = new AppProperties();
+        appProperties.getOrderExport().setChunkSize(CHUNK_SIZE);
+        appProperties.getOrderExport().setFetchSize(FETCH_SIZE);
+        objectMapper = JsonMapper.builder().build();
+        orderExportService = new OrderExportService(jdbcTemplate,
+                new ProductCatalogCache(appProperties, new SimpleMeterRegistry()), productClient, objectMapper,
+                appProperties);
+    }
+
+    @Test
+    @DisplayName("逐 chunk 查詢商品價格並寫出 NDJSON，查無價格的訂單總金額為 null")
+    void exportOrders_ShouldWriteNdjsonPerChunk() throws Exception {
+        // Arrange：訂單 1（商品 10 x2、11 x1）、訂單 2（商品 10 x3）、訂單 3（無明細）、訂單 4（已下架的商品 99）
+        when(resultSet.getInt("ID")).thenReturn(1, 1, 2, 3, 4);
+        when(resultSet.getInt("STATUS")).thenReturn(1001);
+        when(resultSet.getInt("PRODUCT_ID")).thenReturn(10, 11, 10, 0, 99);
+        when(resultSet.wasNull()).thenReturn(false, false, false, true, false);
+        when(resultSet.getInt("QUANTITY")).thenReturn(2, 1, 3, 1);
+        feedRows(5);
+        when(productClient.getProductDetails(Set.of(10, 11))).thenReturn(List.of(
+                product(10, "100.00"), product(11, "50.00")));
+        when(productClient.getProductDetails(Set.of(99))).thenReturn(List.of());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long exported = orderExportService.exportOrders(ACCOUNT_ID, () -> out);
+
+        // Assert
+        assertThat(exported).isEqualTo(4);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertThat(lines).extracting(line -> line.get("orderId").asInt()).containsExactly(1, 2, 3, 4);
+        assertThat(lines.get(0).get("accountId").asInt()).isEqualTo(ACCOUNT_ID);
+        assertThat(lines.get(0).get("items").size()).isEqualTo(2);
+        assertThat(lines.get(0).get("totalAmount").decimalValue()).isEqualByComparingTo("250");
+        assertThat(lines.get(1).get("totalAmount").decimalValue()).isEqualByComparingTo("300");
+        assertThat(lines.get(2).get("items").size()).isZero();
+        assertThat(lines.get(2).get("totalAmount").decimalValue()).isEqualByComparingTo("0");
+        assertThat(lines.get(3).get("totalAmount").isNull()).isTrue();
+        assertThat(lines.get(3).get("items").get(0).get("productPrice").isNull()).isTrue();
+        // 商品 10 在第二個 chunk 由快取命中，不再查詢商品服務
+        verify(productClient).getProductDetails(Set.of(10, 11));
+        verify(productClient).getProductDetails(Set.of(99));
+    }
+
+    @Test
+    @DisplayName("以 forward-only 游標與設定的 fetch size 查詢")
+    void exportOrders_ShouldUseForwardOnlyCursorWithFetchSize() throws Exception {
+        // Arrange
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        ArgumentCaptor<PreparedStatementCreator> creatorCaptor = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+
+        // Act
+        orderExportService.exportOrders(ACCOUNT_ID, ByteArrayOutputStream::new);
+
+        // Assert
+        verify(jdbcTemplate).query(creatorCaptor.capture(), any(RowCallbackHandler.class));
+        creatorCaptor.getValue().createPreparedStatement(connection);
+        verify(connection).prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY),
+                eq(ResultSet.CONCUR_READ_ONLY));
+        verify(statement).setFetchSize(FETCH_SIZE);
+        verify(statement).setInt(1, ACCOUNT_ID);
+    }
+
+    @Test
+    @DisplayName("帳戶沒有訂單時回傳空內容，不查詢商品服務")
+    void exportOrders_WhenNoOrders_ShouldWriteNothing() {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long exported = orderExportService.exportOrders(ACCOUNT_ID, () -> out);
+
+        // Assert
+        assertThat(exported).isZero();
+        assertThat(out.size()).isZero();
+        verifyNoInteractions(productClient);
+    }
+
+    // 模擬 JdbcTemplate 逐列呼叫 RowCallbackHandler
+    private void feedRows(int rowCount) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < rowCount; i++) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private static GetProductDetailResponse product(Integer id, String price) {
+        return GetProductDetailResponse.builder()
+                .id(id)
+                .name("商品" + id)
+                .price(new BigDecimal(price))
+                .saleStatus(1001)
+                .available(10)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ibm.demo.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.ibm.demo.order.DTO.CreateOrderDetailRequest;
+import com.ibm.demo.order.DTO.CreateOrderRequest;
+
+@Tag("UnitTest")
+class OrderIdempotencyStoreTest {
+
+    @Test
+    @DisplayName("明細順序不同的相同內容，摘要應相同")
+    void fingerprint_ShouldIgnoreItemOrder() {
+        // Arrange
+        CreateOrderRequest request = order(1, new CreateOrderDetailRequest(5, 40), new CreateOrderDetailRequest(6, 9));
+        CreateOrderRequest reordered = order(1, new CreateOrderDetailRequest(6, 9), new CreateOrderDetailRequest(5, 40));
+
+        // Act & Assert
+        assertThat(OrderIdempotencyStore.fingerprint(request))
+                .hasSize(64)
+                .isEqualTo(OrderIdempotencyStore.fingerprint(reordered));
+    }
+
+    @Test
+    @DisplayName("32 位元雜湊會碰撞的不同內容（Objects.hash(5, 40) == Objects.hash(6, 9)），摘要應不同")
+    void fingerprint_ShouldDistinguishHashCodeCollisions() {
+        // Arrange
+        CreateOrderRequest request = order(1, new CreateOrderDetailRequest(5, 40));
+        CreateOrderRequest other = order(1, new CreateOrderDetailRequest(6, 9));
+
+        // Act & Assert
+        assertThat(OrderIdempotencyStore.fingerprint(request))
+                .isNotEqualTo(OrderIdempotencyStore.fingerprint(other));
+        assertThat(OrderIdempotencyStore.fingerprint(request))
+                .isNotEqualTo(OrderIdempotencyStore.fingerprint(order(2, new CreateOrderDetailRequest(5, 40))));
+    }
+
+    private static CreateOrderRequest order(Integer accountId, CreateOrderDetailRequest... items) {
+        return CreateOrderRequest.builder()
+                .accountId(accountId)
+                .items(List.of(items))
+                .build();
+    }
+}
@@ -3,14 +3,25 @@ package com.ibm.demo.order;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,20 +34,34 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.ibm.demo.account.AccountClient;
+import com.ibm.demo.config.properties.AppProperties;
 import com.ibm.demo.enums.OrderStatus;
+import com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException;
 import com.ibm.demo.exception.BusinessLogicCheck.OrderStatusInvalidException;
 import com.ibm.demo.exception.BusinessLogicCheck.ProductStockNotEnoughException;
 import com.ibm.demo.exception.BusinessLogicCheck.ResourceNotFoundException;
+import com.ibm.demo.order.DTO.BulkCreateOrderResponse;
+import com.ibm.demo.order.DTO.BulkCreateOrderResult;
 import com.ibm.demo.order.DTO.CreateOrderDetailRequest;
 import com.ibm.demo.order.DTO.CreateOrderRequest;
+import com.ibm.demo.order.DTO.GetOrderDetailResponse;
 import com.ibm.demo.order.DTO.UpdateOrderDetailRequest;
 import com.ibm.demo.order.DTO.UpdateOrderRequest;
+import com.ibm.demo.order.Entity.OrderDetail;
 import com.ibm.demo.order.Entity.OrderInfo;
 import com.ibm.demo.order.Repository.OrderInfoRepository;
+import com.ibm.demo.product.DTO.GetProductDetailResponse;
 import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
+import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+import com.ibm.demo.product.ProductCatalogCache;
 import com.ibm.demo.product.ProductClient;
+import com.ibm.demo.util.CountEstimateCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @Tag("UnitTest")
 @ExtendWith(MockitoExtension.class)
@@ -50,9 +75,17 @@ class OrderServiceTest {
         private ProductClient productClient;
         @Mock
         private OrderTransactionalService orderTransactionalService;
+        @Mock
+        private OrderIdempotencyStore orderIdempotencyStore;
+        @Mock
+        private StockCompensationOutbox stockCompensationOutbox;
+        @Mock
+        private PlatformTransactionManager transactionManager;
 
         private OrderService orderService;
 
+        private SimpleMeterRegistry meterRegistry;
+
         // 測試常數
         private final Integer STATUS_CREATED = OrderStatus.CREATED.getCode();
         private final Integer STATUS_CANCELLED = OrderStatus.CANCELLED.getCode();
@@ -63,8 +96,20 @@ class OrderServiceTest {
         @BeforeEach
         void setUp() {
                 // 顯性建立 SUT (System Under Test)
+                // 商品目錄快取使用真實實作（每個測試一個新實例），讓快取行為可被驗證
+                // StockSaga 使用真實實作，outbox 與交易管理員為 mock，讓補償的寫入與刪除可被驗證
+                meterRegistry = new SimpleMeterRegistry();
                 orderService = new OrderService(orderInfoRepository, accountClient,
-                                productClient, orderTransactionalService);
+                                productClient, orderTransactionalService,
+                                new ProductCatalogCache(new AppProperties(), meterRegistry),
+                                new CountEstimateCache(new AppProperties(), meterRegistry),
+                                orderIdempotencyStore,
+                                new StockSaga(productClient, stockCompensationOutbox, transactionManager,
+                                                new AppProperties()),
+                                new AccountEligibilityCache(new AppProperties(), meterRegistry),
+                                new AppProperties());
+                // 補償尚未被 dispatcher 取走：saga 在本地交易中可刪除它（失敗流程的測試不會用到此 stub）
+                lenient().when(stockCompensationOutbox.remove(anyString(), anyLong())).thenReturn(1);
         }
 
         @Nested
@@ -93,7 +138,16 @@ class OrderServiceTest {
 
                         // Verify: 驗證核心依賴的互動
                         verify(accountClient).assertCanPlaceOrder(ACTIVE_ACCOUNT_ID);
-                        verify(productClient).reserveStock(any());
+
+                        // Verify: 以操作 ID 預留庫存（from 為空），並在訂單寫入的交易中刪除同一個 ID 的補償
+                        ArgumentCaptor<AdjustStockRequest> stockCaptor = ArgumentCaptor.forClass(AdjustStockRequest.class);
+                        verify(productClient).adjustStock(stockCaptor.capture());
+                        AdjustStockRequest stockRequest = stockCaptor.getValue();
+                        assertThat(stockRequest.from()).isEmpty();
+                        assertThat(stockRequest.to()).hasSize(1);
+                        assertThat(stockRequest.operationId()).isNotNull();
+                        verify(stockCompensationOutbox).add(any(StockCompensationOutbox.Entry.class), anyLong());
+                        verify(stockCompensationOutbox).remove(eq(stockRequest.operationId()), anyLong());
 
                         // Verify: 驗證對交易服務的呼叫，並用 ArgumentCaptor 捕獲傳遞的內容
                         ArgumentCaptor<CreateOrderRequest> requestCaptor = ArgumentCaptor
@@ -104,7 +158,7 @@ class OrderServiceTest {
                 }
 
                 @Test
-                @DisplayName("建立訂單時交易服務失敗，應觸發補償釋放庫存並拋出原始異常")
+                @DisplayName("建立訂單時交易服務失敗，應保留 outbox 中的補償由背景歸還庫存，並拋出原始異常")
                 void createOrder_WhenTransactionFails_ShouldCompensateAndThrow() {
                         // Arrange
                         CreateOrderRequest request = CreateOrderRequest.builder()
@@ -121,9 +175,104 @@ class OrderServiceTest {
                                         .isInstanceOf(RuntimeException.class)
                                         .hasMessageContaining("DB connection failed");
 
-                        // Verify: 先預留庫存，交易失敗後補償釋放庫存
-                        verify(productClient).reserveStock(any());
-                        verify(productClient).releaseStock(any());
+                        // Verify: 只預留一次庫存，不在請求中同步補償；補償保留在 outbox 並提前套用
+                        verify(productClient, times(1)).adjustStock(any(AdjustStockRequest.class));
+                        verify(stockCompensationOutbox).expedite(anyString(), anyLong());
+                        verify(stockCompensationOutbox, never()).remove(anyString(), anyLong());
+                }
+
+                @Test
+                @DisplayName("本地交易提交前補償已被 dispatcher 取走，應回滾訂單並拋出 ConcurrencyFailureException")
+                void createOrder_WhenCompensationClaimedBeforeCommit_ShouldRollBack() {
+                        // Arrange
+                        CreateOrderRequest request = CreateOrderRequest.builder()
+                                        .accountId(ACTIVE_ACCOUNT_ID)
+                                        .items(List.of(new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 2)))
+                                        .build();
+                        when(orderTransactionalService.createOrder(any(CreateOrderRequest.class))).thenReturn(888);
+                        // 本地交易超過 in-flight-timeout，dispatcher 已取走補償並歸還庫存
+                        when(stockCompensationOutbox.remove(anyString(), anyLong())).thenReturn(0);
+
+                        // Act & Assert
+                        assertThatThrownBy(() -> orderService.createOrder(request))
+                                        .isInstanceOf(ConcurrencyFailureException.class);
+
+                        // Verify: 交易回滾，訂單不提交
+                        verify(transactionManager).rollback(any());
+                        verify(transactionManager, never()).commit(any());
+                }
+        }
+
+        @Nested
+        @DisplayName("建立訂單 Idempotency-Key")
+        class CreateOrderIdempotencyTests {
+
+                private static final String IDEMPOTENCY_KEY = "3f1c2a7e-order-retry";
+                private static final long CLAIM_EXPIRES_AT = 1_700_000_030_000L;
+
+                private CreateOrderRequest request;
+
+                @BeforeEach
+                void setUp() {
+                        request = CreateOrderRequest.builder()
+                                        .accountId(ACTIVE_ACCOUNT_ID)
+                                        .items(List.of(new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 2)))
+                                        .build();
+                }
+
+                @Test
+                @DisplayName("重送已完成的 Idempotency-Key，應直接回傳原訂單 ID，不預留庫存也不寫入訂單")
+                void createOrder_WithCompletedKey_ShouldReturnOriginalOrderId() {
+                        // Arrange
+                        when(orderIdempotencyStore.claim(IDEMPOTENCY_KEY, OrderIdempotencyStore.fingerprint(request)))
+                                        .thenReturn(new OrderIdempotencyStore.Claim(IDEMPOTENCY_KEY, null, 888, 0));
+
+                        // Act
+                        Integer orderId = orderService.createOrder(request, IDEMPOTENCY_KEY);
+
+                        // Assert
+                        assertThat(orderId).isEqualTo(888);
+                        verifyNoInteractions(accountClient, productClient, orderTransactionalService);
+                }
+
+                @Test
+                @DisplayName("第一次使用的 Idempotency-Key，應建立訂單並在同一個交易中記錄鍵")
+                void createOrder_WithNewKey_ShouldCreateOrderAndCompleteKey() {
+                        // Arrange
+                        String requestHash = OrderIdempotencyStore.fingerprint(request);
+                        OrderIdempotencyStore.Claim claim = new OrderIdempotencyStore.Claim(IDEMPOTENCY_KEY, requestHash,
+                                        null, CLAIM_EXPIRES_AT);
+                        when(orderIdempotencyStore.claim(IDEMPOTENCY_KEY, requestHash)).thenReturn(claim);
+                        when(orderTransactionalService.createOrder(request, claim)).thenReturn(888);
+
+                        // Act
+                        Integer orderId = orderService.createOrder(request, IDEMPOTENCY_KEY);
+
+                        // Assert
+                        assertThat(orderId).isEqualTo(888);
+                        verify(productClient).adjustStock(any(AdjustStockRequest.class));
+                        verify(orderIdempotencyStore, never()).release(claim);
+                }
+
+                @Test
+                @DisplayName("建立訂單失敗時，應交由補償歸還庫存並釋放 Idempotency-Key，讓重送可以重新建立")
+                void createOrder_WithNewKey_WhenCreateFails_ShouldReleaseKey() {
+                        // Arrange
+                        String requestHash = OrderIdempotencyStore.fingerprint(request);
+                        OrderIdempotencyStore.Claim claim = new OrderIdempotencyStore.Claim(IDEMPOTENCY_KEY, requestHash,
+                                        null, CLAIM_EXPIRES_AT);
+                        when(orderIdempotencyStore.claim(IDEMPOTENCY_KEY, requestHash)).thenReturn(claim);
+                        doThrow(new RuntimeException("DB connection failed"))
+                                        .when(orderTransactionalService).createOrder(request, claim);
+
+                        // Act & Assert
+                        assertThatThrownBy(() -> orderService.createOrder(request, IDEMPOTENCY_KEY))
+                                        .isInstanceOf(RuntimeException.class)
+                                        .hasMessageContaining("DB connection failed");
+
+                        verify(stockCompensationOutbox).expedite(anyString(), anyLong());
+                        // 以取得使用權時的憑證釋放，已被接手的鍵不會被刪除
+                        verify(orderIdempotencyStore).release(claim);
                 }
         }
 
@@ -166,10 +315,10 @@ class OrderServiceTest {
                                         .items(List.of(new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 1)))
                                         .build();
 
-                        // 關鍵：不可售商品受 @SQLRestriction 濾除，reserveStock 視為查無而拋出 ResourceNotFoundException
+                        // 關鍵：不可售商品受 @SQLRestriction 濾除，adjustStock 視為查無而拋出 ResourceNotFoundException
                         doThrow(new ResourceNotFoundException("Products not found with IDs: " + SELLABLE_PRODUCT_ID))
                                         .when(productClient)
-                                        .reserveStock(any());
+                                        .adjustStock(any(AdjustStockRequest.class));
 
                         // Act & Assert
                         assertThatThrownBy(() -> orderService.createOrder(request))
@@ -189,17 +338,166 @@ class OrderServiceTest {
                                         .items(List.of(new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 999)))
                                         .build();
 
-                        // 關鍵：模擬 reserveStock 發現庫存不足
+                        // 關鍵：模擬 adjustStock 發現庫存不足
                         doThrow(new ProductStockNotEnoughException("庫存不足"))
                                         .when(productClient)
-                                        .reserveStock(any());
+                                        .adjustStock(any(AdjustStockRequest.class));
                         // Act & Assert
                         assertThatThrownBy(() -> orderService.createOrder(request))
                                         .isInstanceOf(ProductStockNotEnoughException.class)
                                         .hasMessageContaining("庫存不足");
 
-                        // 驗證：既然拋異常了，後面的交易服務絕對不該執行
+                        // 驗證：既然拋異常了，後面的交易服務絕對不該執行；商品端整批回滾，補償直接刪除
                         verifyNoInteractions(orderTransactionalService);
+                        verify(stockCompensationOutbox).remove(anyString(), anyLong());
+                        verify(stockCompensationOutbox, never()).expedite(anyString(), anyLong());
+                }
+        }
+
+        @Nested
+        @DisplayName("批次建立訂單")
+        class BulkCreateOrderTests {
+
+                private final Integer INELIGIBLE_ACCOUNT_ID = 2;
+                private final Integer OTHER_PRODUCT_ID = 2;
+
+                @Test
+                @DisplayName("整批帳戶資格只查詢一次、庫存依商品加總後只預留一次，訂單以一次交易批次寫入")
+                void createOrders_AllValid_ShouldReserveAndPersistOnce() {
+                        // Arrange
+                        Integer otherAccountId = 3;
+                        List<CreateOrderRequest> requests = List.of(
+                                        order(ACTIVE_ACCOUNT_ID, new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 2)),
+                                        order(otherAccountId, new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 3),
+                                                        new CreateOrderDetailRequest(OTHER_PRODUCT_ID, 1)));
+                        when(accountClient.findOrderEligibleAccountIds(Set.of(ACTIVE_ACCOUNT_ID, otherAccountId)))
+                                        .thenReturn(Set.of(ACTIVE_ACCOUNT_ID, otherAccountId));
+                        when(orderTransactionalService.createOrders(requests)).thenReturn(List.of(901, 902));
+
+                        // Act
+                        BulkCreateOrderResponse response = orderService.createOrders(requests);
+
+                        // Assert
+                        assertThat(response.succeeded()).isEqualTo(2);
+                        assertThat(response.failed()).isZero();
+                        assertThat(response.results()).extracting(BulkCreateOrderResult::orderId)
+                                        .containsExactly(901, 902);
+
+                        ArgumentCaptor<AdjustStockRequest> stockCaptor = ArgumentCaptor.forClass(AdjustStockRequest.class);
+                        verify(productClient, times(1)).adjustStock(stockCaptor.capture());
+                        assertThat(stockCaptor.getValue().to()).containsExactlyInAnyOrder(
+                                        item(SELLABLE_PRODUCT_ID, 5), item(OTHER_PRODUCT_ID, 1));
+                        verify(accountClient, never()).assertCanPlaceOrder(any());
+                        verify(orderTransactionalService, never()).createOrder(any(CreateOrderRequest.class));
+                }
+
+                @Test
+                @DisplayName("不合法或帳戶不具資格的訂單只讓該筆失敗，其他訂單照常建立")
+                void createOrders_WithInvalidAndIneligibleOrders_ShouldFailOnlyThoseOrders() {
+                        // Arrange
+                        CreateOrderRequest duplicateItems = order(ACTIVE_ACCOUNT_ID,
+                                        new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 1),
+                                        new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 2));
+                        CreateOrderRequest ineligible = order(INELIGIBLE_ACCOUNT_ID,
+                                        new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 1));
+                        CreateOrderRequest valid = order(ACTIVE_ACCOUNT_ID,
+                                        new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 1));
+                        when(accountClient.findOrderEligibleAccountIds(Set.of(ACTIVE_ACCOUNT_ID, INELIGIBLE_ACCOUNT_ID)))
+                                        .thenReturn(Set.of(ACTIVE_ACCOUNT_ID));
+                        when(orderTransactionalService.createOrders(List.of(valid))).thenReturn(List.of(901));
+
+                        // Act
+                        BulkCreateOrderResponse response = orderService.createOrders(
+                                        List.of(duplicateItems, ineligible, valid));
+
+                        // Assert
+                        assertThat(response.succeeded()).isEqualTo(1);
+                        assertThat(response.failed()).isEqualTo(2);
+                        assertThat(response.results()).extracting(BulkCreateOrderResult::errorCode)
+                                        .containsExactly("SYS_002", "SYS_001", null);
+                        assertThat(response.results().get(2).orderId()).isEqualTo(901);
+                }
+
+                @Test
+                @DisplayName("整批預留庫存被拒時改為逐筆預留，只有庫存不足的訂單失敗")
+                void createOrders_WhenAggregatedReservationRejected_ShouldFallBackToPerOrder() {
+                        // Arrange
+                        CreateOrderRequest first = order(ACTIVE_ACCOUNT_ID, new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 2));
+                        CreateOrderRequest second = order(ACTIVE_ACCOUNT_ID, new CreateOrderDetailRequest(OTHER_PRODUCT_ID, 999));
+                        when(accountClient.findOrderEligibleAccountIds(Set.of(ACTIVE_ACCOUNT_ID)))
+                                        .thenReturn(Set.of(ACTIVE_ACCOUNT_ID));
+                        // 整批被拒 -> 第一筆預留成功 -> 第二筆庫存不足
+                        doThrow(new ProductStockNotEnoughException("庫存不足"))
+                                        .doNothing()
+                                        .doThrow(new ProductStockNotEnoughException("庫存不足"))
+                                        .when(productClient).adjustStock(any(AdjustStockRequest.class));
+                        when(orderTransactionalService.createOrder(first)).thenReturn(901);
+
+                        // Act
+                        BulkCreateOrderResponse response = orderService.createOrders(List.of(first, second));
+
+                        // Assert
+                        assertThat(response.succeeded()).isEqualTo(1);
+                        assertThat(response.results().get(0).orderId()).isEqualTo(901);
+                        assertThat(response.results().get(1).errorCode()).isEqualTo("PRODUCT_003");
+                        verify(productClient, times(3)).adjustStock(any(AdjustStockRequest.class));
+                        verify(orderTransactionalService, never()).createOrders(anyList());
+                        verify(orderTransactionalService, never()).createOrder(second);
+                }
+
+                @Test
+                @DisplayName("整批預留成功但寫入失敗時整批標記失敗，不逐筆重新預留庫存")
+                void createOrders_WhenBatchWriteFails_ShouldFailAllWithoutReReserving() {
+                        // Arrange
+                        CreateOrderRequest first = order(ACTIVE_ACCOUNT_ID, new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 2));
+                        CreateOrderRequest second = order(ACTIVE_ACCOUNT_ID, new CreateOrderDetailRequest(OTHER_PRODUCT_ID, 1));
+                        when(accountClient.findOrderEligibleAccountIds(Set.of(ACTIVE_ACCOUNT_ID)))
+                                        .thenReturn(Set.of(ACTIVE_ACCOUNT_ID));
+                        doThrow(new RuntimeException("DB connection failed"))
+                                        .when(orderTransactionalService).createOrders(anyList());
+
+                        // Act
+                        BulkCreateOrderResponse response = orderService.createOrders(List.of(first, second));
+
+                        // Assert
+                        assertThat(response.succeeded()).isZero();
+                        assertThat(response.failed()).isEqualTo(2);
+                        assertThat(response.results()).extracting(BulkCreateOrderResult::errorCode)
+                                        .containsExactly("SYS_003", "SYS_003");
+                        // 整批的補償仍在 outbox 中，只預留一次，不逐筆重新預留
+                        verify(productClient, times(1)).adjustStock(any(AdjustStockRequest.class));
+                        verify(orderTransactionalService, never()).createOrder(any(CreateOrderRequest.class));
+                        verify(stockCompensationOutbox).expedite(anyString(), anyLong());
+                }
+
+                @Test
+                @DisplayName("超過筆數上限時整批拒絕，不查詢帳戶也不預留庫存")
+                void createOrders_WhenExceedingMaxOrders_ShouldThrowException() {
+                        // Arrange
+                        int maxOrders = new AppProperties().getBulkOrder().getMaxOrders();
+                        List<CreateOrderRequest> requests = IntStream.rangeClosed(0, maxOrders)
+                                        .mapToObj(i -> order(ACTIVE_ACCOUNT_ID,
+                                                        new CreateOrderDetailRequest(SELLABLE_PRODUCT_ID, 1)))
+                                        .toList();
+
+                        // Act & Assert
+                        assertThatThrownBy(() -> orderService.createOrders(requests))
+                                        .isInstanceOf(InvalidRequestException.class);
+                        verifyNoInteractions(accountClient, productClient, orderTransactionalService);
+                }
+
+                private CreateOrderRequest order(Integer accountId, CreateOrderDetailRequest... items) {
+                        return CreateOrderRequest.builder()
+                                        .accountId(accountId)
+                                        .items(List.of(items))
+                                        .build();
+                }
+
+                private OrderItemRequest item(Integer productId, int quantity) {
+                        return OrderItemRequest.builder()
+                                        .productId(productId)
+                                        .quantity(quantity)
+                                        .build();
                 }
         }
 
@@ -230,7 +528,7 @@ class OrderServiceTest {
                 }
 
                 @Test
-                @DisplayName("更新訂單時交易服務失敗，應觸發補償反轉庫存並拋出原始異常")
+                @DisplayName("更新訂單時交易服務失敗，應保留 outbox 中的補償由背景反轉庫存，並拋出原始異常")
                 void updateOrder_WhenTransactionFails_ShouldCompensateAndThrow() {
                         // Arrange
                         OrderInfo existingOrder = createTestOrderInfo(EXISTING_ORDER_ID, ACTIVE_ACCOUNT_ID,
@@ -251,9 +549,16 @@ class OrderServiceTest {
                                         .isInstanceOf(RuntimeException.class)
                                         .hasMessageContaining("DB update failed");
 
-                        // Verify: adjustStock 被呼叫兩次（一次調整庫存，一次補償調整回原狀）
-                        verify(productClient, org.mockito.Mockito.times(2))
-                                        .adjustStock(any(AdjustStockRequest.class));
+                        // Verify: adjustStock 只呼叫一次，補償調整回原狀（from 與 to 互換）留在 outbox 並提前套用
+                        verify(productClient, times(1)).adjustStock(any(AdjustStockRequest.class));
+                        ArgumentCaptor<StockCompensationOutbox.Entry> entryCaptor = ArgumentCaptor
+                                        .forClass(StockCompensationOutbox.Entry.class);
+                        verify(stockCompensationOutbox).add(entryCaptor.capture(), anyLong());
+                        assertThat(entryCaptor.getValue().to()).isEmpty();
+                        assertThat(entryCaptor.getValue().from())
+                                        .extracting(item -> item.quantity())
+                                        .containsExactly(5);
+                        verify(stockCompensationOutbox).expedite(eq(entryCaptor.getValue().operationId()), anyLong());
                 }
         }
 
@@ -330,7 +635,10 @@ class OrderServiceTest {
 
                         // Assert
                         verify(orderTransactionalService).deleteOrder(order, order.getVersion());
-                        verify(productClient).releaseStock(any());
+                        ArgumentCaptor<AdjustStockRequest> stockCaptor = ArgumentCaptor.forClass(AdjustStockRequest.class);
+                        verify(productClient).adjustStock(stockCaptor.capture());
+                        assertThat(stockCaptor.getValue().to()).isEmpty();
+                        verify(stockCompensationOutbox).remove(eq(stockCaptor.getValue().operationId()), anyLong());
                 }
         }
 
@@ -380,7 +688,7 @@ class OrderServiceTest {
                 }
 
                 @Test
-                @DisplayName("刪除時若發生樂觀鎖衝突，應觸發補償重新預留庫存並拋出原始異常")
+                @DisplayName("刪除時若發生樂觀鎖衝突，應保留 outbox 中的補償由背景重新預留庫存，並拋出原始異常")
                 void deleteOrder_WhenOptimisticLockingConflict_ShouldCompensateAndThrow() {
                         // Arrange
                         OrderInfo order = createTestOrderInfo(EXISTING_ORDER_ID, ACTIVE_ACCOUNT_ID, STATUS_CREATED);
@@ -396,9 +704,95 @@ class OrderServiceTest {
                                         .isInstanceOf(org.springframework.orm.ObjectOptimisticLockingFailureException.class);
 
                         verify(orderTransactionalService).deleteOrder(order, 1);
-                        // Verify: 先釋放庫存，補償時再重新預留庫存
-                        verify(productClient).releaseStock(any());
-                        verify(productClient).reserveStock(any());
+                        // Verify: 只釋放一次庫存，重新預留交由 outbox 的補償
+                        verify(productClient, times(1)).adjustStock(any(AdjustStockRequest.class));
+                        verify(stockCompensationOutbox).expedite(anyString(), anyLong());
+                }
+        }
+
+        @Nested
+        @DisplayName("查詢訂單")
+        class GetOrderTests {
+
+                @Test
+                @DisplayName("查詢訂單明細時，明細與總金額應共用同一次商品查詢（ProductClient 一次、每個商品只查一次快取）")
+                void getOrderDetail_ShouldFetchProductsOnce() {
+                        // Arrange
+                        Integer secondProductId = 2;
+                        OrderInfo order = createTestOrderInfo(EXISTING_ORDER_ID, ACTIVE_ACCOUNT_ID, STATUS_CREATED);
+                        order.getOrderDetails().add(OrderDetail.builder()
+                                        .orderInfo(order).productId(SELLABLE_PRODUCT_ID).quantity(2).build());
+                        order.getOrderDetails().add(OrderDetail.builder()
+                                        .orderInfo(order).productId(secondProductId).quantity(1).build());
+                        when(orderInfoRepository.findById(EXISTING_ORDER_ID)).thenReturn(Optional.of(order));
+                        when(productClient.getProductDetails(Set.of(SELLABLE_PRODUCT_ID, secondProductId)))
+                                        .thenReturn(List.of(
+                                                        GetProductDetailResponse.builder().id(SELLABLE_PRODUCT_ID)
+                                                                        .name("商品A").price(new BigDecimal("250.00")).build(),
+                                                        GetProductDetailResponse.builder().id(secondProductId)
+                                                                        .name("商品B").price(new BigDecimal("100.00")).build()));
+
+                        // Act
+                        GetOrderDetailResponse response = orderService.getOrderDetailByOrderId(EXISTING_ORDER_ID);
+
+                        // Assert
+                        assertThat(response.totalAmount()).isEqualByComparingTo("600.00");
+                        assertThat(response.items()).hasSize(2);
+                        verify(productClient, times(1)).getProductDetails(any());
+                        // 快取查詢次數 = 商品數；若總金額再查一次會變成兩倍
+                        double cacheLookups = meterRegistry.get("cache.gets").functionCounters().stream()
+                                        .mapToDouble(counter -> counter.count())
+                                        .sum();
+                        assertThat(cacheLookups).isEqualTo(2);
+                }
+
+                @Test
+                @DisplayName("重複查詢訂單明細時，商品資訊應由商品目錄快取提供，只呼叫 ProductClient 一次")
+                void getOrderDetail_WhenQueriedTwice_ShouldHitProductCatalogCache() {
+                        // Arrange
+                        OrderInfo order = createTestOrderInfo(EXISTING_ORDER_ID, ACTIVE_ACCOUNT_ID, STATUS_CREATED);
+                        order.getOrderDetails().add(OrderDetail.builder()
+                                        .orderInfo(order)
+                                        .productId(SELLABLE_PRODUCT_ID)
+                                        .quantity(2)
+                                        .build());
+                        when(orderInfoRepository.findById(EXISTING_ORDER_ID)).thenReturn(Optional.of(order));
+                        when(productClient.getProductDetails(Set.of(SELLABLE_PRODUCT_ID))).thenReturn(List.of(
+                                        GetProductDetailResponse.builder()
+                                                        .id(SELLABLE_PRODUCT_ID)
+                                                        .name("商品A")
+                                                        .price(new BigDecimal("250.00"))
+                                                        .build()));
+
+                        // Act
+                        orderService.getOrderDetailByOrderId(EXISTING_ORDER_ID);
+                        GetOrderDetailResponse response = orderService.getOrderDetailByOrderId(EXISTING_ORDER_ID);
+
+                        // Assert
+                        assertThat(response.totalAmount()).isEqualByComparingTo("500.00");
+                        assertThat(response.items()).singleElement()
+                                        .satisfies(item -> assertThat(item.productName()).isEqualTo("商品A"));
+                        verify(productClient, times(1)).getProductDetails(Set.of(SELLABLE_PRODUCT_ID));
+                }
+        }
+
+        @Nested
+        @DisplayName("帳戶訂單存在性")
+        class AccountInOrderTests {
+
+                @Test
+                @DisplayName("檢查帳戶是否有訂單時，應使用存在性查詢而不載入訂單")
+                void isActiveAccountInOrder_ShouldUseExistenceQuery() {
+                        // Arrange
+                        when(orderInfoRepository.existsByAccountId(ACTIVE_ACCOUNT_ID)).thenReturn(true);
+
+                        // Act
+                        boolean exists = orderService.isActiveAccountInOrder(ACTIVE_ACCOUNT_ID);
+
+                        // Assert
+                        assertThat(exists).isTrue();
+                        verify(orderInfoRepository).existsByAccountId(ACTIVE_ACCOUNT_ID);
+                        verifyNoMoreInteractions(orderInfoRepository);
                 }
         }
 
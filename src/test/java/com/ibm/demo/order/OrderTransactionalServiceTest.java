@@ -17,6 +17,8 @@ import com.ibm.demo.order.Entity.OrderInfo;
 import com.ibm.demo.order.Repository.OrderDetailRepository;
 import com.ibm.demo.order.Repository.OrderInfoRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @Tag("UnitTest")
 @ExtendWith(MockitoExtension.class)
 public class OrderTransactionalServiceTest {
@@ -27,11 +29,15 @@ public class OrderTransactionalServiceTest {
     @Mock
     private OrderDetailRepository orderDetailRepository;
 
+    @Mock
+    private OrderIdempotencyStore orderIdempotencyStore;
+
     private OrderTransactionalService orderTransactionalService;
 
     @BeforeEach
     void setUp() {
-        orderTransactionalService = new OrderTransactionalService(orderInfoRepository, orderDetailRepository);
+        orderTransactionalService = new OrderTransactionalService(orderInfoRepository, orderDetailRepository,
+                new OrderWriteMetrics(new SimpleMeterRegistry()), orderIdempotencyStore);
     }
 
     @Test
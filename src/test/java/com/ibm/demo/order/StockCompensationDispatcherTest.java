@@ -0,0 +1,151 @@
+package com.ibm.demo.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.product.ProductClient;
+import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
+import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("UnitTest")
+@ExtendWith(MockitoExtension.class)
+class StockCompensationDispatcherTest {
+
+    private static final String OPERATION_ID = "5d0f3c1e-stock-operation";
+    private static final Set<OrderItemRequest> ITEMS = Set.of(OrderItemRequest.builder()
+            .productId(1)
+            .quantity(2)
+            .build());
+
+    @Mock
+    private ProductClient productClient;
+
+    @Mock
+    private StockCompensationOutbox outbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StockCompensationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getStockSaga().setMaxAttempts(3);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new StockCompensationDispatcher(productClient, outbox, transactionManager, appProperties,
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("套用成功的補償應以補償自己的操作 ID 送出，並以取走時的 lease 期限從 outbox 刪除")
+    void dispatch_WhenApplied_ShouldRemoveEntry() {
+        // Arrange
+        when(outbox.claimDue(anyInt(), anyLong(), anyLong())).thenReturn(List.of(entry(0)));
+        when(outbox.remove(eq(OPERATION_ID), anyLong())).thenReturn(1);
+
+        // Act
+        int applied = dispatcher.dispatch();
+
+        // Assert
+        assertThat(applied).isEqualTo(1);
+        ArgumentCaptor<AdjustStockRequest> captor = ArgumentCaptor.forClass(AdjustStockRequest.class);
+        verify(productClient).adjustStock(captor.capture());
+        assertThat(captor.getValue().operationId()).isEqualTo(OPERATION_ID + ":compensation");
+        assertThat(captor.getValue().compensates()).isEqualTo(OPERATION_ID);
+        assertThat(captor.getValue().from()).isEqualTo(ITEMS);
+        assertThat(captor.getValue().to()).isEmpty();
+        ArgumentCaptor<Long> leaseCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(outbox).claimDue(anyInt(), anyLong(), leaseCaptor.capture());
+        verify(outbox).remove(OPERATION_ID, leaseCaptor.getValue());
+        assertThat(meterRegistry.get("stock.compensation.applied").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("lease 已被其他節點取走的補償不應套用，也不應改寫其重試狀態")
+    void dispatch_WhenLeaseLost_ShouldSkipEntry() {
+        // Arrange
+        when(outbox.claimDue(anyInt(), anyLong(), anyLong())).thenReturn(List.of(entry(0)));
+        when(outbox.remove(eq(OPERATION_ID), anyLong())).thenReturn(0);
+
+        // Act
+        int applied = dispatcher.dispatch();
+
+        // Assert
+        assertThat(applied).isZero();
+        verify(productClient, never()).adjustStock(any(AdjustStockRequest.class));
+        verify(outbox, never()).reschedule(anyString(), anyLong(), anyInt(), anyLong(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("套用失敗的補償應保留並延後重試")
+    void dispatch_WhenFailed_ShouldReschedule() {
+        // Arrange
+        when(outbox.claimDue(anyInt(), anyLong(), anyLong())).thenReturn(List.of(entry(0)));
+        when(outbox.remove(eq(OPERATION_ID), anyLong())).thenReturn(1);
+        doThrow(new RuntimeException("product service unavailable"))
+                .when(productClient).adjustStock(any(AdjustStockRequest.class));
+
+        // Act
+        int applied = dispatcher.dispatch();
+
+        // Assert
+        assertThat(applied).isZero();
+        // 刪除 outbox 與套用在同一個交易中，套用失敗時交易回滾，補償保留
+        verify(transactionManager).rollback(any());
+        verify(outbox).reschedule(eq(OPERATION_ID), anyLong(), eq(1), anyLong(), eq("product service unavailable"),
+                eq(false));
+        assertThat(meterRegistry.get("stock.compensation.retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("失敗次數達 max-attempts 的補償應標記為 FAILED，不再重試")
+    void dispatch_WhenAttemptsExhausted_ShouldMarkFailed() {
+        // Arrange
+        when(outbox.claimDue(anyInt(), anyLong(), anyLong())).thenReturn(List.of(entry(2)));
+        when(outbox.remove(eq(OPERATION_ID), anyLong())).thenReturn(1);
+        doThrow(new RuntimeException("product service unavailable"))
+                .when(productClient).adjustStock(any(AdjustStockRequest.class));
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        verify(outbox).reschedule(eq(OPERATION_ID), anyLong(), eq(3), anyLong(), any(), eq(true));
+        verify(outbox, never()).reschedule(eq(OPERATION_ID), anyLong(), anyInt(), anyLong(), any(), eq(false));
+        assertThat(meterRegistry.get("stock.compensation.failed").counter().count()).isEqualTo(1);
+    }
+
+    private static StockCompensationOutbox.Entry entry(int attempts) {
+        // 建立訂單的補償：原操作預留 ITEMS，補償將其歸還
+        return new StockCompensationOutbox.Entry(OPERATION_ID, ITEMS, Set.of(), "建立訂單 帳戶ID: 1", attempts);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ibm.demo.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.ibm.demo.exception.BusinessLogicCheck.ProductStockNotEnoughException;
+import com.ibm.demo.product.DTO.GetProductDetailResponse;
+import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+
+@Tag("UnitTest")
+@ExtendWith(MockitoExtension.class)
+class LocalProductClientTest {
+
+    @Mock
+    private ObjectProvider<ProductService> productServiceProvider;
+
+    @Mock
+    private ProductService productService;
+
+    private LocalProductClient localProductClient;
+
+    @BeforeEach
+    void setUp() {
+        when(productServiceProvider.getObject()).thenReturn(productService);
+        localProductClient = new LocalProductClient(productServiceProvider);
+    }
+
+    @Test
+    @DisplayName("getProductDetails 應直接呼叫 ProductService，並將 Map 轉為與 HTTP 回應相同的 List")
+    void getProductDetails_ShouldDelegateAndReturnList() {
+        // Arrange
+        GetProductDetailResponse product = GetProductDetailResponse.builder()
+                .id(1)
+                .name("商品A")
+                .price(new BigDecimal("250.00"))
+                .build();
+        when(productService.getProductDetails(Set.of(1))).thenReturn(Map.of(1, product));
+
+        // Act
+        List<GetProductDetailResponse> result = localProductClient.getProductDetails(Set.of(1));
+
+        // Assert
+        assertThat(result).containsExactly(product);
+    }
+
+    @Test
+    @DisplayName("reserveStock 庫存不足時，應直接傳遞領域例外而非經 HTTP 轉譯")
+    void reserveStock_WhenStockNotEnough_ShouldPropagateDomainException() {
+        // Arrange
+        Set<OrderItemRequest> items = Set.of(new OrderItemRequest(1, 999));
+        doThrow(new ProductStockNotEnoughException("庫存不足")).when(productService).reserveStock(items);
+
+        // Act & Assert
+        assertThatThrownBy(() -> localProductClient.reserveStock(items))
+                .isInstanceOf(ProductStockNotEnoughException.class);
+        verify(productService).reserveStock(items);
+    }
+}
@@ -0,0 +1,126 @@
+package com.ibm.demo.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.product.DTO.GetProductDetailResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Tag("UnitTest")
+class ProductCatalogCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductCatalogCache productCatalogCache;
+
+    // 記錄每次 loader 被呼叫時的未命中 ID
+    private List<Set<Integer>> loadedIds;
+
+    private Function<Set<Integer>, Map<Integer, GetProductDetailResponse>> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCatalogCache = new ProductCatalogCache(new AppProperties(), meterRegistry);
+        loadedIds = new ArrayList<>();
+        // 模擬商品服務：ID 999 不存在，其餘皆回傳
+        loader = ids -> {
+            loadedIds.add(ids);
+            Map<Integer, GetProductDetailResponse> result = new HashMap<>();
+            ids.stream().filter(id -> id != 999).forEach(id -> result.put(id, product(id, 1)));
+            return result;
+        };
+    }
+
+    @Test
+    @DisplayName("只有未命中的 ID 會交給 loader 批次查詢，並發佈命中 / 未命中指標")
+    void getAll_ShouldLoadOnlyMissingIdsAndRecordMetrics() {
+        // Act
+        productCatalogCache.getAll(Set.of(1, 2), loader);
+        Map<Integer, GetProductDetailResponse> result = productCatalogCache.getAll(Set.of(1, 2, 3), loader);
+
+        // Assert
+        assertThat(result).containsOnlyKeys(1, 2, 3);
+        assertThat(loadedIds).containsExactly(Set.of(1, 2), Set.of(3));
+        assertThat(cacheGets("hit")).isEqualTo(2);
+        assertThat(cacheGets("miss")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("loader 未回傳的 ID（不存在或不可銷售）不應被快取")
+    void getAll_WhenProductMissing_ShouldNotCacheAbsentId() {
+        // Act
+        Map<Integer, GetProductDetailResponse> result = productCatalogCache.getAll(Set.of(999), loader);
+        productCatalogCache.getAll(Set.of(999), loader);
+
+        // Assert
+        assertThat(result).isEmpty();
+        assertThat(loadedIds).containsExactly(Set.of(999), Set.of(999));
+    }
+
+    @Test
+    @DisplayName("交易外呼叫 invalidate 應立即失效，下次讀取重新載入")
+    void invalidate_OutsideTransaction_ShouldEvictImmediately() {
+        // Arrange
+        productCatalogCache.getAll(Set.of(1), loader);
+
+        // Act
+        productCatalogCache.invalidate(1, 1);
+        productCatalogCache.getAll(Set.of(1), loader);
+
+        // Assert
+        assertThat(loadedIds).containsExactly(Set.of(1), Set.of(1));
+    }
+
+    @Test
+    @DisplayName("commit 前讀到舊版本的載入在失效之後才完成時，舊版本不應放入快取")
+    void getAll_WhenLoadCompletesAfterInvalidate_ShouldNotCacheStaleVersion() {
+        // Arrange：載入讀到版本 0 的資料，回傳前版本 1 已提交並失效
+        Function<Set<Integer>, Map<Integer, GetProductDetailResponse>> staleLoader = ids -> {
+            loadedIds.add(ids);
+            productCatalogCache.invalidate(1, 1);
+            return Map.of(1, product(1, 0));
+        };
+
+        // Act
+        Map<Integer, GetProductDetailResponse> stale = productCatalogCache.getAll(Set.of(1), staleLoader);
+        Map<Integer, GetProductDetailResponse> reloaded = productCatalogCache.getAll(Set.of(1), loader);
+        productCatalogCache.getAll(Set.of(1), loader);
+
+        // Assert：舊版本只回傳給當次呼叫；下一次重新載入新版本並快取
+        assertThat(stale.get(1).version()).isZero();
+        assertThat(reloaded.get(1).version()).isEqualTo(1);
+        assertThat(loadedIds).containsExactly(Set.of(1), Set.of(1));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", ProductCatalogCache.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private static GetProductDetailResponse product(Integer id, int version) {
+        return GetProductDetailResponse.builder()
+                .id(id)
+                .name("商品" + id)
+                .price(new BigDecimal("100"))
+                .version(version)
+                .build();
+    }
+}
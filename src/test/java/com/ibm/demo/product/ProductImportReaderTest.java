@@ -0,0 +1,107 @@
+package com.ibm.demo.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException;
+
+import tools.jackson.databind.json.JsonMapper;
+
+@Tag("UnitTest")
+class ProductImportReaderTest {
+
+    private ProductImportReader reader(String content, ProductImportFormat format) {
+        return new ProductImportReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format,
+                JsonMapper.builder().build());
+    }
+
+    @Test
+    @DisplayName("CSV 依標題列對應欄位，支援 BOM、空行、引號內的逗號與 \"\" 跳脫")
+    void next_Csv_ShouldMapColumnsByHeader() throws IOException {
+        // Arrange
+        ProductImportReader reader = reader("\uFEFF" + """
+                available,name,price
+
+                5,"商品, A",100.5
+                1,"說 ""好"" 商品",20
+                """, ProductImportFormat.CSV);
+
+        // Act
+        ProductImportReader.Row first = reader.next();
+        ProductImportReader.Row second = reader.next();
+
+        // Assert
+        assertThat(first.line()).isEqualTo(3);
+        assertThat(first.request().name()).isEqualTo("商品, A");
+        assertThat(first.request().price()).isEqualByComparingTo(new BigDecimal("100.5"));
+        assertThat(first.request().available()).isEqualTo(5);
+        assertThat(second.request().name()).isEqualTo("說 \"好\" 商品");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    @DisplayName("CSV 數字欄位格式錯誤時回傳帶錯誤的列，之後的列照常讀取")
+    void next_CsvWithMalformedNumber_ShouldReturnErrorRow() throws IOException {
+        // Arrange
+        ProductImportReader reader = reader("""
+                name,price,available
+                商品A,abc,1
+                商品B,10,2
+                """, ProductImportFormat.CSV);
+
+        // Act
+        ProductImportReader.Row malformed = reader.next();
+        ProductImportReader.Row valid = reader.next();
+
+        // Assert
+        assertThat(malformed.request()).isNull();
+        assertThat(malformed.line()).isEqualTo(2);
+        assertThat(malformed.error()).contains("price");
+        assertThat(valid.request().name()).isEqualTo("商品B");
+    }
+
+    @Test
+    @DisplayName("CSV 標題列缺少必要欄位時拋出 InvalidRequestException")
+    void next_CsvWithoutRequiredColumn_ShouldThrow() {
+        // Arrange
+        ProductImportReader reader = reader("""
+                name,price
+                商品A,10
+                """, ProductImportFormat.CSV);
+
+        // Act & Assert
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    @DisplayName("NDJSON 每行一個物件，無法解析的行回傳帶錯誤的列")
+    void next_Ndjson_ShouldParseEachLine() throws IOException {
+        // Arrange
+        ProductImportReader reader = reader("""
+                {"name":"商品A","price":250.00,"available":100}
+                {"name":"商品B",
+                {"name":"商品C","price":1,"available":0}
+                """, ProductImportFormat.NDJSON);
+
+        // Act
+        ProductImportReader.Row first = reader.next();
+        ProductImportReader.Row malformed = reader.next();
+        ProductImportReader.Row third = reader.next();
+
+        // Assert
+        assertThat(first.request().name()).isEqualTo("商品A");
+        assertThat(malformed.line()).isEqualTo(2);
+        assertThat(malformed.error()).startsWith("Malformed JSON");
+        assertThat(third.request().name()).isEqualTo("商品C");
+        assertThat(reader.next()).isNull();
+    }
+}
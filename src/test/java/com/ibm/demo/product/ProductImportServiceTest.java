@@ -0,0 +1,150 @@
+package com.ibm.demo.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ibm.demo.config.properties.AppProperties;
+import com.ibm.demo.product.DTO.ProductImportRowError;
+import com.ibm.demo.product.DTO.ProductImportStatusResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import tools.jackson.databind.json.JsonMapper;
+
+@Tag("UnitTest")
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final int MAX_ERROR_SAMPLES = 2;
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductImportTracker productImportTracker;
+
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void setUp() {
+        // 交易管理員為 mock（TransactionTemplate 照常執行 callback），名稱查詢與寫入由 ProductRepository mock 驗證
+        AppProperties appProperties = new AppProperties();
+        appProperties.getProductImport().setChunkSize(CHUNK_SIZE);
+        appProperties.getProductImport().setMaxErrorSamples(MAX_ERROR_SAMPLES);
+        meterRegistry = new SimpleMeterRegistry();
+        productImportTracker = new ProductImportTracker(appProperties, meterRegistry);
+        productImportService = new ProductImportService(productRepository, productImportTracker,
+                JsonMapper.builder().build(), Validation.buildDefaultValidatorFactory().getValidator(),
+                entityManager, transactionManager, appProperties);
+    }
+
+    @Test
+    @DisplayName("每個 chunk 只做一次名稱查詢與一次批次寫入，寫入後清除 EntityManager")
+    void importProducts_ShouldCheckNamesAndInsertPerChunk() {
+        // Arrange：5 列、chunk 大小 2 -> 3 個 chunk
+        String content = IntStream.range(0, 5)
+                .mapToObj(i -> "{\"name\":\"商品" + i + "\",\"price\":10,\"available\":1}")
+                .collect(Collectors.joining("\n"));
+
+        // Act
+        ProductImportStatusResponse response = productImportService.importProducts(body(content),
+                ProductImportFormat.NDJSON);
+
+        // Assert
+        assertThat(response.status()).isEqualTo("COMPLETED");
+        assertThat(response.rowsRead()).isEqualTo(5);
+        assertThat(response.imported()).isEqualTo(5);
+        assertThat(response.rejected()).isZero();
+        verify(productRepository, times(3)).findExistingNames(anyCollection());
+        verify(productRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).clear();
+        assertThat(meterRegistry.get("product.import.rows").tag("result", "imported").counter().count())
+                .isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("驗證失敗、名稱已存在或同一 chunk 內重複的列計入被拒，其他列照常匯入")
+    @SuppressWarnings("unchecked")
+    void importProducts_ShouldRejectInvalidAndDuplicateRows() {
+        // Arrange
+        String content = """
+                name,price,available
+                新商品,10,1
+                新商品,20,1
+                已存在商品,10,1
+                負價商品,-1,1
+                """;
+        when(productRepository.findExistingNames(anyCollection())).thenReturn(List.of("已存在商品"));
+
+        // Act
+        ProductImportStatusResponse response = productImportService.importProducts(body(content),
+                ProductImportFormat.CSV);
+
+        // Assert
+        assertThat(response.imported()).isEqualTo(1);
+        assertThat(response.rejected()).isEqualTo(3);
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Product::getName).containsExactly("新商品");
+        // 明細最多保留 MAX_ERROR_SAMPLES 筆，計數不受限
+        assertThat(response.errors()).hasSize(MAX_ERROR_SAMPLES)
+                .extracting(ProductImportRowError::line)
+                .containsExactly(3L, 5L);
+    }
+
+    @Test
+    @DisplayName("寫入失敗時中止匯入並拋出例外，進度標記為 FAILED，已寫入的 chunk 照常計入")
+    void importProducts_WhenChunkFails_ShouldMarkFailed() {
+        // Arrange
+        String content = IntStream.range(0, 4)
+                .mapToObj(i -> "{\"name\":\"商品" + i + "\",\"price\":10,\"available\":1}")
+                .collect(Collectors.joining("\n"));
+        when(productRepository.saveAll(anyList()))
+                .thenReturn(List.of())
+                .thenThrow(new DataAccessResourceFailureException("DB connection failed"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> productImportService.importProducts(body(content), ProductImportFormat.NDJSON))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(productImportTracker.recent()).singleElement().satisfies(status -> {
+            assertThat(status.status()).isEqualTo("FAILED");
+            assertThat(status.imported()).isEqualTo(CHUNK_SIZE);
+            assertThat(status.failureMessage()).contains("DB connection failed");
+        });
+        verify(entityManager, times(1)).clear();
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
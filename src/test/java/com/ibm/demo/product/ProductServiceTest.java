@@ -2,7 +2,10 @@ package com.ibm.demo.product;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -11,8 +14,11 @@ import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -25,15 +31,24 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import com.ibm.demo.config.properties.AppProperties;
 import com.ibm.demo.enums.ProductStatus;
+import com.ibm.demo.exception.BusinessLogicCheck.InvalidRequestException;
 import com.ibm.demo.exception.BusinessLogicCheck.ProductAlreadyExistException;
 import com.ibm.demo.exception.BusinessLogicCheck.ProductStockNotEnoughException;
 import com.ibm.demo.exception.BusinessLogicCheck.ResourceNotFoundException;
 import com.ibm.demo.product.DTO.CreateProductRequest;
+import com.ibm.demo.product.DTO.GetProductListResponse;
 import com.ibm.demo.product.DTO.UpdateProductRequest;
 import com.ibm.demo.product.DTO.internal.AdjustStockRequest;
 import com.ibm.demo.product.DTO.internal.OrderItemRequest;
+import com.ibm.demo.util.CountEstimateCache;
+import com.ibm.demo.util.CursorPageRequest;
+import com.ibm.demo.util.CursorPageResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @Tag("UnitTest")
 @ExtendWith(MockitoExtension.class)
@@ -42,9 +57,14 @@ class ProductServiceTest {
         @Mock
         private ProductRepository productRepository;
 
+        @Mock
+        private ProductCatalogCache productCatalogCache;
+
         // 建議點：明確建立 SUT，讓依賴關係顯性且易於理解
         private ProductService productService;
 
+        private AppProperties appProperties;
+
         // 測試資料常數
         private final Integer ACTIVE_PRODUCT_ID = 1;
         private final BigDecimal DEFAULT_PRICE = new BigDecimal("10.00");
@@ -55,42 +75,52 @@ class ProductServiceTest {
         @BeforeEach
         void setUp() {
                 // 手動建立物件，確保測試不受 Mockito 自動注入行為的靜默錯誤影響
-                productService = new ProductService(productRepository);
+                appProperties = new AppProperties();
+                productService = new ProductService(productRepository, appProperties, productCatalogCache,
+                                new CountEstimateCache(appProperties, new SimpleMeterRegistry()));
         }
 
         @Nested
         @DisplayName("庫存命令 (reserve / release / adjust)")
         class StockCommandTests {
 
+                private final Integer SECOND_PRODUCT_ID = 2;
+
                 @Test
-                @DisplayName("reserveStock 應對每項商品預留對應數量的庫存")
-                void reserveStock_ShouldReserveEachItem() {
+                @DisplayName("reserveStock 應以單一 batch 預留所有商品，且差值依商品 ID 遞增排序")
+                void reserveStock_ShouldApplyAllDeltasInOneBatchOrderedById() {
                         // Arrange
-                        Set<OrderItemRequest> items = Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 2));
-                        when(productRepository.findAllById(Set.of(ACTIVE_PRODUCT_ID)))
-                                        .thenReturn(List.of(productWithId(ACTIVE_PRODUCT_ID)));
-                        when(productRepository.reserveProduct(ACTIVE_PRODUCT_ID, 2)).thenReturn(1);
+                        Set<OrderItemRequest> items = Set.of(
+                                        new OrderItemRequest(SECOND_PRODUCT_ID, 3),
+                                        new OrderItemRequest(ACTIVE_PRODUCT_ID, 2));
+                        when(productRepository.applyStockDeltas(any())).thenReturn(Set.of());
 
                         // Act
                         productService.reserveStock(items);
 
                         // Assert
-                        verify(productRepository).reserveProduct(ACTIVE_PRODUCT_ID, 2);
-                        verify(productRepository, never()).releaseProduct(any(), any());
+                        ArgumentCaptor<SortedMap<Integer, Integer>> deltasCaptor = ArgumentCaptor.forClass(SortedMap.class);
+                        verify(productRepository, times(1)).applyStockDeltas(deltasCaptor.capture());
+                        assertThat(deltasCaptor.getValue())
+                                        .containsExactly(entry(ACTIVE_PRODUCT_ID, 2), entry(SECOND_PRODUCT_ID, 3));
+                        verify(productRepository, never()).findAllById(any());
                 }
 
                 @Test
-                @DisplayName("reserveStock 庫存不足時應拋出 ProductStockNotEnoughException")
-                void reserveStock_WhenStockNotEnough_ShouldThrow() {
+                @DisplayName("reserveStock 庫存不足時應拋出 ProductStockNotEnoughException，並列出不足的商品 ID")
+                void reserveStock_WhenStockNotEnough_ShouldThrowWithProductIds() {
                         // Arrange
-                        Set<OrderItemRequest> items = Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 999));
+                        Set<OrderItemRequest> items = Set.of(
+                                        new OrderItemRequest(ACTIVE_PRODUCT_ID, 999),
+                                        new OrderItemRequest(SECOND_PRODUCT_ID, 1));
+                        when(productRepository.applyStockDeltas(any())).thenReturn(Set.of(ACTIVE_PRODUCT_ID));
                         when(productRepository.findAllById(Set.of(ACTIVE_PRODUCT_ID)))
                                         .thenReturn(List.of(productWithId(ACTIVE_PRODUCT_ID)));
-                        when(productRepository.reserveProduct(ACTIVE_PRODUCT_ID, 999)).thenReturn(0);
 
                         // Act & Assert
                         assertThatThrownBy(() -> productService.reserveStock(items))
-                                        .isInstanceOf(ProductStockNotEnoughException.class);
+                                        .isInstanceOf(ProductStockNotEnoughException.class)
+                                        .hasMessageContaining("商品 ID " + ACTIVE_PRODUCT_ID + " 庫存不足");
                 }
 
                 @Test
@@ -98,27 +128,42 @@ class ProductServiceTest {
                 void reserveStock_WhenProductMissing_ShouldThrow() {
                         // Arrange
                         Set<OrderItemRequest> items = Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 1));
+                        when(productRepository.applyStockDeltas(any())).thenReturn(Set.of(ACTIVE_PRODUCT_ID));
                         when(productRepository.findAllById(Set.of(ACTIVE_PRODUCT_ID)))
                                         .thenReturn(List.of());
 
                         // Act & Assert
                         assertThatThrownBy(() -> productService.reserveStock(items))
-                                        .isInstanceOf(ResourceNotFoundException.class);
+                                        .isInstanceOf(ResourceNotFoundException.class)
+                                        .hasMessageContaining(String.valueOf(ACTIVE_PRODUCT_ID));
                 }
 
                 @Test
-                @DisplayName("releaseStock 應對每項商品釋放對應數量的庫存")
+                @DisplayName("releaseStock 應以負差值釋放每項商品的庫存")
                 void releaseStock_ShouldReleaseEachItem() {
                         // Arrange
                         Set<OrderItemRequest> items = Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 2));
-                        when(productRepository.releaseProduct(ACTIVE_PRODUCT_ID, 2)).thenReturn(1);
+                        when(productRepository.applyStockDeltas(any())).thenReturn(Set.of());
 
                         // Act
                         productService.releaseStock(items);
 
                         // Assert
-                        verify(productRepository).releaseProduct(ACTIVE_PRODUCT_ID, 2);
-                        verify(productRepository, never()).reserveProduct(any(), any());
+                        verify(productRepository).applyStockDeltas(new TreeMap<>(Map.of(ACTIVE_PRODUCT_ID, -2)));
+                }
+
+                @Test
+                @DisplayName("releaseStock 預留量不足時應拋出 ProductStockNotEnoughException")
+                void releaseStock_WhenReservedNotEnough_ShouldThrow() {
+                        // Arrange
+                        Set<OrderItemRequest> items = Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 2));
+                        when(productRepository.applyStockDeltas(any())).thenReturn(Set.of(ACTIVE_PRODUCT_ID));
+
+                        // Act & Assert
+                        assertThatThrownBy(() -> productService.releaseStock(items))
+                                        .isInstanceOf(ProductStockNotEnoughException.class)
+                                        .hasMessageContaining("無法釋放");
+                        verify(productRepository, never()).findAllById(any());
                 }
 
                 @Test
@@ -129,16 +174,13 @@ class ProductServiceTest {
                                         .from(Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 2)))
                                         .to(Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 5)))
                                         .build();
-                        when(productRepository.findAllById(Set.of(ACTIVE_PRODUCT_ID)))
-                                        .thenReturn(List.of(productWithId(ACTIVE_PRODUCT_ID)));
-                        when(productRepository.reserveProduct(ACTIVE_PRODUCT_ID, 3)).thenReturn(1);
+                        when(productRepository.applyStockDeltas(any())).thenReturn(Set.of());
 
                         // Act
                         productService.adjustStock(request);
 
                         // Assert
-                        verify(productRepository).reserveProduct(ACTIVE_PRODUCT_ID, 3);
-                        verify(productRepository, never()).releaseProduct(any(), any());
+                        verify(productRepository).applyStockDeltas(new TreeMap<>(Map.of(ACTIVE_PRODUCT_ID, 3)));
                 }
 
                 @Test
@@ -149,16 +191,87 @@ class ProductServiceTest {
                                         .from(Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 5)))
                                         .to(Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 2)))
                                         .build();
-                        when(productRepository.findAllById(Set.of(ACTIVE_PRODUCT_ID)))
-                                        .thenReturn(List.of(productWithId(ACTIVE_PRODUCT_ID)));
-                        when(productRepository.releaseProduct(ACTIVE_PRODUCT_ID, 3)).thenReturn(1);
+                        when(productRepository.applyStockDeltas(any())).thenReturn(Set.of());
 
                         // Act
                         productService.adjustStock(request);
 
                         // Assert
-                        verify(productRepository).releaseProduct(ACTIVE_PRODUCT_ID, 3);
-                        verify(productRepository, never()).reserveProduct(any(), any());
+                        verify(productRepository).applyStockDeltas(new TreeMap<>(Map.of(ACTIVE_PRODUCT_ID, -3)));
+                }
+
+                @Test
+                @DisplayName("adjustStock 數量不變的商品不異動庫存，但仍須存在")
+                void adjustStock_WhenQuantityUnchanged_ShouldOnlyCheckExistence() {
+                        // Arrange
+                        AdjustStockRequest request = AdjustStockRequest.builder()
+                                        .from(Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 2)))
+                                        .to(Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 2)))
+                                        .build();
+                        when(productRepository.findAllById(Set.of(ACTIVE_PRODUCT_ID)))
+                                        .thenReturn(List.of());
+
+                        // Act & Assert
+                        assertThatThrownBy(() -> productService.adjustStock(request))
+                                        .isInstanceOf(ResourceNotFoundException.class);
+                        verify(productRepository, never()).applyStockDeltas(any());
+                }
+
+                @Test
+                @DisplayName("啟用分桶時，PRODUCT 列預留失敗的已分桶商品應改由 bucket 預留")
+                void reserveStock_WhenProductStriped_ShouldFallBackToBuckets() {
+                        // Arrange
+                        appProperties.getInventory().getStriping().setEnabled(true);
+                        appProperties.getInventory().getStriping().setBucketCount(4);
+                        Set<OrderItemRequest> items = Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 2));
+                        when(productRepository.applyStockDeltas(any())).thenReturn(Set.of(ACTIVE_PRODUCT_ID));
+                        when(productRepository.findStripedProductIds(Set.of(ACTIVE_PRODUCT_ID)))
+                                        .thenReturn(Set.of(ACTIVE_PRODUCT_ID));
+                        when(productRepository.applyBucketDeltas(new TreeMap<>(Map.of(ACTIVE_PRODUCT_ID, 2)), 4))
+                                        .thenReturn(Set.of());
+
+                        // Act
+                        productService.reserveStock(items);
+
+                        // Assert
+                        verify(productRepository).applyBucketDeltas(new TreeMap<>(Map.of(ACTIVE_PRODUCT_ID, 2)), 4);
+                        verify(productRepository, never()).findAllById(any());
+                }
+
+                @Test
+                @DisplayName("關閉分桶後，已分桶商品仍應由 bucket 預留")
+                void reserveStock_WhenStripingDisabled_ShouldStillUseExistingBuckets() {
+                        // Arrange：striping.enabled 預設為 false
+                        Set<OrderItemRequest> items = Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 2));
+                        int bucketCount = appProperties.getInventory().getStriping().getBucketCount();
+                        when(productRepository.applyStockDeltas(any())).thenReturn(Set.of(ACTIVE_PRODUCT_ID));
+                        when(productRepository.findStripedProductIds(Set.of(ACTIVE_PRODUCT_ID)))
+                                        .thenReturn(Set.of(ACTIVE_PRODUCT_ID));
+                        when(productRepository.applyBucketDeltas(new TreeMap<>(Map.of(ACTIVE_PRODUCT_ID, 2)),
+                                        bucketCount)).thenReturn(Set.of());
+
+                        // Act
+                        productService.reserveStock(items);
+
+                        // Assert
+                        verify(productRepository).applyBucketDeltas(new TreeMap<>(Map.of(ACTIVE_PRODUCT_ID, 2)),
+                                        bucketCount);
+                }
+
+                @Test
+                @DisplayName("未分桶商品預留失敗時，不應套用 bucket")
+                void reserveStock_WhenProductNotStriped_ShouldNotTouchBuckets() {
+                        // Arrange
+                        Set<OrderItemRequest> items = Set.of(new OrderItemRequest(ACTIVE_PRODUCT_ID, 2));
+                        when(productRepository.applyStockDeltas(any())).thenReturn(Set.of(ACTIVE_PRODUCT_ID));
+                        when(productRepository.findStripedProductIds(Set.of(ACTIVE_PRODUCT_ID))).thenReturn(Set.of());
+                        when(productRepository.findAllById(Set.of(ACTIVE_PRODUCT_ID)))
+                                        .thenReturn(List.of(productWithId(ACTIVE_PRODUCT_ID)));
+
+                        // Act & Assert
+                        assertThatThrownBy(() -> productService.reserveStock(items))
+                                        .isInstanceOf(ProductStockNotEnoughException.class);
+                        verify(productRepository, never()).applyBucketDeltas(any(), anyInt());
                 }
 
                 private Product productWithId(Integer id) {
@@ -332,6 +445,7 @@ class ProductServiceTest {
                                         .hasFieldOrPropertyWithValue("name", newName)
                                         .hasFieldOrPropertyWithValue("price", newPrice)
                                         .hasFieldOrPropertyWithValue("available", newAvailable);
+                        verify(productCatalogCache).invalidate(eq(id), any());
                 }
 
                 @Test
@@ -428,6 +542,7 @@ class ProductServiceTest {
                                         .isInstanceOf(org.springframework.orm.ObjectOptimisticLockingFailureException.class);
 
                         verify(productRepository).softDeleteById(ACTIVE_PRODUCT_ID, 1);
+                        verify(productCatalogCache, never()).invalidate(any(), any());
                 }
         }
 
@@ -478,6 +593,48 @@ class ProductServiceTest {
                 }
         }
 
+        @Nested
+        @DisplayName("游標分頁")
+        class CursorPaginationTests {
+
+                @Test
+                @DisplayName("多取的一筆應只用來判斷 hasNext，nextCursor 帶回後應從上一頁最後一筆 ID 之後繼續查詢")
+                void getProductListByCursor_ShouldTrimExtraRowAndContinueFromLastId() {
+                        // Arrange：size = 2，repository 回傳 size + 1 筆
+                        when(productRepository.findAllProductsAfter(0, Limit.of(3))).thenReturn(List.of(
+                                        createTestProduct(1, "A", DEFAULT_PRICE, STATUS_SELLABLE, DEFAULT_STOCK),
+                                        createTestProduct(2, "B", DEFAULT_PRICE, STATUS_SELLABLE, DEFAULT_STOCK),
+                                        createTestProduct(3, "C", DEFAULT_PRICE, STATUS_SELLABLE, DEFAULT_STOCK)));
+                        when(productRepository.findAllProductsAfter(2, Limit.of(3))).thenReturn(List.of(
+                                        createTestProduct(3, "C", DEFAULT_PRICE, STATUS_SELLABLE, DEFAULT_STOCK)));
+
+                        // Act
+                        CursorPageResponse<GetProductListResponse> firstPage = productService
+                                        .getProductListByCursor(CursorPageRequest.of(null, 2));
+                        CursorPageResponse<GetProductListResponse> secondPage = productService
+                                        .getProductListByCursor(CursorPageRequest.of(firstPage.nextCursor(), 2));
+
+                        // Assert
+                        assertThat(firstPage.content()).extracting(GetProductListResponse::id).containsExactly(1, 2);
+                        assertThat(firstPage.hasNext()).isTrue();
+                        assertThat(secondPage.content()).extracting(GetProductListResponse::id).containsExactly(3);
+                        assertThat(secondPage.hasNext()).isFalse();
+                        assertThat(secondPage.nextCursor()).isNull();
+                }
+
+                @ParameterizedTest(name = "[{index}] after={0}, size={1}")
+                @CsvSource({
+                                "not-a-cursor, 20",
+                                ", 0",
+                                ", 101"
+                })
+                @DisplayName("游標格式錯誤或每頁筆數超出範圍，應拋出 InvalidRequestException")
+                void cursorPageRequest_WhenInvalid_ShouldThrowException(String after, int size) {
+                        assertThatThrownBy(() -> CursorPageRequest.of(after, size))
+                                        .isInstanceOf(InvalidRequestException.class);
+                }
+        }
+
         // --- Helper Methods ---
         private Product createTestProduct(Integer id, String name, BigDecimal price, Integer saleStatus,
                         Integer available) {